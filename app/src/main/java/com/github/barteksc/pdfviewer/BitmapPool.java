@@ -0,0 +1,139 @@
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Pool of the bitmaps of the rendered parts, keyed by their size and config.
+ * <p>
+ * Parts evicted from the {@link CacheManager} give their bitmap back to the pool, and the
+ * {@link RenderingHandler} takes a bitmap of the same size from it instead of allocating a new one.
+ * The pooled bitmaps are capped to a number of bytes, the least recently released bitmaps are
+ * recycled first when the cap is exceeded.
+ */
+class BitmapPool {
+
+    private final long maxSizeBytes;
+
+    private final Map<Long, ArrayDeque<Bitmap>> bitmapsByKey = new HashMap<>();
+
+    /** All the pooled bitmaps, the least recently released first */
+    private final LinkedHashSet<Bitmap> releaseOrder = new LinkedHashSet<>();
+
+    private long sizeBytes = 0;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    BitmapPool(long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Take a pooled bitmap of the given size and config.
+     *
+     * @return the bitmap, with the content of its last use, or null if there is none
+     */
+    @Nullable
+    synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+        ArrayDeque<Bitmap> bitmaps = bitmapsByKey.get(key(width, height, config));
+        Bitmap bitmap = bitmaps != null ? bitmaps.pollLast() : null;
+        if (bitmap == null) {
+            misses++;
+            return null;
+        }
+        releaseOrder.remove(bitmap);
+        sizeBytes -= bitmap.getAllocationByteCount();
+        hits++;
+        return bitmap;
+    }
+
+    /**
+     * Give a bitmap back to the pool, it must not be used anymore by the caller.
+     * The bitmap is recycled if it can't be reused.
+     */
+    synchronized void release(Bitmap bitmap) {
+        if (bitmap.isRecycled() || releaseOrder.contains(bitmap)) {
+            return;
+        }
+        int byteCount = bitmap.getAllocationByteCount();
+        if (!bitmap.isMutable() || bitmap.getConfig() == null || byteCount > maxSizeBytes) {
+            bitmap.recycle();
+            return;
+        }
+        long key = key(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+        ArrayDeque<Bitmap> bitmaps = bitmapsByKey.get(key);
+        if (bitmaps == null) {
+            bitmaps = new ArrayDeque<>();
+            bitmapsByKey.put(key, bitmaps);
+        }
+        bitmaps.addLast(bitmap);
+        releaseOrder.add(bitmap);
+        sizeBytes += byteCount;
+        evictions += trimToSize(maxSizeBytes);
+    }
+
+    /** Recycle all the pooled bitmaps */
+    synchronized void clear() {
+        trimToSize(0);
+    }
+
+    synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    synchronized int getCount() {
+        return releaseOrder.size();
+    }
+
+    /** Number of bitmaps taken from the pool */
+    synchronized long getHits() {
+        return hits;
+    }
+
+    /** Number of bitmaps requested that were not in the pool */
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    /** Number of bitmaps recycled to keep the pool under its cap */
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of bitmaps recycled
+     */
+    private int trimToSize(long maxSize) {
+        int recycled = 0;
+        Iterator<Bitmap> iterator = releaseOrder.iterator();
+        while (sizeBytes > maxSize && iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            iterator.remove();
+            long key = key(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+            ArrayDeque<Bitmap> bitmaps = bitmapsByKey.get(key);
+            bitmaps.remove(bitmap);
+            if (bitmaps.isEmpty()) {
+                bitmapsByKey.remove(key);
+            }
+            sizeBytes -= bitmap.getAllocationByteCount();
+            recycled++;
+            bitmap.recycle();
+        }
+        return recycled;
+    }
+
+    private static long key(int width, int height, Bitmap.Config config) {
+        return ((long) width << 32) | ((long) height << 8) | config.ordinal();
+    }
+}
@@ -16,95 +16,165 @@
 package com.github.barteksc.pdfviewer;
 
 import android.graphics.RectF;
-import androidx.annotation.Nullable;
 
 import com.github.barteksc.pdfviewer.model.PagePart;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.TreeSet;
 
+import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_MEMORY_RATIO;
 import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_SIZE;
+import static com.github.barteksc.pdfviewer.util.Constants.Cache.MAX_THUMBNAILS_CACHE_SIZE;
 import static com.github.barteksc.pdfviewer.util.Constants.Cache.THUMBNAILS_CACHE_SIZE;
+import static com.github.barteksc.pdfviewer.util.Constants.Cache.THUMBNAILS_MEMORY_RATIO;
 
+/**
+ * Cache of the rendered parts and thumbnails.
+ * <p>
+ * Parts are indexed by their page and page relative bounds, so looking up a part is done in
+ * constant time. They are also kept sorted by cache order, in a passive set for the parts of the
+ * previous loads and an active set for the parts of the current load, and evicted from the
+ * lowest cache order of the passive set first. Both the number of parts and their size in bytes
+ * are capped, and the bitmaps of the evicted parts are given back to the {@link BitmapPool}.
+ */
 class CacheManager {
 
-    private final PriorityQueue<PagePart> passiveCache;
+    private final Map<PagePart, Entry> parts = new HashMap<>();
 
-    private final PriorityQueue<PagePart> activeCache;
+    private final TreeSet<Entry> passiveCache = new TreeSet<>(new EntryComparator());
 
-    private final List<PagePart> thumbnails;
+    private final TreeSet<Entry> activeCache = new TreeSet<>(new EntryComparator());
+
+    /** Thumbnails, the least recently cached first */
+    private final LinkedHashMap<PagePart, PagePart> thumbnails = new LinkedHashMap<>();
 
     private final Object passiveActiveLock = new Object();
 
-    private final PagePartComparator orderComparator = new PagePartComparator();
+    private final BitmapPool bitmapPool;
+
+    private final long maxPartsSizeBytes;
+
+    private final long maxThumbnailsSizeBytes;
+
+    private int thumbnailsCacheSize = THUMBNAILS_CACHE_SIZE;
+
+    private long partsSizeBytes = 0;
 
-    public CacheManager() {
-        activeCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
-        passiveCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
-        thumbnails = new ArrayList<>();
+    private long thumbnailsSizeBytes = 0;
+
+    private long sequence = 0;
+
+    public CacheManager(BitmapPool bitmapPool) {
+        this(bitmapPool,
+                (long) (Runtime.getRuntime().maxMemory() * CACHE_MEMORY_RATIO),
+                (long) (Runtime.getRuntime().maxMemory() * THUMBNAILS_MEMORY_RATIO));
+    }
+
+    CacheManager(BitmapPool bitmapPool, long maxPartsSizeBytes, long maxThumbnailsSizeBytes) {
+        this.bitmapPool = bitmapPool;
+        this.maxPartsSizeBytes = maxPartsSizeBytes;
+        this.maxThumbnailsSizeBytes = maxThumbnailsSizeBytes;
     }
 
     public void cachePart(PagePart part) {
         synchronized (passiveActiveLock) {
-            // If cache too big, remove and recycle
-            makeAFreeSpace();
+            Entry existing = parts.get(part);
+            if (existing != null) {
+                // Already rendered, keep the cached one
+                promote(existing, part.getCacheOrder());
+                bitmapPool.release(part.getRenderedBitmap());
+                return;
+            }
+
+            // If cache too big, remove and give back to the pool
+            long byteCount = part.getRenderedBitmap().getAllocationByteCount();
+            makeAFreeSpace(byteCount);
 
             // Then add part
-            activeCache.offer(part);
+            Entry entry = new Entry(part, byteCount, sequence++);
+            parts.put(part, entry);
+            activeCache.add(entry);
+            partsSizeBytes += byteCount;
         }
     }
 
     public void makeANewSet() {
         synchronized (passiveActiveLock) {
+            for (Entry entry : activeCache) {
+                entry.active = false;
+            }
             passiveCache.addAll(activeCache);
             activeCache.clear();
         }
     }
 
-    private void makeAFreeSpace() {
-        synchronized (passiveActiveLock) {
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !passiveCache.isEmpty()) {
-                PagePart part = passiveCache.poll();
-                part.getRenderedBitmap().recycle();
-            }
+    private void makeAFreeSpace(long byteCount) {
+        while (!parts.isEmpty() && (parts.size() >= CACHE_SIZE
+                || partsSizeBytes + byteCount > maxPartsSizeBytes)) {
+            Entry entry = passiveCache.isEmpty() ? activeCache.pollFirst() : passiveCache.pollFirst();
+            parts.remove(entry.part);
+            partsSizeBytes -= entry.byteCount;
+            bitmapPool.release(entry.part.getRenderedBitmap());
+        }
+    }
 
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !activeCache.isEmpty()) {
-                activeCache.poll().getRenderedBitmap().recycle();
-            }
+    /**
+     * Set the number of thumbnails kept for a document of the given number of pages
+     */
+    public void setPagesCount(int pagesCount) {
+        synchronized (thumbnails) {
+            thumbnailsCacheSize = Math.max(THUMBNAILS_CACHE_SIZE,
+                    Math.min(pagesCount, MAX_THUMBNAILS_CACHE_SIZE));
+            makeAFreeThumbnailSpace(0);
         }
     }
 
     public void cacheThumbnail(PagePart part) {
         synchronized (thumbnails) {
-            // If cache too big, remove and recycle
-            while (thumbnails.size() >= THUMBNAILS_CACHE_SIZE) {
-                thumbnails.remove(0).getRenderedBitmap().recycle();
+            if (thumbnails.containsKey(part)) {
+                bitmapPool.release(part.getRenderedBitmap());
+                return;
             }
 
+            // If cache too big, remove and give back to the pool
+            long byteCount = part.getRenderedBitmap().getAllocationByteCount();
+            makeAFreeThumbnailSpace(byteCount);
+
             // Then add thumbnail
-            addWithoutDuplicates(thumbnails, part);
+            thumbnails.put(part, part);
+            thumbnailsSizeBytes += byteCount;
         }
+    }
 
+    private void makeAFreeThumbnailSpace(long byteCount) {
+        Iterator<PagePart> iterator = thumbnails.values().iterator();
+        while (iterator.hasNext() && (thumbnails.size() >= thumbnailsCacheSize
+                || thumbnailsSizeBytes + byteCount > maxThumbnailsSizeBytes)) {
+            PagePart thumbnail = iterator.next();
+            iterator.remove();
+            thumbnailsSizeBytes -= thumbnail.getRenderedBitmap().getAllocationByteCount();
+            bitmapPool.release(thumbnail.getRenderedBitmap());
+        }
     }
 
     public boolean upPartIfContained(int page, RectF pageRelativeBounds, int toOrder) {
         PagePart fakePart = new PagePart(page, null, pageRelativeBounds, false, 0);
 
-        PagePart found;
         synchronized (passiveActiveLock) {
-            if ((found = find(passiveCache, fakePart)) != null) {
-                passiveCache.remove(found);
-                found.setCacheOrder(toOrder);
-                activeCache.offer(found);
-                return true;
+            Entry found = parts.get(fakePart);
+            if (found == null) {
+                return false;
             }
-
-            return find(activeCache, fakePart) != null;
+            if (!found.active) {
+                promote(found, toOrder);
+            }
+            return true;
         }
     }
 
@@ -114,78 +184,96 @@ class CacheManager {
     public boolean containsThumbnail(int page, RectF pageRelativeBounds) {
         PagePart fakePart = new PagePart(page, null, pageRelativeBounds, true, 0);
         synchronized (thumbnails) {
-            for (PagePart part : thumbnails) {
-                if (part.equals(fakePart)) {
-                    return true;
-                }
-            }
-            return false;
+            return thumbnails.containsKey(fakePart);
         }
     }
 
     /**
-     * Add part if it doesn't exist, recycle bitmap otherwise
+     * Move the entry to the active set with the given cache order
      */
-    private void addWithoutDuplicates(Collection<PagePart> collection, PagePart newPart) {
-        for (PagePart part : collection) {
-            if (part.equals(newPart)) {
-                newPart.getRenderedBitmap().recycle();
-                return;
+    private void promote(Entry entry, int toOrder) {
+        (entry.active ? activeCache : passiveCache).remove(entry);
+        entry.part.setCacheOrder(toOrder);
+        entry.active = true;
+        activeCache.add(entry);
+    }
+
+    public List<PagePart> getPageParts() {
+        synchronized (passiveActiveLock) {
+            List<PagePart> result = new ArrayList<>(parts.size());
+            for (Entry entry : passiveCache) {
+                result.add(entry.part);
+            }
+            for (Entry entry : activeCache) {
+                result.add(entry.part);
             }
+            return result;
         }
-        collection.add(newPart);
     }
 
-    @Nullable
-    private static PagePart find(PriorityQueue<PagePart> vector, PagePart fakePart) {
-        for (PagePart part : vector) {
-            if (part.equals(fakePart)) {
-                return part;
-            }
+    public List<PagePart> getThumbnails() {
+        synchronized (thumbnails) {
+            return new ArrayList<>(thumbnails.values());
         }
-        return null;
     }
 
-    public List<PagePart> getPageParts() {
+    /** Size of the bitmaps of the cached parts, in bytes */
+    long getPartsSizeBytes() {
         synchronized (passiveActiveLock) {
-            List<PagePart> parts = new ArrayList<>(passiveCache);
-            parts.addAll(activeCache);
-            return parts;
+            return partsSizeBytes;
         }
     }
 
-    public List<PagePart> getThumbnails() {
+    /** Size of the bitmaps of the cached thumbnails, in bytes */
+    long getThumbnailsSizeBytes() {
         synchronized (thumbnails) {
-            return thumbnails;
+            return thumbnailsSizeBytes;
         }
     }
 
     public void recycle() {
         synchronized (passiveActiveLock) {
-            for (PagePart part : passiveCache) {
+            for (PagePart part : parts.keySet()) {
                 part.getRenderedBitmap().recycle();
             }
+            parts.clear();
             passiveCache.clear();
-            for (PagePart part : activeCache) {
-                part.getRenderedBitmap().recycle();
-            }
             activeCache.clear();
+            partsSizeBytes = 0;
         }
         synchronized (thumbnails) {
-            for (PagePart part : thumbnails) {
+            for (PagePart part : thumbnails.values()) {
                 part.getRenderedBitmap().recycle();
             }
             thumbnails.clear();
+            thumbnailsSizeBytes = 0;
         }
+        bitmapPool.clear();
     }
 
-    class PagePartComparator implements Comparator<PagePart> {
+    private static class Entry {
+
+        final PagePart part;
+
+        final long byteCount;
+
+        /** Breaks the ties between parts of the same cache order, the first cached first */
+        final long sequence;
+
+        boolean active = true;
+
+        Entry(PagePart part, long byteCount, long sequence) {
+            this.part = part;
+            this.byteCount = byteCount;
+            this.sequence = sequence;
+        }
+    }
+
+    private static class EntryComparator implements Comparator<Entry> {
         @Override
-        public int compare(PagePart part1, PagePart part2) {
-            if (part1.getCacheOrder() == part2.getCacheOrder()) {
-                return 0;
-            }
-            return part1.getCacheOrder() > part2.getCacheOrder() ? 1 : -1;
+        public int compare(Entry entry1, Entry entry2) {
+            int order = Integer.compare(entry1.part.getCacheOrder(), entry2.part.getCacheOrder());
+            return order != 0 ? order : Long.compare(entry1.sequence, entry2.sequence);
         }
     }
 
@@ -132,6 +132,9 @@ public class PDFView extends RelativeLayout {
 
     private ScrollDir scrollDir = ScrollDir.NONE;
 
+    /** Bitmaps of the parts evicted from the cache, to be reused by the rendering handler */
+    BitmapPool bitmapPool;
+
     /** Rendered parts go to the cache manager */
     CacheManager cacheManager;
 
@@ -250,7 +253,8 @@ public class PDFView extends RelativeLayout {
             return;
         }
 
-        cacheManager = new CacheManager();
+        bitmapPool = new BitmapPool(Constants.Cache.BITMAP_POOL_SIZE);
+        cacheManager = new CacheManager(bitmapPool);
         animationManager = new AnimationManager(this);
         dragPinchManager = new DragPinchManager(this, animationManager);
         pagesLoader = new PagesLoader(this);
@@ -728,6 +732,7 @@ public class PDFView extends RelativeLayout {
         state = State.LOADED;
 
         this.pdfFile = pdfFile;
+        cacheManager.setPagesCount(pdfFile.getPagesCount());
 
         if (!renderingHandlerThread.isAlive()) {
             renderingHandlerThread.start();
@@ -97,12 +97,18 @@ class RenderingHandler extends Handler {
             return null;
         }
 
-        Bitmap render;
-        try {
-            render = Bitmap.createBitmap(w, h, renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565);
-        } catch (IllegalArgumentException e) {
-            Log.e(TAG, "Cannot create bitmap", e);
-            return null;
+        Bitmap.Config config = renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
+        Bitmap render = pdfView.bitmapPool.acquire(w, h, config);
+        if (render != null) {
+            // same content as a new bitmap
+            render.eraseColor(Color.TRANSPARENT);
+        } else {
+            try {
+                render = Bitmap.createBitmap(w, h, config);
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Cannot create bitmap", e);
+                return null;
+            }
         }
         calculateBounds(w, h, renderingTask.bounds);
 
@@ -77,4 +77,14 @@ public class PagePart {
                 && part.getPageRelativeBounds().bottom == pageRelativeBounds.bottom;
     }
 
+    @Override
+    public int hashCode() {
+        int result = page;
+        result = 31 * result + Float.floatToIntBits(pageRelativeBounds.left);
+        result = 31 * result + Float.floatToIntBits(pageRelativeBounds.top);
+        result = 31 * result + Float.floatToIntBits(pageRelativeBounds.right);
+        result = 31 * result + Float.floatToIntBits(pageRelativeBounds.bottom);
+        return result;
+    }
+
 }
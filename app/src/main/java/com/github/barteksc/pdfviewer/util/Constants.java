@@ -37,7 +37,19 @@ public class Constants {
         /** The size of the cache (number of bitmaps kept) */
         public static int CACHE_SIZE = 120;
 
+        /** The minimum number of thumbnails kept, it grows with the number of pages up to the maximum */
         public static int THUMBNAILS_CACHE_SIZE = 8;
+
+        public static int MAX_THUMBNAILS_CACHE_SIZE = 32;
+
+        /** Ratio of the maximum memory of the app that the cached parts can use */
+        public static float CACHE_MEMORY_RATIO = 0.25f;
+
+        /** Ratio of the maximum memory of the app that the cached thumbnails can use */
+        public static float THUMBNAILS_MEMORY_RATIO = 0.1f;
+
+        /** The maximum size of the bitmaps kept to be reused, in bytes */
+        public static long BITMAP_POOL_SIZE = 32 * 1024 * 1024;
     }
 
     public static class Pinch {
@@ -25,12 +25,14 @@ import mega.privacy.android.data.mapper.transfer.TransfersFinishNotificationSumm
 import mega.privacy.android.data.mapper.transfer.TransfersFinishedNotificationMapper
 import mega.privacy.android.data.mapper.transfer.TransfersNotificationMapper
 import mega.privacy.android.data.mapper.transfer.TransfersProgressNotificationSummaryBuilder
+import mega.privacy.android.domain.repository.TransferRepository
 import mega.privacy.android.domain.usecase.transfers.active.HandleChatTransferEventsUseCase
 import mega.privacy.android.domain.usecase.transfers.active.HandleDownloadTransferEventsUseCase
 import mega.privacy.android.domain.usecase.transfers.active.HandleTransferEventUseCase
 import mega.privacy.android.domain.usecase.transfers.active.HandleUnverifiedBusinessAccountTransferEventUseCase
 import mega.privacy.android.domain.usecase.transfers.active.HandleUploadTransferEventsUseCase
 import mega.privacy.android.domain.usecase.transfers.active.IHandleTransferEventUseCase
+import mega.privacy.android.domain.usecase.transfers.pending.PendingTransferAdmissionScheduler
 
 /**
  * Module for transfers
@@ -130,6 +132,17 @@ abstract class TransfersModule {
 
     companion object {
 
+        /**
+         * Provides a new [PendingTransferAdmissionScheduler] for each use case starting pending transfers
+         */
+        @Provides
+        fun providePendingTransferAdmissionScheduler(
+            transferRepository: TransferRepository,
+        ): PendingTransferAdmissionScheduler = PendingTransferAdmissionScheduler(
+            transferRepository = transferRepository,
+            maxConcurrentAdmissions = PendingTransferAdmissionScheduler.DEFAULT_MAX_CONCURRENT_ADMISSIONS,
+        )
+
         /**
          * Provides download notification channel
          */
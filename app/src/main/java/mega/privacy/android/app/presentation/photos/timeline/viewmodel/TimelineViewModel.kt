@@ -11,6 +11,7 @@ import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.collectLatest
 import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.onStart
 import kotlinx.coroutines.flow.update
@@ -32,10 +33,7 @@ import mega.privacy.android.app.presentation.photos.model.ZoomLevel
 import mega.privacy.android.app.presentation.photos.timeline.model.CameraUploadsStatus
 import mega.privacy.android.app.presentation.photos.timeline.model.PhotoListItem
 import mega.privacy.android.app.presentation.photos.timeline.model.TimelineViewState
-import mega.privacy.android.app.presentation.photos.util.createDaysCardList
-import mega.privacy.android.app.presentation.photos.util.createMonthsCardList
-import mega.privacy.android.app.presentation.photos.util.createYearsCardList
-import mega.privacy.android.app.presentation.photos.util.groupPhotosByDay
+import mega.privacy.android.app.presentation.photos.util.TimelineDateIndex
 import mega.privacy.android.domain.entity.Progress
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.account.EnableCameraUploadsStatus.CAN_ENABLE_CAMERA_UPLOADS
@@ -50,6 +48,7 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoChanges
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
 import mega.privacy.android.domain.qualifier.DefaultDispatcher
 import mega.privacy.android.domain.qualifier.IoDispatcher
@@ -70,9 +69,9 @@ import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCas
 import mega.privacy.android.domain.usecase.permisison.HasMediaPermissionUseCase
 import mega.privacy.android.domain.usecase.photos.EnableCameraUploadsInPhotosUseCase
 import mega.privacy.android.domain.usecase.photos.GetTimelineFilterPreferencesUseCase
-import mega.privacy.android.domain.usecase.photos.GetTimelinePhotosUseCase
 import mega.privacy.android.domain.usecase.photos.LoadNextPageOfPhotosUseCase
 import mega.privacy.android.domain.usecase.photos.MonitorPaginatedTimelinePhotosUseCase
+import mega.privacy.android.domain.usecase.photos.MonitorTimelinePhotoChangesUseCase
 import mega.privacy.android.domain.usecase.photos.SetTimelineFilterPreferencesUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.workers.StartCameraUploadUseCase
@@ -86,7 +85,7 @@ import kotlin.time.Duration.Companion.seconds
  * View Model for Timeline
  *
  * @property IsCameraUploadsEnabledUseCase
- * @property getTimelinePhotosUseCase
+ * @property monitorTimelinePhotoChangesUseCase
  * @property getCameraUploadPhotos
  * @property getCloudDrivePhotos
  * @property setInitialCUPreferences
@@ -104,7 +103,7 @@ import kotlin.time.Duration.Companion.seconds
 @HiltViewModel
 class TimelineViewModel @Inject constructor(
     private val isCameraUploadsEnabledUseCase: IsCameraUploadsEnabledUseCase,
-    private val getTimelinePhotosUseCase: GetTimelinePhotosUseCase,
+    private val monitorTimelinePhotoChangesUseCase: MonitorTimelinePhotoChangesUseCase,
     val getCameraUploadPhotos: FilterCameraUploadPhotos,
     val getCloudDrivePhotos: FilterCloudDrivePhotos,
     val setInitialCUPreferences: SetInitialCUPreferences,
@@ -146,6 +145,7 @@ class TimelineViewModel @Inject constructor(
     private var isCameraUploadsUploading = false
     private var showHiddenItems: Boolean? = null
     private var isPaginationEnabled: Boolean = false
+    private val timelineDateIndex = TimelineDateIndex()
 
     init {
         monitorPhotos()
@@ -200,9 +200,13 @@ class TimelineViewModel @Inject constructor(
         isPaginationEnabled = isPaginationEnabled()
 
         val monitorPhotos = if (isPaginationEnabled) {
-            monitorPaginatedTimelinePhotosUseCase()
+            monitorPaginatedTimelinePhotosUseCase().map { PhotoChanges(photos = it) to null }
         } else {
-            getTimelinePhotosUseCase()
+            var previousPhotos: List<Photo>? = null
+            // Paired here, as collectLatest may skip some changes
+            monitorTimelinePhotoChangesUseCase().map { changes ->
+                (changes to previousPhotos).also { previousPhotos = changes.photos }
+            }
         }
 
         monitorPhotos
@@ -210,7 +214,7 @@ class TimelineViewModel @Inject constructor(
                 Timber.e(throwable)
             }
             .onStart { loadPhotos() }
-            .collectLatest(::handlePhotos)
+            .collectLatest { (changes, previousPhotos) -> handlePhotos(changes, previousPhotos) }
     }
 
     private fun monitorCameraUploadsStatus() = viewModelScope.launch {
@@ -349,14 +353,24 @@ class TimelineViewModel @Inject constructor(
         }
     }
 
-    private suspend fun handlePhotos(photos: List<Photo>) {
+    private suspend fun handlePhotos(changes: PhotoChanges, previousPhotos: List<Photo>?) {
+        val photos = changes.photos
         Timber.v("TimelineViewModel photos flow=>" + photos.size)
         handleTimelinePhotosUseCase()
 
-        val showingPhotos = withContext(defaultDispatcher) { filterMedias(photos) }
+        val (showingPhotos, showingChanges) = withContext(defaultDispatcher) {
+            filterMedias(photos) to previousPhotos?.let { previous ->
+                TimelineDateIndex.Changes(
+                    previousSourcePhotos = previous,
+                    removedIds = changes.removedIds + changes.updatedPhotos.map { it.id },
+                    addedPhotos = filterMedias(changes.addedPhotos + changes.updatedPhotos),
+                )
+            }
+        }
         handleAndUpdatePhotosUIState(
             sourcePhotos = photos,
-            showingPhotos = showingPhotos
+            showingPhotos = showingPhotos,
+            showingChanges = showingChanges,
         )
     }
 
@@ -467,8 +481,18 @@ class TimelineViewModel @Inject constructor(
     internal fun handleAndUpdatePhotosUIState(
         sourcePhotos: List<Photo>,
         showingPhotos: List<Photo>,
+        showingChanges: TimelineDateIndex.Changes? = null,
     ) = viewModelScope.launch(defaultDispatcher) {
+        val dateFilter = _state.value.applyFilterMediaType to isHidingSensitivePhotos()
+        val newestFirst = _state.value.currentSort == Sort.NEWEST
         val nonSensitivePhotos = filterNonSensitivePhotos(showingPhotos)
+        val nonSensitiveChanges = showingChanges?.let {
+            TimelineDateIndex.Changes(
+                previousSourcePhotos = it.previousSourcePhotos,
+                removedIds = it.removedIds,
+                addedPhotos = filterNonSensitivePhotos(it.addedPhotos),
+            )
+        }
         val sortedPhotos = sortPhotos(nonSensitivePhotos)
         val isCameraUploadsEnabled = isCameraUploadsEnabledUseCase()
 
@@ -479,26 +503,24 @@ class TimelineViewModel @Inject constructor(
             }
         }
 
-        val dayPhotos = groupPhotosByDay(sortedPhotos = sortedPhotos)
-
         async {
-            val items = createYearsCardList(dayPhotos = dayPhotos)
-            _state.update {
-                it.copy(yearsCardPhotos = items)
-            }
-        }
-
-        async {
-            val items = createMonthsCardList(dayPhotos = dayPhotos)
-            _state.update {
-                it.copy(monthsCardPhotos = items)
+            val dateCards = if (isPaginationEnabled) {
+                timelineDateIndex.getDateCards(sortedPhotos = sortedPhotos)
+            } else {
+                timelineDateIndex.getDateCards(
+                    sortedPhotos = sortedPhotos,
+                    newestFirst = newestFirst,
+                    filter = dateFilter,
+                    sourcePhotos = sourcePhotos,
+                    changes = nonSensitiveChanges,
+                )
             }
-        }
-
-        async {
-            val items = createDaysCardList(dayPhotos = dayPhotos)
             _state.update {
-                it.copy(daysCardPhotos = items)
+                it.copy(
+                    yearsCardPhotos = dateCards.yearsCards,
+                    monthsCardPhotos = dateCards.monthsCards,
+                    daysCardPhotos = dateCards.daysCards,
+                )
             }
         }
 
@@ -570,15 +592,17 @@ class TimelineViewModel @Inject constructor(
         }
     }
 
-    private fun filterNonSensitivePhotos(photos: List<Photo>): List<Photo> {
-        val showHiddenItems = showHiddenItems ?: return photos
-        val isPaid = _state.value.accountType?.isPaid ?: return photos
-
-        return if (showHiddenItems || !isPaid || _state.value.isBusinessAccountExpired) {
-            photos
-        } else {
+    private fun filterNonSensitivePhotos(photos: List<Photo>): List<Photo> =
+        if (isHidingSensitivePhotos()) {
             photos.filter { !it.isSensitive && !it.isSensitiveInherited }
+        } else {
+            photos
         }
+
+    private fun isHidingSensitivePhotos(): Boolean {
+        val showHiddenItems = showHiddenItems ?: return false
+        val isPaid = _state.value.accountType?.isPaid ?: return false
+        return !showHiddenItems && isPaid && !_state.value.isBusinessAccountExpired
     }
 
     /**
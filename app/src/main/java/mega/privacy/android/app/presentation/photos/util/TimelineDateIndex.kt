@@ -0,0 +1,231 @@
+package mega.privacy.android.app.presentation.photos.util
+
+import mega.privacy.android.app.presentation.photos.model.DateCard
+import mega.privacy.android.domain.entity.photos.Photo
+import java.util.TreeMap
+
+/**
+ * Date cards of the timeline photos
+ *
+ * @property yearsCards a card for each year
+ * @property monthsCards a card for each month
+ * @property daysCards a card for each day, with its number of photos
+ */
+internal data class TimelineDateCards(
+    val yearsCards: List<DateCard>,
+    val monthsCards: List<DateCard>,
+    val daysCards: List<DateCard>,
+)
+
+/**
+ * Day, month and year buckets of the timeline photos, to create its date cards
+ *
+ * The photos are grouped in day buckets, the month and year buckets are then created from the day
+ * buckets. Photos of the same day are usually next to each other, so a photo is only looked up by
+ * day when its day is not the one of the previous photo.
+ *
+ * The day buckets of the photos shown last are kept with the filter showing them. When the photos
+ * of the timeline change, the photos added, updated and removed are applied to the buckets of
+ * their days, and only the cards of these days are created again. The buckets are created again
+ * from all the photos shown when the filter changes, or when the changes can't be applied: they
+ * don't follow the photos of the buckets, or the buckets don't have as many photos as the photos
+ * shown once they are applied.
+ *
+ * All the functions are thread safe.
+ *
+ * @param labels returns the labels of the cards
+ */
+internal class TimelineDateIndex(
+    private val labels: () -> TimelineDateLabels = { TimelineDateLabels.current() },
+) {
+
+    /**
+     * Changes of the photos shown, from the previous photos of the timeline
+     *
+     * @property previousSourcePhotos all the photos of the timeline before the changes
+     * @property removedIds ids of the photos removed or updated
+     * @property addedPhotos photos shown that have been added or updated
+     */
+    class Changes(
+        val previousSourcePhotos: List<Photo>,
+        val removedIds: Set<Long>,
+        val addedPhotos: List<Photo>,
+    )
+
+    private class DayBucket(val key: Int) {
+        val photos = ArrayList<Photo>()
+        var card: DateCard? = null
+    }
+
+    /**
+     * Day buckets of the photos shown with a filter, in the order of the photos
+     */
+    private class Buckets(
+        val filter: Any,
+        val newestFirst: Boolean,
+        val labels: TimelineDateLabels,
+        var sourcePhotos: List<Photo>,
+    ) {
+        val comparator = if (newestFirst) NEWEST_FIRST else OLDEST_FIRST
+        val days = TreeMap<Int, DayBucket>(if (newestFirst) reverseOrder() else naturalOrder())
+        val photosById = HashMap<Long, Photo>()
+        var cards = TimelineDateCards(emptyList(), emptyList(), emptyList())
+
+        val size: Int
+            get() = photosById.size
+
+        fun addAll(sortedPhotos: List<Photo>) {
+            var previous: DayBucket? = null
+            sortedPhotos.forEach { photo ->
+                val key = TimelineDateLabels.dayKey(photo.modificationTime)
+                val day = previous?.takeIf { it.key == key } ?: days.getOrPut(key) {
+                    DayBucket(key)
+                }
+                day.photos.add(photo)
+                photosById[photo.id] = photo
+                previous = day
+            }
+        }
+
+        fun applyChanges(changes: Changes) {
+            changes.removedIds.forEach { id -> photosById.remove(id)?.let { removeFromDay(it) } }
+            changes.addedPhotos.forEach { photo ->
+                photosById.put(photo.id, photo)?.let { removeFromDay(it) }
+                val key = TimelineDateLabels.dayKey(photo.modificationTime)
+                val day = days.getOrPut(key) { DayBucket(key) }
+                val position = day.photos.binarySearch(photo, comparator)
+                day.photos.add(if (position < 0) -(position + 1) else position, photo)
+                day.card = null
+            }
+        }
+
+        private fun removeFromDay(photo: Photo) {
+            val key = TimelineDateLabels.dayKey(photo.modificationTime)
+            val day = days[key] ?: return
+            val position = day.photos.binarySearch(photo, comparator)
+            if (position < 0) return
+            day.photos.removeAt(position)
+            day.card = null
+            if (day.photos.isEmpty()) days.remove(key)
+        }
+    }
+
+    private var buckets: Buckets? = null
+
+    /**
+     * Date cards of photos that are not filtered from the timeline photos, created from all of them
+     *
+     * @param sortedPhotos the photos, sorted by modification time
+     * @return the date cards of the photos, in the order of the photos
+     */
+    fun getDateCards(sortedPhotos: List<Photo>): TimelineDateCards =
+        createCards(groupByDay(sortedPhotos), labels())
+
+    /**
+     * Date cards of the photos shown by the timeline, applying the changes to the photos shown
+     * before with the same filter when possible
+     *
+     * @param sortedPhotos the photos shown, sorted by modification time
+     * @param newestFirst true if the most recent photos are the first ones
+     * @param filter the filter of the photos shown, equal filters show the same photos
+     * @param sourcePhotos all the photos of the timeline, where the photos shown are filtered from
+     * @param changes the changes of the photos shown since the previous photos of the timeline
+     * @return the date cards of the photos, in the order of the photos
+     */
+    fun getDateCards(
+        sortedPhotos: List<Photo>,
+        newestFirst: Boolean,
+        filter: Any,
+        sourcePhotos: List<Photo>,
+        changes: Changes? = null,
+    ): TimelineDateCards {
+        val labels = labels()
+        synchronized(this) {
+            val current = buckets?.takeIf {
+                it.filter == filter && it.newestFirst == newestFirst && it.labels === labels
+            }
+            if (current != null) {
+                if (current.sourcePhotos === sourcePhotos && current.size == sortedPhotos.size) {
+                    return current.cards
+                }
+                if (changes != null && changes.previousSourcePhotos === current.sourcePhotos) {
+                    current.applyChanges(changes)
+                    if (current.size == sortedPhotos.size) {
+                        current.sourcePhotos = sourcePhotos
+                        current.cards = createCards(current.days.values, labels)
+                        return current.cards
+                    }
+                }
+            }
+            return Buckets(filter, newestFirst, labels, sourcePhotos).also {
+                it.addAll(sortedPhotos)
+                it.cards = createCards(it.days.values, labels)
+                buckets = it
+            }.cards
+        }
+    }
+
+    /**
+     * Drop the buckets kept
+     */
+    fun clear() = synchronized(this) { buckets = null }
+
+    private fun groupByDay(sortedPhotos: List<Photo>): List<DayBucket> {
+        val days = ArrayList<DayBucket>()
+        val daysByKey = HashMap<Int, DayBucket>()
+        var previous: DayBucket? = null
+        sortedPhotos.forEach { photo ->
+            val key = TimelineDateLabels.dayKey(photo.modificationTime)
+            val bucket = previous?.takeIf { it.key == key } ?: daysByKey.getOrPut(key) {
+                DayBucket(key).also { days.add(it) }
+            }
+            bucket.photos.add(photo)
+            previous = bucket
+        }
+        return days
+    }
+
+    private fun createCards(
+        days: Collection<DayBucket>,
+        labels: TimelineDateLabels,
+    ): TimelineDateCards {
+        val yearsCards = ArrayList<DateCard>()
+        val monthsCards = ArrayList<DateCard>()
+        val daysCards = ArrayList<DateCard>(days.size)
+        val years = HashSet<Int>()
+        val months = HashSet<Int>()
+        var previousYear: Int? = null
+        var previousMonth: Int? = null
+        days.forEach { day ->
+            val photo = day.photos.first()
+            val dateTime = photo.modificationTime
+            val year = dateTime.year
+            if (year != previousYear && years.add(year)) {
+                yearsCards.add(DateCard.YearsCard(date = labels.year(dateTime), photo = photo))
+            }
+            val month = day.key / 100
+            if (month != previousMonth && months.add(month)) {
+                monthsCards.add(DateCard.MonthsCard(date = labels.month(dateTime), photo = photo))
+            }
+            daysCards.add(
+                day.card ?: DateCard.DaysCard(
+                    date = labels.day(dateTime),
+                    photo = photo,
+                    photosCount = day.photos.size.toString(),
+                ).also { day.card = it }
+            )
+            previousYear = year
+            previousMonth = month
+        }
+        return TimelineDateCards(yearsCards, monthsCards, daysCards)
+    }
+
+    private companion object {
+        /**
+         * Orders of the timeline photos, the same as the sort options of the timeline
+         */
+        val NEWEST_FIRST = compareByDescending<Photo> { it.modificationTime }
+            .thenByDescending { it.id }
+        val OLDEST_FIRST = compareBy<Photo> { it.modificationTime }.thenByDescending { it.id }
+    }
+}
@@ -0,0 +1,104 @@
+package mega.privacy.android.app.presentation.photos.util
+
+import java.text.SimpleDateFormat
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.format.DateTimeFormatter
+import java.util.Date
+import java.util.Locale
+
+/**
+ * Labels of the timeline date cards
+ *
+ * The formatters are created once and each label is formatted once, so a timeline only formats
+ * as many labels as days, months and years it has. The labels depend on the locale and the current
+ * year, [current] returns new labels when any of them changes.
+ *
+ * All the functions are thread safe.
+ *
+ * @property locale locale of the labels
+ * @property currentYear year of the labels of the dates that don't show the year
+ */
+internal class TimelineDateLabels(
+    private val locale: Locale,
+    private val currentYear: Int,
+) {
+
+    private val yearFormatter = DateTimeFormatter.ofPattern(DATE_FORMAT_YEAR, locale)
+    private val dayFormatter =
+        DateTimeFormatter.ofPattern("$DATE_FORMAT_DAY $DATE_FORMAT_MONTH_WITH_DAY", locale)
+    private val dayWithYearFormatter = DateTimeFormatter.ofPattern(
+        "$DATE_FORMAT_DAY $DATE_FORMAT_MONTH_WITH_DAY $DATE_FORMAT_YEAR",
+        locale,
+    )
+    private val monthFormat = SimpleDateFormat(DATE_FORMAT_MONTH, locale)
+    private val monthWithYearFormat =
+        SimpleDateFormat("$DATE_FORMAT_MONTH $DATE_FORMAT_YEAR_WITH_MONTH", locale)
+
+    private val yearLabels = HashMap<Int, String>()
+    private val monthLabels = HashMap<Int, String>()
+    private val dayLabels = HashMap<Int, String>()
+
+    /**
+     * @return the label of the year card of this date
+     */
+    fun year(dateTime: LocalDateTime): String = synchronized(this) {
+        yearLabels.getOrPut(dateTime.year) { yearFormatter.format(dateTime) }
+    }
+
+    /**
+     * @return the label of the month card of this date
+     */
+    fun month(dateTime: LocalDateTime): String = synchronized(this) {
+        monthLabels.getOrPut(monthKey(dateTime)) {
+            val date = Date.from(
+                dateTime.toLocalDate().atStartOfDay().atZone(ZoneId.systemDefault()).toInstant()
+            )
+            if (dateTime.year == currentYear) {
+                monthFormat.format(date)
+            } else {
+                monthWithYearFormat.format(date)
+            }
+        }
+    }
+
+    /**
+     * @return the label of the day card of this date
+     */
+    fun day(dateTime: LocalDateTime): String = synchronized(this) {
+        dayLabels.getOrPut(dayKey(dateTime)) {
+            if (dateTime.year == currentYear) {
+                dayFormatter.format(dateTime)
+            } else {
+                dayWithYearFormatter.format(dateTime)
+            }
+        }
+    }
+
+    companion object {
+
+        @Volatile
+        private var current: TimelineDateLabels? = null
+
+        /**
+         * @return the labels for the default locale and the current year
+         */
+        fun current(): TimelineDateLabels {
+            val locale = Locale.getDefault()
+            val year = LocalDate.now().year
+            return current?.takeIf { it.locale == locale && it.currentYear == year }
+                ?: TimelineDateLabels(locale, year).also { current = it }
+        }
+
+        /**
+         * @return a key of the month of this date, without allocating
+         */
+        fun monthKey(dateTime: LocalDateTime) = dateTime.year * 100 + dateTime.monthValue
+
+        /**
+         * @return a key of the day of this date, without allocating
+         */
+        fun dayKey(dateTime: LocalDateTime) = monthKey(dateTime) * 100 + dateTime.dayOfMonth
+    }
+}
@@ -3,11 +3,15 @@ package mega.privacy.android.app.presentation.recentactions
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.collectLatest
 import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.debounce
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import mega.privacy.android.app.featuretoggle.ApiFeatures
@@ -16,12 +20,14 @@ import mega.privacy.android.app.presentation.recentactions.model.RecentActionsUi
 import mega.privacy.android.domain.entity.RecentActionBucket
 import mega.privacy.android.domain.entity.account.business.BusinessAccountStatus
 import mega.privacy.android.domain.usecase.GetBusinessStatusUseCase
+import mega.privacy.android.domain.usecase.MonitorContactUpdates
 import mega.privacy.android.domain.usecase.account.MonitorAccountDetailUseCase
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
 import mega.privacy.android.domain.usecase.login.MonitorFetchNodesFinishUseCase
 import mega.privacy.android.domain.usecase.network.MonitorConnectivityUseCase
 import mega.privacy.android.domain.usecase.node.MonitorNodeUpdatesUseCase
-import mega.privacy.android.domain.usecase.recentactions.GetRecentActionsUseCase
+import mega.privacy.android.domain.usecase.recentactions.RecentActionsStore
+import mega.privacy.android.domain.usecase.recentactions.RecentActionsStore.UpdateResult
 import mega.privacy.android.domain.usecase.setting.MonitorHideRecentActivityUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.setting.SetHideRecentActivityUseCase
@@ -30,10 +36,15 @@ import javax.inject.Inject
 
 /**
  * ViewModel associated to [RecentActionsComposeFragment]
+ *
+ * Node and contact updates are applied to the recent actions they affect, the recent actions are
+ * only fetched again when an update requires it, once the updates stop for
+ * [REFRESH_DEBOUNCE_MILLIS].
  */
+@OptIn(FlowPreview::class)
 @HiltViewModel
 class RecentActionsComposeViewModel @Inject constructor(
-    private val getRecentActionsUseCase: GetRecentActionsUseCase,
+    private val recentActionsStore: RecentActionsStore,
     private val setHideRecentActivityUseCase: SetHideRecentActivityUseCase,
     private val recentActionBucketUiEntityMapper: RecentActionBucketUiEntityMapper,
     monitorConnectivityUseCase: MonitorConnectivityUseCase,
@@ -44,6 +55,7 @@ class RecentActionsComposeViewModel @Inject constructor(
     monitorShowHiddenItemsUseCase: MonitorShowHiddenItemsUseCase,
     getBusinessStatusUseCase: GetBusinessStatusUseCase,
     monitorFetchNodesFinishUseCase: MonitorFetchNodesFinishUseCase,
+    monitorContactUpdates: MonitorContactUpdates,
 ) : ViewModel() {
 
     /** private mutable UI state */
@@ -57,6 +69,11 @@ class RecentActionsComposeViewModel @Inject constructor(
      */
     var selectedBucket: RecentActionBucket? = null
 
+    private val refreshRequests = MutableSharedFlow<Unit>(
+        extraBufferCapacity = 1,
+        onBufferOverflow = BufferOverflow.DROP_OLDEST,
+    )
+
     init {
         loadRecentActions()
 
@@ -66,6 +83,24 @@ class RecentActionsComposeViewModel @Inject constructor(
                     Timber.e(it)
                 }
                 .conflate()
+                .collect {
+                    applyUpdate { recentActionsStore.applyNodeUpdate(it) }
+                }
+        }
+
+        viewModelScope.launch {
+            monitorContactUpdates()
+                .catch {
+                    Timber.e(it)
+                }
+                .collect {
+                    applyUpdate { recentActionsStore.applyContactUpdate(it) }
+                }
+        }
+
+        viewModelScope.launch {
+            refreshRequests
+                .debounce(REFRESH_DEBOUNCE_MILLIS)
                 .collect {
                     val showHiddenItems = _uiState.value.showHiddenItems
                     updateRecentActions(
@@ -155,21 +190,43 @@ class RecentActionsComposeViewModel @Inject constructor(
         excludeSensitives: Boolean,
     ) {
         runCatching {
-            getRecentActionsUseCase(
+            recentActionsStore.refresh(
                 excludeSensitives = excludeSensitives,
             )
         }.onSuccess { list ->
-            val groupedRecentActions = list
-                .map { recentActionBucketUiEntityMapper(it) }
-                .groupBy { it.date }
-            _uiState.update {
-                it.copy(
-                    isLoading = false,
-                    groupedRecentActionItems = groupedRecentActions,
-                )
+            setRecentActions(list)
+        }.onFailure {
+            Timber.e(it)
+        }
+    }
+
+    /**
+     * Apply an update to the recent actions, fetching them again if the update requires it
+     */
+    private suspend fun applyUpdate(update: suspend () -> UpdateResult) {
+        runCatching {
+            update()
+        }.onSuccess { result ->
+            when (result) {
+                is UpdateResult.Updated -> setRecentActions(result.buckets)
+                UpdateResult.RefreshRequired -> refreshRequests.tryEmit(Unit)
+                UpdateResult.Unchanged -> Unit
             }
         }.onFailure {
             Timber.e(it)
+            refreshRequests.tryEmit(Unit)
+        }
+    }
+
+    private fun setRecentActions(list: List<RecentActionBucket>) {
+        val groupedRecentActions = list
+            .map { recentActionBucketUiEntityMapper(it) }
+            .groupBy { it.date }
+        _uiState.update {
+            it.copy(
+                isLoading = false,
+                groupedRecentActionItems = groupedRecentActions,
+            )
         }
     }
 
@@ -204,4 +261,11 @@ class RecentActionsComposeViewModel @Inject constructor(
         .values
         .flatten()
         .map { it.bucket }
+
+    companion object {
+        /**
+         * Time without updates to wait before fetching the recent actions again
+         */
+        const val REFRESH_DEBOUNCE_MILLIS = 1_000L
+    }
 }
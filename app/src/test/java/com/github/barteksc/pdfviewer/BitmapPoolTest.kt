@@ -0,0 +1,93 @@
+package com.github.barteksc.pdfviewer
+
+import android.graphics.Bitmap
+import com.google.common.truth.Truth.assertThat
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class BitmapPoolTest {
+    private lateinit var underTest: BitmapPool
+
+    @Before
+    fun setUp() {
+        underTest = BitmapPool(MAX_SIZE_BYTES)
+    }
+
+    @Test
+    fun `test that a released bitmap is reused for the same size and config`() {
+        val bitmap = tile()
+        underTest.release(bitmap)
+
+        assertThat(underTest.acquire(TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888))
+            .isSameInstanceAs(bitmap)
+        assertThat(underTest.hits).isEqualTo(1)
+        assertThat(underTest.sizeBytes).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a bitmap is not reused for another size or config`() {
+        underTest.release(tile())
+
+        assertThat(underTest.acquire(TILE_SIZE, TILE_SIZE * 2, Bitmap.Config.ARGB_8888)).isNull()
+        assertThat(underTest.acquire(TILE_SIZE, TILE_SIZE, Bitmap.Config.RGB_565)).isNull()
+        assertThat(underTest.misses).isEqualTo(2)
+        assertThat(underTest.count).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the least recently released bitmaps are recycled when the pool is full`() {
+        val tiles = (1..MAX_TILES + 1).map { tile() }
+
+        tiles.forEach { underTest.release(it) }
+
+        assertThat(underTest.count).isEqualTo(MAX_TILES)
+        assertThat(underTest.sizeBytes).isAtMost(MAX_SIZE_BYTES)
+        assertThat(underTest.evictions).isEqualTo(1)
+        assertThat(tiles.first().isRecycled).isTrue()
+        assertThat(tiles.drop(1).none { it.isRecycled }).isTrue()
+    }
+
+    @Test
+    fun `test that a bitmap released twice is pooled once`() {
+        val bitmap = tile()
+
+        underTest.release(bitmap)
+        underTest.release(bitmap)
+
+        assertThat(underTest.count).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that an immutable bitmap is recycled instead of pooled`() {
+        val bitmap = tile().copy(Bitmap.Config.ARGB_8888, false)
+
+        underTest.release(bitmap)
+
+        assertThat(bitmap.isRecycled).isTrue()
+        assertThat(underTest.count).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that clear recycles all the pooled bitmaps`() {
+        val tiles = (1..MAX_TILES).map { tile() }
+        tiles.forEach { underTest.release(it) }
+
+        underTest.clear()
+
+        assertThat(underTest.count).isEqualTo(0)
+        assertThat(underTest.sizeBytes).isEqualTo(0)
+        assertThat(tiles.all { it.isRecycled }).isTrue()
+        assertThat(underTest.acquire(TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888)).isNull()
+    }
+
+    private fun tile() = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888)
+
+    private companion object {
+        const val TILE_SIZE = 16
+        const val MAX_TILES = 3
+        const val MAX_SIZE_BYTES = TILE_SIZE * TILE_SIZE * 4L * MAX_TILES
+    }
+}
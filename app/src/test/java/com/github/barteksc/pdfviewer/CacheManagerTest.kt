@@ -0,0 +1,128 @@
+package com.github.barteksc.pdfviewer
+
+import android.graphics.Bitmap
+import android.graphics.RectF
+import com.github.barteksc.pdfviewer.model.PagePart
+import com.github.barteksc.pdfviewer.util.Constants
+import com.google.common.truth.Truth.assertThat
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class CacheManagerTest {
+    private lateinit var underTest: CacheManager
+
+    private lateinit var bitmapPool: BitmapPool
+
+    @Before
+    fun setUp() {
+        bitmapPool = BitmapPool(MAX_SIZE_BYTES)
+        underTest = CacheManager(bitmapPool, MAX_SIZE_BYTES, THUMBNAIL_BYTES * MAX_THUMBNAILS)
+    }
+
+    @Test
+    fun `test that a cached part is found by its page and bounds`() {
+        underTest.cachePart(part(page = 1, cacheOrder = 1))
+
+        assertThat(underTest.upPartIfContained(1, bounds(), 2)).isTrue()
+        assertThat(underTest.upPartIfContained(2, bounds(), 2)).isFalse()
+        assertThat(underTest.upPartIfContained(1, bounds(left = 0.5f), 2)).isFalse()
+    }
+
+    @Test
+    fun `test that the parts of the previous set are evicted first by cache order`() {
+        val maxTiles = Constants.Cache.CACHE_SIZE
+        val parts = (1..maxTiles).map { part(page = it, cacheOrder = it) }
+        parts.forEach { underTest.cachePart(it) }
+        underTest.makeANewSet()
+        underTest.upPartIfContained(1, bounds(), 1)
+
+        underTest.cachePart(part(page = maxTiles + 1, cacheOrder = 2))
+
+        assertThat(underTest.pageParts).hasSize(maxTiles)
+        assertThat(underTest.upPartIfContained(1, bounds(), 1)).isTrue()
+        assertThat(underTest.upPartIfContained(2, bounds(), 3)).isFalse()
+        assertThat(bitmapPool.count).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the parts are evicted when their size exceeds the budget`() {
+        underTest = CacheManager(bitmapPool, TILE_BYTES * 2, THUMBNAIL_BYTES)
+
+        (1..3).forEach { underTest.cachePart(part(page = it, cacheOrder = it)) }
+
+        assertThat(underTest.pageParts.map { it.page }).containsExactly(2, 3).inOrder()
+        assertThat(underTest.partsSizeBytes).isEqualTo(TILE_BYTES * 2)
+    }
+
+    @Test
+    fun `test that a part cached twice is kept once`() {
+        val duplicate = part(page = 1, cacheOrder = 2)
+        underTest.cachePart(part(page = 1, cacheOrder = 1))
+
+        underTest.cachePart(duplicate)
+
+        assertThat(underTest.pageParts).hasSize(1)
+        assertThat(underTest.partsSizeBytes).isEqualTo(TILE_BYTES)
+        assertThat(bitmapPool.count).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the thumbnails capacity grows with the number of pages`() {
+        underTest.setPagesCount(MAX_THUMBNAILS)
+
+        (1..MAX_THUMBNAILS + 1).forEach { underTest.cacheThumbnail(part(page = it, thumbnail = true)) }
+
+        assertThat(underTest.thumbnails).hasSize(MAX_THUMBNAILS)
+        assertThat(underTest.containsThumbnail(1, bounds())).isFalse()
+        assertThat(underTest.containsThumbnail(MAX_THUMBNAILS + 1, bounds())).isTrue()
+    }
+
+    @Test
+    fun `test that the thumbnails capacity is not lower than the minimum`() {
+        underTest.setPagesCount(1)
+
+        (1..Constants.Cache.THUMBNAILS_CACHE_SIZE).forEach {
+            underTest.cacheThumbnail(part(page = it, thumbnail = true))
+        }
+
+        assertThat(underTest.thumbnails).hasSize(Constants.Cache.THUMBNAILS_CACHE_SIZE)
+    }
+
+    @Test
+    fun `test that recycle clears the parts and thumbnails`() {
+        val part = part(page = 1, cacheOrder = 1)
+        val thumbnail = part(page = 1, thumbnail = true)
+        underTest.cachePart(part)
+        underTest.cacheThumbnail(thumbnail)
+
+        underTest.recycle()
+
+        assertThat(underTest.pageParts).isEmpty()
+        assertThat(underTest.thumbnails).isEmpty()
+        assertThat(underTest.partsSizeBytes).isEqualTo(0)
+        assertThat(underTest.thumbnailsSizeBytes).isEqualTo(0)
+        assertThat(part.renderedBitmap.isRecycled).isTrue()
+        assertThat(thumbnail.renderedBitmap.isRecycled).isTrue()
+    }
+
+    private fun part(page: Int, cacheOrder: Int = 0, thumbnail: Boolean = false) = PagePart(
+        page,
+        Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888),
+        bounds(),
+        thumbnail,
+        cacheOrder,
+    )
+
+    private fun bounds(left: Float = 0f) = RectF(left, 0f, 1f, 1f)
+
+    private companion object {
+        const val TILE_SIZE = 4
+        const val TILE_BYTES = TILE_SIZE * TILE_SIZE * 4L
+        const val THUMBNAIL_BYTES = TILE_BYTES
+        const val MAX_THUMBNAILS = 16
+        const val MAX_SIZE_BYTES = TILE_BYTES * 1024
+    }
+}
@@ -35,6 +35,7 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsFinishedRea
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRestartMode
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoChanges
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
 import mega.privacy.android.domain.usecase.FilterCameraUploadPhotos
 import mega.privacy.android.domain.usecase.FilterCloudDrivePhotos
@@ -52,9 +53,9 @@ import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCas
 import mega.privacy.android.domain.usecase.permisison.HasMediaPermissionUseCase
 import mega.privacy.android.domain.usecase.photos.EnableCameraUploadsInPhotosUseCase
 import mega.privacy.android.domain.usecase.photos.GetTimelineFilterPreferencesUseCase
-import mega.privacy.android.domain.usecase.photos.GetTimelinePhotosUseCase
 import mega.privacy.android.domain.usecase.photos.LoadNextPageOfPhotosUseCase
 import mega.privacy.android.domain.usecase.photos.MonitorPaginatedTimelinePhotosUseCase
+import mega.privacy.android.domain.usecase.photos.MonitorTimelinePhotoChangesUseCase
 import mega.privacy.android.domain.usecase.photos.SetTimelineFilterPreferencesUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.workers.StartCameraUploadUseCase
@@ -86,7 +87,7 @@ internal class TimelineViewModelTest {
     private val isCameraUploadsEnabledUseCase =
         mock<IsCameraUploadsEnabledUseCase> { onBlocking { invoke() }.thenReturn(true) }
 
-    private val getTimelinePhotosUseCase = mock<GetTimelinePhotosUseCase>()
+    private val monitorTimelinePhotoChangesUseCase = mock<MonitorTimelinePhotoChangesUseCase>()
 
     private val filterCameraUploadPhotos =
         mock<FilterCameraUploadPhotos> { onBlocking { invoke(any()) }.thenAnswer { it.arguments[0] } }
@@ -147,7 +148,7 @@ internal class TimelineViewModelTest {
 
     @BeforeEach
     fun setUp() {
-        getTimelinePhotosUseCase.stub {
+        monitorTimelinePhotoChangesUseCase.stub {
             on { invoke() }.thenReturn(emptyFlow())
         }
         monitorCameraUploadsStatusInfoUseCase.stub {
@@ -170,7 +171,7 @@ internal class TimelineViewModelTest {
     fun initViewModel() {
         underTest = TimelineViewModel(
             isCameraUploadsEnabledUseCase = isCameraUploadsEnabledUseCase,
-            getTimelinePhotosUseCase = getTimelinePhotosUseCase,
+            monitorTimelinePhotoChangesUseCase = monitorTimelinePhotoChangesUseCase,
             getCameraUploadPhotos = filterCameraUploadPhotos,
             getCloudDrivePhotos = filterCloudDrivePhotos,
             setInitialCUPreferences = setInitialCUPreferences,
@@ -275,7 +276,8 @@ internal class TimelineViewModelTest {
         val expectedDate = LocalDateTime.now()
         val photo = mock<Photo.Image> { on { modificationTime }.thenReturn(expectedDate) }
         whenever(getTimelineFilterPreferencesUseCase()).thenReturn(null)
-        whenever(getTimelinePhotosUseCase()).thenReturn(flowOf(listOf(photo)))
+        whenever(monitorTimelinePhotoChangesUseCase())
+            .thenReturn(flowOf(PhotoChanges(photos = listOf(photo))))
 
         initViewModel()
 
@@ -663,7 +665,8 @@ internal class TimelineViewModelTest {
 
         val expectedDate = LocalDateTime.now()
         val photo = mock<Photo.Image> { on { modificationTime }.thenReturn(expectedDate) }
-        whenever(getTimelinePhotosUseCase()).thenReturn(flowOf(listOf(photo)))
+        whenever(monitorTimelinePhotoChangesUseCase())
+            .thenReturn(flowOf(PhotoChanges(photos = listOf(photo))))
 
         whenever(getTimelineFilterPreferencesUseCase()).thenReturn(mapOf())
 
@@ -0,0 +1,327 @@
+package mega.privacy.android.app.presentation.photos.util
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.presentation.photos.model.DateCard
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import org.junit.jupiter.api.Disabled
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestReporter
+import java.text.SimpleDateFormat
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.Year
+import java.time.YearMonth
+import java.time.ZoneId
+import java.time.format.DateTimeFormatter
+import java.util.Date
+import java.util.Locale
+import kotlin.random.Random
+import kotlin.system.measureNanoTime
+
+class TimelineDateIndexTest {
+
+    private val now = LocalDateTime.of(2024, 6, 15, 12, 0)
+    private val newestFirstOrder =
+        compareByDescending<Photo> { it.modificationTime }.thenByDescending { it.id }
+    private val oldestFirstOrder =
+        compareBy<Photo> { it.modificationTime }.thenByDescending { it.id }
+
+    @Test
+    fun `test that there is a card for each day, month and year of the photos`() {
+        val underTest = TimelineDateIndex { TimelineDateLabels(Locale.US, 2024) }
+        val photos = listOf(
+            photo(1L, now),
+            photo(2L, now.minusHours(1)),
+            photo(3L, now.minusDays(1)),
+            photo(4L, now.minusMonths(1)),
+            photo(5L, now.minusYears(1)),
+        )
+
+        val cards = underTest.getDateCards(photos)
+
+        assertThat(cards.daysCards.map { it.photo.id }).containsExactly(1L, 3L, 4L, 5L).inOrder()
+        assertThat(cards.daysCards.map { (it as DateCard.DaysCard).photosCount })
+            .containsExactly("2", "1", "1", "1").inOrder()
+        assertThat(cards.monthsCards.map { it.photo.id }).containsExactly(1L, 4L, 5L).inOrder()
+        assertThat(cards.yearsCards.map { it.photo.id }).containsExactly(1L, 5L).inOrder()
+    }
+
+    @Test
+    fun `test that the labels show the year only for the dates of other years`() {
+        val underTest = TimelineDateIndex { TimelineDateLabels(Locale.US, 2024) }
+        val photos = listOf(photo(1L, now), photo(2L, now.minusYears(1)))
+
+        val cards = underTest.getDateCards(photos)
+
+        assertThat(cards.yearsCards.map { it.date }).containsExactly("2024", "2023").inOrder()
+        assertThat(cards.monthsCards.map { it.date }).containsExactly("June", "June 2023").inOrder()
+        assertThat(cards.daysCards.map { it.date })
+            .containsExactly("15 June", "15 June 2023").inOrder()
+    }
+
+    @Test
+    fun `test that the photos of a day are counted together when they are not next to each other`() {
+        val underTest = TimelineDateIndex { TimelineDateLabels(Locale.US, 2024) }
+        val photos = listOf(photo(1L, now), photo(2L, now.minusDays(1)), photo(3L, now))
+
+        val cards = underTest.getDateCards(photos)
+
+        assertThat(cards.daysCards.map { (it as DateCard.DaysCard).photosCount })
+            .containsExactly("2", "1").inOrder()
+    }
+
+    @Test
+    fun `test that the cards of the same photos shown with the same filter are reused`() {
+        val labels = TimelineDateLabels(Locale.US, 2024)
+        val underTest = TimelineDateIndex { labels }
+        val photos = (1L..10L).map { photo(it, now.minusDays(it)) }
+
+        val cards = underTest.getDateCards(photos, true, FILTER, photos)
+
+        assertThat(underTest.getDateCards(photos, true, FILTER, photos)).isSameInstanceAs(cards)
+        assertThat(underTest.getDateCards(photos, true, OTHER_FILTER, photos))
+            .isNotSameInstanceAs(cards)
+    }
+
+    @Test
+    fun `test that the changes applied create the same cards as all the photos`() {
+        assertChangesCreateTheSameCards(newestFirst = true)
+    }
+
+    @Test
+    fun `test that the changes applied to the oldest photos first create the same cards as all the photos`() {
+        assertChangesCreateTheSameCards(newestFirst = false)
+    }
+
+    @Test
+    fun `test that only the cards of the days changed are created again`() {
+        val labels = TimelineDateLabels(Locale.US, 2024)
+        val underTest = TimelineDateIndex { labels }
+        val photos = (1L..10L).map { photo(it, now.minusDays(it)) }
+        val cards = underTest.getDateCards(photos, true, FILTER, photos)
+        val added = photo(11L, now.minusDays(3))
+        val newPhotos = (photos + added).sortedWith(newestFirstOrder)
+
+        val actual = underTest.getDateCards(
+            newPhotos,
+            true,
+            FILTER,
+            newPhotos,
+            TimelineDateIndex.Changes(photos, emptySet(), listOf(added)),
+        )
+
+        assertThat((actual.daysCards[2] as DateCard.DaysCard).photosCount).isEqualTo("2")
+        actual.daysCards.forEachIndexed { index, card ->
+            if (index == 2) {
+                assertThat(card).isNotSameInstanceAs(cards.daysCards[index])
+            } else {
+                assertThat(card).isSameInstanceAs(cards.daysCards[index])
+            }
+        }
+    }
+
+    @Test
+    fun `test that the cards are created from all the photos when the changes don't follow the previous photos`() {
+        val underTest = TimelineDateIndex { TimelineDateLabels(Locale.US, 2024) }
+        val photos = (1L..10L).map { photo(it, now.minusDays(it)) }
+        underTest.getDateCards(photos, true, FILTER, photos)
+        val newPhotos = photos.drop(2)
+
+        val actual = underTest.getDateCards(
+            newPhotos,
+            true,
+            FILTER,
+            newPhotos,
+            TimelineDateIndex.Changes(photos.toList(), setOf(1L), emptyList()),
+        )
+
+        assertThat(actual.daysCards.map { it.photo.id }).isEqualTo(newPhotos.map { it.id })
+    }
+
+    @Test
+    fun `test that the cards are the same as the ones of the legacy grouping`() {
+        val photos = createTimeline(1_000)
+        val underTest = TimelineDateIndex()
+
+        val cards = underTest.getDateCards(photos)
+
+        val dayPhotos = legacyGroupPhotosByDay(photos)
+        assertThat(cards.yearsCards).isEqualTo(legacyCreateYearsCardList(dayPhotos))
+        assertThat(cards.monthsCards).isEqualTo(legacyCreateMonthsCardList(dayPhotos))
+        assertThat(cards.daysCards).isEqualTo(legacyCreateDaysCardList(dayPhotos))
+    }
+
+    @Disabled("Benchmark, enable it to compare the index with the legacy grouping")
+    @Test
+    fun `test the duration of creating the cards of a large timeline and of applying a change`(
+        testReporter: TestReporter,
+    ) {
+        val photos = createTimeline(BENCHMARK_PHOTO_COUNT)
+        val labels = TimelineDateLabels(Locale.getDefault(), LocalDate.now().year)
+
+        lateinit var legacyCards: List<DateCard>
+        val legacyNanos = measureBest {
+            val dayPhotos = legacyGroupPhotosByDay(photos)
+            legacyCreateYearsCardList(dayPhotos)
+            legacyCreateMonthsCardList(dayPhotos)
+            legacyCards = legacyCreateDaysCardList(dayPhotos)
+        }
+        lateinit var cards: TimelineDateCards
+        val indexNanos = measureBest {
+            cards = TimelineDateIndex { labels }.getDateCards(photos, true, FILTER, photos)
+        }
+        val updated = photo(photos[photos.size / 2].id, now)
+        val updatedPhotos = (photos - photos[photos.size / 2] + updated)
+            .sortedWith(newestFirstOrder)
+        val changes = TimelineDateIndex.Changes(photos, setOf(updated.id), listOf(updated))
+        val changeNanos = (0..MEASURED_ITERATIONS).minOf {
+            val underTest = TimelineDateIndex { labels }
+            underTest.getDateCards(photos, true, FILTER, photos)
+            measureNanoTime {
+                underTest.getDateCards(updatedPhotos, true, FILTER, updatedPhotos, changes)
+            }
+        }
+
+        testReporter.publishEntry(
+            mapOf(
+                "photos" to BENCHMARK_PHOTO_COUNT.toString(),
+                "legacyGroupingMs" to (legacyNanos / 1_000_000).toString(),
+                "indexMs" to (indexNanos / 1_000_000).toString(),
+                "changeUs" to (changeNanos / 1_000).toString(),
+            )
+        )
+        assertThat(cards.daysCards).isEqualTo(legacyCards)
+    }
+
+    private fun measureBest(block: () -> Unit): Long {
+        block()
+        return (1..MEASURED_ITERATIONS).minOf {
+            val start = System.nanoTime()
+            block()
+            System.nanoTime() - start
+        }
+    }
+
+    private fun assertChangesCreateTheSameCards(newestFirst: Boolean) {
+        val order = if (newestFirst) newestFirstOrder else oldestFirstOrder
+        val random = Random(CHANGE_COUNT)
+        val source = createTimeline(1_000).associateByTo(LinkedHashMap()) { it.id }
+        var sourcePhotos = source.values.sortedWith(order)
+        val underTest = TimelineDateIndex()
+        underTest.getDateCards(sourcePhotos.filter(::isShown), newestFirst, FILTER, sourcePhotos)
+
+        repeat(CHANGE_COUNT) { change ->
+            val ids = source.keys.toList()
+            val removedIds = List(random.nextInt(3)) { ids[random.nextInt(ids.size)] }.toSet()
+            val updated = List(random.nextInt(3)) { ids[random.nextInt(ids.size)] }
+                .filter { it !in removedIds }
+                .distinct()
+                .map { photo(it, now.minusMinutes(random.nextLong(3L * 365 * 24 * 60))) }
+            val added = List(random.nextInt(3)) {
+                photo(10_000L + change * 10 + it, now.minusMinutes(random.nextLong(60L * 24 * 60)))
+            }
+            removedIds.forEach { source.remove(it) }
+            (updated + added).forEach { source[it.id] = it }
+            val previousSourcePhotos = sourcePhotos
+            sourcePhotos = source.values.sortedWith(order)
+            val sortedPhotos = sourcePhotos.filter(::isShown)
+
+            val actual = underTest.getDateCards(
+                sortedPhotos,
+                newestFirst,
+                FILTER,
+                sourcePhotos,
+                TimelineDateIndex.Changes(
+                    previousSourcePhotos = previousSourcePhotos,
+                    removedIds = removedIds + updated.map { it.id },
+                    addedPhotos = (updated + added).filter(::isShown),
+                ),
+            )
+
+            assertThat(actual).isEqualTo(TimelineDateIndex().getDateCards(sortedPhotos))
+        }
+    }
+
+    private fun isShown(photo: Photo) = photo.id % 3L != 0L
+
+    /**
+     * Photos of the last years, the most recent first, as the timeline sorts them
+     */
+    private fun createTimeline(count: Int): List<Photo> {
+        val random = Random(count)
+        val start = LocalDateTime.now()
+        return (1..count)
+            .map { photo(it.toLong(), start.minusMinutes(random.nextLong(3L * 365 * 24 * 60))) }
+            .sortedWith(newestFirstOrder)
+    }
+
+    private fun photo(id: Long, modificationTime: LocalDateTime) = Photo.Image(
+        id = id,
+        parentId = 0L,
+        name = "photo $id",
+        isFavourite = false,
+        creationTime = modificationTime,
+        modificationTime = modificationTime,
+        thumbnailFilePath = null,
+        previewFilePath = null,
+        fileTypeInfo = StaticImageFileTypeInfo(mimeType = "image/jpeg", extension = "jpg"),
+    )
+
+    private fun legacyGroupPhotosByDay(sortedPhotos: List<Photo>) =
+        sortedPhotos
+            .groupBy { it.modificationTime.toLocalDate().toEpochDay() }
+            .map { (_, photosList) -> photosList.first() to photosList.size }
+            .toMap()
+
+    private fun legacyCreateYearsCardList(dayPhotos: Map<Photo, Int>): List<DateCard> =
+        dayPhotos.keys.distinctBy { it.modificationTime.year }.map {
+            DateCard.YearsCard(
+                date = DateTimeFormatter.ofPattern(DATE_FORMAT_YEAR).format(it.modificationTime),
+                photo = it,
+            )
+        }
+
+    private fun legacyCreateMonthsCardList(dayPhotos: Map<Photo, Int>): List<DateCard> =
+        dayPhotos.keys.distinctBy { YearMonth.from(it.modificationTime) }.map { photo ->
+            val sameYear = Year.from(LocalDate.now()) == Year.from(photo.modificationTime)
+            val date = Date.from(
+                photo.modificationTime.toLocalDate().atStartOfDay()
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+            )
+            val pattern = if (sameYear) {
+                DATE_FORMAT_MONTH
+            } else {
+                "$DATE_FORMAT_MONTH $DATE_FORMAT_YEAR_WITH_MONTH"
+            }
+            DateCard.MonthsCard(
+                date = SimpleDateFormat(pattern, Locale.getDefault()).format(date),
+                photo = photo,
+            )
+        }
+
+    private fun legacyCreateDaysCardList(dayPhotos: Map<Photo, Int>): List<DateCard> =
+        dayPhotos.map { (photo, count) ->
+            val sameYear = Year.from(LocalDate.now()) == Year.from(photo.modificationTime)
+            DateCard.DaysCard(
+                date = DateTimeFormatter.ofPattern(
+                    if (sameYear) {
+                        "$DATE_FORMAT_DAY $DATE_FORMAT_MONTH_WITH_DAY"
+                    } else {
+                        "$DATE_FORMAT_DAY $DATE_FORMAT_MONTH_WITH_DAY $DATE_FORMAT_YEAR"
+                    }
+                ).format(photo.modificationTime),
+                photo = photo,
+                photosCount = count.toString(),
+            )
+        }
+
+    private companion object {
+        const val FILTER = "all"
+        const val OTHER_FILTER = "images"
+        const val CHANGE_COUNT = 200
+        const val BENCHMARK_PHOTO_COUNT = 100_000
+        const val MEASURED_ITERATIONS = 3
+    }
+}
@@ -17,13 +17,18 @@ import mega.privacy.android.app.presentation.recentactions.mapper.RecentActionBu
 import mega.privacy.android.app.presentation.recentactions.model.RecentActionBucketUiEntity
 import mega.privacy.android.core.test.extension.CoroutineMainDispatcherExtension
 import mega.privacy.android.domain.entity.RecentActionBucket
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.usecase.GetBusinessStatusUseCase
+import mega.privacy.android.domain.usecase.MonitorContactUpdates
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
 import mega.privacy.android.domain.usecase.login.MonitorFetchNodesFinishUseCase
 import mega.privacy.android.domain.usecase.network.MonitorConnectivityUseCase
 import mega.privacy.android.domain.usecase.node.MonitorNodeUpdatesUseCase
 import mega.privacy.android.domain.usecase.recentactions.GetRecentActionsUseCase
+import mega.privacy.android.domain.usecase.recentactions.RecentActionsStore
 import mega.privacy.android.domain.usecase.setting.MonitorHideRecentActivityUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.setting.SetHideRecentActivityUseCase
@@ -32,8 +37,12 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.extension.RegisterExtension
 import org.mockito.kotlin.any
+import org.mockito.kotlin.clearInvocations
+import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -51,6 +60,9 @@ class RecentActionsComposeViewModelTest {
     private val monitorFetchNodesFinishUseCase = mock<MonitorFetchNodesFinishUseCase>()
     private val monitorFetchNodesFinishFakeFlow = MutableSharedFlow<Boolean>()
     private val recentActionBucketUiEntityMapper = mock<RecentActionBucketUiEntityMapper>()
+    private val monitorContactUpdates = mock<MonitorContactUpdates> {
+        on { invoke() }.thenReturn(emptyFlow())
+    }
 
     private val megaRecentActionBucket = mock<RecentActionBucket>()
     private val megaRecentActionBucket2 = mock<RecentActionBucket>()
@@ -78,7 +90,7 @@ class RecentActionsComposeViewModelTest {
             stubCommon()
         }
         underTest = RecentActionsComposeViewModel(
-            getRecentActionsUseCase = getRecentActionsUseCase,
+            recentActionsStore = RecentActionsStore(getRecentActionsUseCase),
             setHideRecentActivityUseCase = setHideRecentActivityUseCase,
             monitorHideRecentActivityUseCase = monitorHideRecentActivityUseCase,
             monitorNodeUpdatesUseCase = monitorNodeUpdatesUseCase,
@@ -88,7 +100,8 @@ class RecentActionsComposeViewModelTest {
             monitorAccountDetailUseCase = mock(),
             monitorShowHiddenItemsUseCase = monitorShowHiddenItemsUseCase,
             getBusinessStatusUseCase = getBusinessStatusUseCase,
-            monitorFetchNodesFinishUseCase = monitorFetchNodesFinishUseCase
+            monitorFetchNodesFinishUseCase = monitorFetchNodesFinishUseCase,
+            monitorContactUpdates = monitorContactUpdates,
         )
     }
 
@@ -235,6 +248,35 @@ class RecentActionsComposeViewModelTest {
             }
         }
 
+    @Test
+    fun `test that recent actions are not fetched again when a node update does not affect them`() =
+        runTest {
+            advanceUntilIdle()
+            clearInvocations(getRecentActionsUseCase)
+            val renamedNode = mock<FileNode> {
+                on { id } doReturn NodeId(1L)
+            }
+
+            monitorNodeUpdatesFakeFlow.emit(
+                NodeUpdate(mapOf(renamedNode to listOf(NodeChanges.Name)))
+            )
+            advanceUntilIdle()
+
+            verify(getRecentActionsUseCase, never()).invoke(any())
+        }
+
+    @Test
+    fun `test that recent actions are fetched once for consecutive node updates requiring it`() =
+        runTest {
+            advanceUntilIdle()
+            clearInvocations(getRecentActionsUseCase)
+
+            repeat(3) { monitorNodeUpdatesFakeFlow.emit(NodeUpdate(emptyMap())) }
+            advanceUntilIdle()
+
+            verify(getRecentActionsUseCase, times(1)).invoke(any())
+        }
+
     companion object {
         @JvmField
         @RegisterExtension
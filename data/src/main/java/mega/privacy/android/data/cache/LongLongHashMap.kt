@@ -0,0 +1,118 @@
+package mega.privacy.android.data.cache
+
+/**
+ * Hash map of primitive long keys to primitive long values, to avoid boxing every entry of big
+ * maps which are updated very often
+ *
+ * It uses open addressing with linear probing and is not thread safe. Entries can't be removed
+ * one by one, only cleared all at once.
+ *
+ * @param expectedSize number of entries the map can hold without growing
+ */
+internal class LongLongHashMap(expectedSize: Int = DEFAULT_EXPECTED_SIZE) {
+    private var keys = LongArray(capacityFor(expectedSize))
+    private var values = LongArray(keys.size)
+    private var used = BooleanArray(keys.size)
+
+    /**
+     * Number of entries in the map
+     */
+    var size = 0
+        private set
+
+    /**
+     * @return the value of the key, or [defaultValue] if there's no entry for the key
+     */
+    fun get(key: Long, defaultValue: Long): Long {
+        val slot = slotOf(key, keys, used)
+        return if (used[slot]) values[slot] else defaultValue
+    }
+
+    /**
+     * @return true if there's an entry for the key
+     */
+    fun containsKey(key: Long) = used[slotOf(key, keys, used)]
+
+    /**
+     * Set the value of the key
+     */
+    fun put(key: Long, value: Long) {
+        var slot = slotOf(key, keys, used)
+        if (!used[slot]) {
+            if ((size + 1) * 2 > keys.size) {
+                grow()
+                slot = slotOf(key, keys, used)
+            }
+            used[slot] = true
+            keys[slot] = key
+            size++
+        }
+        values[slot] = value
+    }
+
+    /**
+     * Remove all the entries
+     */
+    fun clear() {
+        used.fill(false)
+        size = 0
+    }
+
+    /**
+     * Performs the given [action] on each entry
+     */
+    fun forEach(action: (key: Long, value: Long) -> Unit) {
+        for (slot in used.indices) {
+            if (used[slot]) action(keys[slot], values[slot])
+        }
+    }
+
+    private fun grow() {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = LongArray(oldKeys.size * 2)
+        values = LongArray(keys.size)
+        used = BooleanArray(keys.size)
+        for (oldSlot in oldKeys.indices) {
+            if (oldUsed[oldSlot]) {
+                val slot = slotOf(oldKeys[oldSlot], keys, used)
+                used[slot] = true
+                keys[slot] = oldKeys[oldSlot]
+                values[slot] = oldValues[oldSlot]
+            }
+        }
+    }
+
+    private companion object {
+        const val DEFAULT_EXPECTED_SIZE = 16
+
+        /**
+         * Power of two keeping the load factor at or below 0.5
+         */
+        fun capacityFor(expectedSize: Int) =
+            Integer.highestOneBit((expectedSize * 2).coerceAtLeast(4) - 1) shl 1
+
+        fun slotOf(key: Long, keys: LongArray, used: BooleanArray): Int {
+            val mask = keys.size - 1
+            var slot = hash(key) and mask
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) and mask
+            }
+            return slot
+        }
+
+        /**
+         * Murmur3 finalizer, as unique ids and tags are sequential
+         */
+        fun hash(key: Long): Int {
+            var h = key
+            h = h xor (h ushr 33)
+            h *= -0xae502812aa7333L
+            h = h xor (h ushr 33)
+            h *= -0x3b314601e57a13adL
+            h = h xor (h ushr 33)
+            return h.toInt()
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package mega.privacy.android.data.cache
+
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+
+/**
+ * In memory store of the transferred bytes of the active transfers of a type, keyed by unique id
+ *
+ * Every update is also written in a bounded change log, so that the collectors of the totals can
+ * apply only the changes since their last update instead of reading all the values again.
+ *
+ * @param changeLogCapacity number of changes kept in the change log
+ */
+internal class TransferredBytesCache(
+    private val changeLogCapacity: Int = DEFAULT_CHANGE_LOG_CAPACITY,
+) {
+    private val lock = Any()
+    private val transferredBytes = LongLongHashMap()
+    private val changedIds = LongArray(changeLogCapacity)
+    private val changedBytes = LongArray(changeLogCapacity)
+
+    /**
+     * Sequence number of the next change, also counting the clears
+     */
+    private var sequence = 0L
+
+    /**
+     * Sequence number of the first change after the last clear
+     */
+    private var clearedSequence = 0L
+
+    private val _version = MutableStateFlow(0L)
+
+    /**
+     * Sequence number of the last update, it changes every time the values change
+     */
+    val version: StateFlow<Long> = _version.asStateFlow()
+
+    /**
+     * Transferred bytes changes
+     *
+     * @property ids unique ids of the changed transfers
+     * @property transferredBytes new transferred bytes of the changed transfers
+     * @property sequence sequence number to get the next changes
+     */
+    class Changes(
+        val ids: LongArray,
+        val transferredBytes: LongArray,
+        val sequence: Long,
+    )
+
+    /**
+     * Set the transferred bytes of some transfers
+     *
+     * @param ids unique ids of the transfers
+     * @param bytes transferred bytes of each transfer, in the same order as [ids]
+     */
+    fun update(ids: LongArray, bytes: LongArray) {
+        if (ids.isEmpty()) return
+        synchronized(lock) {
+            ids.forEachIndexed { index, id ->
+                transferredBytes.put(id, bytes[index])
+                val logIndex = (sequence % changeLogCapacity).toInt()
+                changedIds[logIndex] = id
+                changedBytes[logIndex] = bytes[index]
+                sequence++
+            }
+            _version.value = sequence
+        }
+    }
+
+    /**
+     * Remove all the values
+     */
+    fun clear() = synchronized(lock) {
+        transferredBytes.clear()
+        sequence++
+        clearedSequence = sequence
+        _version.value = sequence
+    }
+
+    /**
+     * @return the current values and the sequence number to get the next changes
+     */
+    fun snapshot(): Pair<Map<Long, Long>, Long> = synchronized(lock) {
+        val map = HashMap<Long, Long>(transferredBytes.size * 2)
+        transferredBytes.forEach { id, bytes -> map[id] = bytes }
+        map to sequence
+    }
+
+    /**
+     * @param fromSequence sequence number returned by the previous [snapshot] or [changesSince]
+     * @return the changes since [fromSequence], or null if they are not available anymore,
+     * because the values have been cleared or there were too many changes. [snapshot] must be
+     * used then.
+     */
+    fun changesSince(fromSequence: Long): Changes? = synchronized(lock) {
+        if (fromSequence < clearedSequence || sequence - fromSequence > changeLogCapacity) {
+            return@synchronized null
+        }
+        val count = (sequence - fromSequence).toInt()
+        val ids = LongArray(count)
+        val bytes = LongArray(count)
+        for (i in 0 until count) {
+            val logIndex = ((fromSequence + i) % changeLogCapacity).toInt()
+            ids[i] = changedIds[logIndex]
+            bytes[i] = changedBytes[logIndex]
+        }
+        Changes(ids, bytes, sequence)
+    }
+
+    private companion object {
+        const val DEFAULT_CHANGE_LOG_CAPACITY = 4096
+    }
+}
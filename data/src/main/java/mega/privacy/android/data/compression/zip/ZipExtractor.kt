@@ -0,0 +1,155 @@
+package mega.privacy.android.data.compression.zip
+
+import kotlinx.coroutines.channels.SendChannel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.launch
+import mega.privacy.android.domain.entity.zipbrowser.UnzipProgress
+import java.io.File
+import java.io.FileOutputStream
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import javax.inject.Inject
+import kotlin.coroutines.coroutineContext
+
+/**
+ * Extracts the entries of a zip file
+ *
+ * The folders are created first, then the files are extracted by a fixed number of workers, each
+ * one reusing its own buffer for all the entries it extracts, and writing straight from it to the
+ * destination file.
+ */
+class ZipExtractor @Inject constructor() {
+
+    /**
+     * Extract all the entries of a zip file
+     *
+     * The destination of every entry is checked before extracting anything, a [SecurityException]
+     * is thrown if any of them is outside [unzipRootPath].
+     *
+     * @param zipFile ZipFile
+     * @param unzipRootPath unzip destination path
+     * @param parallelism maximum number of entries extracted at the same time
+     * @param bufferSize size of the buffer of each worker
+     * @return a conflated flow of [UnzipProgress] that completes when all the entries are extracted
+     */
+    fun extract(
+        zipFile: ZipFile,
+        unzipRootPath: String,
+        parallelism: Int = DEFAULT_PARALLELISM,
+        bufferSize: Int = DEFAULT_BUFFER_SIZE,
+    ): Flow<UnzipProgress> = channelFlow {
+        val destinations = zipFile.entries().toList().map { zipEntry ->
+            val zipDestination = File(unzipRootPath + zipEntry.name)
+            if (!zipDestination.canonicalPath.startsWith(unzipRootPath)) {
+                throw SecurityException("Zip entry ${zipEntry.name} is outside the destination")
+            }
+            zipEntry to zipDestination
+        }
+        val progress = ExtractionProgress(
+            totalBytes = destinations.sumOf { (zipEntry, _) -> zipEntry.size.coerceAtLeast(0L) },
+            totalEntries = destinations.size,
+        )
+        val (folders, files) = destinations.partition { (zipEntry, _) -> zipEntry.isDirectory }
+        folders.forEach { (_, zipDestination) ->
+            if (!zipDestination.exists()) {
+                zipDestination.mkdirs()
+            }
+            progress.entryExtracted()
+        }
+        send(progress.current())
+
+        val pendingFiles = files.iterator()
+        coroutineScope {
+            repeat(parallelism.coerceIn(1, files.size.coerceAtLeast(1))) {
+                launch {
+                    val buffer = ByteArray(bufferSize)
+                    while (true) {
+                        val (zipEntry, zipDestination) = synchronized(pendingFiles) {
+                            if (pendingFiles.hasNext()) pendingFiles.next() else null
+                        } ?: break
+                        extractFile(zipFile, zipEntry, zipDestination, buffer, progress, this@channelFlow)
+                    }
+                }
+            }
+        }
+        send(progress.current())
+    }.conflate()
+
+    private suspend fun extractFile(
+        zipFile: ZipFile,
+        zipEntry: ZipEntry,
+        zipDestination: File,
+        buffer: ByteArray,
+        progress: ExtractionProgress,
+        progressChannel: SendChannel<UnzipProgress>,
+    ) {
+        //Get the parent file. If it is null or doesn't exist, created the parent folder.
+        val parentFile = zipDestination.parentFile
+        if (parentFile != null) {
+            if (!parentFile.exists()) {
+                parentFile.mkdirs()
+            }
+            zipFile.getInputStream(zipEntry).use { inputStream ->
+                FileOutputStream(zipDestination).use { outputStream ->
+                    var unreportedBytes = 0L
+                    while (true) {
+                        val count = inputStream.read(buffer)
+                        if (count == -1) break
+                        outputStream.write(buffer, 0, count)
+                        progress.bytesExtracted(count.toLong())
+                        unreportedBytes += count
+                        if (unreportedBytes >= PROGRESS_BYTES_STEP) {
+                            coroutineContext.ensureActive()
+                            progressChannel.send(progress.current())
+                            unreportedBytes = 0L
+                        }
+                    }
+                }
+            }
+        }
+        progress.entryExtracted()
+        progressChannel.send(progress.current())
+    }
+
+    private class ExtractionProgress(
+        private val totalBytes: Long,
+        private val totalEntries: Int,
+    ) {
+        private val extractedBytes = AtomicLong()
+        private val extractedEntries = AtomicInteger()
+
+        fun bytesExtracted(bytes: Long) = extractedBytes.addAndGet(bytes)
+
+        fun entryExtracted() = extractedEntries.incrementAndGet()
+
+        fun current() = UnzipProgress(
+            extractedBytes = extractedBytes.get(),
+            totalBytes = totalBytes,
+            extractedEntries = extractedEntries.get(),
+            totalEntries = totalEntries,
+        )
+    }
+
+    companion object {
+        /**
+         * Default maximum number of entries extracted at the same time
+         */
+        const val DEFAULT_PARALLELISM = 4
+
+        /**
+         * Default size of the buffer of each worker
+         */
+        const val DEFAULT_BUFFER_SIZE = 256 * 1024
+
+        /**
+         * Minimum bytes written between two progress updates of the same entry
+         */
+        private const val PROGRESS_BYTES_STEP = 4L * 1024 * 1024
+    }
+}
@@ -1,9 +1,9 @@
 package mega.privacy.android.data.cryptography
 
 import android.util.Base64
+import android.util.LruCache
 import timber.log.Timber
 import javax.crypto.Cipher
-import javax.crypto.spec.SecretKeySpec
 import javax.inject.Inject
 import javax.inject.Named
 import javax.inject.Singleton
@@ -11,11 +11,15 @@ import javax.inject.Singleton
 /**
  * Class to encrypt given value
  */
-@Suppress("RedundantSuspendModifier", "GetInstance")
+@Suppress("RedundantSuspendModifier")
 @Singleton
 class EncryptData @Inject constructor(
-    @Named("aes_key") private val aesKey: ByteArray,
+    @Named("aes_key") aesKey: ByteArray,
 ) {
+    private val cipher = ThreadLocalCipher(aesKey, Cipher.ENCRYPT_MODE)
+
+    private val lookupKeys = LruCache<Long, String>(MAX_CACHED_LOOKUP_KEYS)
+
     /**
      * Invoke
      * @param data string to be encrypted
@@ -23,13 +27,26 @@ class EncryptData @Inject constructor(
      */
     suspend operator fun invoke(data: String?) = data?.let {
         runCatching {
-            val skeySpec = SecretKeySpec(aesKey, "AES")
-            val cipher = Cipher.getInstance("AES")
-            cipher.init(Cipher.ENCRYPT_MODE, skeySpec)
             val encrypted = cipher.doFinal(it.toByteArray())
             Base64.encodeToString(encrypted, Base64.DEFAULT)
         }.onFailure {
             Timber.e(it, "Error encrypting DB field")
         }.getOrNull()
     }
-}
\ No newline at end of file
+
+    /**
+     * Encrypt a handle used as a lookup key of a table
+     *
+     * The encryption is deterministic, so the encrypted handles are kept in a bounded cache. Only
+     * handles are cached, never the other values given to [invoke].
+     *
+     * @param handle the handle to be encrypted
+     * @return encrypted value of the handle as a string
+     */
+    suspend fun encryptLookupKey(handle: Long): String? =
+        lookupKeys.get(handle) ?: invoke(handle.toString())?.also { lookupKeys.put(handle, it) }
+
+    private companion object {
+        const val MAX_CACHED_LOOKUP_KEYS = 512
+    }
+}
@@ -0,0 +1,69 @@
+package mega.privacy.android.data.cryptography
+
+import java.nio.ByteBuffer
+import java.util.Locale
+import javax.crypto.Mac
+import javax.crypto.spec.SecretKeySpec
+import javax.inject.Inject
+import javax.inject.Named
+import javax.inject.Singleton
+
+/**
+ * Computes the keyed hashes of the trigrams of a name, so that encrypted names can be searched
+ * by substring in the database without storing any part of them in clear
+ *
+ * A name containing a query contains every trigram of the query, so the names sharing all the
+ * grams of a query are the only candidates to decrypt and match.
+ */
+@Singleton
+class SearchGramHasher @Inject constructor(
+    @Named("aes_key") aesKey: ByteArray,
+) {
+    private val keySpec = SecretKeySpec(aesKey, ALGORITHM)
+
+    private val mac = object : ThreadLocal<Mac>() {
+        override fun initialValue(): Mac = Mac.getInstance(ALGORITHM).apply { init(keySpec) }
+    }
+
+    /**
+     * Get the grams to index for a name
+     *
+     * The name is delimited before being split, so that every name, even shorter than a gram,
+     * has at least one gram and can be told apart from a name which is not indexed yet
+     *
+     * @param name the name to index
+     * @return the distinct hashed grams of the name
+     */
+    fun hashNameGrams(name: String): List<Long> =
+        "$NAME_START${name.lowercase(Locale.ROOT)}$NAME_END".let { delimited ->
+            delimited.windowed(GRAM_LENGTH).ifEmpty { listOf(delimited) }
+        }.distinct().map { hash(it) }
+
+    /**
+     * Get the grams a name must contain to contain a query
+     *
+     * @param query the searched text
+     * @return the distinct hashed grams of the query, empty if the query is shorter than a gram
+     */
+    fun hashQueryGrams(query: String): List<Long> =
+        query.lowercase(Locale.ROOT).windowed(GRAM_LENGTH)
+            .distinct()
+            .take(MAX_QUERY_GRAMS)
+            .map { hash(it) }
+
+    private fun hash(gram: String): Long =
+        ByteBuffer.wrap(mac.get()!!.doFinal(gram.toByteArray())).long
+
+    private companion object {
+        const val ALGORITHM = "HmacSHA256"
+        const val GRAM_LENGTH = 3
+        const val NAME_START = '\u0002'
+        const val NAME_END = '\u0003'
+
+        /**
+         * Any subset of the grams of a query still selects every matching name, the limit keeps
+         * the query under the SQLite variables limit
+         */
+        const val MAX_QUERY_GRAMS = 100
+    }
+}
@@ -0,0 +1,44 @@
+package mega.privacy.android.data.cryptography
+
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+
+/**
+ * AES cipher created and initialised once per thread
+ *
+ * Creating and initialising a cipher costs more than encrypting or decrypting a database field,
+ * and a cipher can be reused for the same operation once doFinal returns. A cipher is not thread
+ * safe, hence one instance per thread.
+ *
+ * @param aesKey the key of the cipher
+ * @param opMode [Cipher.ENCRYPT_MODE] or [Cipher.DECRYPT_MODE]
+ */
+@Suppress("GetInstance")
+internal class ThreadLocalCipher(aesKey: ByteArray, private val opMode: Int) {
+    private val keySpec = SecretKeySpec(aesKey, ALGORITHM)
+
+    private val cipher = object : ThreadLocal<Cipher>() {
+        override fun initialValue(): Cipher =
+            Cipher.getInstance(ALGORITHM).apply { init(opMode, keySpec) }
+    }
+
+    /**
+     * Encrypt or decrypt the input in a single operation
+     *
+     * The cipher of the thread is discarded if the operation fails, so that the next call does
+     * not reuse a cipher in an unknown state
+     *
+     * @param input the bytes to encrypt or decrypt
+     * @return the result of the operation
+     */
+    fun doFinal(input: ByteArray): ByteArray = try {
+        cipher.get()!!.doFinal(input)
+    } catch (e: Exception) {
+        cipher.remove()
+        throw e
+    }
+
+    private companion object {
+        const val ALGORITHM = "AES"
+    }
+}
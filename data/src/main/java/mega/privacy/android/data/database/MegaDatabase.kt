@@ -34,6 +34,7 @@ import mega.privacy.android.data.database.entity.ContactEntity
 import mega.privacy.android.data.database.entity.LastPageViewedInPdfEntity
 import mega.privacy.android.data.database.entity.MediaPlaybackInfoEntity
 import mega.privacy.android.data.database.entity.OfflineEntity
+import mega.privacy.android.data.database.entity.OfflineSearchGramEntity
 import mega.privacy.android.data.database.entity.PendingTransferEntity
 import mega.privacy.android.data.database.entity.SyncShownNotificationEntity
 import mega.privacy.android.data.database.entity.SyncSolvedIssueEntity
@@ -55,6 +56,7 @@ import timber.log.Timber
         ActiveTransferActionGroupEntity::class,
         BackupEntity::class,
         OfflineEntity::class,
+        OfflineSearchGramEntity::class,
         SyncSolvedIssueEntity::class,
         UserPausedSyncEntity::class,
         CameraUploadsRecordEntity::class,
@@ -101,6 +103,7 @@ import timber.log.Timber
         AutoMigration(106, 107),
         AutoMigration(108, 109),
         AutoMigration(109, 110),
+        AutoMigration(111, 112),
     ],
 )
 internal abstract class MegaDatabase : RoomDatabase() {
@@ -8,7 +8,7 @@ object MegaDatabaseConstant {
     /**
      * Database Version
      */
-    const val DATABASE_VERSION = 111
+    const val DATABASE_VERSION = 112
 
     /**
      * Database Name
@@ -55,6 +55,11 @@ object MegaDatabaseConstant {
      */
     const val TABLE_OFFLINE = "offline"
 
+    /**
+     * Table Offline search grams
+     */
+    const val TABLE_OFFLINE_SEARCH_GRAMS = "offline_search_grams"
+
     /**
      * Table For Android Sync solved issues list
      */
@@ -0,0 +1,45 @@
+package mega.privacy.android.data.database
+
+import dagger.Lazy
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.cryptography.DecryptData
+import mega.privacy.android.data.cryptography.SearchGramHasher
+import mega.privacy.android.data.database.dao.OfflineDao
+import mega.privacy.android.data.database.entity.OfflineSearchGramEntity
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Indexes the search grams of the offline entities saved before the search grams existed
+ *
+ * Every entity saved since has its grams saved in the same transaction, so the entities without
+ * grams are only looked for once, the first time the index is needed after the app starts.
+ */
+@Singleton
+internal class OfflineSearchGramsIndexer @Inject constructor(
+    private val offlineDao: Lazy<OfflineDao>,
+    private val decryptData: DecryptData,
+    private val searchGramHasher: SearchGramHasher,
+) {
+    private val mutex = Mutex()
+    private var indexed = false
+
+    /**
+     * Index the entities without search grams, if it has not been done yet
+     */
+    suspend fun indexOnce() {
+        if (indexed) return
+        mutex.withLock {
+            if (indexed) return
+            val entities = offlineDao.get().getOfflineWithoutSearchGrams()
+            entities.flatMap { entity ->
+                val id = entity.id ?: return@flatMap emptyList()
+                searchGramHasher.hashNameGrams(decryptData(entity.encryptedName).orEmpty()).map {
+                    OfflineSearchGramEntity(offlineId = id, gram = it)
+                }
+            }.takeIf { it.isNotEmpty() }?.let { offlineDao.get().insertSearchGrams(it) }
+            indexed = true
+        }
+    }
+}
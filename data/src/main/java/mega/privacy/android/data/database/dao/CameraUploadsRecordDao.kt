@@ -4,10 +4,12 @@ import androidx.room.Dao
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
+import androidx.room.Transaction
 import mega.privacy.android.data.database.MegaDatabaseConstant
 import mega.privacy.android.data.database.entity.CameraUploadsRecordEntity
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 
 @Dao
@@ -43,6 +45,28 @@ internal interface CameraUploadsRecordDao {
         generatedFingerprint: String,
     )
 
+    @Transaction
+    suspend fun updateCameraUploadsRecords(updates: List<CameraUploadsRecordUpdate>) {
+        updates.forEach { update ->
+            update.uploadStatus?.let {
+                updateCameraUploadsRecordUploadStatus(
+                    mediaId = update.mediaId,
+                    timestamp = update.timestamp,
+                    folderType = update.folderType,
+                    uploadStatus = it,
+                )
+            }
+            update.generatedFingerprint?.let {
+                updateCameraUploadsRecordGeneratedFingerprint(
+                    mediaId = update.mediaId,
+                    timestamp = update.timestamp,
+                    folderType = update.folderType,
+                    generatedFingerprint = it,
+                )
+            }
+        }
+    }
+
     @Query("DELETE FROM ${MegaDatabaseConstant.TABLE_CAMERA_UPLOADS_RECORDS} WHERE folder_type IN (:folderTypes)")
     suspend fun deleteCameraUploadsRecordsByFolderType(
         folderTypes: List<CameraUploadFolderType>,
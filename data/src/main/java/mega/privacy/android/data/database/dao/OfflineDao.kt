@@ -4,8 +4,11 @@ import androidx.room.Dao
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
+import androidx.room.Transaction
 import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.data.database.MegaDatabaseConstant.TABLE_OFFLINE_SEARCH_GRAMS
 import mega.privacy.android.data.database.entity.OfflineEntity
+import mega.privacy.android.data.database.entity.OfflineSearchGramEntity
 
 @Dao
 internal interface OfflineDao {
@@ -21,6 +24,16 @@ internal interface OfflineDao {
     @Query("SELECT * FROM offline WHERE handle = :handle")
     suspend fun getOfflineByHandle(handle: String?): OfflineEntity?
 
+    @Query("SELECT * FROM offline WHERE handle IN (:handles)")
+    suspend fun getOfflineByHandles(handles: List<String>): List<OfflineEntity>
+
+    /**
+     * Transaction to get the entities of a list of handles but splitting the query to avoid SQLiteException too many SQL variables
+     */
+    @Transaction
+    suspend fun getOfflineByHandles(handles: List<String>, chunkSize: Int): List<OfflineEntity> =
+        handles.chunked(chunkSize).flatMap { getOfflineByHandles(it) }
+
     @Query("DELETE FROM offline")
     suspend fun deleteAllOffline()
 
@@ -47,4 +60,45 @@ internal interface OfflineDao {
 
     @Query("DELETE FROM offline WHERE id IN (:ids)")
     suspend fun deleteOfflineByIds(ids: List<Int>)
-}
\ No newline at end of file
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertSearchGrams(entities: List<OfflineSearchGramEntity>)
+
+    @Query("DELETE FROM $TABLE_OFFLINE_SEARCH_GRAMS WHERE offlineId = :offlineId")
+    suspend fun deleteSearchGramsByOfflineId(offlineId: Int)
+
+    @Query("DELETE FROM $TABLE_OFFLINE_SEARCH_GRAMS WHERE offlineId IN (:offlineIds)")
+    suspend fun deleteSearchGramsByOfflineIds(offlineIds: List<Int>)
+
+    @Query("DELETE FROM $TABLE_OFFLINE_SEARCH_GRAMS WHERE offlineId NOT IN (SELECT id FROM offline)")
+    suspend fun deleteOrphanSearchGrams()
+
+    @Query("DELETE FROM $TABLE_OFFLINE_SEARCH_GRAMS")
+    suspend fun deleteAllSearchGrams()
+
+    @Query("SELECT * FROM offline WHERE id NOT IN (SELECT offlineId FROM $TABLE_OFFLINE_SEARCH_GRAMS)")
+    suspend fun getOfflineWithoutSearchGrams(): List<OfflineEntity>
+
+    @Query("SELECT * FROM offline WHERE id IN (SELECT offlineId FROM $TABLE_OFFLINE_SEARCH_GRAMS WHERE gram IN (:grams) GROUP BY offlineId HAVING COUNT(gram) = :gramCount)")
+    suspend fun getOfflineBySearchGrams(grams: List<Long>, gramCount: Int): List<OfflineEntity>
+
+    @Query("SELECT * FROM offline WHERE parentId = :parentId AND id IN (SELECT offlineId FROM $TABLE_OFFLINE_SEARCH_GRAMS WHERE gram IN (:grams) GROUP BY offlineId HAVING COUNT(gram) = :gramCount)")
+    suspend fun getOfflineBySearchGrams(
+        grams: List<Long>,
+        gramCount: Int,
+        parentId: Int,
+    ): List<OfflineEntity>
+
+    /**
+     * Transaction to insert or update an entity and replace its search grams
+     *
+     * @return the id of the entity
+     */
+    @Transaction
+    suspend fun insertOrUpdateOffline(entity: OfflineEntity, searchGrams: List<Long>): Long {
+        val id = insertOrUpdateOffline(entity)
+        deleteSearchGramsByOfflineId(id.toInt())
+        insertSearchGrams(searchGrams.map { OfflineSearchGramEntity(offlineId = id.toInt(), gram = it) })
+        return id
+    }
+}
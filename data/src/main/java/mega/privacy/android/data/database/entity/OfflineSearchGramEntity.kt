@@ -0,0 +1,23 @@
+package mega.privacy.android.data.database.entity
+
+import androidx.room.ColumnInfo
+import androidx.room.Entity
+import androidx.room.Index
+import mega.privacy.android.data.database.MegaDatabaseConstant.TABLE_OFFLINE_SEARCH_GRAMS
+
+/**
+ * Keyed hash of a trigram of the name of an [OfflineEntity], used to search offline files by name
+ * without decrypting every name
+ *
+ * @property offlineId id of the [OfflineEntity]
+ * @property gram keyed hash of a lowercase trigram of the name
+ */
+@Entity(
+    tableName = TABLE_OFFLINE_SEARCH_GRAMS,
+    primaryKeys = ["offlineId", "gram"],
+    indices = [Index(value = ["gram"])]
+)
+internal data class OfflineSearchGramEntity(
+    @ColumnInfo(name = "offlineId") val offlineId: Int,
+    @ColumnInfo(name = "gram") val gram: Long,
+)
@@ -4,6 +4,7 @@ import dagger.Binds
 import dagger.Module
 import dagger.hilt.InstallIn
 import dagger.hilt.components.SingletonComponent
+import dagger.multibindings.IntoSet
 import mega.privacy.android.data.repository.AdsRepositoryImpl
 import mega.privacy.android.data.repository.AndroidBillingRepository
 import mega.privacy.android.data.repository.AudioSectionRepositoryImpl
@@ -47,6 +48,7 @@ import mega.privacy.android.data.repository.HttpConnectionRepositoryImpl
 import mega.privacy.android.data.repository.ImageRepositoryImpl
 import mega.privacy.android.data.repository.InAppUpdateRepositoryImpl
 import mega.privacy.android.data.repository.LegacyNotificationRepository
+import mega.privacy.android.data.repository.MediaNodeIndex
 import mega.privacy.android.data.repository.MediaRecorderRepositoryImpl
 import mega.privacy.android.data.repository.MegaNodeRepository
 import mega.privacy.android.data.repository.MegaNodeRepositoryImpl
@@ -138,6 +140,7 @@ import mega.privacy.android.domain.repository.psa.PsaRepository
 import mega.privacy.android.domain.repository.security.LoginRepository
 import mega.privacy.android.domain.repository.security.PasscodeRepository
 import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import mega.privacy.android.domain.usecase.logout.LogoutTask
 import javax.inject.Singleton
 import kotlin.contracts.ExperimentalContracts
 
@@ -347,6 +350,10 @@ internal abstract class RepositoryModule {
     @Binds
     abstract fun bindVideoSectionRepository(implementation: VideoSectionRepositoryImpl): VideoSectionRepository
 
+    @Binds
+    @IntoSet
+    abstract fun bindMediaNodeIndexLogoutTask(implementation: MediaNodeIndex): LogoutTask
+
     @Binds
     abstract fun bindAudioSectionRepository(implementation: AudioSectionRepositoryImpl): AudioSectionRepository
 
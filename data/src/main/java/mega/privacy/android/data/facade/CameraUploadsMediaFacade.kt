@@ -6,10 +6,14 @@ import android.database.Cursor
 import android.net.Uri
 import android.os.Build
 import android.os.Bundle
+import android.provider.BaseColumns
 import android.provider.MediaStore
+import androidx.annotation.RequiresApi
 import dagger.hilt.android.qualifiers.ApplicationContext
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 import timber.log.Timber
 import javax.inject.Inject
 import kotlin.math.max
@@ -43,6 +47,125 @@ internal class CameraUploadsMediaFacade @Inject constructor(
         emptyList()
     }
 
+    override suspend fun getMediaListSinceWatermark(
+        uri: Uri,
+        selectionQuery: String?,
+        watermark: CameraUploadsMediaScanWatermark?,
+    ): CameraUploadsMediaScanResult = runCatching {
+        val isVideo = uri.isVideoUri()
+        // Captured before querying, so that rows changed while reading the cursor are read again
+        // on the next scan
+        val currentWatermark = getCurrentWatermark(uri, selectionQuery)
+        val previousWatermark = watermark?.takeIf {
+            currentWatermark != null
+                    && it.volumeName == currentWatermark.volumeName
+                    && it.mediaStoreVersion == currentWatermark.mediaStoreVersion
+                    && it.selectionQuery == currentWatermark.selectionQuery
+                    && it.generation <= currentWatermark.generation
+        }
+        val query =
+            if (previousWatermark != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                getSelectionQuerySinceWatermark(selectionQuery, previousWatermark)
+            } else selectionQuery
+
+        val mediaList = createMediaCursor(uri, query, isVideo)?.use { cursor ->
+            cursor.extractMedia(isVideo)
+        }.orEmpty()
+        Timber.d("Extract ${mediaList.size} Media from Cursor, incremental: ${previousWatermark != null}")
+
+        CameraUploadsMediaScanResult(
+            mediaList = mediaList,
+            watermark = currentWatermark?.copy(
+                maxMediaId = max(
+                    previousWatermark?.maxMediaId ?: 0L,
+                    mediaList.maxOfOrNull { it.mediaId } ?: 0L,
+                )
+            ),
+            isFullScan = previousWatermark == null,
+            rowsRead = mediaList.size,
+        )
+    }.getOrElse {
+        Timber.e(it)
+        CameraUploadsMediaScanResult(
+            mediaList = emptyList(),
+            watermark = null,
+            isFullScan = true,
+            rowsRead = 0,
+        )
+    }
+
+    /**
+     * Get the watermark describing the current state of the volume of the uri
+     *
+     * @param uri the uri to query
+     * @param selectionQuery the selection query of the scan
+     * @return the [CameraUploadsMediaScanWatermark], or null if media store generations are not
+     * supported
+     */
+    private fun getCurrentWatermark(
+        uri: Uri,
+        selectionQuery: String?,
+    ): CameraUploadsMediaScanWatermark? =
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            runCatching {
+                val volumeName = MediaStore.getVolumeName(uri)
+                CameraUploadsMediaScanWatermark(
+                    volumeName = volumeName,
+                    mediaStoreVersion = MediaStore.getVersion(context, volumeName),
+                    selectionQuery = selectionQuery,
+                    generation = MediaStore.getGeneration(context, volumeName),
+                    maxMediaId = 0L,
+                )
+            }.onFailure {
+                Timber.w(it, "Unable to retrieve the media store generation")
+            }.getOrNull()
+        } else null
+
+    /**
+     * Restrict the selection query to the rows added or modified after the watermark, and the
+     * rows to retry
+     *
+     * @param selectionQuery the selection query of the scan
+     * @param watermark the watermark of the previous scan
+     * @return the restricted selection query
+     */
+    @RequiresApi(Build.VERSION_CODES.R)
+    private fun getSelectionQuerySinceWatermark(
+        selectionQuery: String?,
+        watermark: CameraUploadsMediaScanWatermark,
+    ): String {
+        val retryMediaIds = watermark.retryMediaIds.takeIf { it.isNotEmpty() }
+            ?.joinToString(prefix = " OR ${BaseColumns._ID} IN (", postfix = ")")
+            .orEmpty()
+        val sinceWatermark =
+            "(${MediaStore.MediaColumns.GENERATION_MODIFIED} > ${watermark.generation} " +
+                    "OR ${BaseColumns._ID} > ${watermark.maxMediaId}$retryMediaIds)"
+        return selectionQuery?.let { "($it) AND $sinceWatermark" } ?: sinceWatermark
+    }
+
+    override suspend fun getMediaIds(
+        uri: Uri,
+        selectionQuery: String?,
+    ): Set<Long>? = runCatching {
+        context.contentResolver?.query(
+            uri,
+            arrayOf(BaseColumns._ID),
+            selectionQuery,
+            null,
+            null,
+        )?.use { cursor ->
+            HashSet<Long>(cursor.count).apply {
+                val idColumn = cursor.getColumnIndexOrThrow(BaseColumns._ID)
+                while (cursor.moveToNext()) {
+                    add(cursor.getLong(idColumn))
+                }
+            }
+        }
+    }.getOrElse {
+        Timber.e(it)
+        null
+    }
+
     override fun getMediaSelectionQuery(parentPath: String): String =
         "${MediaStore.MediaColumns.DATA} LIKE '${parentPath}%'"
 
@@ -0,0 +1,210 @@
+package mega.privacy.android.data.facade
+
+import android.content.ContentResolver
+import android.content.Context
+import android.content.Intent
+import android.content.pm.PackageManager
+import android.database.Cursor
+import android.net.Uri
+import android.provider.DocumentsContract
+import android.provider.DocumentsContract.Document
+import androidx.core.net.toFile
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import mega.privacy.android.domain.entity.document.DocumentEntity
+import mega.privacy.android.domain.entity.uri.UriPath
+import timber.log.Timber
+import java.io.File
+import javax.inject.Inject
+
+/**
+ * Scanner of the documents of a folder
+ *
+ * A DocumentFile of a SAF tree queries the provider for each attribute it returns, so listing a
+ * folder with it costs several IPC round trips per child. This scanner reads all the attributes of
+ * the children of a folder with a single query of
+ * [DocumentsContract.buildChildDocumentsUriUsingTree], so it costs one query per folder. Folders
+ * with a file [Uri] are read with [File] instead.
+ */
+internal class DocumentTreeScanner @Inject constructor(
+    @ApplicationContext private val context: Context,
+) {
+
+    /**
+     * Get the documents of a folder
+     *
+     * @param folder tree or file [Uri] of the folder
+     * @return the documents, with the number of files and folders of the child folders
+     */
+    suspend fun getChildren(folder: Uri): List<DocumentEntity> = coroutineScope {
+        val semaphore = Semaphore(MAX_PARALLEL_QUERIES)
+        getRoot(folder).listChildren().map { document ->
+            async {
+                if (document.isFolder) {
+                    semaphore.withPermit { document.toEntity(document.listChildren()) }
+                } else {
+                    document.toEntity(emptyList())
+                }
+            }
+        }.awaitAll()
+    }
+
+    /**
+     * Search the documents of a folder and its subfolders whose name contains the query
+     *
+     * @param folder tree or file [Uri] of the folder
+     * @param query text to search, ignoring the case
+     * @return a flow emitting each document found as soon as it's found, folders are emitted with
+     * their number of files and folders
+     */
+    fun search(folder: Uri, query: String): Flow<DocumentEntity> = flow {
+        // using a stack instead of recursive calls to keep the memory usage low
+        val stack = ArrayDeque(getRoot(folder).listChildren())
+        while (stack.isNotEmpty()) {
+            currentCoroutineContext().ensureActive()
+            val document = stack.removeLast()
+            val children = if (document.isFolder) document.listChildren() else emptyList()
+            if (document.name.contains(other = query, ignoreCase = true)) {
+                emit(document.toEntity(children))
+            }
+            stack.addAll(children)
+        }
+    }
+
+    private fun getRoot(folder: Uri): ScannedDocument =
+        if (folder.scheme == ContentResolver.SCHEME_FILE) {
+            FileDocument(folder.toFile())
+        } else {
+            val documentId = if (DocumentsContract.isDocumentUri(context, folder)) {
+                DocumentsContract.getDocumentId(folder)
+            } else {
+                DocumentsContract.getTreeDocumentId(folder)
+            }
+            val canRead = context.checkCallingOrSelfUriPermission(
+                folder,
+                Intent.FLAG_GRANT_READ_URI_PERMISSION
+            ) == PackageManager.PERMISSION_GRANTED
+            TreeDocument(
+                treeUri = folder,
+                documentId = documentId,
+                name = "",
+                mimeType = Document.MIME_TYPE_DIR,
+                size = 0L,
+                lastModified = 0L,
+                canReadTree = canRead,
+            )
+        }
+
+    private fun ScannedDocument.toEntity(children: List<ScannedDocument>): DocumentEntity {
+        val numFolders = children.count { it.isFolder }
+        return DocumentEntity(
+            name = name,
+            size = size,
+            lastModified = lastModified,
+            uri = UriPath(uri.toString()),
+            isFolder = isFolder,
+            numFiles = children.size - numFolders,
+            numFolders = numFolders,
+            canRead = canRead,
+        )
+    }
+
+    /**
+     * A document with all the attributes needed to map it to a [DocumentEntity]
+     */
+    private sealed interface ScannedDocument {
+        val name: String
+        val size: Long
+        val lastModified: Long
+        val uri: Uri
+        val isFolder: Boolean
+        val canRead: Boolean
+
+        /**
+         * @return the children of this folder, read at once
+         */
+        fun listChildren(): List<ScannedDocument>
+    }
+
+    private class FileDocument(private val file: File) : ScannedDocument {
+        override val name: String = file.name
+        override val size = file.length()
+        override val lastModified = file.lastModified()
+        override val uri: Uri
+            get() = Uri.fromFile(file)
+        override val isFolder = file.isDirectory
+        override val canRead = file.canRead()
+
+        override fun listChildren() = file.listFiles()?.map { FileDocument(it) }.orEmpty()
+    }
+
+    private inner class TreeDocument(
+        private val treeUri: Uri,
+        private val documentId: String,
+        override val name: String,
+        mimeType: String?,
+        override val size: Long,
+        override val lastModified: Long,
+        private val canReadTree: Boolean,
+    ) : ScannedDocument {
+        override val uri: Uri
+            get() = DocumentsContract.buildDocumentUriUsingTree(treeUri, documentId)
+        override val isFolder = mimeType == Document.MIME_TYPE_DIR
+        override val canRead = canReadTree && !mimeType.isNullOrEmpty()
+
+        override fun listChildren(): List<ScannedDocument> = runCatching {
+            val childrenUri =
+                DocumentsContract.buildChildDocumentsUriUsingTree(treeUri, documentId)
+            context.contentResolver.query(childrenUri, PROJECTION, null, null, null)
+                ?.use { cursor -> readChildren(cursor) }
+                .orEmpty()
+        }.onFailure {
+            Timber.w(it, "Failed to list the children of $documentId")
+        }.getOrDefault(emptyList())
+
+        private fun readChildren(cursor: Cursor): List<ScannedDocument> {
+            val idIndex = cursor.getColumnIndexOrThrow(Document.COLUMN_DOCUMENT_ID)
+            val nameIndex = cursor.getColumnIndexOrThrow(Document.COLUMN_DISPLAY_NAME)
+            val mimeTypeIndex = cursor.getColumnIndexOrThrow(Document.COLUMN_MIME_TYPE)
+            val sizeIndex = cursor.getColumnIndexOrThrow(Document.COLUMN_SIZE)
+            val lastModifiedIndex = cursor.getColumnIndexOrThrow(Document.COLUMN_LAST_MODIFIED)
+            return ArrayList<ScannedDocument>(cursor.count.coerceAtLeast(0)).apply {
+                while (cursor.moveToNext()) {
+                    add(
+                        TreeDocument(
+                            treeUri = treeUri,
+                            documentId = cursor.getString(idIndex),
+                            name = cursor.getString(nameIndex).orEmpty(),
+                            mimeType = cursor.getString(mimeTypeIndex),
+                            size = cursor.getLongOrZero(sizeIndex),
+                            lastModified = cursor.getLongOrZero(lastModifiedIndex),
+                            canReadTree = canReadTree,
+                        )
+                    )
+                }
+            }
+        }
+
+        private fun Cursor.getLongOrZero(index: Int) = if (isNull(index)) 0L else getLong(index)
+    }
+
+    private companion object {
+        const val MAX_PARALLEL_QUERIES = 10
+
+        val PROJECTION = arrayOf(
+            Document.COLUMN_DOCUMENT_ID,
+            Document.COLUMN_DISPLAY_NAME,
+            Document.COLUMN_MIME_TYPE,
+            Document.COLUMN_SIZE,
+            Document.COLUMN_LAST_MODIFIED,
+        )
+    }
+}
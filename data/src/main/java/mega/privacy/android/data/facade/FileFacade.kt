@@ -36,14 +36,8 @@ import androidx.documentfile.provider.DocumentFile
 import androidx.exifinterface.media.ExifInterface
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.async
-import kotlinx.coroutines.awaitAll
-import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.flow
-import kotlinx.coroutines.isActive
-import kotlinx.coroutines.sync.Semaphore
-import kotlinx.coroutines.sync.withPermit
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.extensions.toUri
 import mega.privacy.android.data.gateway.DeviceGateway
@@ -67,9 +61,7 @@ import java.io.InputStream
 import java.nio.file.Files
 import java.nio.file.Paths
 import java.nio.file.attribute.BasicFileAttributes
-import java.util.Stack
 import javax.inject.Inject
-import kotlin.coroutines.coroutineContext
 import kotlin.math.sqrt
 import kotlin.time.ExperimentalTime
 import kotlin.time.Instant
@@ -89,6 +81,7 @@ internal class FileFacade @Inject constructor(
     private val documentFileMapper: DocumentFileMapper,
     private val deviceGateway: DeviceGateway,
     private val documentFileWrapper: DocumentFileWrapper,
+    private val documentTreeScanner: DocumentTreeScanner,
 ) : FileGateway {
 
     override val localDCIMFolderPath: String
@@ -592,81 +585,17 @@ internal class FileFacade @Inject constructor(
     override suspend fun deleteFileByUri(uri: Uri): Boolean =
         context.contentResolver.delete(uri, null, null) > 0
 
-    override suspend fun getFilesInDocumentFolder(folder: UriPath): DocumentFolder {
-        val uri = folder.toUri()
-        val semaphore = Semaphore(10)
-        val document = if (isFileUri(uri)) {
-            DocumentFile.fromFile(uri.toFile())
-        } else {
-            DocumentFile.fromTreeUri(context, uri)
-        } ?: throw FileNotFoundException()
-        val files = document.listFiles()
-        val folders = files.filter { it.isDirectory }
-        val countMap = coroutineScope {
-            folders.map {
-                async {
-                    semaphore.withPermit {
-                        val childFiles = it.listFiles()
-                        val totalDirectory = childFiles.count { it.isDirectory }
-                        val totalFiles = childFiles.size - totalDirectory
-                        totalFiles to totalDirectory
-                    }
-                }
-            }
-        }.awaitAll()
-            .mapIndexed { index, pair ->
-                val file = folders[index]
-                file.uri to pair
-            }.toMap()
-
-        // length, lastModified is heavy operation, so we do it in parallel
-        val entities = coroutineScope {
-            files.mapNotNull { file ->
-                async {
-                    semaphore.withPermit {
-                        val documentUri = file.uri
-                        documentFileMapper(
-                            file = file,
-                            numFiles = countMap[documentUri]?.first ?: 0,
-                            numFolders = countMap[documentUri]?.second ?: 0
-                        )
-                    }
-                }
-            }.awaitAll()
-        }
-        return DocumentFolder(entities)
-    }
+    override suspend fun getFilesInDocumentFolder(folder: UriPath): DocumentFolder =
+        DocumentFolder(documentTreeScanner.getChildren(folder.toUri()))
 
     override fun searchFilesInDocumentFolderRecursive(
         folder: UriPath,
         query: String,
     ): Flow<DocumentFolder> = flow {
-        // using stack to avoid recursive call and optimize memory usage
-        val stack = Stack<DocumentFile>()
-        val uri = folder.value.toUri()
-        val document = if (isFileUri(folder.value)) {
-            DocumentFile.fromFile(uri.toFile())
-        } else {
-            DocumentFile.fromTreeUri(context, uri)
-        } ?: throw FileNotFoundException()
-        stack.addAll(document.listFiles())
         val result = mutableListOf<DocumentEntity>()
-        while (stack.isNotEmpty() && coroutineContext.isActive) {
-            val file = stack.pop()
-            val childFiles = if (file.isDirectory) file.listFiles().toList() else emptyList()
-            if (file.name.orEmpty().contains(other = query, ignoreCase = true)) {
-                result.add(
-                    documentFileMapper(
-                        file = file,
-                        numFiles = childFiles.count { it.isFile },
-                        numFolders = childFiles.count { it.isDirectory },
-                    )
-                )
-                emit(DocumentFolder(result))
-            }
-            if (file.isDirectory) {
-                stack.addAll(childFiles)
-            }
+        documentTreeScanner.search(folder.value.toUri(), query).collect {
+            result.add(it)
+            emit(DocumentFolder(result))
         }
         emit(DocumentFolder(result))
     }
@@ -1,15 +1,14 @@
 package mega.privacy.android.data.facade
 
 import kotlinx.coroutines.CoroutineScope
-import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.channels.awaitClose
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.SharingStarted
-import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.flow.shareIn
 import kotlinx.coroutines.launch
 import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.facade.transfer.ConflatingTransferEventQueue
 import mega.privacy.android.data.listener.IgnoredRequestListener
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.listener.OptionalMegaTransferListenerInterface
@@ -280,21 +279,22 @@ internal class MegaApiFacade @Inject constructor(
     )
 
     override val globalTransfer: Flow<GlobalTransfer> = callbackFlow {
+        val events = ConflatingTransferEventQueue()
         val listener = OptionalMegaTransferListenerInterface(
             onTransferStart = { transfer ->
-                trySend(GlobalTransfer.OnTransferStart(transfer))
+                events.offer(GlobalTransfer.OnTransferStart(transfer))
             },
             onTransferFinish = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferFinish(transfer, error))
+                events.offer(GlobalTransfer.OnTransferFinish(transfer, error))
             },
             onTransferUpdate = { transfer ->
-                trySend(GlobalTransfer.OnTransferUpdate(transfer))
+                events.offer(GlobalTransfer.OnTransferUpdate(transfer))
             },
             onTransferTemporaryError = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferTemporaryError(transfer, error))
+                events.offer(GlobalTransfer.OnTransferTemporaryError(transfer, error))
             },
             onTransferData = { transfer, buffer ->
-                trySend(GlobalTransfer.OnTransferData(transfer, buffer))
+                events.offer(GlobalTransfer.OnTransferData(transfer, buffer))
             },
             onFolderTransferUpdate = {
                     transfer,
@@ -305,7 +305,7 @@ internal class MegaApiFacade @Inject constructor(
                     currentFolder,
                     currentFileLeafName,
                 ->
-                trySend(
+                events.offer(
                     GlobalTransfer.OnFolderTransferUpdate(
                         transfer,
                         stage,
@@ -319,12 +319,19 @@ internal class MegaApiFacade @Inject constructor(
             },
         )
 
+        launch {
+            while (true) {
+                send(events.receive())
+            }
+        }
+
         addTransferListener(listener)
 
         awaitClose {
             removeTransferListener(listener)
+            Timber.d("Global transfer events coalesced: ${events.coalescedUpdates}, dropped: ${events.droppedUpdates}")
         }
-    }.buffer(Channel.Factory.UNLIMITED).shareIn(sharingScope, SharingStarted.WhileSubscribed())
+    }.shareIn(sharingScope, SharingStarted.WhileSubscribed())
 
     override fun getFavourites(
         node: MegaNode?,
@@ -8,6 +8,8 @@ import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
+import mega.privacy.android.data.cryptography.SearchGramHasher
+import mega.privacy.android.data.database.OfflineSearchGramsIndexer
 import mega.privacy.android.data.database.dao.ActiveTransferDao
 import mega.privacy.android.data.database.dao.ActiveTransferGroupDao
 import mega.privacy.android.data.database.dao.BackupDao
@@ -55,6 +57,7 @@ import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.backup.BackupInfoType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.chat.ChatPendingChanges
 import mega.privacy.android.domain.entity.pdf.LastPageViewedInPdf
@@ -93,6 +96,8 @@ internal class MegaLocalRoomFacade @Inject constructor(
     private val offlineDao: Lazy<OfflineDao>,
     private val offlineModelMapper: OfflineModelMapper,
     private val offlineEntityMapper: OfflineEntityMapper,
+    private val searchGramHasher: SearchGramHasher,
+    private val offlineSearchGramsIndexer: OfflineSearchGramsIndexer,
     private val chatPendingChangesDao: Lazy<ChatPendingChangesDao>,
     private val chatRoomPendingChangesEntityMapper: ChatRoomPendingChangesEntityMapper,
     private val chatRoomPendingChangesModelMapper: ChatRoomPendingChangesModelMapper,
@@ -130,31 +135,31 @@ internal class MegaLocalRoomFacade @Inject constructor(
     }
 
     override suspend fun updateContactMailByHandle(handle: Long, email: String?) {
-        contactDao.get().getContactByHandle(encryptData(handle.toString()))?.let { entity ->
+        contactDao.get().getContactByHandle(encryptData.encryptLookupKey(handle))?.let { entity ->
             contactDao.get().insertOrUpdateContact(entity.copy(mail = encryptData(email)))
         }
     }
 
     override suspend fun updateContactFistNameByHandle(handle: Long, firstName: String?) {
-        contactDao.get().getContactByHandle(encryptData(handle.toString()))?.let { entity ->
+        contactDao.get().getContactByHandle(encryptData.encryptLookupKey(handle))?.let { entity ->
             contactDao.get().insertOrUpdateContact(entity.copy(firstName = encryptData(firstName)))
         }
     }
 
     override suspend fun updateContactLastNameByHandle(handle: Long, lastName: String?) {
-        contactDao.get().getContactByHandle(encryptData(handle.toString()))?.let { entity ->
+        contactDao.get().getContactByHandle(encryptData.encryptLookupKey(handle))?.let { entity ->
             contactDao.get().insertOrUpdateContact(entity.copy(lastName = encryptData(lastName)))
         }
     }
 
     override suspend fun updateContactNicknameByHandle(handle: Long, nickname: String?) {
-        contactDao.get().getContactByHandle(encryptData(handle.toString()))?.let { entity ->
+        contactDao.get().getContactByHandle(encryptData.encryptLookupKey(handle))?.let { entity ->
             contactDao.get().insertOrUpdateContact(entity.copy(nickName = encryptData(nickname)))
         }
     }
 
     override suspend fun getContactByHandle(handle: Long): Contact? {
-        val encryptedHandle = encryptData(handle.toString())
+        val encryptedHandle = encryptData.encryptLookupKey(handle)
         return contactDao.get().getContactByHandle(encryptedHandle)?.let { entity ->
             contactModelMapper(entity)
         }
@@ -368,6 +373,9 @@ internal class MegaLocalRoomFacade @Inject constructor(
         )
     }
 
+    override suspend fun updateCameraUploadsRecords(updates: List<CameraUploadsRecordUpdate>) =
+        cameraUploadsRecordDao.get().updateCameraUploadsRecords(updates)
+
     override suspend fun deleteCameraUploadsRecords(folderTypes: List<CameraUploadFolderType>) =
         cameraUploadsRecordDao.get().deleteCameraUploadsRecordsByFolderType(folderTypes)
 
@@ -447,19 +455,29 @@ internal class MegaLocalRoomFacade @Inject constructor(
     }
 
     override suspend fun isOfflineInformationAvailable(nodeHandle: Long) =
-        offlineDao.get().getOfflineByHandle("${encryptData("$nodeHandle")}") != null
+        offlineDao.get().getOfflineByHandle("${encryptData.encryptLookupKey(nodeHandle)}") != null
 
     override suspend fun getOfflineInformation(nodeHandle: Long) =
-        offlineDao.get().getOfflineByHandle("${encryptData("$nodeHandle")}")?.let {
+        offlineDao.get().getOfflineByHandle("${encryptData.encryptLookupKey(nodeHandle)}")?.let {
             offlineModelMapper(it)
         }
 
+    override suspend fun getOfflineInformationByHandles(nodeHandles: List<Long>): List<Offline> {
+        if (nodeHandles.isEmpty()) return emptyList()
+        val encryptedHandles = nodeHandles.mapNotNull { encryptData("$it") }
+        return offlineDao.get().getOfflineByHandles(encryptedHandles, MAX_INSERT_LIST_SIZE)
+            .map { offlineModelMapper(it) }
+    }
+
     override suspend fun saveOfflineInformation(offline: Offline) =
         offlineEntityMapper(offline).let {
-            offlineDao.get().insertOrUpdateOffline(it)
+            offlineDao.get().insertOrUpdateOffline(it, searchGramHasher.hashNameGrams(offline.name))
         }
 
-    override suspend fun clearOffline() = offlineDao.get().deleteAllOffline()
+    override suspend fun clearOffline() {
+        offlineDao.get().deleteAllOffline()
+        offlineDao.get().deleteAllSearchGrams()
+    }
 
     override fun monitorOfflineUpdates() = offlineDao.get().monitorOffline()
         .map { it.map { offlineEntity -> offlineModelMapper(offlineEntity) } }
@@ -471,7 +489,20 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun removeOfflineInformation(nodeId: String) {
         encryptData(nodeId)?.let {
             offlineDao.get().deleteOfflineByHandle(it)
+            offlineDao.get().deleteOrphanSearchGrams()
+        }
+    }
+
+    override suspend fun searchOfflineInformation(query: String, parentId: Int?): List<Offline> {
+        val grams = searchGramHasher.hashQueryGrams(query)
+        if (grams.isEmpty()) {
+            return parentId?.let { getOfflineInfoByParentId(it) } ?: getAllOfflineInfo()
         }
+        offlineSearchGramsIndexer.indexOnce()
+        return with(offlineDao.get()) {
+            parentId?.let { getOfflineBySearchGrams(grams, grams.size, it) }
+                ?: getOfflineBySearchGrams(grams, grams.size)
+        }.map { offlineModelMapper(it) }
     }
 
     override suspend fun getOfflineInfoByParentId(parentId: Int): List<Offline> =
@@ -486,10 +517,12 @@ internal class MegaLocalRoomFacade @Inject constructor(
 
     override suspend fun removeOfflineInformationById(id: Int) {
         offlineDao.get().deleteOfflineById(id)
+        offlineDao.get().deleteSearchGramsByOfflineId(id)
     }
 
     override suspend fun removeOfflineInformationByIds(ids: List<Int>) {
         offlineDao.get().deleteOfflineByIds(ids)
+        offlineDao.get().deleteSearchGramsByOfflineIds(ids)
     }
 
     private suspend fun deleteCompletedTransferBatch(ids: List<Int>) {
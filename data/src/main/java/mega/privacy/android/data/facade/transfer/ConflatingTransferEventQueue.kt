@@ -0,0 +1,120 @@
+package mega.privacy.android.data.facade.transfer
+
+import kotlinx.coroutines.channels.Channel
+import mega.privacy.android.data.model.GlobalTransfer
+
+/**
+ * Queue of [GlobalTransfer] events that keeps only the latest pending update of each transfer
+ *
+ * [GlobalTransfer.OnTransferUpdate] and [GlobalTransfer.OnFolderTransferUpdate] events replace
+ * the pending update of the same kind and transfer tag, if it's not consumed yet, keeping its
+ * position in the queue. Any other event is always kept, in order, and a later update of the
+ * same transfer is queued after it, so the order of the events of a transfer is preserved.
+ *
+ * The number of pending updates is bounded by [maxPendingUpdates], updates of new transfers are
+ * dropped once it's reached. That's safe as the next update of that transfer will bring the
+ * latest values anyway.
+ *
+ * @param maxPendingUpdates maximum number of update events waiting to be consumed
+ */
+internal class ConflatingTransferEventQueue(
+    private val maxPendingUpdates: Int = DEFAULT_MAX_PENDING_UPDATES,
+) {
+    private class Entry(var event: GlobalTransfer, val updateKey: Long?)
+
+    private val lock = Any()
+    private val queue = ArrayDeque<Entry>()
+    private val pendingUpdates = HashMap<Long, Entry>()
+    private val signal = Channel<Unit>(Channel.CONFLATED)
+
+    /**
+     * Number of updates replaced by a newer update of the same transfer before being consumed
+     */
+    var coalescedUpdates = 0L
+        private set
+
+    /**
+     * Number of updates dropped because [maxPendingUpdates] was reached
+     */
+    var droppedUpdates = 0L
+        private set
+
+    /**
+     * Number of events waiting to be consumed
+     */
+    val size: Int
+        get() = synchronized(lock) { queue.size }
+
+    /**
+     * Add an event to the queue, it never blocks
+     */
+    fun offer(event: GlobalTransfer) {
+        synchronized(lock) {
+            val updateKey = event.updateKey()
+            if (updateKey == null) {
+                // later updates of this transfer need to go after this event
+                pendingUpdates.remove(fileUpdateKey(event.transfer.tag))
+                pendingUpdates.remove(folderUpdateKey(event.transfer.tag))
+                queue.addLast(Entry(event, null))
+            } else {
+                val pending = pendingUpdates[updateKey]
+                when {
+                    pending != null -> {
+                        pending.event = event
+                        coalescedUpdates++
+                    }
+
+                    pendingUpdates.size >= maxPendingUpdates -> {
+                        droppedUpdates++
+                        return
+                    }
+
+                    else -> {
+                        val entry = Entry(event, updateKey)
+                        pendingUpdates[updateKey] = entry
+                        queue.addLast(entry)
+                    }
+                }
+            }
+        }
+        signal.trySend(Unit)
+    }
+
+    /**
+     * @return the next event, or null if the queue is empty
+     */
+    fun poll(): GlobalTransfer? = synchronized(lock) {
+        val entry = queue.removeFirstOrNull() ?: return@synchronized null
+        entry.updateKey?.let { key ->
+            if (pendingUpdates[key] === entry) pendingUpdates.remove(key)
+        }
+        entry.event
+    }
+
+    /**
+     * Suspends until an event is available and returns it
+     */
+    suspend fun receive(): GlobalTransfer {
+        while (true) {
+            poll()?.let { return it }
+            signal.receive()
+        }
+    }
+
+    private fun GlobalTransfer.updateKey(): Long? = when (this) {
+        is GlobalTransfer.OnTransferUpdate -> fileUpdateKey(transfer.tag)
+        is GlobalTransfer.OnFolderTransferUpdate -> folderUpdateKey(transfer.tag)
+        else -> null
+    }
+
+    private fun fileUpdateKey(tag: Int) = tag.toLong() shl 1
+
+    private fun folderUpdateKey(tag: Int) = (tag.toLong() shl 1) or 1L
+
+    companion object {
+        /**
+         * Default maximum number of pending updates
+         */
+        const val DEFAULT_MAX_PENDING_UPDATES = 10_000
+    }
+}
@@ -1,5 +1,6 @@
 package mega.privacy.android.data.gateway
 
+import mega.privacy.android.data.model.node.NodeCacheFolders
 import java.io.File
 
 /**
@@ -59,6 +60,20 @@ interface CacheGateway {
      */
     suspend fun getFullSizeCacheFolder(): File?
 
+    /**
+     * Return node thumbnail, preview and full size folders
+     *
+     * The folders are created the first time, then the same folders are returned until the cache
+     * is cleared or [invalidateNodeCacheFolders] is called.
+     */
+    suspend fun getNodeCacheFolders(): NodeCacheFolders
+
+    /**
+     * Check the node cache folders again the next time they are requested, after the cache
+     * has been cleared or a write into one of them has failed
+     */
+    fun invalidateNodeCacheFolders()
+
 
     /**
      * Return Camera Uploads Cache Folder
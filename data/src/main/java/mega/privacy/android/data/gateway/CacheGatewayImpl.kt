@@ -5,6 +5,7 @@ import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.model.node.NodeCacheFolders
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import timber.log.Timber
 import java.io.File
@@ -25,6 +26,9 @@ internal class CacheGatewayImpl @Inject constructor(
         private const val VOICE_CLIP_FOLDER = "voiceClipsMEGA"
     }
 
+    @Volatile
+    private var nodeCacheFolders: NodeCacheFolders? = null
+
     override suspend fun getOrCreateCacheFolder(folderName: String): File? =
         withContext(ioDispatcher) {
             File(context.cacheDir, folderName).takeIf { it.exists() || it.mkdir() }
@@ -51,6 +55,7 @@ internal class CacheGatewayImpl @Inject constructor(
     }
 
     override suspend fun clearCacheDirectory() {
+        invalidateNodeCacheFolders()
         try {
             val dir = context.cacheDir
             dir.list()?.forEach {
@@ -70,6 +75,23 @@ internal class CacheGatewayImpl @Inject constructor(
     override suspend fun getFullSizeCacheFolder(): File? =
         getOrCreateCacheFolder(CacheFolderConstant.TEMPORARY_FOLDER)
 
+    override suspend fun getNodeCacheFolders(): NodeCacheFolders =
+        nodeCacheFolders ?: NodeCacheFolders(
+            thumbnailFolder = getThumbnailCacheFolder(),
+            previewFolder = getPreviewCacheFolder(),
+            fullSizeFolder = getFullSizeCacheFolder(),
+        ).also { folders ->
+            if (folders.thumbnailFolder != null && folders.previewFolder != null
+                && folders.fullSizeFolder != null
+            ) {
+                nodeCacheFolders = folders
+            }
+        }
+
+    override fun invalidateNodeCacheFolders() {
+        nodeCacheFolders = null
+    }
+
     override suspend fun getCameraUploadsCacheFolder(): File? =
         getOrCreateCacheFolder(CacheFolderConstant.CAMERA_UPLOADS_CACHE_FOLDER)
 
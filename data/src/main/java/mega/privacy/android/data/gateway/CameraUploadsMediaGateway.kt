@@ -2,6 +2,8 @@ package mega.privacy.android.data.gateway
 
 import android.net.Uri
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 
 /**
  * Camera Upload Media Files Gateway
@@ -21,6 +23,38 @@ interface CameraUploadsMediaGateway {
         selectionQuery: String?,
     ): List<CameraUploadsMedia>
 
+    /**
+     * Get the media for a given media type added or modified since the given watermark
+     *
+     * Falls back to a full scan if the watermark is null, if it was created for another volume,
+     * media store version or selection query, or if the device does not support media store
+     * generations
+     *
+     * @param uri different media store file type
+     * @param selectionQuery db query
+     * @param watermark the watermark returned by the previous scan
+     *
+     * @return the [CameraUploadsMediaScanResult]
+     */
+    suspend fun getMediaListSinceWatermark(
+        uri: Uri,
+        selectionQuery: String?,
+        watermark: CameraUploadsMediaScanWatermark?,
+    ): CameraUploadsMediaScanResult
+
+    /**
+     * Get the ids of the media for a given media type, reading only the id column
+     *
+     * @param uri different media store file type
+     * @param selectionQuery db query
+     *
+     * @return the ids of the media, or null if they can't be read
+     */
+    suspend fun getMediaIds(
+        uri: Uri,
+        selectionQuery: String?,
+    ): Set<Long>?
+
     /**
      * Get the selection query to filter the media based on the parent path
      *
@@ -9,6 +9,7 @@ import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.chat.ChatPendingChanges
 import mega.privacy.android.domain.entity.pdf.LastPageViewedInPdf
@@ -340,6 +341,13 @@ interface MegaLocalRoomGateway {
         generatedFingerprint: String,
     )
 
+    /**
+     * Apply a list of updates to the camera uploads records in a single transaction
+     *
+     * @param updates the list of [CameraUploadsRecordUpdate] to apply
+     */
+    suspend fun updateCameraUploadsRecords(updates: List<CameraUploadsRecordUpdate>)
+
     /**
      * Delete the camera uploads record given the folder types
      *
@@ -426,6 +434,17 @@ interface MegaLocalRoomGateway {
      */
     suspend fun getOfflineInformation(nodeHandle: Long): Offline?
 
+    /**
+     * Get the offline information of a list of nodes
+     *
+     * Only the rows of the given nodes are read and decrypted, so the cost depends on the number
+     * of nodes and not on the number of offline files
+     *
+     * @param nodeHandles
+     * @return the offline information of the nodes available offline
+     */
+    suspend fun getOfflineInformationByHandles(nodeHandles: List<Long>): List<Offline>
+
     /**
      * Save offline information
      *
@@ -453,6 +472,19 @@ interface MegaLocalRoomGateway {
      */
     suspend fun removeOfflineInformation(nodeId: String)
 
+    /**
+     * Get the offline nodes which may contain the query in their name
+     *
+     * Names are encrypted, so the candidates are selected with the keyed hashes of their
+     * trigrams. The result may contain nodes not matching the query, which must be filtered
+     * by the caller.
+     *
+     * @param query the searched text
+     * @param parentId id of the parent to search in, or null to search in every offline node
+     * @return the candidate offline nodes
+     */
+    suspend fun searchOfflineInformation(query: String, parentId: Int?): List<Offline>
+
     /**
      * Get offline node by parent id
      */
@@ -1,6 +1,7 @@
 package mega.privacy.android.data.gateway.preferences
 
 import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 
 /**
  * CameraUploads Settings Preference Gateway
@@ -205,4 +206,20 @@ interface CameraUploadsSettingsPreferenceGateway {
      * @param chargingRequired the new Device charging state
      */
     suspend fun setChargingRequiredToUploadContent(chargingRequired: Boolean)
+
+    /**
+     * Get the watermark of the last media store scan
+     *
+     * @param scanKey identifies the scanned folder and media store file type
+     * @return the [CameraUploadsMediaScanWatermark], or null if none is stored
+     */
+    suspend fun getMediaScanWatermark(scanKey: String): CameraUploadsMediaScanWatermark?
+
+    /**
+     * Set the watermark of the last media store scan
+     *
+     * @param scanKey identifies the scanned folder and media store file type
+     * @param watermark the [CameraUploadsMediaScanWatermark] to store, null to remove it
+     */
+    suspend fun setMediaScanWatermark(scanKey: String, watermark: CameraUploadsMediaScanWatermark?)
 }
@@ -3,7 +3,7 @@ package mega.privacy.android.data.logging
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
-import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.SharedFlow
 import kotlinx.coroutines.launch
@@ -14,17 +14,25 @@ import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.entity.logging.LogPriority
 import mega.privacy.android.domain.usecase.CreateLogEntry
 import timber.log.Timber
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * Sdk log flow tree
  *
  * Implementation of [Timber.Tree] that converts logging events from the sdk listener to a flow
  *
+ * Logging a line only adds it to a [LogRingBuffer], a single writer coroutine creates the log
+ * entries and emits them. The caller stack trace of app lines is captured when the line is
+ * logged, but its frames are only read by the writer.
+ *
  * @property logFlow a flow where all sdk log messages are emitted
+ * @param capacity maximum number of lines waiting for the writer, new lines are dropped when
+ * it's reached
  */
 internal class LogFlowTree(
     dispatcher: CoroutineDispatcher,
     private val createLogEntry: CreateLogEntry,
+    capacity: Int = DEFAULT_CAPACITY,
 ) : Timber.Tree() {
 
     private val scope = CoroutineScope(Job() + dispatcher)
@@ -32,8 +40,7 @@ internal class LogFlowTree(
     private val _logFlow =
         MutableSharedFlow<LogEntry>(
             replay = 0,
-            extraBufferCapacity = 1,
-            onBufferOverflow = BufferOverflow.DROP_OLDEST
+            extraBufferCapacity = WRITER_BUFFER_CAPACITY,
         )
     val logFlow: SharedFlow<LogEntry> = _logFlow
 
@@ -50,25 +57,64 @@ internal class LogFlowTree(
         TimberMegaLogger::class.java.name
     )
 
+    private val lines = LogRingBuffer(capacity)
+    private val linesAdded = Channel<Unit>(Channel.CONFLATED)
+    private val dropped = AtomicLong()
+    private val written = AtomicLong()
+
+    /**
+     * Number of lines dropped because the writer was too far behind
+     */
+    val droppedLines: Long
+        get() = dropped.get()
+
+    /**
+     * Number of log entries emitted by the writer
+     */
+    val writtenLines: Long
+        get() = written.get()
+
+    init {
+        scope.launch {
+            while (true) {
+                linesAdded.receive()
+                while (true) {
+                    val request = lines.poll { it.toRequest() } ?: break
+                    createLogEntry(request)?.let {
+                        _logFlow.emit(it)
+                        written.incrementAndGet()
+                    }
+                }
+            }
+        }
+    }
+
     override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
-        val trace = if (tag == TimberChatLogger.TAG || tag == TimberMegaLogger.TAG) {
-            emptyList()
+        val caller = if (tag == TimberChatLogger.TAG || tag == TimberMegaLogger.TAG) {
+            null
         } else {
-            Throwable().stackTrace.take(10)
+            Throwable()
         }
-        scope.launch {
-            createLogEntry(
-                CreateLogEntryRequest(
-                    tag = tag,
-                    message = message,
-                    priority = LogPriority.fromInt(priority),
-                    throwable = t,
-                    trace = trace,
-                    loggingClasses = ignoredClasses,
-                    sdkLoggers = sdkLoggers
-                )
-            )?.let { _logFlow.emit(it) }
+        if (lines.offer(priority, tag, message, t, caller)) {
+            linesAdded.trySend(Unit)
+        } else {
+            dropped.incrementAndGet()
         }
     }
 
-}
\ No newline at end of file
+    private fun LogRingBuffer.Line.toRequest() = CreateLogEntryRequest(
+        tag = tag,
+        message = message,
+        priority = LogPriority.fromInt(priority),
+        throwable = throwable,
+        trace = caller?.stackTrace?.take(TRACE_SIZE).orEmpty(),
+        loggingClasses = ignoredClasses,
+        sdkLoggers = sdkLoggers
+    )
+
+    private companion object {
+        const val DEFAULT_CAPACITY = 8192
+        const val WRITER_BUFFER_CAPACITY = 64
+        const val TRACE_SIZE = 10
+    }
+}
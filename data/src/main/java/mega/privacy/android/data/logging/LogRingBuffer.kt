@@ -0,0 +1,99 @@
+package mega.privacy.android.data.logging
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Bounded lock-free queue of log lines, for many producer threads and a single consumer
+ *
+ * The slots are allocated once and reused, so adding a line doesn't allocate. Each slot has a
+ * sequence number telling whether it's free for the producer of a position or ready for the
+ * consumer, so producers only compete on the tail position and never wait for each other.
+ * When the queue is full the line is not added.
+ *
+ * @param capacity maximum number of lines in the queue, rounded up to a power of two
+ */
+internal class LogRingBuffer(capacity: Int) {
+
+    /**
+     * A log line as received by the tree
+     */
+    class Line {
+        var priority = 0
+        var tag: String? = null
+        var message = ""
+        var throwable: Throwable? = null
+
+        /**
+         * Throwable created where the line was logged, its stack trace is only read by the consumer
+         */
+        var caller: Throwable? = null
+    }
+
+    private val size = Integer.highestOneBit((capacity - 1).coerceAtLeast(1)) shl 1
+    private val mask = size - 1L
+    private val lines = Array(size) { Line() }
+    private val sequences = AtomicLongArray(size).apply {
+        for (index in 0 until size) set(index, index.toLong())
+    }
+    private val tail = AtomicLong()
+
+    /**
+     * Only accessed by the consumer
+     */
+    private var head = 0L
+
+    /**
+     * Add a line to the queue
+     *
+     * @return false if the queue is full and the line has not been added
+     */
+    fun offer(
+        priority: Int,
+        tag: String?,
+        message: String,
+        throwable: Throwable?,
+        caller: Throwable?,
+    ): Boolean {
+        while (true) {
+            val position = tail.get()
+            val index = (position and mask).toInt()
+            val difference = sequences.get(index) - position
+            when {
+                difference < 0L -> return false
+                difference == 0L && tail.compareAndSet(position, position + 1) -> {
+                    with(lines[index]) {
+                        this.priority = priority
+                        this.tag = tag
+                        this.message = message
+                        this.throwable = throwable
+                        this.caller = caller
+                    }
+                    sequences.set(index, position + 1)
+                    return true
+                }
+                // else another producer took this position, try again with the next one
+            }
+        }
+    }
+
+    /**
+     * Remove the first line of the queue, it must be called from a single consumer at a time
+     *
+     * @param read reads the line, the line can't be used after it returns
+     * @return the result of [read], or null if the queue is empty
+     */
+    fun <T> poll(read: (Line) -> T): T? {
+        val index = (head and mask).toInt()
+        if (sequences.get(index) != head + 1) return null
+        val line = lines[index]
+        val result = read(line)
+        line.tag = null
+        line.message = ""
+        line.throwable = null
+        line.caller = null
+        sequences.set(index, head + size)
+        head++
+        return result
+    }
+}
@@ -20,6 +20,9 @@ import javax.inject.Inject
 /**
  * File node mapper
  *
+ * The cache folders are resolved by [CacheGateway.getNodeCacheFolders], so they are only checked
+ * once for all the nodes.
+ *
  * @property cacheGateway
  * @property megaApiGateway
  * @property fileTypeInfoMapper
@@ -45,50 +48,44 @@ internal class FileNodeMapper @Inject constructor(
         megaNode: MegaNode,
         requireSerializedData: Boolean,
         offline: Offline?,
-    ): FileNode = DefaultFileNode(
-        id = NodeId(megaNode.handle),
-        name = megaNode.name,
-        size = megaNode.size,
-        label = megaNode.label,
-        parentId = NodeId(megaNode.parentHandle),
-        base64Id = megaNode.base64Handle,
-        restoreId = NodeId(megaNode.restoreHandle).takeIf {
-            it.longValue != MegaApiJava.INVALID_HANDLE
-        },
-        creationTime = megaNode.creationTime,
-        modificationTime = megaNode.modificationTime,
-        thumbnailPath = getThumbnailCacheFilePath(
-            megaNode,
-            cacheGateway.getThumbnailCacheFolder()
-        ),
-        previewPath = getPreviewCacheFilePath(
-            megaNode,
-            cacheGateway.getPreviewCacheFolder()
-        ),
-        fullSizePath = getFullSizeCacheFilePath(
-            megaNode,
-            cacheGateway.getFullSizeCacheFolder()
-        ),
-        type = fileTypeInfoMapper(megaNode.name, megaNode.duration),
-        isFavourite = megaNode.isFavourite,
-        isMarkedSensitive = megaNode.isMarkedSensitive,
-        isSensitiveInherited = megaApiGateway.isSensitiveInherited(megaNode),
-        exportedData = megaNode.takeIf { megaNode.isExported }?.let {
-            ExportedData(it.publicLink, it.publicLinkCreationTime)
-        },
-        isTakenDown = megaNode.isTakenDown,
-        isIncomingShare = megaNode.isInShare,
-        fingerprint = megaNode.fingerprint,
-        originalFingerprint = megaNode.originalFingerprint,
-        isNodeKeyDecrypted = megaNode.isNodeKeyDecrypted,
-        hasThumbnail = megaNode.hasThumbnail(),
-        hasPreview = megaNode.hasPreview(),
-        serializedData = if (requireSerializedData) megaNode.serialize() else null,
-        isAvailableOffline = offline?.let { offlineAvailabilityMapper(megaNode, it) } ?: false,
-        versionCount = (megaApiGateway.getNumVersions(megaNode) - 1).coerceAtLeast(0),
-        description = megaNode.description,
-        tags = megaNode.tags?.let { stringListMapper(it) }
-    )
+    ): FileNode {
+        val cacheFolders = cacheGateway.getNodeCacheFolders()
+        return DefaultFileNode(
+            id = NodeId(megaNode.handle),
+            name = megaNode.name,
+            size = megaNode.size,
+            label = megaNode.label,
+            parentId = NodeId(megaNode.parentHandle),
+            base64Id = megaNode.base64Handle,
+            restoreId = NodeId(megaNode.restoreHandle).takeIf {
+                it.longValue != MegaApiJava.INVALID_HANDLE
+            },
+            creationTime = megaNode.creationTime,
+            modificationTime = megaNode.modificationTime,
+            thumbnailPath = getThumbnailCacheFilePath(megaNode, cacheFolders.thumbnailFolder),
+            previewPath = getPreviewCacheFilePath(megaNode, cacheFolders.previewFolder),
+            fullSizePath = getFullSizeCacheFilePath(megaNode, cacheFolders.fullSizeFolder),
+            type = fileTypeInfoMapper(megaNode.name, megaNode.duration),
+            isFavourite = megaNode.isFavourite,
+            isMarkedSensitive = megaNode.isMarkedSensitive,
+            isSensitiveInherited = megaApiGateway.isSensitiveInherited(megaNode),
+            exportedData = megaNode.takeIf { megaNode.isExported }?.let {
+                ExportedData(it.publicLink, it.publicLinkCreationTime)
+            },
+            isTakenDown = megaNode.isTakenDown,
+            isIncomingShare = megaNode.isInShare,
+            fingerprint = megaNode.fingerprint,
+            originalFingerprint = megaNode.originalFingerprint,
+            isNodeKeyDecrypted = megaNode.isNodeKeyDecrypted,
+            hasThumbnail = megaNode.hasThumbnail(),
+            hasPreview = megaNode.hasPreview(),
+            serializedData = if (requireSerializedData) megaNode.serialize() else null,
+            isAvailableOffline = offline?.let { offlineAvailabilityMapper(megaNode, it) } ?: false,
+            versionCount = (megaApiGateway.getNumVersions(megaNode) - 1).coerceAtLeast(0),
+            description = megaNode.description,
+            tags = megaNode.tags?.let { stringListMapper(it) }
+        )
+    }
 
     private fun getThumbnailCacheFilePath(megaNode: MegaNode, thumbnailFolder: File?): String? =
         thumbnailFolder?.let {
@@ -0,0 +1,131 @@
+package mega.privacy.android.data.mapper.transfer.active
+
+import mega.privacy.android.data.cache.LongLongHashMap
+import mega.privacy.android.domain.entity.transfer.ActiveTransfer
+import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
+import mega.privacy.android.domain.entity.transfer.getTransferGroup
+
+/**
+ * Applies transferred bytes changes to [ActiveTransferTotals] computed by
+ * [ActiveTransferTotalsMapper], without going through all the active transfers again
+ *
+ * The transfers are indexed once, then each change only updates the running sums of the totals
+ * and of the action group of the transfer. It gives the same result as mapping again the same
+ * active transfers with the new transferred bytes.
+ *
+ * @param totals the totals of [transfers] computed with [transferredBytes]
+ * @param transfers the active transfers of the totals
+ * @param transferredBytes the transferred bytes used to compute [totals]
+ */
+internal class ActiveTransferTotalsAggregator(
+    totals: ActiveTransferTotals,
+    transfers: List<ActiveTransfer>,
+    transferredBytes: Map<Long, Long>,
+) {
+    /**
+     * The totals with all the changes applied
+     */
+    var totals: ActiveTransferTotals = totals
+        private set
+
+    private val slotByUniqueId = LongLongHashMap(transfers.size)
+    private val fileTransfers = transfers.filter { !it.isFolderTransfer }
+    private val totalBytes = LongArray(fileTransfers.size)
+    private val countedBytes = LongArray(fileTransfers.size)
+    private val isFinished = BooleanArray(fileTransfers.size)
+    private val isCompleted = BooleanArray(fileTransfers.size)
+    private val groupIndex = IntArray(fileTransfers.size)
+
+    private var sumTransferredBytes = totals.transferredBytes
+    private var completedFiles = totals.totalCompletedFileTransfers
+    private val groupTransferredBytes = LongArray(totals.actionGroups.size) {
+        totals.actionGroups[it].transferredBytes
+    }
+    private val groupCompletedFiles = IntArray(totals.actionGroups.size) {
+        totals.actionGroups[it].completedFiles
+    }
+    private val changedGroups = BooleanArray(totals.actionGroups.size)
+
+    init {
+        val groupIndexById = totals.actionGroups
+            .withIndex()
+            .associate { (index, group) -> group.groupId to index }
+        fileTransfers.forEachIndexed { slot, transfer ->
+            slotByUniqueId.put(transfer.uniqueId, slot.toLong())
+            val bytes = transferredBytes[transfer.uniqueId]
+            totalBytes[slot] = transfer.totalBytes
+            isFinished[slot] = transfer.isFinished
+            isCompleted[slot] = transfer.isFinished && bytes == transfer.totalBytes
+            //if it's finished always totalBytes as it can be cancelled or failed
+            countedBytes[slot] = if (transfer.isFinished) transfer.totalBytes else bytes ?: 0L
+            groupIndex[slot] = transfer.getTransferGroup()?.groupId?.toInt()
+                ?.let { groupIndexById[it] } ?: NO_GROUP
+        }
+    }
+
+    /**
+     * Apply transferred bytes changes
+     *
+     * @param ids unique ids of the changed transfers, ids of other transfers are ignored
+     * @param bytes new transferred bytes of each transfer, in the same order as [ids]
+     * @return the updated totals, the same instance if nothing changed
+     */
+    fun apply(ids: LongArray, bytes: LongArray): ActiveTransferTotals {
+        var changed = false
+        ids.forEachIndexed { index, id ->
+            val slot = slotByUniqueId.get(id, NO_SLOT).toInt()
+            if (slot != NO_SLOT.toInt() && applyChange(slot, bytes[index])) changed = true
+        }
+        if (changed) {
+            totals = buildTotals()
+            changedGroups.fill(false)
+        }
+        return totals
+    }
+
+    private fun applyChange(slot: Int, bytes: Long): Boolean {
+        val group = groupIndex[slot]
+        return if (isFinished[slot]) {
+            val completed = bytes == totalBytes[slot]
+            if (completed == isCompleted[slot]) return false
+            isCompleted[slot] = completed
+            val delta = if (completed) 1 else -1
+            completedFiles += delta
+            if (group != NO_GROUP) {
+                groupCompletedFiles[group] += delta
+                changedGroups[group] = true
+            }
+            true
+        } else {
+            val delta = bytes - countedBytes[slot]
+            if (delta == 0L) return false
+            countedBytes[slot] = bytes
+            sumTransferredBytes += delta
+            if (group != NO_GROUP) {
+                groupTransferredBytes[group] += delta
+                changedGroups[group] = true
+            }
+            true
+        }
+    }
+
+    private fun buildTotals() = totals.copy(
+        transferredBytes = sumTransferredBytes,
+        totalCompletedFileTransfers = completedFiles,
+        actionGroups = totals.actionGroups.mapIndexed { index, group ->
+            if (changedGroups[index]) {
+                group.copy(
+                    transferredBytes = groupTransferredBytes[index],
+                    completedFiles = groupCompletedFiles[index],
+                )
+            } else {
+                group
+            }
+        },
+    )
+
+    private companion object {
+        const val NO_GROUP = -1
+        const val NO_SLOT = -1L
+    }
+}
@@ -0,0 +1,125 @@
+package mega.privacy.android.data.mapper.zipbrowser
+
+import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
+import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
+import java.io.File
+import java.util.AbstractMap.SimpleImmutableEntry
+import java.util.zip.ZipEntry
+
+/**
+ * Map of the [ZipTreeNode]s of a zip file, keyed by path
+ *
+ * The tree is built in a single pass over the zip entries: every path is split once and each of
+ * its folders is found through the children of its parent, so the cost is linear in the length
+ * of the entry names. Missing folders are created as in the zip file structure.
+ *
+ * [ZipTreeNode]s are only created when a node is read from the map, and the children of a node
+ * are created when they are read from its children list, so opening a folder of a huge zip file
+ * only creates the nodes of that folder.
+ *
+ * @param zipEntries the entries of the zip file
+ * @param zipTreeNodeMapper [ZipTreeNodeMapper] to create the nodes
+ */
+internal class ZipNodeTree(
+    zipEntries: Sequence<ZipEntry>,
+    private val zipTreeNodeMapper: ZipTreeNodeMapper,
+) : AbstractMap<String, ZipTreeNode>() {
+
+    private class NodeBuilder(
+        val zipEntry: ZipEntry,
+        val name: String,
+        val path: String,
+        val parentPath: String?,
+        val zipEntryType: ZipEntryType,
+    ) {
+        var children: MutableMap<String, NodeBuilder>? = null
+        var node: ZipTreeNode? = null
+    }
+
+    private inner class ChildrenList(
+        private val builders: List<NodeBuilder>,
+    ) : AbstractList<ZipTreeNode>() {
+        override val size = builders.size
+
+        override fun get(index: Int) = materialize(builders[index])
+    }
+
+    private val lock = Any()
+
+    /**
+     * All the nodes by path, in creation order
+     */
+    private val nodes = LinkedHashMap<String, NodeBuilder>()
+
+    private val rootNodes = HashMap<String, NodeBuilder>()
+
+    init {
+        zipEntries.forEach { add(it) }
+    }
+
+    private fun add(zipEntry: ZipEntry) {
+        val entryName = zipEntry.name
+        val names = entryName.removeSuffix(File.separator).split(File.separator)
+        var parent: NodeBuilder? = null
+        names.forEachIndexed { index, name ->
+            val siblings = parent?.childrenBuilders() ?: rootNodes
+            parent = siblings[name] ?: run {
+                val isLast = index == names.lastIndex
+                val parentPath = parent?.path
+                val path = parentPath?.let { it + File.separator + name } ?: name
+                NodeBuilder(
+                    zipEntry = zipEntry,
+                    name = name,
+                    path = path,
+                    parentPath = parentPath,
+                    zipEntryType = when {
+                        !isLast || zipEntry.isDirectory -> ZipEntryType.Folder
+                        entryName.endsWith(SUFFIX_ZIP) -> ZipEntryType.Zip
+                        else -> ZipEntryType.File
+                    }
+                ).also {
+                    siblings[name] = it
+                    nodes[path] = it
+                }
+            }
+        }
+    }
+
+    private fun NodeBuilder.childrenBuilders() =
+        children ?: LinkedHashMap<String, NodeBuilder>().also { children = it }
+
+    private fun materialize(builder: NodeBuilder): ZipTreeNode = synchronized(lock) {
+        builder.node ?: zipTreeNodeMapper(
+            zipEntry = builder.zipEntry,
+            name = builder.name,
+            path = builder.path,
+            parentPath = builder.parentPath,
+            zipEntryType = builder.zipEntryType,
+            children = builder.children?.let { ChildrenList(it.values.toList()) } ?: emptyList(),
+        ).also { builder.node = it }
+    }
+
+    override val size: Int
+        get() = nodes.size
+
+    override val keys: Set<String>
+        get() = nodes.keys
+
+    override fun containsKey(key: String) = nodes.containsKey(key)
+
+    override fun get(key: String) = nodes[key]?.let { materialize(it) }
+
+    override val entries: Set<Map.Entry<String, ZipTreeNode>> =
+        object : AbstractSet<Map.Entry<String, ZipTreeNode>>() {
+            override val size: Int
+                get() = nodes.size
+
+            override fun iterator() = nodes.values.asSequence()
+                .map { SimpleImmutableEntry(it.path, materialize(it)) }
+                .iterator()
+        }
+
+    private companion object {
+        const val SUFFIX_ZIP = ".zip"
+    }
+}
@@ -17,6 +17,7 @@ class ZipTreeNodeMapper @Inject constructor() {
      * @param name zip entry name
      * @param path zip entry path
      * @param parentPath the parent path of current zip entry
+     * @param children the files or folders under current zip entry
      * @return ZipTreeNode
      */
     operator fun invoke(
@@ -25,12 +26,13 @@ class ZipTreeNodeMapper @Inject constructor() {
         path: String,
         parentPath: String?,
         zipEntryType: ZipEntryType,
+        children: List<ZipTreeNode> = emptyList(),
     ) = ZipTreeNode(
         name = name,
         path = path,
         size = zipEntry.size,
         zipEntryType = zipEntryType,
         parentPath = parentPath,
-        children = emptyList()
+        children = children
     )
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package mega.privacy.android.data.model.node
+
+import java.io.File
+
+/**
+ * Cache folders of the thumbnails, previews and full size files of the nodes
+ *
+ * @property thumbnailFolder
+ * @property previewFolder
+ * @property fullSizeFolder
+ */
+internal data class NodeCacheFolders(
+    val thumbnailFolder: File?,
+    val previewFolder: File?,
+    val fullSizeFolder: File?,
+)
@@ -13,6 +13,7 @@ import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
 import mega.privacy.android.data.extensions.monitor
 import mega.privacy.android.data.gateway.preferences.CameraUploadsSettingsPreferenceGateway
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 import javax.inject.Inject
 import javax.inject.Named
 
@@ -304,4 +305,56 @@ internal class CameraUploadsSettingsPreferenceDataStore(
             }
         }
     }
+
+    override suspend fun getMediaScanWatermark(scanKey: String): CameraUploadsMediaScanWatermark? {
+        return getPreferenceFlow().monitor(mediaScanWatermarkKey(scanKey))
+            .map { decryptData(it)?.toMediaScanWatermark() }.firstOrNull()
+    }
+
+    override suspend fun setMediaScanWatermark(
+        scanKey: String,
+        watermark: CameraUploadsMediaScanWatermark?,
+    ) {
+        val encryptedValue = encryptData(watermark?.toPreferenceValue())
+        editPreferences {
+            if (encryptedValue == null) {
+                it.remove(mediaScanWatermarkKey(scanKey))
+            } else {
+                it[mediaScanWatermarkKey(scanKey)] = encryptedValue
+            }
+        }
+    }
+
+    private fun mediaScanWatermarkKey(scanKey: String) =
+        stringPreferencesKey("mediaScanWatermarkKey_$scanKey")
+
+    /**
+     * The selection query is stored last, as it is the only field that may contain the separator
+     */
+    private fun CameraUploadsMediaScanWatermark.toPreferenceValue() = listOf(
+        volumeName,
+        mediaStoreVersion,
+        generation,
+        maxMediaId,
+        retryMediaIds.joinToString(MEDIA_IDS_SEPARATOR),
+        selectionQuery.orEmpty(),
+    ).joinToString(WATERMARK_SEPARATOR)
+
+    private fun String.toMediaScanWatermark() = runCatching {
+        val values = split(WATERMARK_SEPARATOR, limit = 6)
+        CameraUploadsMediaScanWatermark(
+            volumeName = values[0],
+            mediaStoreVersion = values[1],
+            generation = values[2].toLong(),
+            maxMediaId = values[3].toLong(),
+            retryMediaIds = values[4].takeIf { it.isNotEmpty() }
+                ?.split(MEDIA_IDS_SEPARATOR)?.map { it.toLong() }.orEmpty(),
+            selectionQuery = values[5].takeIf { it.isNotEmpty() },
+        )
+    }.getOrNull()
+
+    companion object {
+        private const val WATERMARK_SEPARATOR = "|"
+        private const val MEDIA_IDS_SEPARATOR = ","
+    }
 }
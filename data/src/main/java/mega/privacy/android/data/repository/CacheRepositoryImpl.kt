@@ -4,6 +4,7 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.gateway.CacheFolderGateway
+import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.CacheRepository
 import java.io.File
@@ -14,6 +15,7 @@ import javax.inject.Inject
  */
 internal class CacheRepositoryImpl @Inject constructor(
     private val cacheFolderGateway: CacheFolderGateway,
+    private val cacheGateway: CacheGateway,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : CacheRepository {
     override suspend fun getCacheSize(): Long = withContext(ioDispatcher) {
@@ -22,6 +24,7 @@ internal class CacheRepositoryImpl @Inject constructor(
 
     override suspend fun clearCache() = withContext(ioDispatcher) {
         cacheFolderGateway.clearCache()
+        cacheGateway.invalidateNodeCacheFolders()
     }
 
     override fun getCacheFile(folderName: String, fileName: String): File? =
@@ -42,7 +42,10 @@ import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.backup.BackupRemovalStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
 import mega.privacy.android.domain.entity.camerauploads.HeartbeatStatus
@@ -227,6 +230,68 @@ internal class CameraUploadsRepositoryImpl @Inject constructor(
         queue
     }
 
+    override suspend fun getMediaListSinceWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        selectionQuery: String?,
+        watermark: CameraUploadsMediaScanWatermark?,
+    ): CameraUploadsMediaScanResult = withContext(ioDispatcher) {
+        val result = cameraUploadsMediaGateway.getMediaListSinceWatermark(
+            mediaStoreFileTypeUriMapper(mediaStoreFileType),
+            selectionQuery,
+            watermark,
+        )
+        Timber.d("$mediaStoreFileType rows read from media store database: ${result.rowsRead}, full scan: ${result.isFullScan}")
+        result
+    }
+
+    override suspend fun getMediaIds(
+        mediaStoreFileType: MediaStoreFileType,
+        selectionQuery: String?,
+    ) = withContext(ioDispatcher) {
+        cameraUploadsMediaGateway.getMediaIds(
+            mediaStoreFileTypeUriMapper(mediaStoreFileType),
+            selectionQuery,
+        )
+    }
+
+    override suspend fun getMediaScanWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        folderType: CameraUploadFolderType,
+    ) = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.getMediaScanWatermark(
+            getMediaScanKey(mediaStoreFileType, folderType)
+        )
+    }
+
+    override suspend fun setMediaScanWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        folderType: CameraUploadFolderType,
+        watermark: CameraUploadsMediaScanWatermark?,
+    ) = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.setMediaScanWatermark(
+            getMediaScanKey(mediaStoreFileType, folderType),
+            watermark,
+        )
+    }
+
+    override suspend fun clearMediaScanWatermarks(
+        folderTypes: List<CameraUploadFolderType>,
+    ) = withContext(ioDispatcher) {
+        folderTypes.forEach { folderType ->
+            MediaStoreFileType.entries.forEach { mediaStoreFileType ->
+                cameraUploadsSettingsPreferenceGateway.setMediaScanWatermark(
+                    getMediaScanKey(mediaStoreFileType, folderType),
+                    null,
+                )
+            }
+        }
+    }
+
+    private fun getMediaScanKey(
+        mediaStoreFileType: MediaStoreFileType,
+        folderType: CameraUploadFolderType,
+    ) = "${folderType.name}_${mediaStoreFileType.name}"
+
     override suspend fun isChargingRequiredForVideoCompression() = withContext(ioDispatcher) {
         cameraUploadsSettingsPreferenceGateway.isChargingRequiredForVideoCompression()
     }
@@ -586,10 +651,18 @@ internal class CameraUploadsRepositoryImpl @Inject constructor(
         )
     }
 
+    override suspend fun updateRecords(
+        updates: List<CameraUploadsRecordUpdate>,
+    ) = withContext(ioDispatcher) {
+        megaLocalRoomGateway.updateCameraUploadsRecords(updates)
+    }
+
     override suspend fun clearRecords(
         folderTypes: List<CameraUploadFolderType>,
     ) = withContext(ioDispatcher) {
         megaLocalRoomGateway.deleteCameraUploadsRecords(folderTypes)
+        // Without records, the media already scanned need to be read again
+        clearMediaScanWatermarks(folderTypes)
     }
 
     override fun monitorIsChargingRequiredToUploadContent(): Flow<Boolean?> =
@@ -7,25 +7,25 @@ import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.channels.SendChannel
 import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.flow.cancellable
-import kotlinx.coroutines.flow.combine
 import kotlinx.coroutines.flow.emitAll
-import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
-import kotlinx.coroutines.flow.scan
+import kotlinx.coroutines.flow.transform
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.TransferredBytesCache
 import mega.privacy.android.data.extensions.failWithError
 import mega.privacy.android.data.extensions.getRequestListener
 import mega.privacy.android.data.gateway.AppEventGateway
@@ -46,6 +46,7 @@ import mega.privacy.android.data.mapper.transfer.PausedTransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferAppDataStringMapper
 import mega.privacy.android.data.mapper.transfer.TransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferMapper
+import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsAggregator
 import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
 import mega.privacy.android.data.model.GlobalTransfer
 import mega.privacy.android.domain.entity.node.NodeId
@@ -81,6 +82,7 @@ import timber.log.Timber
 import java.io.File
 import javax.inject.Inject
 import javax.inject.Singleton
+import kotlin.time.Duration.Companion.milliseconds
 import kotlin.time.Duration.Companion.seconds
 import kotlin.time.ExperimentalTime
 import kotlin.time.Instant
@@ -137,8 +139,8 @@ internal class DefaultTransfersRepository @Inject constructor(
     /**
      * to store current transferred bytes in memory instead of in database
      */
-    private val transferredBytesFlows: Map<TransferType, MutableStateFlow<Map<Long, Long>>> =
-        TransferType.entries.associateWith { MutableStateFlow(mapOf()) }
+    private val transferredBytesCaches: Map<TransferType, TransferredBytesCache> =
+        TransferType.entries.associateWith { TransferredBytesCache() }
 
     init {
         //pause transfers if db indicates it should be paused
@@ -316,9 +318,10 @@ internal class DefaultTransfersRepository @Inject constructor(
                 pausedTransferEventMapper(event) {
                     getTransferByTag(event.request.transferTag)
                 }
-            },
+            }.buffer(capacity = Channel.UNLIMITED),
         )
-            .buffer(capacity = Channel.UNLIMITED)
+            // not unlimited, so transfer updates are conflated upstream while the collector is busy
+            .buffer()
             .flowOn(ioDispatcher)
 
     override suspend fun cancelTransferByTag(transferTag: Int) = withContext(ioDispatcher) {
@@ -541,27 +544,28 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     override suspend fun updateTransferredBytes(transfers: List<Transfer>) =
         withContext(ioDispatcher) {
-            val grouped = transfers.groupBy { it.transferType }
+            val grouped = transfers.filter { it.transferredBytes != 0L }.groupBy { it.transferType }
             grouped.forEach { (transferType, transfersOfThisType) ->
-                val tagToBytes =
-                    transfersOfThisType.mapNotNull { if (it.transferredBytes == 0L) null else it.uniqueId to it.transferredBytes }
-                transferredBytesFlow(transferType).update { map ->
-                    map + tagToBytes
-                }
+                transferredBytesCache(transferType).update(
+                    ids = LongArray(transfersOfThisType.size) { transfersOfThisType[it].uniqueId },
+                    bytes = LongArray(transfersOfThisType.size) {
+                        transfersOfThisType[it].transferredBytes
+                    },
+                )
             }
         }
 
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.deleteAllActiveTransfersByType(transferType)
-            transferredBytesFlow(transferType).value = mapOf()
+            transferredBytesCache(transferType).clear()
         }
 
     override suspend fun deleteAllActiveTransfers() =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.deleteAllActiveTransfers()
             TransferType.entries.forEach {
-                transferredBytesFlow(it).value = mapOf()
+                transferredBytesCache(it).clear()
             }
         }
 
@@ -572,31 +576,81 @@ internal class DefaultTransfersRepository @Inject constructor(
         megaLocalRoomGateway.setActiveTransfersAsFinishedByUniqueId(uniqueIds, cancelled)
     }
 
+    /**
+     * Totals are mapped from all the active transfers only when they change. Transferred bytes
+     * changes are applied incrementally by [ActiveTransferTotalsAggregator], at most once every
+     * [TRANSFERRED_BYTES_TOTALS_PERIOD].
+     */
     override fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals> =
         flow {
-            val transferredBytesFlow = transferredBytesFlow(transferType)
+            val transferredBytesCache = transferredBytesCache(transferType)
+            var activeTransfers: List<ActiveTransfer>? = null
+            var totals: ActiveTransferTotals? = null
+            var aggregator: ActiveTransferTotalsAggregator? = null
+            var transferredBytes: Map<Long, Long> = emptyMap()
+            var sequence = 0L
+
+            suspend fun mapTotals(list: List<ActiveTransfer>): ActiveTransferTotals {
+                val (currentTransferredBytes, currentSequence) = transferredBytesCache.snapshot()
+                return activeTransferTotalsMapper(
+                    type = transferType,
+                    list = list,
+                    transferredBytes = currentTransferredBytes,
+                    previousActionGroups = totals?.actionGroups
+                ).also {
+                    activeTransfers = list
+                    totals = it
+                    aggregator = null
+                    transferredBytes = currentTransferredBytes
+                    sequence = currentSequence
+                }
+            }
+
+            suspend fun applyTransferredBytesChanges(): ActiveTransferTotals? {
+                val list = activeTransfers ?: return null
+                val currentTotals = totals ?: return null
+                val changes = transferredBytesCache.changesSince(sequence)
+                    ?: return mapTotals(list)
+                sequence = changes.sequence
+                if (changes.ids.isEmpty()) return null
+                val totalsAggregator = aggregator
+                    ?: ActiveTransferTotalsAggregator(currentTotals, list, transferredBytes)
+                        .also { aggregator = it }
+                return totalsAggregator.apply(changes.ids, changes.transferredBytes)
+                    .takeIf { it !== currentTotals }
+                    ?.also { totals = it }
+            }
+
             emitAll(
-                megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
-                    .combine(transferredBytesFlow) { activeTransfers, transferredBytes ->
-                        activeTransfers to transferredBytes
+                merge(
+                    megaLocalRoomGateway.getActiveTransfersByType(transferType)
+                        .flowOn(ioDispatcher)
+                        .map { TotalsUpdate.ActiveTransfers(it) },
+                    // version is a state flow, so it's conflated while waiting for the period
+                    transferredBytesCache.version.transform {
+                        emit(TotalsUpdate.TransferredBytes)
+                        delay(TRANSFERRED_BYTES_TOTALS_PERIOD)
+                    },
+                ).mapNotNull { update ->
+                    when (update) {
+                        is TotalsUpdate.ActiveTransfers -> mapTotals(update.list)
+                        TotalsUpdate.TransferredBytes -> applyTransferredBytesChanges()
                     }
-                    .scan(null as ActiveTransferTotals?) { previousTotals, (activeTransfers, transferredBytes) ->
-                        activeTransferTotalsMapper(
-                            type = transferType,
-                            list = activeTransfers,
-                            transferredBytes = transferredBytes,
-                            previousActionGroups = previousTotals?.actionGroups
-                        )
-                    }.filterNotNull() //skip first null value
+                }
             )
         }.cancellable()
 
+    private sealed interface TotalsUpdate {
+        data class ActiveTransfers(val list: List<ActiveTransfer>) : TotalsUpdate
+        data object TransferredBytes : TotalsUpdate
+    }
+
     override suspend fun getCurrentActiveTransferTotalsByType(transferType: TransferType): ActiveTransferTotals =
         withContext(ioDispatcher) {
             activeTransferTotalsMapper(
                 type = transferType,
                 list = megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType),
-                transferredBytes = transferredBytesFlow(transferType).value,
+                transferredBytes = transferredBytesCache(transferType).snapshot().first,
             )
         }
 
@@ -692,8 +746,8 @@ internal class DefaultTransfersRepository @Inject constructor(
         megaApiGateway.currentDownloadSpeed
     }
 
-    private fun transferredBytesFlow(transferType: TransferType): MutableStateFlow<Map<Long, Long>> =
-        transferredBytesFlows[transferType] ?: error("Unknown transfer type: $transferType")
+    private fun transferredBytesCache(transferType: TransferType): TransferredBytesCache =
+        transferredBytesCaches[transferType] ?: error("Unknown transfer type: $transferType")
 
     override fun monitorAskedResumeTransfers() = monitorAskedResumeTransfers.asStateFlow()
 
@@ -870,6 +924,11 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     companion object {
         internal const val TRANSFERS_SD_TEMPORARY_FOLDER = "transfersSdTempMEGA"
+
+        /**
+         * Minimum period between two totals emissions caused by transferred bytes changes
+         */
+        internal val TRANSFERRED_BYTES_TOTALS_PERIOD = 200.milliseconds
     }
 }
 
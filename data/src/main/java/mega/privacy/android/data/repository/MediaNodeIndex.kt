@@ -0,0 +1,284 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.filterIsInstance
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.SortOrderIntMapper
+import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchTarget
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.usecase.logout.LogoutTask
+import nz.mega.sdk.MegaNode
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.time.TimeSource
+
+/**
+ * In memory index of the media nodes of the account, by search category, shared by the media
+ * sections
+ *
+ * The nodes of a category are searched once for each sort order, without the nodes in backups, and
+ * kept until a node update may change them. The listings, the text queries and the favourites of a
+ * category are then served from memory. A category is dropped when an update changes any of its
+ * nodes, adds or moves a file, or moves or removes a folder, as the SDK is needed to know the
+ * category of a file and the nodes under a folder. It is searched again on the next request.
+ *
+ * The out share flag of the parent folders is cached too, until the folder changes.
+ *
+ * Everything is dropped on logout, so the nodes of an account are never served to another one.
+ */
+@Singleton
+internal class MediaNodeIndex @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+    private val megaSearchFilterMapper: MegaSearchFilterMapper,
+    private val sortOrderIntMapper: SortOrderIntMapper,
+    private val cancelTokenProvider: CancelTokenProvider,
+    @ApplicationScope applicationScope: CoroutineScope,
+) : LogoutTask {
+
+    /**
+     * Size and cost of the index of a category
+     *
+     * @property category the search category
+     * @property size number of nodes of the category
+     * @property orders number of sort orders indexed
+     * @property builds number of times the category has been searched
+     * @property lastBuildMillis duration of the last search of the category
+     * @property hits number of requests served from memory
+     */
+    data class Stats(
+        val category: SearchCategory,
+        val size: Int,
+        val orders: Int,
+        val builds: Long,
+        val lastBuildMillis: Long,
+        val hits: Long,
+    )
+
+    private class CategoryIndex(val category: SearchCategory) {
+        val mutex = Mutex()
+        var generation = 0L
+        val nodesByOrder = HashMap<SortOrder, List<MegaNode>>()
+        val handles = HashSet<Long>()
+        var builds = 0L
+        var lastBuildMillis = 0L
+        var hits = 0L
+
+        fun clear() {
+            generation++
+            nodesByOrder.clear()
+            handles.clear()
+        }
+    }
+
+    private val lock = Any()
+    private val categories = HashMap<SearchCategory, CategoryIndex>()
+    private val outShares = HashMap<Long, Boolean>()
+
+    init {
+        applicationScope.launch {
+            megaApiGateway.globalUpdates
+                .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
+                .catch { Timber.e(it) }
+                .collect { onNodesUpdate(it.nodeList) }
+        }
+    }
+
+    /**
+     * Get the nodes of a category
+     *
+     * @param category the search category
+     * @param order the sort order of the nodes
+     * @param searchQuery text the name of the nodes contains, empty for all the nodes
+     * @param tag text a tag of the nodes contains, null to not filter by tag
+     * @param description text the description of the nodes contains, null to not filter by it
+     * @return the nodes, without the ones in backups
+     */
+    suspend fun getNodes(
+        category: SearchCategory,
+        order: SortOrder,
+        searchQuery: String = "",
+        tag: String? = null,
+        description: String? = null,
+    ): List<MegaNode> {
+        if (WILDCARDS.any { it in searchQuery }) {
+            // wildcards are only supported by the SDK
+            return search(category, order, searchQuery, tag, description)
+        }
+        val nodes = getAllNodes(category, order)
+        return if (searchQuery.isEmpty() && tag == null && description == null) {
+            nodes
+        } else {
+            nodes.filter { it.matches(searchQuery, tag, description) }
+        }
+    }
+
+    /**
+     * Get the favourite nodes of a category
+     *
+     * @param category the search category
+     * @param order the sort order of the nodes
+     * @return the favourite nodes, without the ones in backups
+     */
+    suspend fun getFavouriteNodes(category: SearchCategory, order: SortOrder): List<MegaNode> =
+        getAllNodes(category, order).filter { it.isFavourite }
+
+    /**
+     * @param parentHandle handle of the parent folder of a node
+     * @return true if the parent folder is shared with other users
+     */
+    suspend fun isParentOutShared(parentHandle: Long): Boolean {
+        synchronized(lock) { outShares[parentHandle] }?.let { return it }
+        val isOutShare = megaApiGateway.getMegaNodeByHandle(parentHandle)?.isOutShare == true
+        synchronized(lock) { outShares[parentHandle] = isOutShare }
+        return isOutShare
+    }
+
+    /**
+     * Drop all the categories and the out share flags
+     */
+    fun clear() = synchronized(lock) {
+        categories.values.forEach { it.clear() }
+        outShares.clear()
+    }
+
+    override suspend fun onLogoutSuccess() = clear()
+
+    /**
+     * @return the stats of the categories indexed
+     */
+    fun getStats(): List<Stats> = synchronized(lock) {
+        categories.values.map {
+            Stats(
+                category = it.category,
+                size = it.handles.size,
+                orders = it.nodesByOrder.size,
+                builds = it.builds,
+                lastBuildMillis = it.lastBuildMillis,
+                hits = it.hits,
+            )
+        }
+    }
+
+    private suspend fun getAllNodes(category: SearchCategory, order: SortOrder): List<MegaNode> {
+        val index = synchronized(lock) { categories.getOrPut(category) { CategoryIndex(category) } }
+        return index.mutex.withLock {
+            synchronized(lock) {
+                index.nodesByOrder[order]?.also { index.hits++ }
+            } ?: build(index, order)
+        }
+    }
+
+    private suspend fun build(index: CategoryIndex, order: SortOrder): List<MegaNode> {
+        val generation = synchronized(lock) { index.generation }
+        val start = TimeSource.Monotonic.markNow()
+        val token = cancelTokenProvider.getOrCreateCancelToken()
+        val nodes = megaApiGateway.searchWithFilter(
+            megaSearchFilterMapper(
+                searchTarget = SearchTarget.ROOT_NODES,
+                searchCategory = index.category,
+            ),
+            sortOrderIntMapper(order),
+            token,
+        ).filter { !megaApiGateway.isInBackups(it) }
+        val duration = start.elapsedNow().inWholeMilliseconds
+        synchronized(lock) {
+            // an update received during the search may not be included in its result
+            if (index.generation == generation && !token.isCancelled) {
+                index.nodesByOrder[order] = nodes
+                nodes.forEach { index.handles.add(it.handle) }
+            }
+            index.builds++
+            index.lastBuildMillis = duration
+        }
+        Timber.d("Media index of ${index.category} built in $duration ms with ${nodes.size} nodes")
+        return nodes
+    }
+
+    private suspend fun search(
+        category: SearchCategory,
+        order: SortOrder,
+        searchQuery: String,
+        tag: String?,
+        description: String?,
+    ): List<MegaNode> = megaApiGateway.searchWithFilter(
+        megaSearchFilterMapper(
+            searchTarget = SearchTarget.ROOT_NODES,
+            searchCategory = category,
+            searchQuery = searchQuery,
+            tag = tag,
+            description = description,
+            useAndForTextQuery = description == null && tag == null,
+        ),
+        sortOrderIntMapper(order),
+        cancelTokenProvider.getOrCreateCancelToken(),
+    ).filter { !megaApiGateway.isInBackups(it) }
+
+    /**
+     * Same criteria as the text filters of the SDK search: the name, the tags and the description
+     * are matched ignoring the case, with all the filters given when only the name is, or any of
+     * them otherwise
+     */
+    private fun MegaNode.matches(searchQuery: String, tag: String?, description: String?): Boolean {
+        val nameMatches = name.orEmpty().contains(searchQuery, ignoreCase = true)
+        if (tag == null && description == null) return nameMatches
+        return (searchQuery.isNotEmpty() && nameMatches) ||
+                tag?.let { tagMatches(it) } == true ||
+                description?.let { this.description.orEmpty().contains(it, ignoreCase = true) } == true
+    }
+
+    private fun MegaNode.tagMatches(tag: String): Boolean {
+        val tags = tags ?: return false
+        return (0 until tags.size()).any { tags.get(it).orEmpty().contains(tag, ignoreCase = true) }
+    }
+
+    private fun onNodesUpdate(nodes: List<MegaNode>?) = synchronized(lock) {
+        if (nodes == null) {
+            clear()
+            return@synchronized
+        }
+        var clearAll = false
+        nodes.forEach { node ->
+            if (node.isFolder) {
+                outShares.remove(node.handle)
+                if (node.changes and FOLDER_TREE_CHANGES != 0L) clearAll = true
+            } else {
+                var indexed = false
+                categories.values.forEach {
+                    if (node.handle in it.handles) {
+                        it.clear()
+                        indexed = true
+                    }
+                }
+                if (!indexed && node.changes and FILE_ADDED_CHANGES != 0L) clearAll = true
+            }
+        }
+        if (clearAll) categories.values.forEach { it.clear() }
+    }
+
+    private companion object {
+        val WILDCARDS = charArrayOf('*', '?')
+
+        /**
+         * Changes of a folder that may move its files in or out of a category
+         */
+        const val FOLDER_TREE_CHANGES =
+            MegaNode.CHANGE_TYPE_REMOVED.toLong() or MegaNode.CHANGE_TYPE_PARENT.toLong()
+
+        /**
+         * Changes of a file not indexed that may add it to a category. A new name may change
+         * the extension, and so the category, of the file
+         */
+        const val FILE_ADDED_CHANGES = MegaNode.CHANGE_TYPE_NEW.toLong() or
+                MegaNode.CHANGE_TYPE_PARENT.toLong() or
+                MegaNode.CHANGE_TYPE_NAME.toLong()
+    }
+}
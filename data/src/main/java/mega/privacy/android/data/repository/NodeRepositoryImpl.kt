@@ -7,10 +7,6 @@ import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.filterIsInstance
-import kotlinx.coroutines.flow.flowOn
-import kotlinx.coroutines.flow.map
-import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.constant.SortOrderSource
@@ -29,7 +25,6 @@ import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.ChatFilesFolderUserAttributeMapper
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.MegaExceptionMapper
-import mega.privacy.android.data.mapper.NodeUpdateMapper
 import mega.privacy.android.data.mapper.OfflineInformationMapper
 import mega.privacy.android.data.mapper.OfflineNodeInformationMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -44,7 +39,6 @@ import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
-import mega.privacy.android.data.model.GlobalUpdate
 import mega.privacy.android.domain.entity.FileTypeInfo
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.NodeLabel
@@ -55,6 +49,7 @@ import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateFilter
 import mega.privacy.android.domain.entity.node.TypedFolderNode
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.node.UnTypedNode
@@ -115,7 +110,7 @@ internal class NodeRepositoryImpl @Inject constructor(
     private val fileGateway: FileGateway,
     private val chatFilesFolderUserAttributeMapper: ChatFilesFolderUserAttributeMapper,
     private val streamingGateway: StreamingGateway,
-    private val nodeUpdateMapper: NodeUpdateMapper,
+    private val nodeUpdatesProvider: NodeUpdatesProvider,
     private val accessPermissionMapper: AccessPermissionMapper,
     private val nodeShareKeyResultMapper: NodeShareKeyResultMapper,
     private val accessPermissionIntMapper: AccessPermissionIntMapper,
@@ -280,15 +275,12 @@ internal class NodeRepositoryImpl @Inject constructor(
         val filter = megaSearchFilterMapper(
             parentHandle = nodeId,
         )
-        val offlineItems = async { getAllOfflineNodeHandle() }
-        val childList = async {
-            megaApiGateway.getChildren(
-                filter,
-                sortOrderIntMapper(order ?: SortOrder.ORDER_NONE),
-                token
-            )
-        }
-        mapMegaNodesToUnTypedNodes(childList.await(), offlineItems.await())
+        val childList = megaApiGateway.getChildren(
+            filter,
+            sortOrderIntMapper(order ?: SortOrder.ORDER_NONE),
+            token
+        )
+        mapMegaNodesToUnTypedNodes(childList, getOfflineNodesByHandle(childList))
     }
 
     private suspend fun mapMegaNodesToUnTypedNodes(
@@ -392,19 +384,11 @@ internal class NodeRepositoryImpl @Inject constructor(
             } ?: throw SynchronisationException("Non null node found be null when fetched from api")
         }
 
-    override fun monitorNodeUpdates(): Flow<NodeUpdate> {
-        return megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
-            .mapNotNull {
-                it.nodeList?.map { megaNode ->
-                    convertToUnTypedNode(megaNode) to nodeUpdateMapper(megaNode)
-                }
-            }
-            .map { nodes ->
-                NodeUpdate(nodes.toMap())
-            }
-            .flowOn(ioDispatcher)
-    }
+    override fun monitorNodeUpdates(): Flow<NodeUpdate> =
+        nodeUpdatesProvider.monitorNodeUpdates()
+
+    override fun monitorNodeUpdates(filter: NodeUpdateFilter): Flow<NodeUpdate> =
+        nodeUpdatesProvider.monitorNodeUpdates(filter)
 
     override fun monitorOfflineNodeUpdates(): Flow<List<Offline>> =
         megaLocalRoomGateway.monitorOfflineUpdates()
@@ -993,8 +977,9 @@ internal class NodeRepositoryImpl @Inject constructor(
             add(NodeLabel.GREY)
         }
 
-    private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo().associateBy { it.handle }
+    private suspend fun getOfflineNodesByHandle(nodes: List<MegaNode>) =
+        megaLocalRoomGateway.getOfflineInformationByHandles(nodes.map { it.handle })
+            .associateBy { it.handle }
 
     private suspend fun getOfflineNode(handle: Long) =
         megaLocalRoomGateway.getOfflineInformation(handle)
@@ -1124,12 +1109,12 @@ internal class NodeRepositoryImpl @Inject constructor(
         query: String,
         parentId: Int,
     ): List<OfflineNodeInformation> = withContext(ioDispatcher) {
-        // Database fields are encrypted, so we need to filter by name in memory
-        if (parentId == -1) {
-            megaLocalRoomGateway.getAllOfflineInfo()
-        } else {
-            megaLocalRoomGateway.getOfflineInfoByParentId(parentId)
-        }.filter {
+        // Database fields are encrypted, the candidates found by the search index are
+        // filtered by name in memory
+        megaLocalRoomGateway.searchOfflineInformation(
+            query = query,
+            parentId = parentId.takeIf { it != -1 },
+        ).filter {
             it.name.lowercase(Locale.ROOT).contains(query.lowercase(Locale.ROOT))
         }.map {
             offlineNodeInformationMapper(it)
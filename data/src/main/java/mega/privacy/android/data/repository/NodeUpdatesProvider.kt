@@ -0,0 +1,239 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.filterIsInstance
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.mapNotNull
+import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.flow.shareIn
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.NodeUpdateMapper
+import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateFilter
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Common source of node updates, shared by all the collectors of node updates
+ *
+ * The nodes of each update of the SDK are mapped only once, whatever the number of collectors, and
+ * indexed by id and parent the first time a filtered collector reads them, so filtered collectors
+ * only visit the nodes they need. Each collector gets its updates merged into a single one while
+ * it's busy, so a slow collector never makes the others wait.
+ */
+@Singleton
+internal class NodeUpdatesProvider @Inject constructor(
+    megaApiGateway: MegaApiGateway,
+    private val nodeMapper: NodeMapper,
+    private val nodeUpdateMapper: NodeUpdateMapper,
+    @ApplicationScope sharingScope: CoroutineScope,
+    @IoDispatcher ioDispatcher: CoroutineDispatcher,
+) {
+
+    private val mapped = AtomicLong()
+    private val mappedNodeCount = AtomicLong()
+    private val delivered = AtomicLong()
+    private val deliveredNodeCount = AtomicLong()
+    private val merged = AtomicLong()
+
+    /**
+     * Number of SDK node updates mapped
+     */
+    val mappedUpdates: Long
+        get() = mapped.get()
+
+    /**
+     * Number of nodes mapped
+     */
+    val mappedNodes: Long
+        get() = mappedNodeCount.get()
+
+    /**
+     * Number of updates emitted to all the collectors, its ratio to [mappedUpdates] is the fan-out
+     */
+    val deliveredUpdates: Long
+        get() = delivered.get()
+
+    /**
+     * Number of nodes in the updates emitted to all the collectors
+     */
+    val deliveredNodes: Long
+        get() = deliveredNodeCount.get()
+
+    /**
+     * Number of updates merged into another one because their collector was busy
+     */
+    val mergedUpdates: Long
+        get() = merged.get()
+
+    private val updates: SharedFlow<IndexedNodeUpdate> = megaApiGateway.globalUpdates
+        .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
+        .mapNotNull { update ->
+            update.nodeList?.let { nodeList ->
+                IndexedNodeUpdate(
+                    NodeUpdate(
+                        nodeList.associate { megaNode ->
+                            nodeMapper(megaNode) to nodeUpdateMapper(megaNode)
+                        }
+                    )
+                ).also {
+                    mapped.incrementAndGet()
+                    mappedNodeCount.addAndGet(nodeList.size.toLong())
+                }
+            }
+        }
+        .flowOn(ioDispatcher)
+        .shareIn(sharingScope, SharingStarted.WhileSubscribed())
+
+    /**
+     * Number of collectors of the node updates
+     */
+    val collectors: Int
+        get() = updates.subscriptionCount.value
+
+    /**
+     * Monitor node updates
+     *
+     * @param filter the nodes to include in the updates, null to include all of them
+     * @return a flow of node updates, updates without any node of the filter are not emitted
+     */
+    fun monitorNodeUpdates(filter: NodeUpdateFilter? = null): Flow<NodeUpdate> = updates
+        .mapNotNull { it.filter(filter) }
+        .mergeWhileBusy()
+        .onEach {
+            delivered.incrementAndGet()
+            deliveredNodeCount.addAndGet(it.changes.size.toLong())
+        }
+
+    /**
+     * Collects the updates as soon as they are emitted, merging the ones received while the
+     * collector of the returned flow is busy
+     */
+    private fun Flow<NodeUpdate>.mergeWhileBusy(): Flow<NodeUpdate> = channelFlow {
+        val pending = PendingNodeUpdate()
+        val updatesAdded = Channel<Unit>(Channel.CONFLATED)
+        launch {
+            collect { update ->
+                if (pending.add(update)) merged.incrementAndGet()
+                updatesAdded.send(Unit)
+            }
+            updatesAdded.close()
+        }
+        for (signal in updatesAdded) {
+            pending.take()?.let { send(it) }
+        }
+    }.buffer(Channel.RENDEZVOUS)
+
+    /**
+     * A node update with its nodes indexed by id and parent
+     */
+    private class IndexedNodeUpdate(val update: NodeUpdate) {
+        private val index by lazy {
+            val nodesById = HashMap<NodeId, Map.Entry<Node, List<NodeChanges>>>()
+            val nodesByParent = HashMap<NodeId, MutableList<Map.Entry<Node, List<NodeChanges>>>>()
+            val changes = HashSet<NodeChanges>()
+            update.changes.entries.forEach { entry ->
+                nodesById[entry.key.id] = entry
+                nodesByParent.getOrPut(entry.key.parentId) { mutableListOf() }.add(entry)
+                changes.addAll(entry.value)
+            }
+            Index(nodesById, nodesByParent, changes)
+        }
+
+        /**
+         * @return the update with only the nodes of the filter, or null if it has none
+         */
+        fun filter(filter: NodeUpdateFilter?): NodeUpdate? {
+            if (filter == null) return update
+            val index = index
+            if (filter.changes?.none { it in index.changes } == true) return null
+            val nodes = filter.parentIds?.let { parentIds ->
+                LinkedHashSet<Map.Entry<Node, List<NodeChanges>>>().apply {
+                    parentIds.forEach { parentId ->
+                        index.nodesByParent[parentId]?.let { addAll(it) }
+                    }
+                    filter.nodeIds.forEach { nodeId -> index.nodesById[nodeId]?.let { add(it) } }
+                }
+            } ?: update.changes.entries
+            val changes = filter.changes?.let { changes ->
+                nodes.filter { entry -> entry.value.any { it in changes } }
+            } ?: nodes
+            return when {
+                changes.isEmpty() -> null
+                changes.size == update.changes.size -> update
+                else -> NodeUpdate(changes.associate { it.key to it.value })
+            }
+        }
+
+        private class Index(
+            val nodesById: Map<NodeId, Map.Entry<Node, List<NodeChanges>>>,
+            val nodesByParent: Map<NodeId, List<Map.Entry<Node, List<NodeChanges>>>>,
+            val changes: Set<NodeChanges>,
+        )
+    }
+
+    /**
+     * Node updates received and not emitted yet, merged by node id
+     */
+    private class PendingNodeUpdate {
+        private var update: NodeUpdate? = null
+        private var merged: LinkedHashMap<NodeId, Pair<Node, LinkedHashSet<NodeChanges>>>? = null
+
+        /**
+         * @return true if the update has been merged with a pending one
+         */
+        @Synchronized
+        fun add(newUpdate: NodeUpdate): Boolean {
+            val nodes = merged ?: update?.let { first ->
+                LinkedHashMap<NodeId, Pair<Node, LinkedHashSet<NodeChanges>>>().also {
+                    addChanges(it, first)
+                    merged = it
+                    update = null
+                }
+            }
+            if (nodes == null) {
+                update = newUpdate
+                return false
+            }
+            addChanges(nodes, newUpdate)
+            return true
+        }
+
+        @Synchronized
+        fun take(): NodeUpdate? {
+            val result = update ?: merged?.let { nodes ->
+                NodeUpdate(nodes.values.associate { (node, changes) -> node to changes.toList() })
+            }
+            update = null
+            merged = null
+            return result
+        }
+
+        private fun addChanges(
+            nodes: LinkedHashMap<NodeId, Pair<Node, LinkedHashSet<NodeChanges>>>,
+            nodeUpdate: NodeUpdate,
+        ) {
+            nodeUpdate.changes.forEach { (node, changes) ->
+                val current = nodes[node.id]?.second ?: LinkedHashSet()
+                current.addAll(changes)
+                nodes[node.id] = node to current
+            }
+        }
+    }
+}
@@ -21,10 +21,8 @@ import mega.privacy.android.data.listener.CreateSetElementListenerInterface
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.listener.RemoveSetElementListenerInterface
 import mega.privacy.android.data.listener.RemoveSetsListenerInterface
-import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.UserSetMapper
 import mega.privacy.android.data.mapper.node.FileNodeMapper
-import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
 import mega.privacy.android.data.mapper.videos.TypedVideoNodeMapper
 import mega.privacy.android.data.mapper.videosection.FavouritesVideoPlaylistMapper
 import mega.privacy.android.data.mapper.videosection.UserVideoPlaylistMapper
@@ -36,7 +34,6 @@ import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedVideoNode
 import mega.privacy.android.domain.entity.search.SearchCategory
-import mega.privacy.android.domain.entity.search.SearchTarget
 import mega.privacy.android.domain.entity.set.UserSet
 import mega.privacy.android.domain.entity.videosection.FavouritesVideoPlaylist
 import mega.privacy.android.domain.entity.videosection.VideoPlaylist
@@ -55,14 +52,12 @@ import javax.inject.Singleton
 @Singleton
 internal class VideoSectionRepositoryImpl @Inject constructor(
     private val megaApiGateway: MegaApiGateway,
-    private val sortOrderIntMapper: SortOrderIntMapper,
     private val fileNodeMapper: FileNodeMapper,
     private val typedVideoNodeMapper: TypedVideoNodeMapper,
-    private val cancelTokenProvider: CancelTokenProvider,
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
     private val userSetMapper: UserSetMapper,
     private val userVideoPlaylistMapper: UserVideoPlaylistMapper,
-    private val megaSearchFilterMapper: MegaSearchFilterMapper,
+    private val mediaNodeIndex: MediaNodeIndex,
     private val appPreferencesGateway: AppPreferencesGateway,
     private val videoRecentlyWatchedItemMapper: VideoRecentlyWatchedItemMapper,
     private val favouritesVideoPlaylistMapper: FavouritesVideoPlaylistMapper,
@@ -78,47 +73,31 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
         order: SortOrder,
     ): List<TypedVideoNode> =
         withContext(ioDispatcher) {
-            val offlineItems = getAllOfflineNodeHandle()
-            getAllVideoMegaNodes(
+            val nodes = mediaNodeIndex.getNodes(
+                category = SearchCategory.VIDEO,
+                order = order,
                 searchQuery = searchQuery,
                 tag = tag,
                 description = description,
-                order = order
-            ).map { megaNode ->
-                val isOutShared =
-                    megaApiGateway.getMegaNodeByHandle(megaNode.parentHandle)?.isOutShare == true
-                typedVideoNodeMapper(
-                    fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle.toString()]),
-                    duration = megaNode.duration,
-                    isOutShared = isOutShared
-                )
+            )
+            val offlineItems = getOfflineItems(nodes)
+            nodes.map { megaNode ->
+                megaNode.toTypedVideoNode(offlineItems[megaNode.handle.toString()])
             }
         }
 
-    private suspend fun getAllVideoMegaNodes(
-        searchQuery: String = "",
-        tag: String? = null,
-        description: String? = null,
-        order: SortOrder,
-    ): List<MegaNode> {
-        val megaCancelToken = cancelTokenProvider.getOrCreateCancelToken()
-        val filter = megaSearchFilterMapper(
-            searchTarget = SearchTarget.ROOT_NODES,
-            searchCategory = SearchCategory.VIDEO,
-            searchQuery = searchQuery,
-            tag = tag,
-            description = description,
-            useAndForTextQuery = description == null && tag == null,
-        )
-        return megaApiGateway.searchWithFilter(
-            filter,
-            sortOrderIntMapper(order),
-            megaCancelToken,
-        ).filter { !megaApiGateway.isInBackups(it) }
-    }
+    private suspend fun MegaNode.toTypedVideoNode(offline: Offline?) = typedVideoNodeMapper(
+        fileNode = convertToFileNode(offline),
+        duration = duration,
+        isOutShared = mediaNodeIndex.isParentOutShared(parentHandle)
+    )
 
-    private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo().associateBy { it.handle }
+    /**
+     * Only the offline information of the given nodes is read, not the whole offline table
+     */
+    private suspend fun getOfflineItems(nodes: List<MegaNode>): Map<String, Offline> =
+        megaLocalRoomGateway.getOfflineInformationByHandles(nodes.map { it.handle })
+            .associateBy { it.handle }
 
     private suspend fun MegaNode.convertToFileNode(offline: Offline?) = fileNodeMapper(
         megaNode = this, requireSerializedData = false, offline = offline
@@ -126,30 +105,22 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
 
     override suspend fun getVideoPlaylists(sortOrder: SortOrder): List<VideoPlaylist> =
         withContext(ioDispatcher) {
-            val offlineItems = getAllOfflineNodeHandle()
-            val systemVideoPlaylist = listOf(getFavouritesVideoPlaylist(sortOrder, offlineItems))
+            val systemVideoPlaylist = listOf(getFavouritesVideoPlaylist(sortOrder))
             val userVideoPlaylists = getAllUserSets().map { userSet ->
-                userSet.toVideoPlaylist(offlineItems)
+                userSet.toVideoPlaylist()
             }
             systemVideoPlaylist + userVideoPlaylists
         }
 
-    private suspend fun getFavouritesVideoPlaylist(
-        sortOrder: SortOrder,
-        offlineItems: Map<String, Offline>,
-    ): FavouritesVideoPlaylist {
-        val favouriteVideos =
-            getAllVideoMegaNodes(
-                order = sortOrder
-            ).filter { it.isFavourite }.map { megaNode ->
-                val isOutShared =
-                    megaApiGateway.getMegaNodeByHandle(megaNode.parentHandle)?.isOutShare == true
-                typedVideoNodeMapper(
-                    fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle.toString()]),
-                    duration = megaNode.duration,
-                    isOutShared = isOutShared
-                )
-            }
+    private suspend fun getFavouritesVideoPlaylist(sortOrder: SortOrder): FavouritesVideoPlaylist {
+        val nodes = mediaNodeIndex.getFavouriteNodes(
+            category = SearchCategory.VIDEO,
+            order = sortOrder
+        )
+        val offlineItems = getOfflineItems(nodes)
+        val favouriteVideos = nodes.map { megaNode ->
+            megaNode.toTypedVideoNode(offlineItems[megaNode.handle.toString()])
+        }
         return favouritesVideoPlaylistMapper(favouriteVideos)
     }
 
@@ -181,26 +152,24 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
         )
     }
 
-    private suspend fun UserSet.toVideoPlaylist(offlineMap: Map<String, Offline>?): VideoPlaylist {
+    private suspend fun UserSet.toVideoPlaylist(): VideoPlaylist {
         val elementList = megaApiGateway.getSetElements(sid = id)
-        val videoNodeList = (0 until elementList.size()).mapNotNull { index ->
+        val elementNodes = (0 until elementList.size()).mapNotNull { index ->
             val element = elementList[index]
-            val elementNode = element.node()
-
-            megaApiGateway.getMegaNodeByHandle(elementNode)?.let { megaNode ->
+            megaApiGateway.getMegaNodeByHandle(element.node())?.let { megaNode ->
                 val isInRubbish = megaApiGateway.isInRubbish(megaNode)
-                if (isInRubbish) return@mapNotNull null
-
-                videoSetsMap.getOrPut(NodeId(elementNode)) { mutableSetOf() }
-                    .add(element.setId())
-                typedVideoNodeMapper(
-                    fileNode = megaNode.convertToFileNode(
-                        offlineMap?.get(megaNode.handle.toString())
-                    ),
-                    duration = megaNode.duration,
-                    elementID = element.id()
-                )
+                if (isInRubbish) null else element to megaNode
             }
+        }
+        val offlineItems = getOfflineItems(elementNodes.map { it.second })
+        val videoNodeList = elementNodes.map { (element, megaNode) ->
+            videoSetsMap.getOrPut(NodeId(element.node())) { mutableSetOf() }
+                .add(element.setId())
+            typedVideoNodeMapper(
+                fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle.toString()]),
+                duration = megaNode.duration,
+                elementID = element.id()
+            )
         }.sortedBy { it.name }
         return userVideoPlaylistMapper(
             userSet = this,
@@ -402,7 +371,9 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
     override suspend fun monitorRecentlyWatchedVideoNodes(): Flow<List<TypedVideoNode>> =
         getRecentlyWatchedData().map { list ->
             withContext(ioDispatcher) {
-                val offlineItems = getAllOfflineNodeHandle()
+                val offlineItems = megaLocalRoomGateway
+                    .getOfflineInformationByHandles(list.map { it.videoHandle })
+                    .associateBy { it.handle }
                 list.mapNotNull { item ->
                     megaApiGateway.getMegaNodeByHandle(item.videoHandle)?.let { megaNode ->
                         val title =
@@ -0,0 +1,193 @@
+package mega.privacy.android.data.repository.files
+
+import android.content.Context
+import android.os.ParcelFileDescriptor
+import com.shockwave.pdfium.PdfDocument
+import com.shockwave.pdfium.PdfiumCore
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.gateway.FileGateway
+import mega.privacy.android.domain.entity.uri.UriPath
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.ExperimentalTime
+
+/**
+ * Cache of the open Pdfium documents, shared by the thumbnail and preview generation
+ *
+ * A document is opened once for a file path and last modified time, and reference counted while
+ * it is used. It is kept open for [idleTimeout] after its last use, so a thumbnail and a preview
+ * of the same file requested back to back share it, and closed afterwards. A document whose file
+ * has been modified since it was opened is closed as soon as it's no longer used.
+ *
+ * @property lazyPdfiumCore the [PdfiumCore] used to open, render and close the documents
+ * @property openDocument opens a document from its file descriptor
+ * @property closeDocument closes a document and its file descriptor
+ * @property idleTimeout time a document is kept open after its last use
+ */
+@Singleton
+internal class PdfDocumentSessionCache(
+    private val lazyPdfiumCore: Lazy<PdfiumCore>,
+    private val openDocument: (ParcelFileDescriptor) -> PdfDocument =
+        { lazyPdfiumCore.value.newDocument(it) },
+    private val closeDocument: (PdfDocument) -> Unit = { lazyPdfiumCore.value.closeDocument(it) },
+    private val fileGateway: FileGateway,
+    private val applicationScope: CoroutineScope,
+    private val ioDispatcher: CoroutineDispatcher,
+    private val idleTimeout: Duration = DEFAULT_IDLE_TIMEOUT,
+) {
+
+    @Inject
+    constructor(
+        @ApplicationContext context: Context,
+        fileGateway: FileGateway,
+        @ApplicationScope applicationScope: CoroutineScope,
+        @IoDispatcher ioDispatcher: CoroutineDispatcher,
+    ) : this(
+        lazyPdfiumCore = lazy { PdfiumCore(context) },
+        fileGateway = fileGateway,
+        applicationScope = applicationScope,
+        ioDispatcher = ioDispatcher,
+    )
+
+    /**
+     * Open and close counts of the documents
+     *
+     * @property openSessions number of documents currently open
+     * @property opened number of documents opened
+     * @property closed number of documents closed
+     * @property reused number of uses served by a document already open
+     */
+    data class Stats(
+        val openSessions: Int,
+        val opened: Long,
+        val closed: Long,
+        val reused: Long,
+    )
+
+    private data class Key(val path: String, val lastModified: Long?)
+
+    private class Session(val key: Key, val document: PdfDocument) {
+        /** Serializes the uses of the document, Pdfium documents are not thread safe */
+        val mutex = Mutex()
+        var references = 0
+        var closeJob: Job? = null
+    }
+
+    private val mutex = Mutex()
+    private val sessions = HashMap<String, Session>()
+    private var opened = 0L
+    private var closed = 0L
+    private var reused = 0L
+
+    /**
+     * The [PdfiumCore] to render the documents given by [use]
+     */
+    val pdfiumCore: PdfiumCore
+        get() = lazyPdfiumCore.value
+
+    /**
+     * Run [block] with the open document of [uriPath], opening it if needed
+     *
+     * @return the result of [block], or null if the document can't be opened
+     */
+    suspend fun <T> use(
+        uriPath: UriPath,
+        block: (pdfDocument: PdfDocument) -> T,
+    ): T? {
+        val session = acquire(uriPath) ?: return null
+        try {
+            return session.mutex.withLock { block(session.document) }
+        } finally {
+            release(session)
+        }
+    }
+
+    /**
+     * Get the open and close counts of the documents
+     */
+    suspend fun getStats() = mutex.withLock {
+        Stats(openSessions = sessions.size, opened = opened, closed = closed, reused = reused)
+    }
+
+    @OptIn(ExperimentalTime::class)
+    private suspend fun acquire(uriPath: UriPath): Session? {
+        val key = Key(
+            path = uriPath.value,
+            lastModified = fileGateway.getLastModifiedTime(uriPath)?.toEpochMilliseconds(),
+        )
+        return mutex.withLock {
+            val current = sessions[key.path]
+            when {
+                current != null && current.key == key -> current.also { reused++ }
+                else -> {
+                    if (current != null && current.references == 0) close(current)
+                    open(key, uriPath)?.also { sessions[key.path] = it }
+                }
+            }?.apply {
+                references++
+                closeJob?.cancel()
+                closeJob = null
+            }
+        }
+    }
+
+    private suspend fun open(key: Key, uriPath: UriPath): Session? {
+        val fileDescriptor = fileGateway.getFileDescriptor(uriPath, false) ?: return null
+        return runCatching { openDocument(fileDescriptor) }
+            .onFailure {
+                Timber.e(it, "Error opening the pdf document")
+                fileDescriptor.close()
+            }
+            .getOrNull()
+            ?.let {
+                opened++
+                Session(key, it)
+            }
+    }
+
+    private suspend fun release(session: Session) {
+        mutex.withLock {
+            session.references--
+            if (session.references > 0) return
+            if (sessions[session.key.path] !== session) {
+                // The file has been modified and opened again meanwhile
+                close(session)
+                return
+            }
+            session.closeJob = applicationScope.launch(ioDispatcher) {
+                delay(idleTimeout)
+                mutex.withLock {
+                    if (session.references == 0 && sessions[session.key.path] === session) {
+                        close(session)
+                    }
+                }
+            }
+        }
+    }
+
+    private fun close(session: Session) {
+        if (sessions[session.key.path] === session) sessions.remove(session.key.path)
+        runCatching { closeDocument(session.document) }
+            .onFailure { Timber.e(it, "Error closing the pdf document") }
+        closed++
+    }
+
+    companion object {
+        /**
+         * Default time a document is kept open after its last use
+         */
+        val DEFAULT_IDLE_TIMEOUT = 10.seconds
+    }
+}
@@ -1,17 +1,13 @@
 package mega.privacy.android.data.repository.files
 
-import android.content.Context
 import android.graphics.Bitmap
 import androidx.core.graphics.createBitmap
 import androidx.core.graphics.scale
-import com.shockwave.pdfium.PdfiumCore
-import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.constant.FileConstant
 import mega.privacy.android.data.gateway.CacheGateway
-import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.domain.entity.pdf.LastPageViewedInPdf
@@ -25,16 +21,15 @@ import javax.inject.Inject
 /**
  * Pdf repository impl.
  *
- * @property context
  * @property ioDispatcher
+ * @property pdfDocumentSessionCache shares the open documents between thumbnails and previews
  */
-class PdfRepositoryImpl @Inject constructor(
-    @ApplicationContext private val context: Context,
+internal class PdfRepositoryImpl @Inject constructor(
     private val megaApi: MegaApiGateway,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
     private val cacheGateway: CacheGateway,
-    private val fileGateway: FileGateway,
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val pdfDocumentSessionCache: PdfDocumentSessionCache,
 ) : PdfRepository {
 
     override suspend fun createThumbnail(nodeHandle: Long, uriPath: UriPath) =
@@ -48,7 +43,6 @@ class PdfRepositoryImpl @Inject constructor(
         uriPath: UriPath,
         isPreview: Boolean,
     ) = withContext(ioDispatcher) {
-        val pdfiumCore = PdfiumCore(context)
         val pageNumber = 0
         val fileName = megaApi.handleToBase64(nodeHandle) + FileConstant.JPG_EXTENSION
         val file = if (isPreview) {
@@ -57,12 +51,8 @@ class PdfRepositoryImpl @Inject constructor(
             cacheGateway.getCacheFile(CacheFolderConstant.THUMBNAIL_FOLDER, fileName)
         } ?: return@withContext null
 
-        val out = FileOutputStream(file)
-        val pdfDocument = pdfiumCore.newDocument(
-            fileGateway.getFileDescriptor(uriPath, false) ?: return@withContext null
-        )
-
-        try {
+        pdfDocumentSessionCache.use(uriPath) { pdfDocument ->
+            val pdfiumCore = pdfDocumentSessionCache.pdfiumCore
             pdfiumCore.openPage(pdfDocument, pageNumber)
             val width = pdfiumCore.getPageWidthPoint(pdfDocument, pageNumber)
             val height = pdfiumCore.getPageHeightPoint(pdfDocument, pageNumber)
@@ -76,18 +66,17 @@ class PdfRepositoryImpl @Inject constructor(
             } else {
                 bitmap.scale(200, 200, false)
             }
-            val result = resizedBitmap.compress(Bitmap.CompressFormat.JPEG, 100, out)
+            val result = FileOutputStream(file).use {
+                resizedBitmap.compress(Bitmap.CompressFormat.JPEG, 100, it)
+            }
 
             if (result) {
                 Timber.d("Compress OK!")
-                return@withContext file.absolutePath
+                file.absolutePath
             } else {
                 Timber.w("Not Compress")
-                return@withContext null
+                null
             }
-        } finally {
-            pdfiumCore.closeDocument(pdfDocument)
-            out.close()
         }
     }
 
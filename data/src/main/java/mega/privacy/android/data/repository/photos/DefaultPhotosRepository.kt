@@ -8,11 +8,13 @@ import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.onStart
 import kotlinx.coroutines.flow.update
@@ -67,6 +69,7 @@ import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.node.TypedFileNode
 import mega.privacy.android.domain.entity.photos.AlbumPhotoId
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoChanges
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
 import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.search.SearchTarget
@@ -133,15 +136,20 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     private var previewFolderPath: String? = null
 
-    private val photosFlow: MutableStateFlow<List<Photo>?> = MutableStateFlow(null)
+    private val photosFlow: MutableSharedFlow<PhotoChanges> = MutableSharedFlow(replay = 1)
 
     private val imageNodesFlow: MutableStateFlow<List<ImageNode>?> = MutableStateFlow(null)
 
-    private val photosCache: MutableMap<NodeId, Photo> = mutableMapOf()
+    private val photoIndex = PhotoIndex()
 
     private val imageNodesCache: MutableMap<NodeId, ImageNode> = mutableMapOf()
 
-    private val imageResultCache: MutableMap<NodeId, MutableStateFlow<ImageResult>> = mutableMapOf()
+    private val imageResultCache =
+        object : LinkedHashMap<NodeId, MutableStateFlow<ImageResult>>(16, 0.75f, true) {
+            override fun removeEldestEntry(
+                eldest: MutableMap.MutableEntry<NodeId, MutableStateFlow<ImageResult>>?,
+            ) = size > IMAGE_RESULT_CACHE_SIZE
+        }
 
     @Volatile
     private var offlineNodesCache: Map<String, Offline> = mapOf()
@@ -240,8 +248,12 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     override fun monitorPhotos(): Flow<List<Photo>> {
         Timber.d("DefaultPhotosRepository::monitorPhotos")
+        return monitorPhotoChanges().map { it.photos }
+    }
+
+    override fun monitorPhotoChanges(): Flow<PhotoChanges> {
         initialize()
-        return photosFlow.filterNotNull()
+        return photosFlow
     }
 
     private fun initialize() {
@@ -326,11 +338,9 @@ internal class DefaultPhotosRepository @Inject constructor(
         ).flatten()
 
         withContext(photosDispatcher) {
-            photosCache.clear()
-            photosCache.putAll(photos.associateBy { NodeId(it.id) })
-
-            val newPhotos = photosCache.values.toList()
-            photosFlow.update { newPhotos }
+            photoIndex.replaceAll(photos)
+            val changes = photoIndex.takeChanges() ?: PhotoChanges(photos = photoIndex.photos())
+            photosFlow.emit(changes)
         }
     }
 
@@ -366,8 +376,9 @@ internal class DefaultPhotosRepository @Inject constructor(
     private suspend fun handleNodeUpdate(nodeUpdate: NodeUpdate) {
         for ((node, changes) in nodeUpdate.changes) {
             if (node is FolderNode && changes.contains(NodeChanges.Sensitive)) {
-                refreshSensitivePhotos()
-                refreshSensitiveImageNodes()
+                val mediaIds = getMediaIdsInFolder(node.id)
+                refreshSensitivePhotos(mediaIds)
+                refreshSensitiveImageNodes(mediaIds)
             } else {
                 val isPotentialNode = constraints.all { it(node) }
 
@@ -377,8 +388,7 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
 
         withContext(photosDispatcher) {
-            val newPhotos = photosCache.values.toList()
-            photosFlow.update { newPhotos }
+            photoIndex.takeChanges()?.let { photosFlow.emit(it) }
         }
 
         withContext(imageNodesDispatcher) {
@@ -392,11 +402,15 @@ internal class DefaultPhotosRepository @Inject constructor(
         isPotentialNode: Boolean,
     ) = withContext(photosDispatcher) {
         if (!isPotentialNode) {
-            photosCache.remove(node.id)
+            photoIndex.remove(node.id.longValue)
             return@withContext
         }
 
-        val photo = getMegaNode(nodeId = node.id)?.let { megaNode ->
+        refreshPhoto(node.id)
+    }
+
+    private suspend fun refreshPhoto(nodeId: NodeId) {
+        val photo = getMegaNode(nodeId = nodeId)?.let { megaNode ->
             if (isImageNodeValid(megaNode)) {
                 mapMegaNodeToImage(megaNode)
             } else if (isVideoNodeValid(megaNode)) {
@@ -407,28 +421,38 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
 
         if (photo == null) {
-            photosCache.remove(node.id)
+            photoIndex.remove(nodeId.longValue)
         } else {
-            photosCache[NodeId(photo.id)] = photo
+            photoIndex.put(photo)
         }
     }
 
-    private suspend fun refreshSensitivePhotos() = withContext(photosDispatcher) {
-        val photos = photosCache.mapNotNull { (nodeId, _) ->
-            getMegaNode(nodeId)?.let { megaNode ->
-                if (isImageNodeValid(megaNode)) {
-                    mapMegaNodeToImage(megaNode)
-                } else if (isVideoNodeValid(megaNode)) {
-                    mapMegaNodeToVideo(megaNode)
-                } else {
-                    null
-                }
-            }
+    /**
+     * Get the ids of the images and videos in a folder and its subfolders, the only nodes whose
+     * inherited sensitive mark changes with the one of the folder
+     */
+    private suspend fun getMediaIdsInFolder(folderId: NodeId): Set<NodeId> =
+        withContext(ioDispatcher) {
+            awaitAll(
+                async {
+                    getMegaNodeByCategory(
+                        parentId = folderId,
+                        searchCategory = SearchCategory.IMAGES,
+                    )
+                },
+                async {
+                    getMegaNodeByCategory(
+                        parentId = folderId,
+                        searchCategory = SearchCategory.VIDEO,
+                    )
+                },
+            ).flatten().mapTo(HashSet()) { NodeId(it.handle) }
         }
 
-        photosCache.clear()
-        photosCache.putAll(photos.associateBy { NodeId(it.id) })
-    }
+    private suspend fun refreshSensitivePhotos(mediaIds: Set<NodeId>) =
+        withContext(photosDispatcher) {
+            mediaIds.filter { it.longValue in photoIndex }.forEach { refreshPhoto(it) }
+        }
 
     private suspend fun refreshImageNodes(
         node: Node,
@@ -447,15 +471,18 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
     }
 
-    private suspend fun refreshSensitiveImageNodes() = withContext(imageNodesDispatcher) {
-        val imageNodes = imageNodesCache.mapNotNull { (nodeId, _) ->
-            fetchImageNode(nodeId)
+    private suspend fun refreshSensitiveImageNodes(mediaIds: Set<NodeId>) =
+        withContext(imageNodesDispatcher) {
+            mediaIds.filter { it in imageNodesCache }.forEach { nodeId ->
+                val imageNode = fetchImageNode(nodeId)
+                if (imageNode == null) {
+                    imageNodesCache.remove(nodeId)
+                } else {
+                    imageNodesCache[nodeId] = imageNode
+                }
+            }
         }
 
-        imageNodesCache.clear()
-        imageNodesCache.putAll(imageNodes.associateBy { it.id })
-    }
-
     override fun monitorImageNodes(): Flow<List<ImageNode>> = imageNodesFlow
         .filterNotNull()
 
@@ -494,7 +521,7 @@ internal class DefaultPhotosRepository @Inject constructor(
         albumPhotoId: AlbumPhotoId?,
         refresh: Boolean,
     ): Photo? {
-        return when (val photo = photosCache[nodeId].takeIf { !refresh }) {
+        return when (val photo = photoIndex[nodeId.longValue].takeIf { !refresh }) {
             is Photo.Image -> {
                 photo.copy(albumPhotoId = albumPhotoId?.id)
             }
@@ -747,7 +774,7 @@ internal class DefaultPhotosRepository @Inject constructor(
     override suspend fun getPhotosByIds(ids: List<NodeId>): List<Photo> =
         withContext(ioDispatcher) {
             ids.mapNotNull { id ->
-                val cache = photosCache[id]
+                val cache = photoIndex[id.longValue]
                 if (cache != null) {
                     cache
                 } else {
@@ -1059,9 +1086,11 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     override fun monitorImageResult(nodeId: NodeId): Flow<ImageResult>? {
         return try {
-            imageResultCache[nodeId] ?: run {
-                imageResultCache[nodeId] = MutableStateFlow(ImageResult())
-                null
+            synchronized(imageResultCache) {
+                imageResultCache[nodeId] ?: run {
+                    imageResultCache[nodeId] = MutableStateFlow(ImageResult())
+                    null
+                }
             }
         } catch (e: Throwable) {
             Timber.e(e)
@@ -1071,11 +1100,12 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     override suspend fun saveImageResult(nodeId: NodeId, imageResult: ImageResult) {
         try {
-            imageResultCache.getOrPut(nodeId) { MutableStateFlow(ImageResult()) }
-                .emit(imageResult.copy())
+            synchronized(imageResultCache) {
+                imageResultCache.getOrPut(nodeId) { MutableStateFlow(ImageResult()) }
+            }.emit(imageResult.copy())
 
             if (imageResult.isFullyLoaded) {
-                imageResultCache.remove(nodeId)
+                synchronized(imageResultCache) { imageResultCache.remove(nodeId) }
             }
         } catch (e: Throwable) {
             Timber.e(e)
@@ -1083,15 +1113,17 @@ internal class DefaultPhotosRepository @Inject constructor(
     }
 
     override fun clearImageResult(uncompletedOnly: Boolean) {
-        try {
-            if (uncompletedOnly) {
-                imageResultCache.entries.removeIf { !it.value.value.isFullyLoaded }
-            } else {
+        synchronized(imageResultCache) {
+            try {
+                if (uncompletedOnly) {
+                    imageResultCache.entries.removeIf { !it.value.value.isFullyLoaded }
+                } else {
+                    imageResultCache.clear()
+                }
+            } catch (e: Throwable) {
+                Timber.e(e)
                 imageResultCache.clear()
             }
-        } catch (e: Throwable) {
-            Timber.e(e)
-            imageResultCache.clear()
         }
     }
 
@@ -1113,11 +1145,11 @@ internal class DefaultPhotosRepository @Inject constructor(
         monitorNodeUpdatesJob = null
 
         offlineNodesCache = mapOf()
-        photosCache.clear()
+        photoIndex.clear()
         imageNodesCache.clear()
-        imageResultCache.clear()
+        synchronized(imageResultCache) { imageResultCache.clear() }
 
-        photosFlow.value = null
+        photosFlow.resetReplayCache()
         imageNodesFlow.value = null
 
         appScope.launch { uiPreferencesGateway.setPhotosRecentQueries(listOf()) }
@@ -1125,5 +1157,10 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     companion object {
         private const val PHOTOS_FETCH_LIMIT = 500L
+
+        /**
+         * Maximum number of image results kept, the least recently used are removed first
+         */
+        private const val IMAGE_RESULT_CACHE_SIZE = 100
     }
 }
@@ -0,0 +1,218 @@
+package mega.privacy.android.data.repository.photos
+
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoChanges
+
+/**
+ * Photos of the timeline, indexed by id and kept sorted by modification time
+ *
+ * The photos are stored by id in an open addressing table of primitive ids, so the index doesn't
+ * box them nor allocate an entry per photo, and in [SortedPhotoChunks] sorted by modification time,
+ * most recent first, where a change only inserts or removes one element. The ids of the photos
+ * added, removed and updated since the last call to [takeChanges] are kept, so the changes can be
+ * published without comparing all the photos, and without copying them.
+ *
+ * All the functions are thread safe.
+ */
+internal class PhotoIndex {
+
+    private val lock = Any()
+    private var ids = LongArray(INITIAL_CAPACITY)
+    private var photos = arrayOfNulls<Photo>(INITIAL_CAPACITY)
+    private var count = 0
+    private val sorted = SortedPhotoChunks(comparator)
+    private val addedIds = LinkedHashSet<Long>()
+    private val removedIds = LinkedHashSet<Long>()
+    private val updatedIds = LinkedHashSet<Long>()
+
+    /**
+     * Number of photos
+     */
+    val size: Int
+        get() = synchronized(lock) { count }
+
+    /**
+     * @return the photo with this id, if any
+     */
+    operator fun get(id: Long): Photo? = synchronized(lock) {
+        photos[slotOf(id)]
+    }
+
+    /**
+     * @return true if there's a photo with this id
+     */
+    operator fun contains(id: Long): Boolean = get(id) != null
+
+    /**
+     * @return the photos, the most recently modified first, the same list until the next change
+     */
+    fun photos(): List<Photo> = synchronized(lock) { sorted.snapshot() }
+
+    /**
+     * Add a photo, or replace the photo with the same id
+     *
+     * @return true if the photos have changed
+     */
+    fun put(photo: Photo): Boolean = synchronized(lock) {
+        val slot = slotOf(photo.id)
+        val current = photos[slot]
+        when {
+            current == photo -> return@synchronized false
+            current == null -> {
+                ids[slot] = photo.id
+                photos[slot] = photo
+                if (++count * 2 > ids.size) resize()
+                onAdded(photo.id)
+            }
+
+            else -> {
+                photos[slot] = photo
+                sorted.remove(current)
+                onUpdated(photo.id)
+            }
+        }
+        sorted.add(photo)
+        true
+    }
+
+    /**
+     * Remove the photo with this id
+     *
+     * @return true if the photos have changed
+     */
+    fun remove(id: Long): Boolean = synchronized(lock) {
+        val slot = slotOf(id)
+        val current = photos[slot] ?: return@synchronized false
+        deleteSlot(slot)
+        count--
+        sorted.remove(current)
+        onRemoved(id)
+        true
+    }
+
+    /**
+     * Replace all the photos, only the photos that are not the same are changed
+     *
+     * @return true if the photos have changed
+     */
+    fun replaceAll(newPhotos: Collection<Photo>): Boolean = synchronized(lock) {
+        val newIds = HashSet<Long>(newPhotos.size * 2)
+        var changed = false
+        newPhotos.forEach {
+            newIds.add(it.id)
+            changed = put(it) or changed
+        }
+        if (newIds.size < count) {
+            photos.filterNotNull().filter { it.id !in newIds }
+                .forEach { changed = remove(it.id) or changed }
+        }
+        changed
+    }
+
+    /**
+     * Remove all the photos, and the changes not taken yet
+     */
+    fun clear() = synchronized(lock) {
+        ids = LongArray(INITIAL_CAPACITY)
+        photos = arrayOfNulls(INITIAL_CAPACITY)
+        count = 0
+        sorted.clear()
+        addedIds.clear()
+        removedIds.clear()
+        updatedIds.clear()
+    }
+
+    /**
+     * @return the photos with the changes since the previous call, or null if there are none
+     */
+    fun takeChanges(): PhotoChanges? = synchronized(lock) {
+        if (addedIds.isEmpty() && removedIds.isEmpty() && updatedIds.isEmpty()) {
+            return@synchronized null
+        }
+        PhotoChanges(
+            photos = sorted.snapshot(),
+            addedPhotos = addedIds.mapNotNull { photos[slotOf(it)] },
+            updatedPhotos = updatedIds.mapNotNull { photos[slotOf(it)] },
+            removedIds = removedIds.toSet(),
+        ).also {
+            addedIds.clear()
+            removedIds.clear()
+            updatedIds.clear()
+        }
+    }
+
+    private fun onAdded(id: Long) {
+        if (removedIds.remove(id)) updatedIds.add(id) else addedIds.add(id)
+    }
+
+    private fun onUpdated(id: Long) {
+        if (id !in addedIds) updatedIds.add(id)
+    }
+
+    private fun onRemoved(id: Long) {
+        updatedIds.remove(id)
+        if (!addedIds.remove(id)) removedIds.add(id)
+    }
+
+    /**
+     * @return the slot of the photo with this id, or the empty slot where it would be added
+     */
+    private fun slotOf(id: Long): Int {
+        val mask = ids.size - 1
+        var slot = hash(id, mask)
+        while (photos[slot] != null && ids[slot] != id) {
+            slot = (slot + 1) and mask
+        }
+        return slot
+    }
+
+    /**
+     * Empty a slot, moving back the following photos of the same probe sequence so none of them
+     * is left after an empty slot
+     */
+    private fun deleteSlot(slot: Int) {
+        val mask = ids.size - 1
+        var empty = slot
+        var next = (slot + 1) and mask
+        while (photos[next] != null) {
+            val home = hash(ids[next], mask)
+            val canMove = if (empty <= next) {
+                home <= empty || home > next
+            } else {
+                home in (next + 1)..empty
+            }
+            if (canMove) {
+                ids[empty] = ids[next]
+                photos[empty] = photos[next]
+                empty = next
+            }
+            next = (next + 1) and mask
+        }
+        photos[empty] = null
+        ids[empty] = 0L
+    }
+
+    private fun resize() {
+        val oldIds = ids
+        val oldPhotos = photos
+        ids = LongArray(oldIds.size * 2)
+        photos = arrayOfNulls(oldIds.size * 2)
+        oldPhotos.forEachIndexed { index, photo ->
+            photo?.let {
+                val slot = slotOf(oldIds[index])
+                ids[slot] = oldIds[index]
+                photos[slot] = it
+            }
+        }
+    }
+
+    private fun hash(id: Long, mask: Int) = ((id * HASH_MULTIPLIER) ushr 32).toInt() and mask
+
+    private companion object {
+        const val INITIAL_CAPACITY = 64
+        const val HASH_MULTIPLIER = -7046029254386353131L
+
+        val comparator = compareByDescending<Photo> { it.modificationTime }
+            .thenByDescending { it.id }
+    }
+}
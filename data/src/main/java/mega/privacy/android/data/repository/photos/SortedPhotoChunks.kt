@@ -0,0 +1,138 @@
+package mega.privacy.android.data.repository.photos
+
+import mega.privacy.android.domain.entity.photos.Photo
+
+/**
+ * Photos kept sorted in chunks, so they can be published without copying all of them
+ *
+ * A [snapshot] is an immutable list sharing the chunks with the next snapshots. A chunk is copied
+ * before a change only when a snapshot shares it, so a snapshot only copies the references of the
+ * chunks, and a change after it only copies the chunk it changes, of at most [MAX_CHUNK_SIZE]
+ * photos.
+ *
+ * Not thread safe, the access is synchronized by [PhotoIndex].
+ *
+ * @param comparator the order of the photos, where two different photos are never equal
+ */
+internal class SortedPhotoChunks(private val comparator: Comparator<Photo>) {
+
+    private class Chunk(val photos: ArrayList<Photo>) {
+        var isShared = false
+    }
+
+    private val chunks = ArrayList<Chunk>()
+    private var snapshot: List<Photo>? = null
+
+    /**
+     * Add a photo at its position
+     */
+    fun add(photo: Photo) {
+        snapshot = null
+        if (chunks.isEmpty()) {
+            chunks.add(Chunk(arrayListOf(photo)))
+            return
+        }
+        val index = chunkIndexOf(photo)
+        val photos = writableChunk(index).photos
+        val position = photos.binarySearch(photo, comparator)
+        photos.add(-(position + 1), photo)
+        if (photos.size > MAX_CHUNK_SIZE) split(index)
+    }
+
+    /**
+     * Remove a photo, if it's in the list
+     */
+    fun remove(photo: Photo) {
+        if (chunks.isEmpty()) return
+        val index = chunkIndexOf(photo)
+        val position = chunks[index].photos.binarySearch(photo, comparator)
+        if (position < 0) return
+        snapshot = null
+        val photos = writableChunk(index).photos
+        photos.removeAt(position)
+        if (photos.isEmpty()) chunks.removeAt(index)
+    }
+
+    /**
+     * Remove all the photos
+     */
+    fun clear() {
+        chunks.clear()
+        snapshot = null
+    }
+
+    /**
+     * @return the photos, in order, in an immutable list that is the same until the next change
+     */
+    fun snapshot(): List<Photo> = snapshot ?: Snapshot(
+        chunks.map { chunk ->
+            chunk.isShared = true
+            chunk.photos
+        }
+    ).also { snapshot = it }
+
+    /**
+     * @return the first chunk whose last photo is not before this photo, or the last chunk
+     */
+    private fun chunkIndexOf(photo: Photo): Int {
+        var low = 0
+        var high = chunks.lastIndex
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (comparator.compare(chunks[middle].photos.last(), photo) < 0) {
+                low = middle + 1
+            } else {
+                high = middle
+            }
+        }
+        return low
+    }
+
+    private fun writableChunk(index: Int): Chunk {
+        val chunk = chunks[index]
+        if (!chunk.isShared) return chunk
+        return Chunk(ArrayList(chunk.photos)).also { chunks[index] = it }
+    }
+
+    private fun split(index: Int) {
+        val photos = chunks[index].photos
+        val secondHalf = photos.subList(photos.size / 2, photos.size)
+        chunks.add(index + 1, Chunk(ArrayList(secondHalf)))
+        secondHalf.clear()
+    }
+
+    /**
+     * Photos of the chunks, found by the position where each chunk starts
+     */
+    private class Snapshot(private val chunks: List<List<Photo>>) : AbstractList<Photo>(),
+        RandomAccess {
+
+        private val starts = IntArray(chunks.size)
+
+        override val size: Int
+
+        init {
+            var size = 0
+            chunks.forEachIndexed { index, photos ->
+                starts[index] = size
+                size += photos.size
+            }
+            this.size = size
+        }
+
+        override fun get(index: Int): Photo {
+            if (index < 0 || index >= size) {
+                throw IndexOutOfBoundsException("Index: $index, Size: $size")
+            }
+            val position = starts.binarySearch(index)
+            val chunk = if (position >= 0) position else -(position + 2)
+            return chunks[chunk][index - starts[chunk]]
+        }
+
+        override fun iterator(): Iterator<Photo> = chunks.asSequence().flatten().iterator()
+    }
+
+    private companion object {
+        const val MAX_CHUNK_SIZE = 512
+    }
+}
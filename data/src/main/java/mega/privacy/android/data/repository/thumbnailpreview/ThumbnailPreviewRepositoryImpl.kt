@@ -140,6 +140,7 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
                 getThumbnailPath(thumbnailFolderPath, node),
                 OptionalMegaRequestListenerInterface(
                     onRequestFinish = { _, error ->
+                        invalidateCacheFoldersOnWriteError(error)
                         callback(error.errorCode == MegaError.API_OK)
                     }
                 )
@@ -163,6 +164,7 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
                 getPreviewPath(previewFolderPath, node),
                 OptionalMegaRequestListenerInterface(
                     onRequestFinish = { _, error ->
+                        invalidateCacheFoldersOnWriteError(error)
                         callback(error.errorCode == MegaError.API_OK)
                     }
                 )
@@ -217,6 +219,14 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         }
     }
 
+    /**
+     * The cache folder may have been deleted since it was resolved, so it is resolved again
+     * the next time it is needed
+     */
+    private fun invalidateCacheFoldersOnWriteError(error: MegaError) {
+        if (error.errorCode == MegaError.API_EWRITE) cacheGateway.invalidateNodeCacheFolders()
+    }
+
     private fun getPreviewPath(previewFolderPath: String, megaNode: MegaNode) =
         "$previewFolderPath${File.separator}${megaNode.getPreviewFileName()}"
 
@@ -169,14 +169,20 @@ abstract class AbstractTransfersWorker(
             crashReporter.report(it)
         }
 
-    private val alreadyFinishedGroups = mutableListOf<Int>()
+    private val actionGroupNotificationState = ActionGroupNotificationState()
+
+    /**
+     * Number of action group progress notifications not posted because they didn't change
+     */
+    internal val skippedGroupNotifications
+        get() = actionGroupNotificationState.skippedNotifications
+
+    private var loggedSkippedGroupNotifications = 0L
+
     private suspend fun checkFinishedGroups(transferTotals: ActiveTransferTotals) {
-        transferTotals.actionGroups.filter { it.finished() && !alreadyFinishedGroups.contains(it.groupId) }
-            .also { finishedGroups ->
-                alreadyFinishedGroups.addAll(finishedGroups.map { it.groupId })
-                finishedGroups.forEach {
-                    showActionGroupFinishedNotification(it)
-                }
+        actionGroupNotificationState.getNewlyFinishedGroups(transferTotals.actionGroups)
+            .forEach {
+                showActionGroupFinishedNotification(it)
             }
     }
 
@@ -184,10 +190,15 @@ abstract class AbstractTransfersWorker(
         transferTotals: ActiveTransferTotals,
         paused: Boolean,
     ) {
-        transferTotals.actionGroups.filter { alreadyFinishedGroups.contains(it.groupId).not() }
-            .onEach {
-                showActionGroupProgressNotification(it, paused)
-            }
+        val groupsToNotify =
+            actionGroupNotificationState.getGroupsToNotify(transferTotals.actionGroups, paused)
+        if (groupsToNotify.isNotEmpty()) {
+            showActionGroupProgressNotifications(groupsToNotify, paused)
+        }
+        if (skippedGroupNotifications != loggedSkippedGroupNotifications) {
+            loggedSkippedGroupNotifications = skippedGroupNotifications
+            Timber.d("Group notifications skipped so far: $loggedSkippedGroupNotifications")
+        }
     }
 
     /**
@@ -375,26 +386,28 @@ abstract class AbstractTransfersWorker(
     ): Notification? = null
 
     @SuppressLint("MissingPermission")
-    private suspend fun showActionGroupProgressNotification(
-        actionGroup: ActiveTransferTotals.ActionGroup,
+    private suspend fun showActionGroupProgressNotifications(
+        actionGroups: List<ActiveTransferTotals.ActionGroup>,
         paused: Boolean,
     ) {
         if (areNotificationsEnabledUseCase()) {
             createProgressSummaryNotification()?.let { summaryNotification ->
-                createActionGroupProgressNotification(
-                    actionGroup,
-                    paused,
-                )?.let { groupNotification ->
-                    val groupNotificationId =
-                        NOTIFICATION_GROUP_MULTIPLAYER * updateNotificationId + actionGroup.groupId
-                    notificationManager.notify(
-                        updateNotificationId,
-                        summaryNotification,
-                    )
-                    notificationManager.notify(
-                        groupNotificationId,
-                        groupNotification,
-                    )
+                notificationManager.notify(
+                    updateNotificationId,
+                    summaryNotification,
+                )
+                actionGroups.forEach { actionGroup ->
+                    createActionGroupProgressNotification(
+                        actionGroup,
+                        paused,
+                    )?.let { groupNotification ->
+                        val groupNotificationId =
+                            NOTIFICATION_GROUP_MULTIPLAYER * updateNotificationId + actionGroup.groupId
+                        notificationManager.notify(
+                            groupNotificationId,
+                            groupNotification,
+                        )
+                    }
                 }
             }
         }
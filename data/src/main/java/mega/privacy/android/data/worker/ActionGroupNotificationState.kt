@@ -0,0 +1,124 @@
+package mega.privacy.android.data.worker
+
+import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TimeMark
+import kotlin.time.TimeSource
+
+/**
+ * State of the notifications of the action groups of a transfers worker
+ *
+ * Keeps the visible content last posted for each action group, so a group is only notified again
+ * when its content changes. Changes of the files, the total size, the destination or the paused
+ * state are notified at once, while progress and transferred size changes are notified at most once
+ * every [minProgressInterval] for each group.
+ *
+ * @property minProgressInterval minimum time between two progress notifications of a group
+ * @property timeSource source of the time to apply the [minProgressInterval]
+ */
+internal class ActionGroupNotificationState(
+    private val minProgressInterval: Duration = DEFAULT_MIN_PROGRESS_INTERVAL,
+    private val timeSource: TimeSource = TimeSource.Monotonic,
+) {
+
+    /**
+     * The content of an action group progress notification, everything its builder renders
+     *
+     * @property transferredBytes the transferred size shown in the sub text, with [totalBytes]
+     * @property singleFileName the file name shown in the title of preview downloads
+     */
+    data class Content(
+        val finishedFiles: Int,
+        val totalFiles: Int,
+        val paused: Boolean,
+        val progress: Int,
+        val transferredBytes: Long,
+        val totalBytes: Long,
+        val singleFileName: String?,
+        val destination: String,
+    ) {
+        /**
+         * @return true if the changes from [other] are only progress changes
+         */
+        fun isProgressChangeOf(other: Content) =
+            copy(progress = other.progress, transferredBytes = other.transferredBytes) == other
+
+        companion object {
+            /**
+             * Content of the progress notification of [actionGroup]
+             */
+            fun from(actionGroup: ActiveTransferTotals.ActionGroup, paused: Boolean) = Content(
+                finishedFiles = actionGroup.finishedFiles,
+                totalFiles = actionGroup.totalFiles,
+                paused = paused || actionGroup.allPaused(),
+                progress = actionGroup.progress.intValue,
+                transferredBytes = actionGroup.transferredBytes,
+                totalBytes = actionGroup.totalBytes,
+                singleFileName = actionGroup.singleFileName,
+                destination = actionGroup.destination,
+            )
+        }
+    }
+
+    private class Posted(val content: Content, val time: TimeMark)
+
+    private val finishedGroups = HashSet<Int>()
+    private val postedGroups = HashMap<Int, Posted>()
+
+    /**
+     * Number of progress notifications not posted because their content didn't change or the group
+     * was notified too recently
+     */
+    var skippedNotifications = 0L
+        private set
+
+    /**
+     * Get the groups that have finished since the last time, and stop notifying their progress
+     *
+     * @param actionGroups the current action groups
+     * @return the action groups finished that were not finished before
+     */
+    fun getNewlyFinishedGroups(
+        actionGroups: List<ActiveTransferTotals.ActionGroup>,
+    ): List<ActiveTransferTotals.ActionGroup> =
+        actionGroups.filter { it.finished() && finishedGroups.add(it.groupId) }
+            .onEach { postedGroups.remove(it.groupId) }
+
+    /**
+     * Get the groups whose progress notification needs to be posted, and mark them as posted
+     *
+     * @param actionGroups the current action groups
+     * @param paused true if the transfers are paused
+     * @return the action groups not finished with changes to notify
+     */
+    fun getGroupsToNotify(
+        actionGroups: List<ActiveTransferTotals.ActionGroup>,
+        paused: Boolean,
+    ): List<ActiveTransferTotals.ActionGroup> = actionGroups.filter { actionGroup ->
+        if (actionGroup.groupId in finishedGroups) return@filter false
+        val content = Content.from(actionGroup, paused)
+        val posted = postedGroups[actionGroup.groupId]
+        val notify = when {
+            posted == null -> true
+            posted.content == content -> false
+            content.isProgressChangeOf(posted.content) ->
+                posted.time.elapsedNow() >= minProgressInterval
+
+            else -> true
+        }
+        if (notify) {
+            postedGroups[actionGroup.groupId] = Posted(content, timeSource.markNow())
+        } else {
+            skippedNotifications++
+        }
+        notify
+    }
+
+    companion object {
+        /**
+         * Default minimum time between two progress notifications of a group
+         */
+        val DEFAULT_MIN_PROGRESS_INTERVAL = 5.seconds
+    }
+}
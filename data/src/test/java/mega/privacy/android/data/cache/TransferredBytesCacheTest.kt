@@ -0,0 +1,65 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransferredBytesCacheTest {
+
+    @Test
+    fun `test that snapshot returns the latest value of each transfer`() {
+        val underTest = TransferredBytesCache()
+
+        underTest.update(longArrayOf(1L, 2L), longArrayOf(10L, 20L))
+        underTest.update(longArrayOf(1L), longArrayOf(15L))
+
+        assertThat(underTest.snapshot().first).containsExactly(1L, 15L, 2L, 20L)
+    }
+
+    @Test
+    fun `test that changesSince returns only the changes after the sequence`() {
+        val underTest = TransferredBytesCache()
+        underTest.update(longArrayOf(1L), longArrayOf(10L))
+        val (_, sequence) = underTest.snapshot()
+
+        underTest.update(longArrayOf(2L, 1L), longArrayOf(20L, 30L))
+        val changes = underTest.changesSince(sequence)
+
+        assertThat(changes?.ids?.toList()).containsExactly(2L, 1L).inOrder()
+        assertThat(changes?.transferredBytes?.toList()).containsExactly(20L, 30L).inOrder()
+        assertThat(underTest.changesSince(changes?.sequence ?: -1)?.ids?.toList()).isEmpty()
+    }
+
+    @Test
+    fun `test that changesSince returns null after a clear`() {
+        val underTest = TransferredBytesCache()
+        underTest.update(longArrayOf(1L), longArrayOf(10L))
+        val (_, sequence) = underTest.snapshot()
+
+        underTest.clear()
+
+        assertThat(underTest.changesSince(sequence)).isNull()
+        assertThat(underTest.snapshot().first).isEmpty()
+    }
+
+    @Test
+    fun `test that changesSince returns null when the changes are not in the change log anymore`() {
+        val underTest = TransferredBytesCache(changeLogCapacity = 4)
+        val (_, sequence) = underTest.snapshot()
+
+        underTest.update(LongArray(5) { it.toLong() }, LongArray(5) { 10L })
+
+        assertThat(underTest.changesSince(sequence)).isNull()
+    }
+
+    @Test
+    fun `test that version changes on every update`() {
+        val underTest = TransferredBytesCache()
+        val initial = underTest.version.value
+
+        underTest.update(longArrayOf(1L), longArrayOf(10L))
+
+        assertThat(underTest.version.value).isNotEqualTo(initial)
+    }
+}
@@ -0,0 +1,109 @@
+package mega.privacy.android.data.compression.zip
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ZipExtractorTest {
+
+    @TempDir
+    lateinit var temporaryFolder: File
+
+    private val underTest = ZipExtractor()
+
+    private val contents = mapOf(
+        "folder/" to null,
+        "folder/small.txt" to "small".toByteArray(),
+        "folder/sub/large.bin" to Random(1).nextBytes(3 * 1024 * 1024),
+        "missing/parent/file.txt" to "file".toByteArray(),
+        "empty.txt" to ByteArray(0),
+    )
+
+    @Test
+    fun `test that all the entries are extracted`() = runTest {
+        val zipFile = createZipFile(contents)
+        val root = unzipRootPath("all")
+
+        underTest.extract(zipFile, root, parallelism = 3, bufferSize = 1024).last()
+
+        assertExtracted(root)
+    }
+
+    @Test
+    fun `test that the entries are extracted with a single worker`() = runTest {
+        val zipFile = createZipFile(contents)
+        val root = unzipRootPath("single")
+
+        underTest.extract(zipFile, root, parallelism = 1).last()
+
+        assertExtracted(root)
+    }
+
+    @Test
+    fun `test that the last progress reports all the bytes and entries`() = runTest {
+        val zipFile = createZipFile(contents)
+        val totalBytes = contents.values.sumOf { it?.size ?: 0 }.toLong()
+
+        val progress = underTest.extract(zipFile, unzipRootPath("progress")).toList()
+
+        assertThat(progress.last().extractedBytes).isEqualTo(totalBytes)
+        assertThat(progress.last().totalBytes).isEqualTo(totalBytes)
+        assertThat(progress.last().extractedEntries).isEqualTo(contents.size)
+        assertThat(progress.last().isCompleted).isTrue()
+    }
+
+    @Test
+    fun `test that nothing is extracted when an entry is outside the destination`() = runTest {
+        val zipFile = createZipFile(
+            mapOf(
+                "file.txt" to "file".toByteArray(),
+                "../outside.txt" to "outside".toByteArray(),
+            )
+        )
+        val root = unzipRootPath("traversal")
+
+        assertThrows<SecurityException> {
+            underTest.extract(zipFile, root).last()
+        }
+
+        assertThat(File(root, "file.txt").exists()).isFalse()
+        assertThat(File(root).parentFile?.resolve("outside.txt")?.exists()).isFalse()
+    }
+
+    private fun assertExtracted(root: String) {
+        contents.forEach { (name, bytes) ->
+            val file = File(root + name)
+            if (bytes == null) {
+                assertThat(file.isDirectory).isTrue()
+            } else {
+                assertThat(file.readBytes()).isEqualTo(bytes)
+            }
+        }
+    }
+
+    private fun unzipRootPath(name: String) =
+        File(temporaryFolder, name).canonicalPath + File.separator
+
+    private fun createZipFile(entries: Map<String, ByteArray?>): ZipFile {
+        val file = File.createTempFile("test", ".zip", temporaryFolder)
+        ZipOutputStream(file.outputStream()).use { outputStream ->
+            entries.forEach { (name, bytes) ->
+                outputStream.putNextEntry(ZipEntry(name))
+                bytes?.let { outputStream.write(it) }
+                outputStream.closeEntry()
+            }
+        }
+        return ZipFile(file)
+    }
+}
@@ -0,0 +1,104 @@
+package mega.privacy.android.data.cryptography
+
+import android.util.Base64
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import org.junit.Ignore
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.annotation.Config
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+import kotlin.system.measureNanoTime
+
+/**
+ * Measures the per field cost of [EncryptData] and [DecryptData] against creating and
+ * initialising a cipher for every field, as a query result of [FIELD_COUNT] fields would do
+ *
+ * Each implementation is warmed up, then measured over [MEASURED_ITERATIONS] iterations, and the
+ * best iteration is logged. Ignored by default, as the durations depend on the machine running it
+ */
+@Ignore("Benchmark, remove to measure the per field cost of the database encryption")
+@RunWith(AndroidJUnit4::class)
+@Config(sdk = [34])
+class EncryptDecryptDataBenchmarkTest {
+
+    private val aesKey = "0123456789abcdef0123456789abcdef".toByteArray()
+
+    // Mostly unique values, as the rows of a table
+    private val fields = (1..FIELD_COUNT).map { "field value $it" }
+
+    @Test
+    fun `test the per field cost of reusing the ciphers and of creating them`() = runTest {
+        val encryptData = EncryptData(aesKey)
+        val decryptData = DecryptData(aesKey)
+
+        val newCipherNanos = measureBest {
+            fields.forEach { legacyDecrypt(legacyEncrypt(it)) }
+        }
+        val reusedCipherNanos = measureBest {
+            fields.forEach { decryptData(encryptData(it)) }
+        }
+
+        Log.i(
+            TAG,
+            "Encrypt and decrypt per field: new cipher ${newCipherNanos / FIELD_COUNT} ns, " +
+                    "reused cipher ${reusedCipherNanos / FIELD_COUNT} ns"
+        )
+        fields.take(100).forEach {
+            assertThat(encryptData(it)).isEqualTo(legacyEncrypt(it))
+        }
+    }
+
+    @Test
+    fun `test the cost of the cached lookup keys and of encrypting them`() = runTest {
+        val handles = (1..LOOKUP_KEY_COUNT.toLong()).toList()
+        val encryptData = EncryptData(aesKey)
+
+        val coldNanos = measureBest {
+            // A new instance for every iteration, so that the lookup keys cache is always cold
+            val encrypt = EncryptData(aesKey)
+            handles.forEach { encrypt.encryptLookupKey(it) }
+        }
+        handles.forEach { encryptData.encryptLookupKey(it) }
+        val cachedNanos = measureBest { handles.forEach { encryptData.encryptLookupKey(it) } }
+
+        Log.i(
+            TAG,
+            "Encrypt lookup key: cold ${coldNanos / LOOKUP_KEY_COUNT} ns, " +
+                    "cached ${cachedNanos / LOOKUP_KEY_COUNT} ns"
+        )
+        handles.forEach {
+            assertThat(encryptData.encryptLookupKey(it)).isEqualTo(legacyEncrypt("$it"))
+        }
+    }
+
+    private inline fun measureBest(block: () -> Unit): Long {
+        repeat(WARM_UP_ITERATIONS) { block() }
+        return (1..MEASURED_ITERATIONS).minOf { measureNanoTime(block) }
+    }
+
+    @Suppress("GetInstance")
+    private fun legacyEncrypt(data: String): String {
+        val cipher = Cipher.getInstance("AES")
+        cipher.init(Cipher.ENCRYPT_MODE, SecretKeySpec(aesKey, "AES"))
+        return Base64.encodeToString(cipher.doFinal(data.toByteArray()), Base64.DEFAULT)
+    }
+
+    @Suppress("GetInstance")
+    private fun legacyDecrypt(data: String): String {
+        val cipher = Cipher.getInstance("AES")
+        cipher.init(Cipher.DECRYPT_MODE, SecretKeySpec(aesKey, "AES"))
+        return String(cipher.doFinal(Base64.decode(data, Base64.DEFAULT)))
+    }
+
+    companion object {
+        private const val TAG = "EncryptDecryptDataBenchmark"
+        private const val FIELD_COUNT = 5_000
+        private const val LOOKUP_KEY_COUNT = 256
+        private const val WARM_UP_ITERATIONS = 3
+        private const val MEASURED_ITERATIONS = 5
+    }
+}
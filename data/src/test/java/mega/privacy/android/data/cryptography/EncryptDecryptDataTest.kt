@@ -0,0 +1,73 @@
+package mega.privacy.android.data.cryptography
+
+import android.util.Base64
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.annotation.Config
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+
+@RunWith(AndroidJUnit4::class)
+@Config(sdk = [34])
+class EncryptDecryptDataTest {
+
+    private val aesKey = "0123456789abcdef0123456789abcdef".toByteArray()
+
+    private val fields = (1..FIELD_COUNT).map { "field value $it" }
+
+    @Test
+    fun `test that the reused ciphers give the same values as new ciphers`() = runTest {
+        val encryptData = EncryptData(aesKey)
+        val decryptData = DecryptData(aesKey)
+
+        fields.forEach {
+            assertThat(encryptData(it)).isEqualTo(legacyEncrypt(it))
+            assertThat(decryptData(encryptData(it))).isEqualTo(it)
+        }
+    }
+
+    @Test
+    fun `test that the encrypted lookup key is the encrypted handle`() = runTest {
+        val encryptData = EncryptData(aesKey)
+
+        (1..LOOKUP_KEY_COUNT.toLong()).forEach {
+            assertThat(encryptData.encryptLookupKey(it)).isEqualTo(legacyEncrypt("$it"))
+            assertThat(encryptData.encryptLookupKey(it)).isEqualTo(legacyEncrypt("$it"))
+        }
+    }
+
+    @Test
+    fun `test that the ciphers can be used from several threads`() = runBlocking {
+        val encryptData = EncryptData(aesKey)
+        val decryptData = DecryptData(aesKey)
+
+        val results = (1..THREAD_COUNT).map { thread ->
+            async(Dispatchers.Default) {
+                fields.map { "$it $thread" }
+                    .all { decryptData(encryptData(it)) == it }
+            }
+        }.awaitAll()
+
+        assertThat(results).doesNotContain(false)
+    }
+
+    @Suppress("GetInstance")
+    private fun legacyEncrypt(data: String): String {
+        val cipher = Cipher.getInstance("AES")
+        cipher.init(Cipher.ENCRYPT_MODE, SecretKeySpec(aesKey, "AES"))
+        return Base64.encodeToString(cipher.doFinal(data.toByteArray()), Base64.DEFAULT)
+    }
+
+    companion object {
+        private const val FIELD_COUNT = 1_000
+        private const val LOOKUP_KEY_COUNT = 256
+        private const val THREAD_COUNT = 8
+    }
+}
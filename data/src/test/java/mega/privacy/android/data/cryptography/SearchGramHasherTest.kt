@@ -0,0 +1,45 @@
+package mega.privacy.android.data.cryptography
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchGramHasherTest {
+
+    private val underTest = SearchGramHasher("0123456789abcdef0123456789abcdef".toByteArray())
+
+    @Test
+    fun `test that a name contains every gram of a query it contains`() {
+        val nameGrams = underTest.hashNameGrams("Holiday Photo 2024.JPG")
+
+        assertThat(nameGrams).containsAtLeastElementsIn(underTest.hashQueryGrams("photo 20"))
+        assertThat(nameGrams).containsAtLeastElementsIn(underTest.hashQueryGrams("HOL"))
+        assertThat(nameGrams).containsAtLeastElementsIn(underTest.hashQueryGrams(".jpg"))
+    }
+
+    @Test
+    fun `test that a name does not contain the grams of a query it does not contain`() {
+        val nameGrams = underTest.hashNameGrams("Holiday Photo 2024.JPG")
+
+        assertThat(nameGrams).containsNoneIn(underTest.hashQueryGrams("video"))
+    }
+
+    @Test
+    fun `test that a query shorter than a gram has no grams`() {
+        assertThat(underTest.hashQueryGrams("ab")).isEmpty()
+    }
+
+    @Test
+    fun `test that every name has at least one gram`() {
+        assertThat(underTest.hashNameGrams("")).isNotEmpty()
+        assertThat(underTest.hashNameGrams("a")).isNotEmpty()
+    }
+
+    @Test
+    fun `test that the grams depend on the key`() {
+        val otherKey = SearchGramHasher("fedcba9876543210fedcba9876543210".toByteArray())
+
+        assertThat(otherKey.hashNameGrams("name")).isNotEqualTo(underTest.hashNameGrams("name"))
+    }
+}
@@ -0,0 +1,69 @@
+package mega.privacy.android.data.database
+
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cryptography.DecryptData
+import mega.privacy.android.data.cryptography.SearchGramHasher
+import mega.privacy.android.data.database.dao.OfflineDao
+import mega.privacy.android.data.database.entity.OfflineEntity
+import mega.privacy.android.data.database.entity.OfflineSearchGramEntity
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OfflineSearchGramsIndexerTest {
+
+    private lateinit var underTest: OfflineSearchGramsIndexer
+
+    private val offlineDao = mock<OfflineDao>()
+    private val decryptData = mock<DecryptData>()
+    private val searchGramHasher = mock<SearchGramHasher>()
+
+    @BeforeEach
+    fun setUp() {
+        reset(offlineDao, decryptData, searchGramHasher)
+        underTest = OfflineSearchGramsIndexer(
+            offlineDao = { offlineDao },
+            decryptData = decryptData,
+            searchGramHasher = searchGramHasher,
+        )
+    }
+
+    @Test
+    fun `test that the entities without search grams are indexed`() = runTest {
+        val entity = mock<OfflineEntity> {
+            on { id }.thenReturn(7)
+            on { encryptedName }.thenReturn("encryptedName")
+        }
+        whenever(offlineDao.getOfflineWithoutSearchGrams()).thenReturn(listOf(entity))
+        whenever(decryptData("encryptedName")).thenReturn("name")
+        whenever(searchGramHasher.hashNameGrams("name")).thenReturn(listOf(3L, 4L))
+
+        underTest.indexOnce()
+
+        verify(offlineDao).insertSearchGrams(
+            listOf(
+                OfflineSearchGramEntity(offlineId = 7, gram = 3L),
+                OfflineSearchGramEntity(offlineId = 7, gram = 4L),
+            )
+        )
+    }
+
+    @Test
+    fun `test that the entities without search grams are only looked for once`() = runTest {
+        whenever(offlineDao.getOfflineWithoutSearchGrams()).thenReturn(emptyList())
+
+        underTest.indexOnce()
+        underTest.indexOnce()
+
+        verify(offlineDao, times(1)).getOfflineWithoutSearchGrams()
+        verify(offlineDao, never()).insertSearchGrams(any())
+    }
+}
@@ -10,6 +10,7 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -129,5 +130,83 @@ class CameraUploadsMediaFacadeTest {
             assertThat(underTest.getMediaSelectionQuery(parentPath)).isEqualTo(expected)
         }
 
+    @Test
+    fun test_that_getMediaListSinceWatermark_makes_a_full_scan_when_generations_are_not_supported() =
+        runTest {
+            val uri = mock<Uri>()
+            val watermark = CameraUploadsMediaScanWatermark(
+                volumeName = "external_primary",
+                mediaStoreVersion = "version",
+                selectionQuery = null,
+                generation = 10L,
+                maxMediaId = 100L,
+            )
+            val mockCursor = mock<Cursor> {
+                on { getColumnIndexOrThrow(anyOrNull()) }.thenReturn(0)
+                on { getLong(0) }.thenReturn(1234L)
+                on { getString(0) }.thenReturn("name")
+                on { moveToFirst() }.thenReturn(true)
+                on { moveToNext() }.thenReturn(false)
+            }
+            val contentResolver = mock<ContentResolver> {
+                on {
+                    query(
+                        anyOrNull(),
+                        anyOrNull(),
+                        anyOrNull(),
+                        anyOrNull(),
+                        anyOrNull()
+                    )
+                }.thenReturn(mockCursor)
+            }
+            whenever(context.contentResolver).thenReturn(contentResolver)
+
+            val actual = underTest.getMediaListSinceWatermark(uri, null, watermark)
+
+            assertThat(actual.isFullScan).isTrue()
+            assertThat(actual.watermark).isNull()
+            assertThat(actual.rowsRead).isEqualTo(1)
+        }
 
+    @Test
+    fun test_that_getMediaIds_returns_the_ids_of_the_media() = runTest {
+        val uri = mock<Uri>()
+        val mockCursor = mock<Cursor> {
+            on { getColumnIndexOrThrow("_id") }.thenReturn(0)
+            on { getLong(0) }.thenReturn(1234L, 5678L)
+            on { moveToNext() }.thenReturn(true, true, false)
+        }
+        val contentResolver = mock<ContentResolver> {
+            on {
+                query(
+                    anyOrNull(),
+                    anyOrNull(),
+                    anyOrNull(),
+                    anyOrNull(),
+                    anyOrNull()
+                )
+            }.thenReturn(mockCursor)
+        }
+        whenever(context.contentResolver).thenReturn(contentResolver)
+
+        assertThat(underTest.getMediaIds(uri, null)).containsExactly(1234L, 5678L)
+    }
+
+    @Test
+    fun test_that_getMediaIds_returns_null_when_the_media_store_cannot_be_read() = runTest {
+        val contentResolver = mock<ContentResolver> {
+            on {
+                query(
+                    anyOrNull(),
+                    anyOrNull(),
+                    anyOrNull(),
+                    anyOrNull(),
+                    anyOrNull()
+                )
+            }.thenThrow(SecurityException())
+        }
+        whenever(context.contentResolver).thenReturn(contentResolver)
+
+        assertThat(underTest.getMediaIds(mock(), null)).isNull()
+    }
 }
@@ -0,0 +1,246 @@
+package mega.privacy.android.data.facade
+
+import android.content.ContentResolver
+import android.content.Context
+import android.content.pm.PackageManager
+import android.database.Cursor
+import android.net.Uri
+import android.provider.DocumentsContract
+import android.provider.DocumentsContract.Document
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.document.DocumentEntity
+import mega.privacy.android.domain.entity.uri.UriPath
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.MockedStatic
+import org.mockito.Mockito.mockStatic
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+internal class DocumentTreeScannerTest {
+
+    private lateinit var underTest: DocumentTreeScanner
+
+    private val contentResolver = mock<ContentResolver>()
+    private val context = mock<Context> {
+        on { contentResolver } doReturn contentResolver
+    }
+    private val treeUri = uri("content://tree/root")
+    private val childrenUris = mutableMapOf<String, Uri>()
+
+    private lateinit var documentsContractMock: MockedStatic<DocumentsContract>
+    private lateinit var uriMock: MockedStatic<Uri>
+
+    /**
+     * root
+     * ├── Reports (folder)
+     * │   ├── report 2024.pdf
+     * │   └── Archive (folder)
+     * └── report.txt
+     */
+    private val tree = mapOf(
+        "root" to listOf(
+            Row("reports", "Reports", Document.MIME_TYPE_DIR, 0L, null),
+            Row("report.txt", "report.txt", "text/plain", 10L, 1_000L),
+        ),
+        "reports" to listOf(
+            Row("report 2024.pdf", "report 2024.pdf", "application/pdf", 20L, 2_000L),
+            Row("archive", "Archive", Document.MIME_TYPE_DIR, 0L, 3_000L),
+        ),
+        "archive" to emptyList(),
+    )
+
+    @TempDir
+    lateinit var temporaryFolder: File
+
+    @BeforeAll
+    fun setUp() {
+        documentsContractMock = mockStatic(DocumentsContract::class.java)
+        uriMock = mockStatic(Uri::class.java)
+        underTest = DocumentTreeScanner(context = context)
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(contentResolver)
+        documentsContractMock.reset()
+        uriMock.reset()
+        documentsContractMock.`when`<Boolean> { DocumentsContract.isDocumentUri(context, treeUri) }
+            .thenReturn(false)
+        documentsContractMock.`when`<String> { DocumentsContract.getTreeDocumentId(treeUri) }
+            .thenReturn("root")
+        tree.forEach { (documentId, rows) ->
+            val childrenUri = childrenUris.getOrPut(documentId) {
+                uri("content://tree/root/document/$documentId/children")
+            }
+            documentsContractMock.`when`<Uri> {
+                DocumentsContract.buildChildDocumentsUriUsingTree(treeUri, documentId)
+            }.thenReturn(childrenUri)
+            whenever(
+                contentResolver.query(eq(childrenUri), any(), anyOrNull(), anyOrNull(), anyOrNull())
+            ).doAnswer { cursorOf(rows) }
+            rows.forEach { row ->
+                documentsContractMock.`when`<Uri> {
+                    DocumentsContract.buildDocumentUriUsingTree(treeUri, row.documentId)
+                }.thenReturn(uri("content://tree/root/document/${row.documentId}"))
+            }
+        }
+        whenever(context.checkCallingOrSelfUriPermission(eq(treeUri), any()))
+            .thenReturn(PackageManager.PERMISSION_GRANTED)
+    }
+
+    @AfterAll
+    fun tearDown() {
+        documentsContractMock.close()
+        uriMock.close()
+    }
+
+    @Test
+    fun `test that getChildren returns the documents with the number of children of the folders`() =
+        runTest {
+            val actual = underTest.getChildren(treeUri)
+
+            assertThat(actual).containsExactly(
+                DocumentEntity(
+                    name = "Reports",
+                    size = 0L,
+                    lastModified = 0L,
+                    uri = UriPath("content://tree/root/document/reports"),
+                    isFolder = true,
+                    numFiles = 1,
+                    numFolders = 1,
+                    canRead = true,
+                ),
+                DocumentEntity(
+                    name = "report.txt",
+                    size = 10L,
+                    lastModified = 1_000L,
+                    uri = UriPath("content://tree/root/document/report.txt"),
+                    isFolder = false,
+                    numFiles = 0,
+                    numFolders = 0,
+                    canRead = true,
+                ),
+            ).inOrder()
+        }
+
+    @Test
+    fun `test that getChildren queries each folder once`() = runTest {
+        underTest.getChildren(treeUri)
+
+        verify(contentResolver, times(2))
+            .query(any(), any(), anyOrNull(), anyOrNull(), anyOrNull())
+    }
+
+    @Test
+    fun `test that the documents can not be read when the tree has no read permission`() =
+        runTest {
+            whenever(context.checkCallingOrSelfUriPermission(eq(treeUri), any()))
+                .thenReturn(PackageManager.PERMISSION_DENIED)
+
+            val actual = underTest.getChildren(treeUri)
+
+            assertThat(actual.map { it.canRead }).containsExactly(false, false)
+        }
+
+    @Test
+    fun `test that getChildren returns no documents when the query fails`() = runTest {
+        whenever(contentResolver.query(any(), any(), anyOrNull(), anyOrNull(), anyOrNull()))
+            .thenThrow(SecurityException())
+
+        assertThat(underTest.getChildren(treeUri)).isEmpty()
+    }
+
+    @Test
+    fun `test that search emits the matching documents of all the subfolders`() = runTest {
+        val actual = underTest.search(treeUri, "REPORT").toList()
+
+        assertThat(actual.map { it.name })
+            .containsExactly("report.txt", "Reports", "report 2024.pdf").inOrder()
+        assertThat(actual.first { it.isFolder }.numFiles).isEqualTo(1)
+        assertThat(actual.first { it.isFolder }.numFolders).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that search queries each folder once`() = runTest {
+        underTest.search(treeUri, "report").toList()
+
+        verify(contentResolver, times(tree.size))
+            .query(any(), any(), anyOrNull(), anyOrNull(), anyOrNull())
+    }
+
+    @Test
+    fun `test that the documents of a file uri are read from the file system`() = runTest {
+        val folder = File(temporaryFolder, "folder").apply { mkdirs() }
+        File(folder, "child.txt").writeText("child")
+        File(temporaryFolder, "file.txt").writeText("content")
+        val fileUri = mock<Uri> {
+            on { scheme } doReturn ContentResolver.SCHEME_FILE
+            on { path } doReturn temporaryFolder.path
+        }
+        uriMock.`when`<Uri> { Uri.fromFile(any()) }.doAnswer {
+            uri("file://${it.getArgument<File>(0).path}")
+        }
+
+        val actual = underTest.getChildren(fileUri).sortedBy { it.name }
+
+        assertThat(actual.map { it.name }).containsExactly("file.txt", "folder").inOrder()
+        assertThat(actual[0].size).isEqualTo(7L)
+        assertThat(actual[0].uri).isEqualTo(UriPath("file://${temporaryFolder.path}/file.txt"))
+        assertThat(actual[1].isFolder).isTrue()
+        assertThat(actual[1].numFiles).isEqualTo(1)
+    }
+
+    private fun uri(value: String) = mock<Uri> {
+        on { toString() } doReturn value
+    }
+
+    private fun cursorOf(rows: List<Row>): Cursor {
+        var position = -1
+        return mock {
+            on { count } doReturn rows.size
+            on { moveToNext() } doAnswer { ++position < rows.size }
+            on { getColumnIndexOrThrow(any()) } doAnswer { COLUMNS.indexOf(it.getArgument(0)) }
+            on { isNull(any()) } doAnswer { rows[position][it.getArgument(0)] == null }
+            on { getString(any()) } doAnswer { rows[position][it.getArgument(0)] as String? }
+            on { getLong(any()) } doAnswer { rows[position][it.getArgument(0)] as Long }
+        }
+    }
+
+    private data class Row(
+        val documentId: String,
+        val name: String,
+        val mimeType: String,
+        val size: Long,
+        val lastModified: Long?,
+    ) {
+        operator fun get(column: Int): Any? =
+            listOf(documentId, name, mimeType, size, lastModified)[column]
+    }
+
+    private companion object {
+        val COLUMNS = listOf(
+            Document.COLUMN_DOCUMENT_ID,
+            Document.COLUMN_DISPLAY_NAME,
+            Document.COLUMN_MIME_TYPE,
+            Document.COLUMN_SIZE,
+            Document.COLUMN_LAST_MODIFIED,
+        )
+    }
+}
@@ -65,6 +65,7 @@ internal class FileFacadeTest {
     private val environmentMock = mockStatic(Environment::class.java)
     private val deviceGateway = mock<DeviceGateway>()
     private val documentFileWrapper = mock<DocumentFileWrapper>()
+    private val documentTreeScanner = mock<DocumentTreeScanner>()
 
     @TempDir
     lateinit var temporaryFolder: File
@@ -77,6 +78,7 @@ internal class FileFacadeTest {
             documentFileMapper = documentFileMapper,
             deviceGateway = deviceGateway,
             documentFileWrapper = documentFileWrapper,
+            documentTreeScanner = documentTreeScanner,
         )
     }
 
@@ -7,6 +7,8 @@ import kotlinx.coroutines.flow.single
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
+import mega.privacy.android.data.cryptography.SearchGramHasher
+import mega.privacy.android.data.database.OfflineSearchGramsIndexer
 import mega.privacy.android.data.database.dao.ActiveTransferDao
 import mega.privacy.android.data.database.dao.ActiveTransferGroupDao
 import mega.privacy.android.data.database.dao.BackupDao
@@ -28,6 +30,7 @@ import mega.privacy.android.data.database.entity.CompletedTransferEntity
 import mega.privacy.android.data.database.entity.CompletedTransferEntityLegacy
 import mega.privacy.android.data.database.entity.LastPageViewedInPdfEntity
 import mega.privacy.android.data.database.entity.MediaPlaybackInfoEntity
+import mega.privacy.android.data.database.entity.OfflineEntity
 import mega.privacy.android.data.database.entity.PendingTransferEntity
 import mega.privacy.android.data.database.entity.VideoRecentlyWatchedEntity
 import mega.privacy.android.data.facade.MegaLocalRoomFacade.Companion.MAX_COMPLETED_TRANSFER_ROWS
@@ -58,6 +61,7 @@ import mega.privacy.android.data.mapper.videosection.VideoRecentlyWatchedEntityM
 import mega.privacy.android.data.mapper.videosection.VideoRecentlyWatchedItemMapper
 import mega.privacy.android.data.model.VideoRecentlyWatchedItem
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.backup.BackupInfoType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
@@ -86,6 +90,7 @@ import org.mockito.kotlin.any
 import org.mockito.kotlin.doAnswer
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
@@ -114,6 +119,8 @@ internal class MegaLocalRoomFacadeTest {
     private val offlineDao: OfflineDao = mock()
     private val offlineModelMapper: OfflineModelMapper = mock()
     private val offlineEntityMapper: OfflineEntityMapper = mock()
+    private val searchGramHasher: SearchGramHasher = mock()
+    private val offlineSearchGramsIndexer: OfflineSearchGramsIndexer = mock()
     private val cameraUploadsRecordDao: CameraUploadsRecordDao = mock()
     private val cameraUploadsRecordEntityMapper: CameraUploadsRecordEntityMapper = mock()
     private val cameraUploadsRecordModelMapper: CameraUploadsRecordModelMapper = mock()
@@ -158,6 +165,8 @@ internal class MegaLocalRoomFacadeTest {
             offlineDao = { offlineDao },
             offlineEntityMapper = offlineEntityMapper,
             offlineModelMapper = offlineModelMapper,
+            searchGramHasher = searchGramHasher,
+            offlineSearchGramsIndexer = offlineSearchGramsIndexer,
             cameraUploadsRecordDao = { cameraUploadsRecordDao },
             cameraUploadsRecordEntityMapper = cameraUploadsRecordEntityMapper,
             cameraUploadsRecordModelMapper = cameraUploadsRecordModelMapper,
@@ -213,7 +222,12 @@ internal class MegaLocalRoomFacadeTest {
             activeTransferGroupEntityMapper,
             mediaPlaybackInfoDao,
             mediaPlaybackInfoMapper,
-            mediaPlaybackInfoEntityMapper
+            mediaPlaybackInfoEntityMapper,
+            offlineDao,
+            offlineModelMapper,
+            searchGramHasher,
+            offlineSearchGramsIndexer,
+            decryptData,
         )
     }
 
@@ -1219,4 +1233,96 @@ internal class MegaLocalRoomFacadeTest {
             val actual = underTest.getMediaPlaybackInfo(testHandle)
             assertThat(actual).isNull()
         }
+
+    @Test
+    fun `test that getOfflineInformationByHandles only reads the given handles`() =
+        runTest {
+            val handles = listOf(1L, 2L)
+            val entity = mock<OfflineEntity>()
+            val offline = mock<Offline>()
+            whenever(encryptData("1")).thenReturn("encrypted1")
+            whenever(encryptData("2")).thenReturn("encrypted2")
+            whenever(
+                offlineDao.getOfflineByHandles(
+                    listOf("encrypted1", "encrypted2"),
+                    MegaLocalRoomFacade.MAX_INSERT_LIST_SIZE,
+                )
+            ).thenReturn(listOf(entity))
+            whenever(offlineModelMapper(entity)).thenReturn(offline)
+
+            assertThat(underTest.getOfflineInformationByHandles(handles)).containsExactly(offline)
+            verify(offlineDao, never()).getOfflineFiles()
+        }
+
+    @Test
+    fun `test that getOfflineInformationByHandles does not query the database when there are no handles`() =
+        runTest {
+            assertThat(underTest.getOfflineInformationByHandles(emptyList())).isEmpty()
+            verify(offlineDao, never()).getOfflineByHandles(any(), any())
+        }
+
+    @Test
+    fun `test that saveOfflineInformation saves the search grams of the name`() = runTest {
+        val offline = mock<Offline> {
+            on { name }.thenReturn("name")
+        }
+        val entity = mock<OfflineEntity>()
+        val grams = listOf(1L, 2L)
+        whenever(offlineEntityMapper(offline)).thenReturn(entity)
+        whenever(searchGramHasher.hashNameGrams("name")).thenReturn(grams)
+        whenever(offlineDao.insertOrUpdateOffline(entity, grams)).thenReturn(10L)
+
+        assertThat(underTest.saveOfflineInformation(offline)).isEqualTo(10L)
+    }
+
+    @Test
+    fun `test that searchOfflineInformation returns the candidates of the query grams`() =
+        runTest {
+            val grams = listOf(1L, 2L)
+            val entity = mock<OfflineEntity>()
+            val offline = mock<Offline>()
+            whenever(searchGramHasher.hashQueryGrams("query")).thenReturn(grams)
+            whenever(offlineDao.getOfflineBySearchGrams(grams, grams.size, 5))
+                .thenReturn(listOf(entity))
+            whenever(offlineModelMapper(entity)).thenReturn(offline)
+
+            assertThat(underTest.searchOfflineInformation("query", 5)).containsExactly(offline)
+            verify(offlineDao, never()).getOfflineByParentId(any())
+        }
+
+    @Test
+    fun `test that searchOfflineInformation indexes the entities without search grams first`() =
+        runTest {
+            val grams = listOf(1L, 2L)
+            whenever(searchGramHasher.hashQueryGrams("query")).thenReturn(grams)
+            whenever(offlineDao.getOfflineBySearchGrams(grams, grams.size)).thenReturn(emptyList())
+
+            underTest.searchOfflineInformation("query", null)
+
+            inOrder(offlineSearchGramsIndexer, offlineDao) {
+                verify(offlineSearchGramsIndexer).indexOnce()
+                verify(offlineDao).getOfflineBySearchGrams(grams, grams.size)
+            }
+        }
+
+    @Test
+    fun `test that searchOfflineInformation returns every node of the parent when the query is too short`() =
+        runTest {
+            val entity = mock<OfflineEntity>()
+            val offline = mock<Offline>()
+            whenever(searchGramHasher.hashQueryGrams("ab")).thenReturn(emptyList())
+            whenever(offlineDao.getOfflineByParentId(5)).thenReturn(listOf(entity))
+            whenever(offlineModelMapper(entity)).thenReturn(offline)
+
+            assertThat(underTest.searchOfflineInformation("ab", 5)).containsExactly(offline)
+            verify(offlineDao, never()).getOfflineBySearchGrams(any(), any(), any())
+        }
+
+    @Test
+    fun `test that clearOffline deletes the search grams`() = runTest {
+        underTest.clearOffline()
+
+        verify(offlineDao).deleteAllOffline()
+        verify(offlineDao).deleteAllSearchGrams()
+    }
 }
@@ -0,0 +1,125 @@
+package mega.privacy.android.data.facade.transfer
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.model.GlobalTransfer
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaTransfer
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConflatingTransferEventQueueTest {
+
+    @Test
+    fun `test that only the latest pending update of a transfer is kept`() {
+        val underTest = ConflatingTransferEventQueue()
+        val first = GlobalTransfer.OnTransferUpdate(transfer(1))
+        val other = GlobalTransfer.OnTransferUpdate(transfer(2))
+        val latest = GlobalTransfer.OnTransferUpdate(transfer(1))
+
+        underTest.offer(first)
+        underTest.offer(other)
+        underTest.offer(latest)
+
+        assertThat(underTest.drain()).containsExactly(latest, other).inOrder()
+        assertThat(underTest.coalescedUpdates).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that start, finish and temporary error events are never coalesced`() {
+        val underTest = ConflatingTransferEventQueue()
+        val transfer = transfer(1)
+        val error = mock<MegaError>()
+        val events = listOf(
+            GlobalTransfer.OnTransferStart(transfer),
+            GlobalTransfer.OnTransferStart(transfer),
+            GlobalTransfer.OnTransferTemporaryError(transfer, error),
+            GlobalTransfer.OnTransferTemporaryError(transfer, error),
+            GlobalTransfer.OnTransferFinish(transfer, error),
+            GlobalTransfer.OnTransferFinish(transfer, error),
+        )
+
+        events.forEach { underTest.offer(it) }
+
+        assertThat(underTest.drain()).containsExactlyElementsIn(events).inOrder()
+        assertThat(underTest.coalescedUpdates).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that an update after a finish event of the same transfer is queued after it`() {
+        val underTest = ConflatingTransferEventQueue()
+        val transfer = transfer(1)
+        val update = GlobalTransfer.OnTransferUpdate(transfer)
+        val finish = GlobalTransfer.OnTransferFinish(transfer, mock())
+        val lateUpdate = GlobalTransfer.OnTransferUpdate(transfer)
+
+        underTest.offer(update)
+        underTest.offer(finish)
+        underTest.offer(lateUpdate)
+
+        assertThat(underTest.drain()).containsExactly(update, finish, lateUpdate).inOrder()
+    }
+
+    @Test
+    fun `test that file and folder updates of the same transfer are not coalesced together`() {
+        val underTest = ConflatingTransferEventQueue()
+        val transfer = transfer(1)
+        val update = GlobalTransfer.OnTransferUpdate(transfer)
+        val folderUpdate =
+            GlobalTransfer.OnFolderTransferUpdate(transfer, 1, 2L, 3L, 4L, null, null)
+
+        underTest.offer(update)
+        underTest.offer(folderUpdate)
+
+        assertThat(underTest.drain()).containsExactly(update, folderUpdate).inOrder()
+    }
+
+    @Test
+    fun `test that a consumed update is not replaced by the next one`() {
+        val underTest = ConflatingTransferEventQueue()
+        val first = GlobalTransfer.OnTransferUpdate(transfer(1))
+        val second = GlobalTransfer.OnTransferUpdate(transfer(1))
+
+        underTest.offer(first)
+        val consumed = underTest.poll()
+        underTest.offer(second)
+
+        assertThat(consumed).isEqualTo(first)
+        assertThat(underTest.drain()).containsExactly(second)
+    }
+
+    @Test
+    fun `test that updates of new transfers are dropped when the limit is reached`() {
+        val underTest = ConflatingTransferEventQueue(maxPendingUpdates = 2)
+        val updates = (1..3).map { GlobalTransfer.OnTransferUpdate(transfer(it)) }
+        val start = GlobalTransfer.OnTransferStart(transfer(4))
+
+        updates.forEach { underTest.offer(it) }
+        underTest.offer(start)
+
+        assertThat(underTest.drain()).containsExactly(updates[0], updates[1], start).inOrder()
+        assertThat(underTest.droppedUpdates).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that receive waits until an event is offered`() = runTest {
+        val underTest = ConflatingTransferEventQueue()
+        val event = GlobalTransfer.OnTransferStart(transfer(1))
+
+        val received = async { underTest.receive() }
+        underTest.offer(event)
+
+        assertThat(received.await()).isEqualTo(event)
+    }
+
+    private fun ConflatingTransferEventQueue.drain() =
+        generateSequence { poll() }.toList()
+
+    private fun transfer(tag: Int) = mock<MegaTransfer> {
+        on { this.tag } doReturn tag
+    }
+}
@@ -1,8 +1,13 @@
 package mega.privacy.android.data.logging
 
+import android.util.Log
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.TimberMegaLogger
 import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.usecase.CreateLogEntry
 import org.junit.Before
@@ -44,4 +49,34 @@ class LogFlowTreeTest {
         verifyBlocking(createLogEntry) { invoke(argForWhich { loggingClasses.containsAll(expected) }) }
     }
 
+    @Test
+    fun `test that the caller trace is passed for app logs`() = runTest {
+        underTest.d("Message")
+
+        verifyBlocking(createLogEntry) { invoke(argForWhich { trace.isNotEmpty() }) }
+    }
+
+    @Test
+    fun `test that the caller trace is not captured for sdk logs`() = runTest {
+        underTest.log(Log.DEBUG, TimberMegaLogger.TAG, "Message", null)
+
+        verifyBlocking(createLogEntry) { invoke(argForWhich { trace.isEmpty() }) }
+    }
+
+    @Test
+    fun `test that lines are dropped when the writer is behind`() = runTest {
+        val dispatcher = StandardTestDispatcher(testScheduler)
+        underTest = LogFlowTree(
+            dispatcher = dispatcher,
+            createLogEntry = createLogEntry,
+            capacity = 4,
+        )
+
+        repeat(6) { underTest.d("Message $it") }
+        advanceUntilIdle()
+
+        assertThat(underTest.droppedLines).isEqualTo(2)
+        assertThat(underTest.writtenLines).isEqualTo(4)
+    }
+
 }
\ No newline at end of file
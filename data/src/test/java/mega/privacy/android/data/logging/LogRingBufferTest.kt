@@ -0,0 +1,73 @@
+package mega.privacy.android.data.logging
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import kotlin.concurrent.thread
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LogRingBufferTest {
+
+    @Test
+    fun `test that lines are polled in the order they are offered`() {
+        val underTest = LogRingBuffer(4)
+        val throwable = Throwable()
+
+        underTest.offer(1, "tag", "first", throwable, null)
+        underTest.offer(2, null, "second", null, null)
+
+        assertThat(underTest.poll { Triple(it.priority, it.tag, it.throwable) })
+            .isEqualTo(Triple(1, "tag", throwable))
+        assertThat(underTest.poll { it.message }).isEqualTo("second")
+        assertThat(underTest.poll { it.message }).isNull()
+    }
+
+    @Test
+    fun `test that lines are not added when the buffer is full`() {
+        val underTest = LogRingBuffer(4)
+
+        val added = (1..6).map { underTest.offer(0, null, "$it", null, null) }
+
+        assertThat(added).containsExactly(true, true, true, true, false, false).inOrder()
+        assertThat(underTest.poll { it.message }).isEqualTo("1")
+        assertThat(underTest.offer(0, null, "7", null, null)).isTrue()
+    }
+
+    @Test
+    fun `test that the slots are reused after wrapping around`() {
+        val underTest = LogRingBuffer(2)
+
+        val polled = (1..10).map {
+            underTest.offer(0, null, "$it", null, null)
+            underTest.poll { line -> line.message }
+        }
+
+        assertThat(polled).isEqualTo((1..10).map { "$it" })
+    }
+
+    @Test
+    fun `test that no line is lost or duplicated with concurrent producers`() {
+        val underTest = LogRingBuffer(THREAD_COUNT * LINES_PER_THREAD)
+
+        (0 until THREAD_COUNT).map { producer ->
+            thread {
+                repeat(LINES_PER_THREAD) {
+                    underTest.offer(0, null, "$producer-$it", null, null)
+                }
+            }
+        }.forEach { it.join() }
+
+        val polled = generateSequence { underTest.poll { it.message } }.toList()
+        assertThat(polled).hasSize(THREAD_COUNT * LINES_PER_THREAD)
+        assertThat(polled.toSet()).hasSize(THREAD_COUNT * LINES_PER_THREAD)
+        (0 until THREAD_COUNT).forEach { producer ->
+            assertThat(polled.filter { it.startsWith("$producer-") })
+                .isEqualTo((0 until LINES_PER_THREAD).map { "$producer-$it" })
+        }
+    }
+
+    private companion object {
+        const val THREAD_COUNT = 8
+        const val LINES_PER_THREAD = 1_000
+    }
+}
@@ -12,6 +12,7 @@ import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.node.OfflineAvailabilityMapper
 import mega.privacy.android.data.model.node.DefaultFileNode
 import mega.privacy.android.data.model.node.DefaultFolderNode
+import mega.privacy.android.data.model.node.NodeCacheFolders
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.PdfFileTypeInfo
 import mega.privacy.android.domain.entity.SortOrder
@@ -79,7 +80,9 @@ class NodeMapperTest {
         whenever(megaApiGateway.getSyncs()).thenReturn(syncList)
         underTest = NodeMapper(
             fileNodeMapper = FileNodeMapper(
-                cacheGateway = mock(),
+                cacheGateway = mock {
+                    onBlocking { getNodeCacheFolders() }.thenReturn(NodeCacheFolders(null, null, null))
+                },
                 megaApiGateway = megaApiGateway,
                 fileTypeInfoMapper = fileTypeInfoMapper,
                 offlineAvailabilityMapper = offlineAvailabilityMapper,
@@ -0,0 +1,145 @@
+package mega.privacy.android.data.mapper.node
+
+import android.content.Context
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGatewayImpl
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.FileTypeInfoMapper
+import mega.privacy.android.data.mapper.StringListMapper
+import mega.privacy.android.domain.entity.PdfFileTypeInfo
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FileNodeMapperTest {
+
+    @TempDir
+    lateinit var temporaryFolder: File
+
+    private val context = mock<Context>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val fileTypeInfoMapper = mock<FileTypeInfoMapper>()
+    private val offlineAvailabilityMapper = mock<OfflineAvailabilityMapper>()
+    private val stringListMapper = mock<StringListMapper>()
+
+    @BeforeEach
+    fun resetMocks() = runTest {
+        reset(
+            context,
+            megaApiGateway,
+            fileTypeInfoMapper,
+            offlineAvailabilityMapper,
+            stringListMapper,
+        )
+        whenever(context.cacheDir).thenReturn(temporaryFolder)
+        whenever(fileTypeInfoMapper(anyOrNull(), anyOrNull())).thenReturn(PdfFileTypeInfo)
+        whenever(megaApiGateway.getNumVersions(any())).thenReturn(3)
+        whenever(megaApiGateway.isSensitiveInherited(any())).thenReturn(true)
+    }
+
+    @Test
+    fun `test that the cache folders are only resolved once for all the nodes`() = runTest {
+        val underTest = createMapper(createCacheGateway())
+
+        val nodes = (1L..10L).map { underTest(createMegaNode(it), false, null) }
+
+        verify(context, times(3)).cacheDir
+        nodes.forEach {
+            assertThat(it.thumbnailPath).startsWith(temporaryFolder.path)
+            assertThat(it.previewPath).startsWith(temporaryFolder.path)
+            assertThat(it.fullSizePath).startsWith(temporaryFolder.path)
+        }
+    }
+
+    @Test
+    fun `test that the cache folders are resolved again after clearing the cache`() = runTest {
+        val cacheGateway = createCacheGateway()
+        val underTest = createMapper(cacheGateway)
+
+        underTest(createMegaNode(1L), false, null)
+        cacheGateway.clearCacheDirectory()
+        val node = underTest(createMegaNode(2L), false, null)
+
+        assertThat(File(node.thumbnailPath.orEmpty()).parentFile?.exists()).isTrue()
+        verify(context, times(7)).cacheDir
+    }
+
+    @Test
+    fun `test that the cache folders are created again when they have been invalidated`() =
+        runTest {
+            val cacheGateway = createCacheGateway()
+            val underTest = createMapper(cacheGateway)
+
+            val first = underTest(createMegaNode(1L), false, null)
+            File(first.thumbnailPath.orEmpty()).parentFile?.deleteRecursively()
+            cacheGateway.invalidateNodeCacheFolders()
+            val node = underTest(createMegaNode(2L), false, null)
+
+            assertThat(File(node.thumbnailPath.orEmpty()).parentFile?.exists()).isTrue()
+        }
+
+    @Test
+    fun `test that the cache folders are not checked again for every node`() = runTest {
+        val underTest = createMapper(createCacheGateway())
+
+        val first = underTest(createMegaNode(1L), false, null)
+        File(first.thumbnailPath.orEmpty()).parentFile?.deleteRecursively()
+        underTest(createMegaNode(2L), false, null)
+
+        verify(context, times(3)).cacheDir
+    }
+
+    @Test
+    fun `test that the paths are the same as resolving the cache folders for each node`() =
+        runTest {
+            val cacheGateway = createCacheGateway()
+            val megaNodes = (1L..10L).map { createMegaNode(it) }
+
+            val legacyPaths = megaNodes.map { megaNode ->
+                cacheGateway.getThumbnailCacheFolder()
+                    ?.let { "$it${File.separator}${megaNode.base64Handle}" }
+            }
+            val paths = megaNodes.map { megaNode ->
+                cacheGateway.getNodeCacheFolders().thumbnailFolder
+                    ?.let { "$it${File.separator}${megaNode.base64Handle}" }
+            }
+
+            assertThat(paths).isEqualTo(legacyPaths)
+        }
+
+    private fun TestScope.createCacheGateway() =
+        CacheGatewayImpl(context, UnconfinedTestDispatcher(testScheduler))
+
+    private fun createMapper(cacheGateway: CacheGatewayImpl) = FileNodeMapper(
+        cacheGateway = cacheGateway,
+        megaApiGateway = megaApiGateway,
+        fileTypeInfoMapper = fileTypeInfoMapper,
+        offlineAvailabilityMapper = offlineAvailabilityMapper,
+        stringListMapper = stringListMapper,
+    )
+
+    private fun createMegaNode(handle: Long) = mock<MegaNode> {
+        on { this.handle }.thenReturn(handle)
+        on { name }.thenReturn("file $handle.pdf")
+        on { base64Handle }.thenReturn("base64 $handle")
+        on { isFile }.thenReturn(true)
+        on { isFolder }.thenReturn(false)
+        on { serialize() }.thenReturn("serialized $handle")
+    }
+}
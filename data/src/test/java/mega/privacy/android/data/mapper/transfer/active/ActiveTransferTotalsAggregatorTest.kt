@@ -0,0 +1,102 @@
+package mega.privacy.android.data.mapper.transfer.active
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.database.entity.ActiveTransferEntity
+import mega.privacy.android.domain.entity.transfer.ActiveTransferActionGroupImpl
+import mega.privacy.android.domain.entity.transfer.TransferAppData
+import mega.privacy.android.domain.entity.transfer.TransferType
+import mega.privacy.android.domain.repository.TransferRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ActiveTransferTotalsAggregatorTest {
+
+    private lateinit var mapper: ActiveTransferTotalsMapper
+
+    private val transferRepository = mock<TransferRepository>()
+
+    private val transferType = TransferType.GENERAL_UPLOAD
+
+    private val entities = (0..40).map { tag ->
+        ActiveTransferEntity(
+            uniqueId = tag.toLong(),
+            tag = tag,
+            transferType = transferType,
+            totalBytes = 1024 * (tag.toLong() % 5 + 1),
+            isFinished = tag.rem(5) == 0,
+            isFolderTransfer = tag.rem(8) == 0,
+            isPaused = false,
+            isAlreadyTransferred = false,
+            isCancelled = false,
+            appData = listOf(TransferAppData.TransferGroup(tag.mod(3).toLong())),
+            fileName = "File$tag.txt",
+            localPath = "path/File$tag.txt"
+        )
+    }
+
+    @BeforeAll
+    fun setUp() {
+        mapper = ActiveTransferTotalsMapper { transferRepository }
+    }
+
+    @BeforeEach
+    fun cleanup() = runTest {
+        reset(transferRepository)
+        whenever(transferRepository.getActiveTransferGroupById(any())).thenAnswer {
+            val groupId = it.arguments[0] as Int
+            ActiveTransferActionGroupImpl(
+                groupId = groupId,
+                transferType = transferType,
+                destination = "destination$groupId",
+                startTime = groupId.toLong(),
+            )
+        }
+    }
+
+    @Test
+    fun `test that applied changes give the same totals as mapping all the transfers again`() =
+        runTest {
+            val initialBytes = entities.associate { it.uniqueId to it.totalBytes / 4 }
+            val initialTotals = mapper(transferType, entities, initialBytes)
+            val underTest = ActiveTransferTotalsAggregator(initialTotals, entities, initialBytes)
+            val currentBytes = initialBytes.toMutableMap()
+
+            listOf(
+                entities.filter { it.uniqueId % 2 == 0L }.associate { it.uniqueId to it.totalBytes / 2 },
+                entities.filter { it.uniqueId % 3 == 0L }.associate { it.uniqueId to it.totalBytes },
+                entities.associate { it.uniqueId to it.totalBytes },
+            ).forEach { changes ->
+                currentBytes.putAll(changes)
+                val actual = underTest.apply(
+                    changes.keys.toLongArray(),
+                    changes.values.toLongArray(),
+                )
+
+                val expected = mapper(transferType, entities, currentBytes)
+                assertThat(actual).isEqualTo(expected)
+            }
+        }
+
+    @Test
+    fun `test that the same instance is returned when the changes do not modify the totals`() =
+        runTest {
+            val bytes = entities.associate { it.uniqueId to it.totalBytes / 4 }
+            val totals = mapper(transferType, entities, bytes)
+            val underTest = ActiveTransferTotalsAggregator(totals, entities, bytes)
+
+            val actual = underTest.apply(
+                bytes.keys.toLongArray() + longArrayOf(1000L),
+                bytes.values.toLongArray() + longArrayOf(5L),
+            )
+
+            assertThat(actual).isSameInstanceAs(totals)
+        }
+}
@@ -0,0 +1,208 @@
+package mega.privacy.android.data.mapper.zipbrowser
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
+import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Disabled
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.TestReporter
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.spy
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import java.util.zip.ZipEntry
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ZipNodeTreeTest {
+
+    private val zipTreeNodeMapper = spy(ZipTreeNodeMapper())
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(zipTreeNodeMapper)
+    }
+
+    @Test
+    fun `test that missing folders are created and children are added to their parents`() {
+        val underTest = createTree(
+            "folder/sub/file.txt",
+            "folder/sub/archive.zip",
+            "folder/other/",
+            "root.txt",
+        )
+
+        assertThat(underTest.keys).containsExactly(
+            "folder",
+            "folder/sub",
+            "folder/sub/file.txt",
+            "folder/sub/archive.zip",
+            "folder/other",
+            "root.txt",
+        ).inOrder()
+        val folder = underTest.getValue("folder")
+        assertThat(folder.parentPath).isNull()
+        assertThat(folder.zipEntryType).isEqualTo(ZipEntryType.Folder)
+        assertThat(folder.children.map { it.path })
+            .containsExactly("folder/sub", "folder/other").inOrder()
+        assertThat(folder.children.first().children.map { it.name })
+            .containsExactly("file.txt", "archive.zip").inOrder()
+        assertThat(underTest.getValue("folder/sub/file.txt").parentPath).isEqualTo("folder/sub")
+        assertThat(underTest.getValue("folder/sub/file.txt").zipEntryType)
+            .isEqualTo(ZipEntryType.File)
+        assertThat(underTest.getValue("folder/sub/archive.zip").zipEntryType)
+            .isEqualTo(ZipEntryType.Zip)
+        assertThat(underTest.getValue("folder/other").zipEntryType)
+            .isEqualTo(ZipEntryType.Folder)
+        assertThat(underTest.values.filter { it.parentPath == null }.map { it.path })
+            .containsExactly("folder", "root.txt").inOrder()
+    }
+
+    @Test
+    fun `test that an entry of an existing path does not create a new node`() {
+        val underTest = createTree("folder/file.txt", "folder/")
+
+        assertThat(underTest).hasSize(2)
+        assertThat(underTest.getValue("folder").children).hasSize(1)
+    }
+
+    @Test
+    fun `test that the nodes of a folder are the same instances as the nodes of the map`() {
+        val underTest = createTree("folder/file.txt")
+
+        assertThat(underTest.getValue("folder").children.single())
+            .isSameInstanceAs(underTest["folder/file.txt"])
+    }
+
+    @Test
+    fun `test that only the nodes that are read are created`() {
+        val underTest = createTree(
+            *(1..100).map { "folder$it/file.txt" }.toTypedArray(),
+        )
+
+        underTest.getValue("folder1").children.first()
+
+        verify(zipTreeNodeMapper, times(2)).invoke(any(), any(), any(), anyOrNull(), any(), any())
+        assertThat(underTest).hasSize(200)
+    }
+
+    @Test
+    fun `test that the tree has the same nodes as the previous tree building algorithm`() {
+        val entries = syntheticEntries()
+        val mapper = ZipTreeNodeMapper()
+
+        val legacy = legacyZipNodeTree(entries, mapper)
+        val tree = ZipNodeTree(entries.asSequence(), mapper)
+
+        assertThat(tree.keys).containsExactlyElementsIn(legacy.keys).inOrder()
+        legacy.values.forEach {
+            val node = tree.getValue(it.path)
+            assertThat(node.name).isEqualTo(it.name)
+            assertThat(node.parentPath).isEqualTo(it.parentPath)
+            assertThat(node.zipEntryType).isEqualTo(it.zipEntryType)
+            assertThat(node.children.map { child -> child.path })
+                .containsExactlyElementsIn(it.children.map { child -> child.path })
+        }
+    }
+
+    @Disabled("Benchmark, enable it to compare the tree building algorithms")
+    @Test
+    fun `test the duration of building the tree with both algorithms`(testReporter: TestReporter) {
+        val entries = syntheticEntries()
+        val mapper = ZipTreeNodeMapper()
+
+        val legacyNanos = measureBest { legacyZipNodeTree(entries, mapper) }
+        val treeNanos = measureBest {
+            ZipNodeTree(entries.asSequence(), mapper).values.forEach { it.children.size }
+        }
+
+        testReporter.publishEntry(
+            mapOf(
+                "entries" to entries.size.toString(),
+                "legacyMs" to (legacyNanos / 1_000_000).toString(),
+                "singlePassMs" to (treeNanos / 1_000_000).toString(),
+            )
+        )
+    }
+
+    private fun createTree(vararg names: String) =
+        ZipNodeTree(names.asSequence().map { ZipEntry(it) }, zipTreeNodeMapper)
+
+    /**
+     * Deep folders with a few files each, and a flat folder with many files
+     */
+    private fun syntheticEntries() =
+        (1..DEEP_FOLDER_COUNT).flatMap { folder ->
+            (1..FILES_PER_FOLDER).map { file ->
+                ZipEntry("root/level1_${folder % 10}/level2_${folder % 50}/folder$folder/file$file.txt")
+            }
+        } + (1..FLAT_FILE_COUNT).map { ZipEntry("flat/file$it.txt") }
+
+    private fun measureBest(block: () -> Unit): Long {
+        repeat(WARM_UP_ITERATIONS) { block() }
+        return (1..MEASURED_ITERATIONS).minOf {
+            val start = System.nanoTime()
+            block()
+            System.nanoTime() - start
+        }
+    }
+
+    /**
+     * The tree building algorithm before the single pass builder, splitting the path for each
+     * depth and copying the children of the parent for each added child
+     */
+    private fun legacyZipNodeTree(
+        entries: List<ZipEntry>,
+        mapper: ZipTreeNodeMapper,
+    ): Map<String, ZipTreeNode> {
+        val zipNodeTree = mutableMapOf<String, ZipTreeNode>()
+        entries.forEach { zipEntry ->
+            val name = zipEntry.name
+            val nodeDepth = name.removeSuffix("/").split("/").size
+            for (i in 1..nodeDepth) {
+                val subPath = name.subPath(i)
+                val subParentPath = if (i == 1) null else name.subPath(i - 1)
+                if (zipNodeTree[subPath] == null) {
+                    val node = mapper(
+                        zipEntry = zipEntry,
+                        name = subPath.removeSuffix("/").split("/").last(),
+                        path = subPath,
+                        parentPath = subParentPath,
+                        zipEntryType = if (i == nodeDepth) {
+                            when {
+                                zipEntry.isDirectory -> ZipEntryType.Folder
+                                name.endsWith(".zip") -> ZipEntryType.Zip
+                                else -> ZipEntryType.File
+                            }
+                        } else {
+                            ZipEntryType.Folder
+                        }
+                    )
+                    zipNodeTree[subPath] = node
+                    if (!subParentPath.isNullOrEmpty()) {
+                        zipNodeTree[subParentPath]?.let { parentNode ->
+                            zipNodeTree[subParentPath] = parentNode.copy(
+                                children = parentNode.children.toMutableList().apply { add(node) }
+                            )
+                        }
+                    }
+                }
+            }
+        }
+        return zipNodeTree
+    }
+
+    private fun String.subPath(depth: Int) =
+        removeSuffix("/").split("/").take(depth).joinToString("/")
+
+    private companion object {
+        const val DEEP_FOLDER_COUNT = 500
+        const val FILES_PER_FOLDER = 10
+        const val FLAT_FILE_COUNT = 5_000
+        const val WARM_UP_ITERATIONS = 1
+        const val MEASURED_ITERATIONS = 3
+    }
+}
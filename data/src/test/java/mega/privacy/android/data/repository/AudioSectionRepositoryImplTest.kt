@@ -1,8 +1,10 @@
 package mega.privacy.android.data.repository
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
@@ -23,10 +25,10 @@ import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaSearchFilter
 import org.junit.jupiter.api.AfterAll
-import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.whenever
@@ -44,22 +46,8 @@ class AudioSectionRepositoryImplTest {
     private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
     private val megaSearchFilterMapper = mock<MegaSearchFilterMapper>()
 
-    @BeforeAll
-    fun setUp() {
-        underTest = AudioSectionRepositoryImpl(
-            megaApiGateway = megaApiGateway,
-            sortOrderIntMapper = sortOrderIntMapper,
-            fileNodeMapper = fileNodeMapper,
-            typedAudioNodeMapper = typedAudioNodeMapper,
-            cancelTokenProvider = cancelTokenProvider,
-            megaLocalRoomGateway = megaLocalRoomGateway,
-            megaSearchFilterMapper = megaSearchFilterMapper,
-            ioDispatcher = UnconfinedTestDispatcher()
-        )
-    }
-
     @BeforeEach
-    fun resetMocks() {
+    fun setUp() {
         reset(
             megaApiGateway,
             sortOrderIntMapper,
@@ -67,6 +55,20 @@ class AudioSectionRepositoryImplTest {
             typedAudioNodeMapper,
             megaLocalRoomGateway
         )
+        whenever(megaApiGateway.globalUpdates).thenReturn(emptyFlow())
+        underTest = AudioSectionRepositoryImpl(
+            fileNodeMapper = fileNodeMapper,
+            typedAudioNodeMapper = typedAudioNodeMapper,
+            megaLocalRoomGateway = megaLocalRoomGateway,
+            mediaNodeIndex = MediaNodeIndex(
+                megaApiGateway = megaApiGateway,
+                megaSearchFilterMapper = megaSearchFilterMapper,
+                sortOrderIntMapper = sortOrderIntMapper,
+                cancelTokenProvider = cancelTokenProvider,
+                applicationScope = CoroutineScope(UnconfinedTestDispatcher()),
+            ),
+            ioDispatcher = UnconfinedTestDispatcher()
+        )
     }
 
     @AfterAll
@@ -108,7 +110,7 @@ class AudioSectionRepositoryImplTest {
                 token
             )
         ).thenReturn(listOf(backupNode, node))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(null)
+        whenever(megaLocalRoomGateway.getOfflineInformationByHandles(any())).thenReturn(emptyList())
         whenever(
             fileNodeMapper(
                 megaNode = node,
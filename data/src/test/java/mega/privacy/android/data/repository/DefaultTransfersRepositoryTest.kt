@@ -1244,20 +1244,40 @@ class DefaultTransfersRepositoryTest {
             val transfer = mock<Transfer> {
                 on { this.transferType } doReturn transferType
                 on { this.transferredBytes } doReturn 34857L
-            }
-            val expected = mock<ActiveTransferTotals>()
-            val list = mock<List<ActiveTransfer>>()
+                on { this.uniqueId } doReturn 1L
+            }
+            val activeTransfer = mock<ActiveTransfer> {
+                on { this.uniqueId } doReturn 1L
+                on { this.totalBytes } doReturn 100_000L
+                on { this.isFinished } doReturn false
+                on { this.isFolderTransfer } doReturn false
+                on { this.appData } doReturn emptyList()
+            }
+            val initial = ActiveTransferTotals(
+                transfersType = transferType,
+                totalTransfers = 1,
+                totalFileTransfers = 1,
+                pausedFileTransfers = 0,
+                totalFinishedTransfers = 0,
+                totalFinishedFileTransfers = 0,
+                totalCompletedFileTransfers = 0,
+                totalBytes = 100_000L,
+                transferredBytes = 0L,
+                totalAlreadyTransferredFiles = 0,
+                totalCancelled = 0,
+            )
+            val list = listOf(activeTransfer)
             val flow = flowOf(list)
             whenever(megaLocalRoomGateway.getActiveTransfersByType(transferType))
                 .thenReturn(flow)
             whenever(activeTransferTotalsMapper(eq(transferType), eq(list), any(), anyOrNull()))
-                .thenReturn(expected)
+                .thenReturn(initial)
 
             underTest.getActiveTransferTotalsByType(transferType).test {
                 awaitItem() //initial
                 underTest.updateTransferredBytes(listOf(transfer))
                 val actual = awaitItem()
-                assertThat(actual).isEqualTo(expected)
+                assertThat(actual).isEqualTo(initial.copy(transferredBytes = 34857L))
                 cancelAndIgnoreRemainingEvents()
             }
             underTest.deleteAllActiveTransfersByType(transferType)
@@ -1,7 +1,9 @@
 package mega.privacy.android.data.repository
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
@@ -18,10 +20,10 @@ import nz.mega.sdk.MegaApiJava.ORDER_DEFAULT_DESC
 import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaSearchFilter
-import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.whenever
@@ -38,27 +40,27 @@ class DocumentSectionRepositoryImplTest {
     private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
     private val megaSearchFilterMapper = mock<MegaSearchFilterMapper>()
 
-    @BeforeAll
-    fun setUp() {
-        underTest = DocumentSectionRepositoryImpl(
-            megaApiGateway = megaApiGateway,
-            sortOrderIntMapper = sortOrderIntMapper,
-            nodeMapper = nodeMapper,
-            cancelTokenProvider = cancelTokenProvider,
-            megaLocalRoomGateway = megaLocalRoomGateway,
-            megaSearchFilterMapper = megaSearchFilterMapper,
-            ioDispatcher = UnconfinedTestDispatcher()
-        )
-    }
-
     @BeforeEach
-    fun resetMocks() {
+    fun setUp() {
         reset(
             megaApiGateway,
             sortOrderIntMapper,
             nodeMapper,
             megaLocalRoomGateway
         )
+        whenever(megaApiGateway.globalUpdates).thenReturn(emptyFlow())
+        underTest = DocumentSectionRepositoryImpl(
+            nodeMapper = nodeMapper,
+            megaLocalRoomGateway = megaLocalRoomGateway,
+            mediaNodeIndex = MediaNodeIndex(
+                megaApiGateway = megaApiGateway,
+                megaSearchFilterMapper = megaSearchFilterMapper,
+                sortOrderIntMapper = sortOrderIntMapper,
+                cancelTokenProvider = cancelTokenProvider,
+                applicationScope = CoroutineScope(UnconfinedTestDispatcher()),
+            ),
+            ioDispatcher = UnconfinedTestDispatcher()
+        )
     }
 
     @Test
@@ -90,7 +92,7 @@ class DocumentSectionRepositoryImplTest {
                 token
             )
         ).thenReturn(listOf(backupNode, node))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(null)
+        whenever(megaLocalRoomGateway.getOfflineInformationByHandles(any())).thenReturn(emptyList())
         whenever(nodeMapper(megaNode = node, offline = null)).thenReturn(fileNode)
         whenever(megaApiGateway.isInBackups(backupNode)).thenReturn(true)
         whenever(megaApiGateway.isInBackups(node)).thenReturn(false)
@@ -0,0 +1,275 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.SortOrderIntMapper
+import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchTarget
+import nz.mega.sdk.MegaApiJava.ORDER_DEFAULT_ASC
+import nz.mega.sdk.MegaApiJava.ORDER_DEFAULT_DESC
+import nz.mega.sdk.MegaCancelToken
+import nz.mega.sdk.MegaNode
+import nz.mega.sdk.MegaSearchFilter
+import nz.mega.sdk.MegaStringList
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MediaNodeIndexTest {
+    private lateinit var underTest: MediaNodeIndex
+
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val megaSearchFilterMapper = mock<MegaSearchFilterMapper>()
+    private val sortOrderIntMapper = mock<SortOrderIntMapper>()
+    private val cancelTokenProvider = mock<CancelTokenProvider>()
+
+    private val globalUpdates = MutableSharedFlow<GlobalUpdate>()
+    private val videoFilter = mock<MegaSearchFilter>()
+    private val audioFilter = mock<MegaSearchFilter>()
+    private val token = mock<MegaCancelToken>()
+
+    private val holiday = node(1L, "Holiday.mp4", favourite = true, description = "beach")
+    private val birthday = node(2L, "Birthday.mp4", tags = listOf("family"))
+    private val backup = node(3L, "Holiday backup.mp4")
+    private val song = node(4L, "Song.mp3")
+
+    @BeforeEach
+    fun setUp() {
+        reset(megaApiGateway, megaSearchFilterMapper, sortOrderIntMapper, cancelTokenProvider)
+        whenever(megaApiGateway.globalUpdates).thenReturn(globalUpdates)
+        whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(token)
+        whenever(sortOrderIntMapper(SortOrder.ORDER_MODIFICATION_DESC)).thenReturn(ORDER_DEFAULT_DESC)
+        whenever(sortOrderIntMapper(SortOrder.ORDER_DEFAULT_ASC)).thenReturn(ORDER_DEFAULT_ASC)
+        whenever(
+            megaSearchFilterMapper(
+                searchTarget = SearchTarget.ROOT_NODES,
+                searchCategory = SearchCategory.VIDEO,
+            )
+        ).thenReturn(videoFilter)
+        whenever(
+            megaSearchFilterMapper(
+                searchTarget = SearchTarget.ROOT_NODES,
+                searchCategory = SearchCategory.AUDIO,
+            )
+        ).thenReturn(audioFilter)
+        whenever(megaApiGateway.searchWithFilter(videoFilter, ORDER_DEFAULT_DESC, token))
+            .thenReturn(listOf(holiday, birthday, backup))
+        whenever(megaApiGateway.searchWithFilter(videoFilter, ORDER_DEFAULT_ASC, token))
+            .thenReturn(listOf(backup, birthday, holiday))
+        whenever(megaApiGateway.searchWithFilter(audioFilter, ORDER_DEFAULT_DESC, token))
+            .thenReturn(listOf(song))
+        whenever(megaApiGateway.isInBackups(any())).thenReturn(false)
+        whenever(megaApiGateway.isInBackups(backup)).thenReturn(true)
+        underTest = MediaNodeIndex(
+            megaApiGateway = megaApiGateway,
+            megaSearchFilterMapper = megaSearchFilterMapper,
+            sortOrderIntMapper = sortOrderIntMapper,
+            cancelTokenProvider = cancelTokenProvider,
+            applicationScope = CoroutineScope(UnconfinedTestDispatcher()),
+        )
+    }
+
+    @Test
+    fun `test that the nodes of a category are searched once for each sort order`() = runTest {
+        repeat(3) {
+            assertThat(getVideos()).containsExactly(holiday, birthday).inOrder()
+        }
+        assertThat(getVideos(order = SortOrder.ORDER_DEFAULT_ASC))
+            .containsExactly(birthday, holiday).inOrder()
+
+        verify(megaApiGateway).searchWithFilter(videoFilter, ORDER_DEFAULT_DESC, token)
+        verify(megaApiGateway).searchWithFilter(videoFilter, ORDER_DEFAULT_ASC, token)
+    }
+
+    @Test
+    fun `test that a text query is filtered from memory ignoring the case`() = runTest {
+        getVideos()
+
+        assertThat(getVideos(searchQuery = "HOLI")).containsExactly(holiday)
+        verify(megaApiGateway, times(1)).searchWithFilter(any(), any(), any())
+    }
+
+    @Test
+    fun `test that the tag and description filters match any of the filters given`() = runTest {
+        assertThat(getVideos(searchQuery = "nothing", tag = "fam", description = "BEACH"))
+            .containsExactly(holiday, birthday).inOrder()
+        assertThat(getVideos(tag = "fam")).containsExactly(birthday)
+    }
+
+    @Test
+    fun `test that a query with wildcards is searched by the sdk`() = runTest {
+        val wildcardFilter = mock<MegaSearchFilter>()
+        whenever(
+            megaSearchFilterMapper(
+                searchTarget = SearchTarget.ROOT_NODES,
+                searchCategory = SearchCategory.VIDEO,
+                searchQuery = "Holi*",
+                useAndForTextQuery = true,
+            )
+        ).thenReturn(wildcardFilter)
+        whenever(megaApiGateway.searchWithFilter(wildcardFilter, ORDER_DEFAULT_DESC, token))
+            .thenReturn(listOf(holiday, backup))
+
+        assertThat(getVideos(searchQuery = "Holi*")).containsExactly(holiday)
+    }
+
+    @Test
+    fun `test that the favourite nodes are filtered from memory`() = runTest {
+        getVideos()
+
+        assertThat(underTest.getFavouriteNodes(SearchCategory.VIDEO, SORT_ORDER))
+            .containsExactly(holiday)
+        verify(megaApiGateway, times(1)).searchWithFilter(any(), any(), any())
+    }
+
+    @Test
+    fun `test that only the category of an updated node is searched again`() = runTest {
+        getVideos()
+        underTest.getNodes(SearchCategory.AUDIO, SORT_ORDER)
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(birthday)))
+        getVideos()
+        underTest.getNodes(SearchCategory.AUDIO, SORT_ORDER)
+
+        verify(megaApiGateway, times(2)).searchWithFilter(videoFilter, ORDER_DEFAULT_DESC, token)
+        verify(megaApiGateway, times(1)).searchWithFilter(audioFilter, ORDER_DEFAULT_DESC, token)
+    }
+
+    @Test
+    fun `test that a new file searches all the categories again`() = runTest {
+        getVideos()
+        underTest.getNodes(SearchCategory.AUDIO, SORT_ORDER)
+
+        val newFile = node(100L, "New.mp4", changes = MegaNode.CHANGE_TYPE_NEW.toLong())
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(newFile)))
+        getVideos()
+        underTest.getNodes(SearchCategory.AUDIO, SORT_ORDER)
+
+        verify(megaApiGateway, times(2)).searchWithFilter(videoFilter, ORDER_DEFAULT_DESC, token)
+        verify(megaApiGateway, times(2)).searchWithFilter(audioFilter, ORDER_DEFAULT_DESC, token)
+    }
+
+    @Test
+    fun `test that a renamed file not indexed searches all the categories again`() = runTest {
+        getVideos()
+
+        val renamed = node(100L, "Clip.mp4", changes = MegaNode.CHANGE_TYPE_NAME.toLong())
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(renamed)))
+        getVideos()
+
+        verify(megaApiGateway, times(2)).searchWithFilter(videoFilter, ORDER_DEFAULT_DESC, token)
+    }
+
+    @Test
+    fun `test that an update of a file not indexed does not search again`() = runTest {
+        getVideos()
+
+        val other = node(100L, "Other.pdf", changes = MegaNode.CHANGE_TYPE_ATTRIBUTES.toLong())
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(other)))
+        getVideos()
+
+        verify(megaApiGateway, times(1)).searchWithFilter(any(), any(), any())
+    }
+
+    @Test
+    fun `test that the out share flag of a parent folder is cached until it is updated`() =
+        runTest {
+            val parent = mock<MegaNode> {
+                on { handle } doReturn 10L
+                on { isFolder } doReturn true
+                on { isOutShare } doReturn true
+            }
+            whenever(megaApiGateway.getMegaNodeByHandle(10L)).thenReturn(parent)
+
+            assertThat(underTest.isParentOutShared(10L)).isTrue()
+            assertThat(underTest.isParentOutShared(10L)).isTrue()
+            verify(megaApiGateway, times(1)).getMegaNodeByHandle(10L)
+
+            globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(parent)))
+            underTest.isParentOutShared(10L)
+            verify(megaApiGateway, times(2)).getMegaNodeByHandle(10L)
+        }
+
+    @Test
+    fun `test that the nodes and the out share flags are dropped on logout`() = runTest {
+        val parent = mock<MegaNode> {
+            on { isOutShare } doReturn true
+        }
+        whenever(megaApiGateway.getMegaNodeByHandle(10L)).thenReturn(parent)
+        getVideos()
+        underTest.isParentOutShared(10L)
+
+        underTest.onLogoutSuccess()
+        getVideos()
+        underTest.isParentOutShared(10L)
+
+        verify(megaApiGateway, times(2)).searchWithFilter(videoFilter, ORDER_DEFAULT_DESC, token)
+        verify(megaApiGateway, times(2)).getMegaNodeByHandle(10L)
+    }
+
+    @Test
+    fun `test that the stats report the size, the searches and the hits of a category`() =
+        runTest {
+            getVideos()
+            getVideos()
+            getVideos(order = SortOrder.ORDER_DEFAULT_ASC)
+
+            val stats = underTest.getStats().single()
+            assertThat(stats.category).isEqualTo(SearchCategory.VIDEO)
+            assertThat(stats.size).isEqualTo(2)
+            assertThat(stats.orders).isEqualTo(2)
+            assertThat(stats.builds).isEqualTo(2)
+            assertThat(stats.hits).isEqualTo(1)
+        }
+
+    private suspend fun getVideos(
+        searchQuery: String = "",
+        tag: String? = null,
+        description: String? = null,
+        order: SortOrder = SORT_ORDER,
+    ) = underTest.getNodes(SearchCategory.VIDEO, order, searchQuery, tag, description)
+
+    private fun node(
+        handle: Long,
+        name: String,
+        favourite: Boolean = false,
+        description: String? = null,
+        tags: List<String> = emptyList(),
+        changes: Long = MegaNode.CHANGE_TYPE_NAME.toLong(),
+    ): MegaNode {
+        val tagList = mock<MegaStringList> {
+            on { size() } doReturn tags.size
+            tags.forEachIndexed { index, tag -> on { get(index) } doReturn tag }
+        }
+        return mock {
+            on { this.handle } doReturn handle
+            on { this.name } doReturn name
+            on { isFile } doReturn true
+            on { isFavourite } doReturn favourite
+            on { this.description } doReturn description
+            on { this.tags } doReturn tagList
+            on { this.changes } doReturn changes
+        }
+    }
+
+    private companion object {
+        val SORT_ORDER = SortOrder.ORDER_MODIFICATION_DESC
+    }
+}
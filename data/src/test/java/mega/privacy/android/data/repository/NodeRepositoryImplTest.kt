@@ -22,7 +22,6 @@ import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.ChatFilesFolderUserAttributeMapper
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.MegaExceptionMapper
-import mega.privacy.android.data.mapper.NodeUpdateMapper
 import mega.privacy.android.data.mapper.OfflineInformationMapper
 import mega.privacy.android.data.mapper.OfflineNodeInformationMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -40,6 +39,7 @@ import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
+import mega.privacy.android.data.model.node.NodeCacheFolders
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.PdfFileTypeInfo
@@ -89,6 +89,7 @@ import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.stub
 import org.mockito.kotlin.times
@@ -116,14 +117,16 @@ internal class NodeRepositoryImplTest {
     private val shareDataMapper = mock<ShareDataMapper>()
     private val megaExceptionMapper = mock<MegaExceptionMapper>()
     private val sortOrderIntMapper = mock<SortOrderIntMapper>()
-    private val cacheGateway = mock<CacheGateway>()
+    private val cacheGateway = mock<CacheGateway> {
+        onBlocking { getNodeCacheFolders() }.thenReturn(NodeCacheFolders(null, null, null))
+    }
     private val fileTypeInfoMapper = mock<FileTypeInfoMapper>()
     private val offlineNodeInformationMapper = mock<OfflineNodeInformationMapper>()
     private val offlineInformationMapper = mock<OfflineInformationMapper>()
     private val fileGateway = mock<FileGateway>()
     private val chatFilesFolderUserAttributeMapper = mock<ChatFilesFolderUserAttributeMapper>()
     private val streamingGateway = mock<StreamingGateway>()
-    private val nodeUpdateMapper = mock<NodeUpdateMapper>()
+    private val nodeUpdatesProvider = mock<NodeUpdatesProvider>()
     private val folderNode = mock<TypedFolderNode>()
     private val publicLinkFolder = mock<PublicLinkFolder>()
     private val accessPermissionMapper = mock<AccessPermissionMapper>()
@@ -184,7 +187,7 @@ internal class NodeRepositoryImplTest {
             fileGateway = fileGateway,
             chatFilesFolderUserAttributeMapper = chatFilesFolderUserAttributeMapper,
             streamingGateway = streamingGateway,
-            nodeUpdateMapper = nodeUpdateMapper,
+            nodeUpdatesProvider = nodeUpdatesProvider,
             accessPermissionMapper = accessPermissionMapper,
             nodeShareKeyResultMapper = nodeShareKeyResultMapper,
             accessPermissionIntMapper = accessPermissionIntMapper,
@@ -219,13 +222,14 @@ internal class NodeRepositoryImplTest {
             fileGateway,
             chatFilesFolderUserAttributeMapper,
             streamingGateway,
-            nodeUpdateMapper,
+            nodeUpdatesProvider,
             accessPermissionMapper,
             nodeShareKeyResultMapper,
             accessPermissionMapper,
             megaLocalStorageGateway,
             megaNodeMapper,
-            workManagerGateway
+            workManagerGateway,
+            megaLocalRoomGateway,
         )
     }
 
@@ -740,7 +744,8 @@ internal class NodeRepositoryImplTest {
             on { isNodeKeyDecrypted }.thenReturn(true)
             on { hasPreview() }.thenReturn(true)
         }
-        whenever(cacheGateway.getThumbnailCacheFolder()).thenReturn(File("thumbnail_path"))
+        whenever(cacheGateway.getNodeCacheFolders())
+            .thenReturn(NodeCacheFolders(File("thumbnail_path"), null, null))
         whenever(megaApiGateway.hasVersion(megaNode)).thenReturn(true)
         whenever(megaApiGateway.getNumVersions(megaNode)).thenReturn(2)
         whenever(megaApiGateway.getNumChildFolders(megaNode)).thenReturn(2)
@@ -1422,7 +1427,7 @@ internal class NodeRepositoryImplTest {
                 on { name }.thenReturn(firstNodeName)
 
             }
-            whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(
+            whenever(megaLocalRoomGateway.searchOfflineInformation(query, null)).thenReturn(
                 listOf(offlineNode1)
             )
             whenever(offlineNodeInformationMapper(offlineNode1)).thenReturn(offlineNodeInformation1)
@@ -1449,7 +1454,7 @@ internal class NodeRepositoryImplTest {
             val offlineNode2 = mock<Offline> {
                 on { name }.thenReturn("file name")
             }
-            whenever(megaLocalRoomGateway.getOfflineInfoByParentId(parentId)).thenReturn(
+            whenever(megaLocalRoomGateway.searchOfflineInformation(query, parentId)).thenReturn(
                 listOf(
                     offlineNode1,
                     offlineNode2
@@ -1509,6 +1514,31 @@ internal class NodeRepositoryImplTest {
         assertThat(fileTypes.first()).isEqualTo(targetFileType)
     }
 
+    @Test
+    fun `test that getNodeChildren only reads the offline information of the children`() =
+        runTest {
+            val megaNode = mockMegaNodeForConversion()
+            val nodeId = NodeId(123456L)
+            val filter = mock<MegaSearchFilter>()
+            val token = mock<MegaCancelToken>()
+            val childOffline = mock<Offline> {
+                on { handle }.thenReturn(megaNode.handle.toString())
+            }
+            whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(token)
+            whenever(sortOrderIntMapper(SortOrder.ORDER_NONE)).thenReturn(MegaApiJava.ORDER_NONE)
+            whenever(megaSearchFilterMapper(parentHandle = nodeId)).thenReturn(filter)
+            whenever(megaApiGateway.getChildren(filter, MegaApiJava.ORDER_NONE, token))
+                .thenReturn(listOf(megaNode))
+            whenever(megaLocalRoomGateway.getOfflineInformationByHandles(listOf(megaNode.handle)))
+                .thenReturn(listOf(childOffline))
+            whenever(offlineAvailabilityMapper(megaNode, childOffline)).thenReturn(true)
+
+            val actual = underTest.getNodeChildren(nodeId, null)
+
+            assertThat(actual.single().isAvailableOffline).isTrue()
+            verify(megaLocalRoomGateway, never()).getAllOfflineInfo()
+        }
+
     @Test
     fun `test that isNodeSynced returns the correct value`() = runTest {
         val sync = mock<MegaSync> {
@@ -0,0 +1,188 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateFilter
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NodeUpdatesProviderTest {
+
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val nodeMapper = mock<NodeMapper>()
+    private val changesByMegaNode = HashMap<MegaNode, List<NodeChanges>>()
+    private val globalUpdates = MutableSharedFlow<GlobalUpdate>()
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(megaApiGateway, nodeMapper)
+        changesByMegaNode.clear()
+        whenever(megaApiGateway.globalUpdates).thenReturn(globalUpdates)
+    }
+
+    @Test
+    fun `test that each update is mapped once for all the collectors`() = runTest {
+        val underTest = createProvider()
+        val (megaNode, node) = stubNode(1L, parentHandle = 10L, NodeChanges.New)
+        val first = collect(underTest.monitorNodeUpdates())
+        val second = collect(underTest.monitorNodeUpdates())
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(megaNode)))
+
+        val expected = NodeUpdate(mapOf(node to listOf(NodeChanges.New)))
+        assertThat(first).containsExactly(expected)
+        assertThat(second).containsExactly(expected)
+        verify(nodeMapper).invoke(megaNode)
+    }
+
+    @Test
+    fun `test that the fan-out metrics are counted`() = runTest {
+        val underTest = createProvider()
+        val (firstMegaNode, _) = stubNode(1L, parentHandle = 10L, NodeChanges.New)
+        val (secondMegaNode, _) = stubNode(2L, parentHandle = 20L, NodeChanges.Name)
+        collect(underTest.monitorNodeUpdates())
+        collect(underTest.monitorNodeUpdates())
+        collect(underTest.monitorNodeUpdates(NodeUpdateFilter(parentIds = setOf(NodeId(10L)))))
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(firstMegaNode, secondMegaNode)))
+
+        assertThat(underTest.collectors).isEqualTo(3)
+        assertThat(underTest.mappedUpdates).isEqualTo(1)
+        assertThat(underTest.mappedNodes).isEqualTo(2)
+        assertThat(underTest.deliveredUpdates).isEqualTo(3)
+        assertThat(underTest.deliveredNodes).isEqualTo(5)
+        assertThat(underTest.mergedUpdates).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a parent filter includes only the children and the nodes of the filter`() =
+        runTest {
+            val underTest = createProvider()
+            val (childMegaNode, child) = stubNode(1L, parentHandle = 10L, NodeChanges.New)
+            val (otherMegaNode, other) = stubNode(2L, parentHandle = 20L, NodeChanges.Parent)
+            val (unrelatedMegaNode, _) = stubNode(3L, parentHandle = 30L, NodeChanges.Name)
+            val updates = collect(
+                underTest.monitorNodeUpdates(
+                    NodeUpdateFilter(parentIds = setOf(NodeId(10L)), nodeIds = setOf(NodeId(2L)))
+                )
+            )
+
+            globalUpdates.emit(
+                GlobalUpdate.OnNodesUpdate(
+                    arrayListOf(childMegaNode, otherMegaNode, unrelatedMegaNode)
+                )
+            )
+            globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(unrelatedMegaNode)))
+
+            assertThat(updates).containsExactly(
+                NodeUpdate(
+                    mapOf(child to listOf(NodeChanges.New), other to listOf(NodeChanges.Parent))
+                )
+            )
+        }
+
+    @Test
+    fun `test that a change filter includes only the nodes with those changes`() = runTest {
+        val underTest = createProvider()
+        val (renamedMegaNode, renamed) = stubNode(1L, parentHandle = 10L, NodeChanges.Name)
+        val (newMegaNode, _) = stubNode(2L, parentHandle = 10L, NodeChanges.New)
+        val updates = collect(
+            underTest.monitorNodeUpdates(NodeUpdateFilter(changes = setOf(NodeChanges.Name)))
+        )
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(renamedMegaNode, newMegaNode)))
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(newMegaNode)))
+
+        assertThat(updates).containsExactly(
+            NodeUpdate(mapOf(renamed to listOf(NodeChanges.Name)))
+        )
+    }
+
+    @Test
+    fun `test that the updates received while the collector is busy are merged`() = runTest {
+        val underTest = createProvider()
+        val (firstMegaNode, first) = stubNode(1L, parentHandle = 10L, NodeChanges.New)
+        val (secondMegaNode, _) = stubNode(2L, parentHandle = 10L, NodeChanges.New)
+        val (thirdMegaNode, _) = stubNode(3L, parentHandle = 10L, NodeChanges.New)
+        val (renamedMegaNode, renamed) = stubNode(3L, parentHandle = 10L, NodeChanges.Name)
+        val busy = CompletableDeferred<Unit>()
+        val updates = collect(underTest.monitorNodeUpdates()) { busy.await() }
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(firstMegaNode)))
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(secondMegaNode)))
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(thirdMegaNode)))
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(renamedMegaNode)))
+        assertThat(updates).hasSize(1)
+        busy.complete(Unit)
+        advanceUntilIdle()
+
+        assertThat(updates.first()).isEqualTo(NodeUpdate(mapOf(first to listOf(NodeChanges.New))))
+        assertThat(updates.size).isLessThan(4)
+        assertThat(updates.last().changes)
+            .containsEntry(renamed, listOf(NodeChanges.New, NodeChanges.Name))
+        assertThat(underTest.mergedUpdates).isEqualTo(4L - updates.size)
+    }
+
+    private fun TestScope.createProvider() = NodeUpdatesProvider(
+        megaApiGateway = megaApiGateway,
+        nodeMapper = nodeMapper,
+        nodeUpdateMapper = { changesByMegaNode.getValue(it) },
+        sharingScope = CoroutineScope(
+            backgroundScope.coroutineContext + UnconfinedTestDispatcher(testScheduler)
+        ),
+        ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+    )
+
+    private fun TestScope.collect(
+        flow: Flow<NodeUpdate>,
+        onEach: suspend () -> Unit = {},
+    ): List<NodeUpdate> = mutableListOf<NodeUpdate>().also { updates ->
+        backgroundScope.launch(UnconfinedTestDispatcher(testScheduler)) {
+            flow.collect {
+                updates.add(it)
+                onEach()
+            }
+        }
+    }
+
+    private suspend fun stubNode(
+        handle: Long,
+        parentHandle: Long,
+        vararg changes: NodeChanges,
+    ): Pair<MegaNode, Node> {
+        val megaNode = mock<MegaNode>()
+        val node = mock<FileNode> {
+            on { id } doReturn NodeId(handle)
+            on { parentId } doReturn NodeId(parentHandle)
+        }
+        whenever(nodeMapper(megaNode)).thenReturn(node)
+        changesByMegaNode[megaNode] = changes.toList()
+        return megaNode to node
+    }
+}
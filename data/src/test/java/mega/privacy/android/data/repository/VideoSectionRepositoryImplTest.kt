@@ -2,8 +2,10 @@ package mega.privacy.android.data.repository
 
 import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
@@ -47,7 +49,6 @@ import nz.mega.sdk.MegaSetElement
 import nz.mega.sdk.MegaSetElementList
 import nz.mega.sdk.MegaSetList
 import org.junit.jupiter.api.AfterAll
-import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
@@ -78,23 +79,22 @@ class VideoSectionRepositoryImplTest {
     private val videoRecentlyWatchedItemMapper = mock<VideoRecentlyWatchedItemMapper>()
     private val favouritesVideoPlaylistMapper = mock<FavouritesVideoPlaylistMapper>()
 
-    @BeforeAll
-    fun setUp() {
-        initUnderTest()
-    }
-
     private fun initUnderTest() {
-        wheneverBlocking { megaLocalRoomGateway.getAllOfflineInfo() }.thenReturn(emptyList())
+        wheneverBlocking { megaLocalRoomGateway.getOfflineInformationByHandles(any()) }.thenReturn(emptyList())
         underTest = VideoSectionRepositoryImpl(
             megaApiGateway = megaApiGateway,
-            sortOrderIntMapper = sortOrderIntMapper,
             fileNodeMapper = fileNodeMapper,
             typedVideoNodeMapper = typedVideoNodeMapper,
-            cancelTokenProvider = cancelTokenProvider,
             megaLocalRoomGateway = megaLocalRoomGateway,
             userSetMapper = userSetMapper,
             userVideoPlaylistMapper = userVideoPlaylistMapper,
-            megaSearchFilterMapper = megaSearchFilterMapper,
+            mediaNodeIndex = MediaNodeIndex(
+                megaApiGateway = megaApiGateway,
+                megaSearchFilterMapper = megaSearchFilterMapper,
+                sortOrderIntMapper = sortOrderIntMapper,
+                cancelTokenProvider = cancelTokenProvider,
+                applicationScope = CoroutineScope(UnconfinedTestDispatcher()),
+            ),
             appPreferencesGateway = appPreferencesGateway,
             videoRecentlyWatchedItemMapper = videoRecentlyWatchedItemMapper,
             favouritesVideoPlaylistMapper = favouritesVideoPlaylistMapper,
@@ -115,6 +115,8 @@ class VideoSectionRepositoryImplTest {
             videoRecentlyWatchedItemMapper,
             favouritesVideoPlaylistMapper
         )
+        whenever(megaApiGateway.globalUpdates).thenReturn(emptyFlow())
+        initUnderTest()
     }
 
     @AfterAll
@@ -156,7 +158,7 @@ class VideoSectionRepositoryImplTest {
                 token
             )
         ).thenReturn(listOf(node, backupNode))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(null)
+        whenever(megaLocalRoomGateway.getOfflineInformationByHandles(any())).thenReturn(emptyList())
         whenever(
             fileNodeMapper(
                 megaNode = node,
@@ -755,7 +757,7 @@ class VideoSectionRepositoryImplTest {
                     token
                 )
             ).thenReturn(megaNodes)
-            whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
+            whenever(megaLocalRoomGateway.getOfflineInformationByHandles(any())).thenReturn(emptyList())
             megaNodes.mapIndexed { index, node ->
                 whenever(
                     fileNodeMapper(megaNode = node, requireSerializedData = false, offline = null)
@@ -890,7 +892,7 @@ class VideoSectionRepositoryImplTest {
                 flowOf(jsonString)
             )
             whenever(megaLocalRoomGateway.getAllRecentlyWatchedVideos()).thenReturn(flowOf(testItems))
-            whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
+            whenever(megaLocalRoomGateway.getOfflineInformationByHandles(any())).thenReturn(emptyList())
             val megaSetElement = mock<MegaSetElement> {
                 on { node() }.thenReturn(testHandles[collectionIdIndex])
             }
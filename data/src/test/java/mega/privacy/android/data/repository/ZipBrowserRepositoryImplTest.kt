@@ -4,6 +4,7 @@ import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.compression.zip.ZipExtractor
 import mega.privacy.android.data.mapper.zipbrowser.ZipTreeNodeMapper
 import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
 import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
@@ -41,6 +42,7 @@ class ZipBrowserRepositoryImplTest {
     private fun initUnderTest() {
         underTest = ZipBrowserRepositoryImpl(
             zipTreeNodeMapper = zipTreeNodeMapper,
+            zipExtractor = ZipExtractor(),
             ioDispatcher = UnconfinedTestDispatcher()
         )
     }
@@ -0,0 +1,125 @@
+package mega.privacy.android.data.repository.files
+
+import android.os.ParcelFileDescriptor
+import com.google.common.truth.Truth.assertThat
+import com.shockwave.pdfium.PdfDocument
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.FileGateway
+import mega.privacy.android.domain.entity.uri.UriPath
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.ExperimentalTime
+import kotlin.time.Instant
+
+@OptIn(ExperimentalTime::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PdfDocumentSessionCacheTest {
+
+    private val fileGateway = mock<FileGateway>()
+
+    private val openedDocuments = mutableListOf<PdfDocument>()
+    private val closedDocuments = mutableListOf<PdfDocument>()
+
+    private val uriPath = UriPath("/path/file.pdf")
+
+    @BeforeEach
+    fun resetMocks() = runTest {
+        reset(fileGateway)
+        openedDocuments.clear()
+        closedDocuments.clear()
+        whenever(fileGateway.getFileDescriptor(any(), any())).thenReturn(mock<ParcelFileDescriptor>())
+        whenever(fileGateway.getLastModifiedTime(uriPath))
+            .thenReturn(Instant.fromEpochMilliseconds(1L))
+    }
+
+    @Test
+    fun `test that the document is opened once for consecutive uses`() = runTest {
+        val underTest = createUnderTest()
+
+        val first = underTest.use(uriPath) { it }
+        val second = underTest.use(uriPath) { it }
+
+        assertThat(first).isSameInstanceAs(second)
+        assertThat(openedDocuments).hasSize(1)
+        val stats = underTest.getStats()
+        assertThat(stats.opened).isEqualTo(1)
+        assertThat(stats.reused).isEqualTo(1)
+        assertThat(stats.openSessions).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the document is closed after the idle timeout`() = runTest {
+        val underTest = createUnderTest()
+
+        underTest.use(uriPath) { }
+        advanceTimeBy(IDLE_TIMEOUT - 1.milliseconds)
+        assertThat(closedDocuments).isEmpty()
+        advanceTimeBy(2.milliseconds)
+
+        assertThat(closedDocuments).containsExactlyElementsIn(openedDocuments)
+        assertThat(underTest.getStats().closed).isEqualTo(1)
+        assertThat(underTest.getStats().openSessions).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the idle timeout restarts on each use`() = runTest {
+        val underTest = createUnderTest()
+
+        underTest.use(uriPath) { }
+        advanceTimeBy(IDLE_TIMEOUT - 1.seconds)
+        underTest.use(uriPath) { }
+        advanceTimeBy(IDLE_TIMEOUT - 1.seconds)
+        assertThat(closedDocuments).isEmpty()
+        advanceTimeBy(2.seconds)
+
+        assertThat(closedDocuments).hasSize(1)
+        assertThat(openedDocuments).hasSize(1)
+    }
+
+    @Test
+    fun `test that a modified file is opened again and the old document closed`() = runTest {
+        val underTest = createUnderTest()
+        val first = underTest.use(uriPath) { it }
+
+        whenever(fileGateway.getLastModifiedTime(uriPath))
+            .thenReturn(Instant.fromEpochMilliseconds(2L))
+        val second = underTest.use(uriPath) { it }
+
+        assertThat(second).isNotSameInstanceAs(first)
+        assertThat(closedDocuments).containsExactly(first)
+        assertThat(underTest.getStats().opened).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that null is returned when the file can't be opened`() = runTest {
+        val underTest = createUnderTest()
+        whenever(fileGateway.getFileDescriptor(any(), any())).thenReturn(null)
+
+        assertThat(underTest.use(uriPath) { it }).isNull()
+        assertThat(underTest.getStats().opened).isEqualTo(0)
+    }
+
+    private fun TestScope.createUnderTest() = PdfDocumentSessionCache(
+        lazyPdfiumCore = lazy { error("Pdfium is not available in unit tests") },
+        openDocument = { mock<PdfDocument>().also { openedDocuments.add(it) } },
+        closeDocument = { closedDocuments.add(it) },
+        fileGateway = fileGateway,
+        applicationScope = backgroundScope,
+        ioDispatcher = StandardTestDispatcher(testScheduler),
+        idleTimeout = IDLE_TIMEOUT,
+    )
+
+    private companion object {
+        val IDLE_TIMEOUT = 10.seconds
+    }
+}
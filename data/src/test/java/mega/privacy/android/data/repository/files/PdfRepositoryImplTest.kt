@@ -1,6 +1,5 @@
 package mega.privacy.android.data.repository.files
 
-import android.content.Context
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.Dispatchers
@@ -9,7 +8,6 @@ import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CacheGateway
-import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.domain.entity.pdf.LastPageViewedInPdf
@@ -30,12 +28,11 @@ class PdfRepositoryImplTest {
 
     private lateinit var underTest: PdfRepositoryImpl
 
-    private val context = mock<Context>()
     private val megaApi = mock<MegaApiGateway>()
     private val ioDispatcher: CoroutineDispatcher = UnconfinedTestDispatcher()
     private val cacheGateway = mock<CacheGateway>()
-    private val fileGateway = mock<FileGateway>()
     private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val pdfDocumentSessionCache = mock<PdfDocumentSessionCache>()
 
     private val nodeHandle = 12345L
     private val lastPageViewed = 10L
@@ -47,12 +44,11 @@ class PdfRepositoryImplTest {
     @BeforeAll
     fun setUp() {
         underTest = PdfRepositoryImpl(
-            context = context,
             megaApi = megaApi,
             ioDispatcher = ioDispatcher,
             cacheGateway = cacheGateway,
-            fileGateway = fileGateway,
             megaLocalRoomGateway = megaLocalRoomGateway,
+            pdfDocumentSessionCache = pdfDocumentSessionCache,
         )
     }
 
@@ -64,10 +60,9 @@ class PdfRepositoryImplTest {
     @BeforeEach
     fun cleanUp() {
         reset(
-            context,
             megaApi,
             cacheGateway,
-            fileGateway,
+            pdfDocumentSessionCache,
         )
     }
 
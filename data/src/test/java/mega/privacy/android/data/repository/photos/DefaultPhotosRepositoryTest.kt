@@ -34,6 +34,7 @@ import mega.privacy.android.domain.entity.GifFileTypeInfo
 import mega.privacy.android.domain.entity.RawFileTypeInfo
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.imageviewer.ImageResult
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.entity.search.SearchCategory
@@ -780,4 +781,17 @@ class DefaultPhotosRepositoryTest {
             ensureAllEventsConsumed()
         }
     }
+
+    @Test
+    fun `test that the least recently used image results are removed when the cache is full`() =
+        runTest {
+            underTest = createUnderTest(this)
+            val firstNodeId = NodeId(0L)
+            val lastNodeId = NodeId(100L)
+
+            (0L..100L).forEach { underTest.saveImageResult(NodeId(it), ImageResult()) }
+
+            assertThat(underTest.monitorImageResult(firstNodeId)).isNull()
+            assertThat(underTest.monitorImageResult(lastNodeId)).isNotNull()
+        }
 }
@@ -0,0 +1,212 @@
+package mega.privacy.android.data.repository.photos
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoChanges
+import org.junit.jupiter.api.Test
+import java.time.LocalDateTime
+import kotlin.random.Random
+
+class PhotoIndexTest {
+
+    private val now = LocalDateTime.of(2024, 1, 1, 0, 0)
+
+    @Test
+    fun `test that photos are sorted by modification time, the most recent first`() {
+        val underTest = PhotoIndex()
+        val photos = listOf(photo(1L, minutes = 3), photo(2L, minutes = 1), photo(3L, minutes = 2))
+
+        photos.forEach { underTest.put(it) }
+
+        assertThat(underTest.photos().map { it.id }).containsExactly(1L, 3L, 2L).inOrder()
+    }
+
+    @Test
+    fun `test that an updated photo is moved to its new position`() {
+        val underTest = PhotoIndex()
+        listOf(photo(1L, minutes = 3), photo(2L, minutes = 2), photo(3L, minutes = 1))
+            .forEach { underTest.put(it) }
+
+        underTest.put(photo(3L, minutes = 4))
+
+        assertThat(underTest.photos().map { it.id }).containsExactly(3L, 1L, 2L).inOrder()
+        assertThat(underTest[3L]?.modificationTime).isEqualTo(now.plusMinutes(4))
+    }
+
+    @Test
+    fun `test that the changes report the added, removed and updated photos`() {
+        val underTest = PhotoIndex()
+        underTest.replaceAll(listOf(photo(1L), photo(2L), photo(3L)))
+        underTest.takeChanges()
+
+        underTest.put(photo(4L))
+        underTest.remove(2L)
+        underTest.put(photo(3L, name = "renamed"))
+
+        assertThat(underTest.takeChanges()).isEqualTo(
+            PhotoChanges(
+                photos = underTest.photos(),
+                addedPhotos = listOf(photo(4L)),
+                updatedPhotos = listOf(photo(3L, name = "renamed")),
+                removedIds = setOf(2L),
+            )
+        )
+    }
+
+    @Test
+    fun `test that a photo added and removed before taking the changes is not reported`() {
+        val underTest = PhotoIndex()
+        underTest.put(photo(1L))
+        underTest.takeChanges()
+
+        underTest.put(photo(2L))
+        underTest.put(photo(2L, name = "renamed"))
+        underTest.remove(2L)
+        underTest.remove(1L)
+        underTest.put(photo(1L, name = "renamed"))
+
+        val changes = underTest.takeChanges()
+        assertThat(changes?.addedPhotos).isEmpty()
+        assertThat(changes?.removedIds).isEmpty()
+        assertThat(changes?.updatedPhotos).containsExactly(photo(1L, name = "renamed"))
+    }
+
+    @Test
+    fun `test that no changes are reported when the same photo is put again`() {
+        val underTest = PhotoIndex()
+        underTest.put(photo(1L))
+        underTest.takeChanges()
+
+        assertThat(underTest.put(photo(1L))).isFalse()
+        assertThat(underTest.replaceAll(listOf(photo(1L)))).isFalse()
+        assertThat(underTest.takeChanges()).isNull()
+    }
+
+    @Test
+    fun `test that replacing all the photos removes the photos not included`() {
+        val underTest = PhotoIndex()
+        underTest.replaceAll(listOf(photo(1L), photo(2L), photo(3L)))
+        underTest.takeChanges()
+
+        underTest.replaceAll(listOf(photo(2L), photo(4L)))
+
+        val changes = underTest.takeChanges()
+        assertThat(changes?.photos?.map { it.id }).containsExactly(4L, 2L).inOrder()
+        assertThat(changes?.addedPhotos).containsExactly(photo(4L))
+        assertThat(changes?.removedIds).containsExactly(1L, 3L)
+        assertThat(changes?.updatedPhotos).isEmpty()
+    }
+
+    @Test
+    fun `test that the published photos are not changed by the following changes`() {
+        val underTest = PhotoIndex()
+        underTest.replaceAll((1L..CHUNKED_PHOTO_COUNT).map { photo(it, minutes = it) })
+        val published = underTest.takeChanges()?.photos.orEmpty()
+        val expected = published.toList()
+
+        underTest.put(photo(CHUNKED_PHOTO_COUNT + 1, minutes = 1))
+        underTest.remove(CHUNKED_PHOTO_COUNT / 2)
+        underTest.put(photo(1L, minutes = CHUNKED_PHOTO_COUNT * 2))
+
+        assertThat(published).containsExactlyElementsIn(expected).inOrder()
+        assertThat(underTest.takeChanges()?.photos?.map { it.id })
+            .isEqualTo(underTest.photos().map { it.id })
+    }
+
+    @Test
+    fun `test that the same photos are published until they change`() {
+        val underTest = PhotoIndex()
+        underTest.replaceAll((1L..CHUNKED_PHOTO_COUNT).map { photo(it, minutes = it) })
+        val published = underTest.takeChanges()?.photos
+
+        assertThat(underTest.photos()).isSameInstanceAs(published)
+        underTest.put(photo(1L, name = "renamed"))
+        assertThat(underTest.photos()).isNotSameInstanceAs(published)
+    }
+
+    @Test
+    fun `test that the published photos are found by position`() {
+        val underTest = PhotoIndex()
+        val photos = (1L..CHUNKED_PHOTO_COUNT).map { photo(it, minutes = Random(it).nextLong(1_000_000L)) }
+        photos.forEach { underTest.put(it) }
+
+        val published = underTest.photos()
+
+        val expected = photos.sortedWith(
+            compareByDescending<Photo> { it.modificationTime }.thenByDescending { it.id }
+        )
+        expected.indices.forEach { assertThat(published[it]).isEqualTo(expected[it]) }
+        assertThat(published.size).isEqualTo(expected.size)
+    }
+
+    @Test
+    fun `test that every photo is found after many photos are added and removed`() {
+        val underTest = PhotoIndex()
+        val ids = (1..5_000).map { Random(it).nextLong() }.distinct()
+        ids.forEach { underTest.put(photo(it)) }
+        val (removed, kept) = ids.partition { it % 3L == 0L }
+
+        removed.forEach { underTest.remove(it) }
+
+        assertThat(underTest.size).isEqualTo(kept.size)
+        kept.forEach { assertThat(underTest[it]?.id).isEqualTo(it) }
+        removed.forEach { assertThat(it in underTest).isFalse() }
+        assertThat(underTest.photos().map { it.id }).containsExactlyElementsIn(kept)
+    }
+
+    @Test
+    fun `test that clear removes the photos and the pending changes`() {
+        val underTest = PhotoIndex()
+        underTest.put(photo(1L))
+
+        underTest.clear()
+
+        assertThat(underTest.size).isEqualTo(0)
+        assertThat(underTest[1L]).isNull()
+        assertThat(underTest.takeChanges()).isNull()
+    }
+
+    @Test
+    fun `test that the published photos are the same as sorting all the photos again`() {
+        val photos = (1L..PHOTO_COUNT).map {
+            photo(it, minutes = Random(it).nextLong(1_000_000L))
+        }
+        val updates = (1..UPDATE_COUNT).map {
+            val photo = photos[Random(it).nextInt(photos.size)]
+            photo(photo.id, minutes = Random(-it).nextLong(1_000_000L), name = "update $it")
+        }
+        val cache = HashMap<Long, Photo>()
+        photos.forEach { cache[it.id] = it }
+        val underTest = PhotoIndex()
+        underTest.replaceAll(photos)
+        underTest.takeChanges()
+
+        updates.forEach { photo ->
+            cache[photo.id] = photo
+            underTest.put(photo)
+
+            assertThat(underTest.takeChanges()?.photos?.map { it.modificationTime }).isEqualTo(
+                cache.values.sortedByDescending { it.modificationTime }.map { it.modificationTime }
+            )
+        }
+    }
+
+    private fun photo(id: Long, minutes: Long = 0L, name: String = "photo $id") = Photo.Image(
+        id = id,
+        parentId = 0L,
+        name = name,
+        isFavourite = false,
+        creationTime = now,
+        modificationTime = now.plusMinutes(minutes),
+        thumbnailFilePath = null,
+        previewFilePath = null,
+        fileTypeInfo = StaticImageFileTypeInfo(mimeType = "image/jpeg", extension = "jpg"),
+    )
+
+    private companion object {
+        const val PHOTO_COUNT = 2_000L
+        const val UPDATE_COUNT = 200
+        const val CHUNKED_PHOTO_COUNT = 3_000L
+    }
+}
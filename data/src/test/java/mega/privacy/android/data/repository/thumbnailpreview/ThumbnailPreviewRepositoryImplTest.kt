@@ -124,6 +124,48 @@ class ThumbnailPreviewRepositoryImplTest {
         }
     }
 
+    @Test
+    fun `test that the node cache folders are invalidated when a thumbnail cannot be written`() =
+        runTest {
+            stubThumbnailDownload(MegaError.API_EWRITE)
+
+            underTest.downloadThumbnail(nodeHandle) {
+                assertThat(it).isFalse()
+            }
+
+            verify(cacheGateway).invalidateNodeCacheFolders()
+        }
+
+    @Test
+    fun `test that the node cache folders are not invalidated when a thumbnail is not found`() =
+        runTest {
+            stubThumbnailDownload(MegaError.API_ENOENT)
+
+            underTest.downloadThumbnail(nodeHandle) {
+                assertThat(it).isFalse()
+            }
+
+            verify(cacheGateway, never()).invalidateNodeCacheFolders()
+        }
+
+    private suspend fun stubThumbnailDownload(errorCode: Int) {
+        whenever(megaNode.hasThumbnail()).thenReturn(true)
+        whenever(megaNode.base64Handle).thenReturn(thumbnailName)
+        whenever(megaApi.getMegaNodeByHandle(nodeHandle)).thenReturn(megaNode)
+        whenever(cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER))
+            .thenReturn(thumbnailFile.parentFile)
+        val error = mock<MegaError> {
+            on { this.errorCode }.thenReturn(errorCode)
+        }
+        whenever(megaApi.getThumbnail(any(), any(), any())).thenAnswer {
+            (it.arguments[2] as MegaRequestListenerInterface).onRequestFinish(
+                mock<MegaApiJava>(),
+                mock<MegaRequest>(),
+                error
+            )
+        }
+    }
+
     @Test
     fun `test that get public node thumbnail from server returns successfully if no error is thrown`() {
         runTest {
@@ -0,0 +1,151 @@
+package mega.privacy.android.data.worker
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TestTimeSource
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ActionGroupNotificationStateTest {
+
+    private lateinit var underTest: ActionGroupNotificationState
+
+    private lateinit var timeSource: TestTimeSource
+
+    @BeforeEach
+    fun setUp() {
+        timeSource = TestTimeSource()
+        underTest = ActionGroupNotificationState(
+            minProgressInterval = MIN_PROGRESS_INTERVAL,
+            timeSource = timeSource,
+        )
+    }
+
+    @Test
+    fun `test that new groups are notified`() {
+        val groups = listOf(actionGroup(1), actionGroup(2))
+
+        assertThat(underTest.getGroupsToNotify(groups, paused = false)).isEqualTo(groups)
+        assertThat(underTest.skippedNotifications).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that groups without changes are skipped`() {
+        val groups = listOf(actionGroup(1), actionGroup(2))
+        underTest.getGroupsToNotify(groups, paused = false)
+
+        assertThat(underTest.getGroupsToNotify(groups, paused = false)).isEmpty()
+        assertThat(underTest.skippedNotifications).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that only the groups with changes are notified`() {
+        underTest.getGroupsToNotify(listOf(actionGroup(1), actionGroup(2)), paused = false)
+        val changed = actionGroup(2, finishedFiles = 1)
+
+        assertThat(underTest.getGroupsToNotify(listOf(actionGroup(1), changed), paused = false))
+            .containsExactly(changed)
+    }
+
+    @Test
+    fun `test that paused changes are notified at once`() {
+        val groups = listOf(actionGroup(1))
+        underTest.getGroupsToNotify(groups, paused = false)
+
+        assertThat(underTest.getGroupsToNotify(groups, paused = true)).isEqualTo(groups)
+    }
+
+    @Test
+    fun `test that progress changes are notified once the minimum interval has passed`() {
+        underTest.getGroupsToNotify(listOf(actionGroup(1, transferredBytes = 10)), false)
+        val progressed = actionGroup(1, transferredBytes = 50)
+
+        assertThat(underTest.getGroupsToNotify(listOf(progressed), false)).isEmpty()
+        timeSource += MIN_PROGRESS_INTERVAL
+        assertThat(underTest.getGroupsToNotify(listOf(progressed), false))
+            .containsExactly(progressed)
+    }
+
+    @Test
+    fun `test that transferred size changes without progress changes are notified once the minimum interval has passed`() {
+        underTest.getGroupsToNotify(
+            listOf(actionGroup(1, transferredBytes = 10, totalBytes = 100_000L)),
+            false,
+        )
+        val transferred = actionGroup(1, transferredBytes = 11, totalBytes = 100_000L)
+
+        assertThat(underTest.getGroupsToNotify(listOf(transferred), false)).isEmpty()
+        timeSource += MIN_PROGRESS_INTERVAL
+        assertThat(underTest.getGroupsToNotify(listOf(transferred), false))
+            .containsExactly(transferred)
+    }
+
+    @Test
+    fun `test that total size changes are notified at once`() {
+        underTest.getGroupsToNotify(listOf(actionGroup(1)), paused = false)
+        val changed = actionGroup(1, totalBytes = 200L)
+
+        assertThat(underTest.getGroupsToNotify(listOf(changed), paused = false))
+            .containsExactly(changed)
+    }
+
+    @Test
+    fun `test that single file name changes are notified at once`() {
+        underTest.getGroupsToNotify(listOf(actionGroup(1)), paused = false)
+        val changed = actionGroup(1, fileNames = listOf("preview"))
+
+        assertThat(underTest.getGroupsToNotify(listOf(changed), paused = false))
+            .containsExactly(changed)
+    }
+
+    @Test
+    fun `test that destination changes are notified at once`() {
+        underTest.getGroupsToNotify(listOf(actionGroup(1)), paused = false)
+        val changed = actionGroup(1, destination = "other destination")
+
+        assertThat(underTest.getGroupsToNotify(listOf(changed), paused = false))
+            .containsExactly(changed)
+    }
+
+    @Test
+    fun `test that finished groups are returned once and no longer notified`() {
+        val finished = actionGroup(1, finishedFiles = TOTAL_FILES)
+        val groups = listOf(finished, actionGroup(2))
+
+        assertThat(underTest.getNewlyFinishedGroups(groups)).containsExactly(finished)
+        assertThat(underTest.getNewlyFinishedGroups(groups)).isEmpty()
+        assertThat(underTest.getGroupsToNotify(groups, paused = false))
+            .containsExactly(groups[1])
+    }
+
+    private fun actionGroup(
+        groupId: Int,
+        finishedFiles: Int = 0,
+        transferredBytes: Long = 0L,
+        totalBytes: Long = 100L,
+        fileNames: List<String> = listOf("file"),
+        destination: String = "destination",
+    ) = ActiveTransferTotals.ActionGroup(
+        groupId = groupId,
+        totalFiles = TOTAL_FILES,
+        finishedFiles = finishedFiles,
+        completedFiles = finishedFiles,
+        alreadyTransferred = 0,
+        destination = destination,
+        fileNames = fileNames,
+        singleTransferTag = null,
+        startTime = 0L,
+        pausedFiles = 0,
+        totalBytes = totalBytes,
+        transferredBytes = transferredBytes,
+        pendingTransferNodeId = null,
+    )
+
+    private companion object {
+        const val TOTAL_FILES = 3
+        val MIN_PROGRESS_INTERVAL = 5.seconds
+    }
+}
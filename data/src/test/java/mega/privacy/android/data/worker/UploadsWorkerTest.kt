@@ -365,7 +365,7 @@ class UploadsWorkerTest {
         val transferTotals = (0..10).map {
             mockActiveTransferTotals(
                 false,
-                actionGroups = listOf(mockActionGroup(groupId, transferredBytes = it.toLong()))
+                actionGroups = listOf(mockActionGroup(groupId, finishedFiles = it))
             )
         }
         commonStub(
@@ -398,6 +398,36 @@ class UploadsWorkerTest {
         }
     }
 
+    @Test
+    fun `test that notification group is not updated when its content does not change`() =
+        runTest {
+            val groupId = 2135
+            val actionGroup = mockActionGroup(groupId, transferredBytes = 10L)
+            val transferTotals = (0..10).map {
+                mockActiveTransferTotals(false, actionGroups = listOf(actionGroup))
+            }
+            commonStub(
+                initialTransferTotals = transferTotals.first(),
+                transferTotals = transferTotals.drop(1),
+                groupedNotificationFeatureFlag = true,
+            )
+            val notification = mock<Notification>()
+            whenever(
+                transfersActionGroupProgressNotificationBuilder(
+                    actionGroup,
+                    TransferType.GENERAL_UPLOAD,
+                    false
+                )
+            ) doReturn notification
+
+            underTest.doWork()
+
+            val groupNotificationId =
+                NOTIFICATION_GROUP_MULTIPLAYER * UPLOAD_NOTIFICATION_ID + groupId
+            verify(notificationManager).notify(groupNotificationId, notification)
+            Truth.assertThat(underTest.skippedGroupNotifications).isGreaterThan(0L)
+        }
+
     @Test
     fun `test that notification finish group is notified when transfer group finishes`() =
         runTest {
@@ -505,9 +535,11 @@ class UploadsWorkerTest {
         groupId: Int,
         totalBytes: Long = 4857L,
         transferredBytes: Long = 0L,
+        finishedFiles: Int = 0,
         finished: Boolean = false,
     ) = mock<ActiveTransferTotals.ActionGroup> {
         on { this.groupId } doReturn groupId
+        on { this.finishedFiles } doReturn finishedFiles
         on { this.totalBytes } doReturn totalBytes
         on { this.transferredBytes } doReturn transferredBytes
         on { this.finished() } doReturn finished
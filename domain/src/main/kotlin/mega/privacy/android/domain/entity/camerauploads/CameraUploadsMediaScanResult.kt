@@ -0,0 +1,18 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Result of a media store scan of a Camera Uploads folder
+ *
+ * @property mediaList the media read from the media store
+ * @property watermark the watermark to use for the next scan, null if incremental scans are not
+ *                     supported by the device
+ * @property isFullScan true if every media of the folder has been read, false if only the media
+ *                      added or modified since the previous watermark have been read
+ * @property rowsRead number of media store rows read during the scan
+ */
+data class CameraUploadsMediaScanResult(
+    val mediaList: List<CameraUploadsMedia>,
+    val watermark: CameraUploadsMediaScanWatermark?,
+    val isFullScan: Boolean,
+    val rowsRead: Int,
+)
@@ -0,0 +1,23 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Position reached by the last media store scan of a Camera Uploads folder, used to only read
+ * the rows that have been added or modified since then
+ *
+ * @property volumeName name of the media store volume that was scanned
+ * @property mediaStoreVersion opaque version of the media store volume. A change of version means
+ *                             the generation numbers are no longer comparable
+ * @property selectionQuery the selection query the scan was made with
+ * @property generation media store generation of the volume when the scan started
+ * @property maxMediaId highest _id read from the media store so far
+ * @property retryMediaIds ids of the media read before the watermark that could not be retrieved,
+ *                         read again on the next scan
+ */
+data class CameraUploadsMediaScanWatermark(
+    val volumeName: String,
+    val mediaStoreVersion: String,
+    val selectionQuery: String?,
+    val generation: Long,
+    val maxMediaId: Long,
+    val retryMediaIds: List<Long> = emptyList(),
+)
@@ -0,0 +1,18 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+/**
+ * Update to apply to a [CameraUploadsRecord] in the database
+ *
+ * @property mediaId the id of the record
+ * @property timestamp the timestamp of the record
+ * @property folderType the folder type of the record
+ * @property uploadStatus the upload status to set, or null to keep the current one
+ * @property generatedFingerprint the generated fingerprint to set, or null to keep the current one
+ */
+data class CameraUploadsRecordUpdate(
+    val mediaId: Long,
+    val timestamp: Long,
+    val folderType: CameraUploadFolderType,
+    val uploadStatus: CameraUploadsRecordUploadStatus? = null,
+    val generatedFingerprint: String? = null,
+)
@@ -0,0 +1,17 @@
+package mega.privacy.android.domain.entity.node
+
+/**
+ * Filter of the nodes of a [NodeUpdate]
+ *
+ * A node is included if it's a child of any of [parentIds] or one of [nodeIds], and it has any of
+ * the [changes].
+ *
+ * @property parentIds ids of the parents of the nodes to include, null to include any node
+ * @property nodeIds ids of other nodes to include, wherever they are
+ * @property changes changes of the nodes to include, null to include any change
+ */
+data class NodeUpdateFilter(
+    val parentIds: Set<NodeId>? = null,
+    val nodeIds: Set<NodeId> = emptySet(),
+    val changes: Set<NodeChanges>? = null,
+)
@@ -0,0 +1,19 @@
+package mega.privacy.android.domain.entity.photos
+
+/**
+ * Photos of the timeline with the changes since the previous ones
+ *
+ * The photos are an immutable list, which shares most of its content with the previous ones, so
+ * the same list is published as long as the photos don't change.
+ *
+ * @property photos all the photos, the most recently modified first
+ * @property addedPhotos the photos added
+ * @property updatedPhotos the photos that have changed, with their changes
+ * @property removedIds ids of the photos removed
+ */
+data class PhotoChanges(
+    val photos: List<Photo>,
+    val addedPhotos: List<Photo> = emptyList(),
+    val updatedPhotos: List<Photo> = emptyList(),
+    val removedIds: Set<Long> = emptySet(),
+)
@@ -0,0 +1,22 @@
+package mega.privacy.android.domain.entity.zipbrowser
+
+/**
+ * Progress of the extraction of a zip file
+ *
+ * @property extractedBytes bytes written so far
+ * @property totalBytes uncompressed size of all the entries, entries of unknown size are not counted
+ * @property extractedEntries entries completely extracted so far
+ * @property totalEntries number of entries of the zip file
+ */
+data class UnzipProgress(
+    val extractedBytes: Long,
+    val totalBytes: Long,
+    val extractedEntries: Int,
+    val totalEntries: Int,
+) {
+    /**
+     * True if all the entries have been extracted
+     */
+    val isCompleted: Boolean
+        get() = extractedEntries == totalEntries
+}
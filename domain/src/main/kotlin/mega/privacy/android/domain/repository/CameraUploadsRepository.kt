@@ -10,7 +10,10 @@ import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.backup.BackupRemovalStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
@@ -256,6 +259,71 @@ interface CameraUploadsRepository {
         selectionQuery: String?,
     ): List<CameraUploadsMedia>
 
+    /**
+     * Get the media for a given media type added or modified since the given watermark
+     *
+     * A full scan is made instead if the watermark is null or cannot be compared with the current
+     * state of the media store, e.g. the volume or its version changed
+     *
+     * @param mediaStoreFileType different media store file type
+     * @param selectionQuery db query
+     * @param watermark the watermark returned by the previous scan
+     *
+     * @return the [CameraUploadsMediaScanResult]
+     */
+    suspend fun getMediaListSinceWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        selectionQuery: String?,
+        watermark: CameraUploadsMediaScanWatermark?,
+    ): CameraUploadsMediaScanResult
+
+    /**
+     * Get the ids of the media for a given media type, without reading the other columns
+     *
+     * @param mediaStoreFileType different media store file type
+     * @param selectionQuery db query
+     *
+     * @return the ids of the media, or null if they can't be read
+     */
+    suspend fun getMediaIds(
+        mediaStoreFileType: MediaStoreFileType,
+        selectionQuery: String?,
+    ): Set<Long>?
+
+    /**
+     * Get the watermark of the last media store scan
+     *
+     * @param mediaStoreFileType the media store file type scanned
+     * @param folderType the folder type scanned
+     *
+     * @return the [CameraUploadsMediaScanWatermark], or null if none is stored
+     */
+    suspend fun getMediaScanWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        folderType: CameraUploadFolderType,
+    ): CameraUploadsMediaScanWatermark?
+
+    /**
+     * Set the watermark of the last media store scan
+     *
+     * @param mediaStoreFileType the media store file type scanned
+     * @param folderType the folder type scanned
+     * @param watermark the [CameraUploadsMediaScanWatermark] to store, null to remove it
+     */
+    suspend fun setMediaScanWatermark(
+        mediaStoreFileType: MediaStoreFileType,
+        folderType: CameraUploadFolderType,
+        watermark: CameraUploadsMediaScanWatermark?,
+    )
+
+    /**
+     * Clear the media store scan watermarks given the folder types, so that the next scan of
+     * these folders is a full scan
+     *
+     * @param folderTypes a list of folder type (Primary, Secondary, or both)
+     */
+    suspend fun clearMediaScanWatermarks(folderTypes: List<CameraUploadFolderType>)
+
     /**
      * Convert Base 64 string to handle
      */
@@ -542,6 +610,13 @@ interface CameraUploadsRepository {
         generatedFingerprint: String,
     )
 
+    /**
+     * Apply a list of updates to the camera uploads records in a single transaction
+     *
+     * @param updates the list of [CameraUploadsRecordUpdate] to apply
+     */
+    suspend fun updateRecords(updates: List<CameraUploadsRecordUpdate>)
+
     /**
      * Clear the camera uploads record given the folder types
      *
@@ -12,6 +12,7 @@ import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateFilter
 import mega.privacy.android.domain.entity.node.TypedFolderNode
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.node.UnTypedNode
@@ -185,6 +186,15 @@ interface NodeRepository {
      */
     fun monitorNodeUpdates(): Flow<NodeUpdate>
 
+    /**
+     * Monitor node updates
+     *
+     * @param filter the nodes to include in the updates
+     * @return a flow of the global node updates including any node of the filter, with only
+     * those nodes
+     */
+    fun monitorNodeUpdates(filter: NodeUpdateFilter): Flow<NodeUpdate>
+
     /**
      * monitor offline node updates
      */
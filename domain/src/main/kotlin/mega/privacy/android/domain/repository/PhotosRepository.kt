@@ -8,6 +8,7 @@ import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedFileNode
 import mega.privacy.android.domain.entity.photos.AlbumPhotoId
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoChanges
 import java.io.File
 
 /**
@@ -34,6 +35,11 @@ interface PhotosRepository {
      */
     fun monitorPhotos(): Flow<List<Photo>>
 
+    /**
+     * Monitor photos with the photos added, updated and removed by each change
+     */
+    fun monitorPhotoChanges(): Flow<PhotoChanges>
+
     /**
      * Get public links count
      */
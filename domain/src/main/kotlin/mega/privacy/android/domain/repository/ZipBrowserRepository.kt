@@ -1,5 +1,7 @@
 package mega.privacy.android.domain.repository
 
+import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.domain.entity.zipbrowser.UnzipProgress
 import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
 import java.util.zip.ZipFile
 
@@ -43,4 +45,14 @@ interface ZipBrowserRepository {
      * @return true is unzip succeed.
      */
     suspend fun unzipFile(zipFile: ZipFile, unzipRootPath: String): Boolean
+
+    /**
+     * Unzip file reporting its progress
+     *
+     * @param zipFile ZipFile
+     * @param unzipRootPath unzip destination path
+     * @return a flow of [UnzipProgress] that completes when the file is unzipped, or throws if
+     * the file can't be unzipped
+     */
+    fun monitorUnzipFile(zipFile: ZipFile, unzipRootPath: String): Flow<UnzipProgress>
 }
\ No newline at end of file
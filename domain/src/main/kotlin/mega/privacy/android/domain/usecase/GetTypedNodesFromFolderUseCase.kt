@@ -3,12 +3,12 @@ package mega.privacy.android.domain.usecase
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.emitAll
-import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapLatest
 import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdateFilter
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.exception.ParentNotAFolderException
@@ -46,12 +46,8 @@ class GetTypedNodesFromFolderUseCase @Inject constructor(
     }
 
     private fun getMonitoredList(folderId: NodeId, nodeIds: List<NodeId>) =
-        nodeRepository.monitorNodeUpdates()
-            .filter { changes ->
-                changes.changes.keys.map { it.id }
-                    .intersect(
-                        nodeIds.toSet()
-                    ).isNotEmpty()
-            }.map { getChildren(folderId) }
+        nodeRepository.monitorNodeUpdates(
+            NodeUpdateFilter(parentIds = setOf(folderId), nodeIds = nodeIds.toSet())
+        ).map { getChildren(folderId) }
 
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+
+/**
+ * Open addressing hash set of the (mediaId, timestamp) pairs of a list of [CameraUploadsRecord],
+ * stored in primitive arrays to check in constant time whether a media has already been recorded
+ *
+ * The same media can be recorded several times with different timestamps, so both values are
+ * part of the key
+ *
+ * @param records the records to index
+ */
+internal class CameraUploadsRecordIndex(records: Collection<CameraUploadsRecord>) {
+
+    private val capacity = tableSizeFor(records.size)
+    private val mask = capacity - 1
+    private val mediaIds = LongArray(capacity)
+    private val timestamps = LongArray(capacity)
+    private val occupied = BooleanArray(capacity)
+
+    /**
+     * Number of distinct (mediaId, timestamp) pairs indexed
+     */
+    var size = 0
+        private set
+
+    init {
+        records.forEach { add(it.mediaId, it.timestamp) }
+    }
+
+    /**
+     * Check if a record exists for the given media
+     *
+     * @param mediaId the media store id of the media
+     * @param timestamp the timestamp of the media
+     * @return true if a record with the same mediaId and timestamp has been indexed
+     */
+    fun contains(mediaId: Long, timestamp: Long): Boolean {
+        var slot = slotOf(mediaId, timestamp)
+        while (occupied[slot]) {
+            if (mediaIds[slot] == mediaId && timestamps[slot] == timestamp) return true
+            slot = (slot + 1) and mask
+        }
+        return false
+    }
+
+    private fun add(mediaId: Long, timestamp: Long) {
+        var slot = slotOf(mediaId, timestamp)
+        while (occupied[slot]) {
+            if (mediaIds[slot] == mediaId && timestamps[slot] == timestamp) return
+            slot = (slot + 1) and mask
+        }
+        occupied[slot] = true
+        mediaIds[slot] = mediaId
+        timestamps[slot] = timestamp
+        size++
+    }
+
+    private fun slotOf(mediaId: Long, timestamp: Long): Int {
+        // Murmur3 finalizer, so that sequential ids spread over the whole table
+        var hash = mediaId * 31 + timestamp
+        hash = (hash xor (hash ushr 33)) * -0xae502812aa7333L
+        hash = (hash xor (hash ushr 33)) * -0x3b314601e57a13adL
+        hash = hash xor (hash ushr 33)
+        return hash.toInt() and mask
+    }
+
+    private companion object {
+        /**
+         * Smallest power of two keeping the load factor at or below 0.5, so that the table always
+         * contains empty slots and probing sequences stay short
+         */
+        fun tableSizeFor(expectedSize: Int): Int =
+            Integer.highestOneBit(maxOf(expectedSize, 1) * 2 - 1) shl 1
+    }
+}
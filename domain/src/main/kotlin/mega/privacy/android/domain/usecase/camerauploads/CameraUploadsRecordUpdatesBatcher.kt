@@ -0,0 +1,126 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Coalesces the upload status and generated fingerprint updates of the camera uploads records,
+ * to write them in the database in one transaction per batch instead of one per update
+ *
+ * Only the latest upload status and generated fingerprint of each record are kept. A batch is
+ * written when [maxBatchSize] records are pending, every [flushInterval] if [runPeriodicFlush] is
+ * running, and when [flush] is called. The caller is responsible for calling [flush] once it
+ * stops, including on cancellation, so that no update is lost
+ *
+ * @property updateCameraUploadsRecordsUseCase writes a batch of updates in the database
+ * @property onFlushFailure called with the records of a batch that could not be written
+ * @property maxBatchSize number of pending records triggering a write
+ * @property flushInterval maximum delay before a pending update is written
+ */
+class CameraUploadsRecordUpdatesBatcher(
+    private val updateCameraUploadsRecordsUseCase: UpdateCameraUploadsRecordsUseCase,
+    private val onFlushFailure: suspend (records: List<CameraUploadsRecord>, error: Throwable) -> Unit,
+    private val maxBatchSize: Int = DEFAULT_MAX_BATCH_SIZE,
+    private val flushInterval: Duration = DEFAULT_FLUSH_INTERVAL,
+) {
+
+    private data class RecordKey(
+        val mediaId: Long,
+        val timestamp: Long,
+        val folderType: CameraUploadFolderType,
+    )
+
+    private class PendingUpdate(
+        val record: CameraUploadsRecord,
+        val update: CameraUploadsRecordUpdate,
+    )
+
+    private val pendingMutex = Mutex()
+    private val pendingUpdates = LinkedHashMap<RecordKey, PendingUpdate>()
+
+    /**
+     * Batches are written one at a time, so that the updates of a record are applied in order
+     */
+    private val writeMutex = Mutex()
+
+    /**
+     * Queue the upload status of a record
+     *
+     * @param record the record to update
+     * @param uploadStatus the upload status to set
+     */
+    suspend fun setUploadStatus(
+        record: CameraUploadsRecord,
+        uploadStatus: CameraUploadsRecordUploadStatus,
+    ) = enqueue(record) { it.copy(uploadStatus = uploadStatus) }
+
+    /**
+     * Queue the generated fingerprint of a record
+     *
+     * @param record the record to update
+     * @param generatedFingerprint the fingerprint computed from the generated file
+     */
+    suspend fun setGeneratedFingerprint(
+        record: CameraUploadsRecord,
+        generatedFingerprint: String,
+    ) = enqueue(record) { it.copy(generatedFingerprint = generatedFingerprint) }
+
+    /**
+     * Write every [flushInterval] the pending updates, until the calling coroutine is cancelled
+     */
+    suspend fun runPeriodicFlush() {
+        while (true) {
+            delay(flushInterval)
+            flush()
+        }
+    }
+
+    /**
+     * Write the pending updates in the database. The write is not cancellable, so that it
+     * can be called when the upload process is cancelled
+     */
+    suspend fun flush(): Unit = withContext(NonCancellable) {
+        writeMutex.withLock {
+            val batch = pendingMutex.withLock {
+                pendingUpdates.values.toList().also { pendingUpdates.clear() }
+            }
+            if (batch.isEmpty()) return@withLock
+            runCatching {
+                updateCameraUploadsRecordsUseCase(batch.map { it.update })
+            }.onFailure { error ->
+                onFlushFailure(batch.map { it.record }, error)
+            }
+        }
+    }
+
+    private suspend fun enqueue(
+        record: CameraUploadsRecord,
+        transform: (CameraUploadsRecordUpdate) -> CameraUploadsRecordUpdate,
+    ) {
+        val key = RecordKey(record.mediaId, record.timestamp, record.folderType)
+        val pendingCount = pendingMutex.withLock {
+            val update = pendingUpdates[key]?.update ?: CameraUploadsRecordUpdate(
+                mediaId = record.mediaId,
+                timestamp = record.timestamp,
+                folderType = record.folderType,
+            )
+            pendingUpdates[key] = PendingUpdate(record, transform(update))
+            pendingUpdates.size
+        }
+        if (pendingCount >= maxBatchSize) flush()
+    }
+
+    private companion object {
+        const val DEFAULT_MAX_BATCH_SIZE = 200
+        val DEFAULT_FLUSH_INTERVAL = 1.seconds
+    }
+}
@@ -0,0 +1,24 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.repository.CameraUploadsRepository
+import javax.inject.Inject
+
+/**
+ * Clear the media store scan watermarks, so that the next scan reads the whole media store
+ *
+ * @param cameraUploadsRepository
+ */
+class ClearCameraUploadsMediaScanWatermarksUseCase @Inject constructor(
+    private val cameraUploadsRepository: CameraUploadsRepository,
+) {
+
+    /**
+     * Clear the media store scan watermarks given the folder types
+     *
+     * @param folderTypes a list of folder type (Primary, Secondary, or both)
+     */
+    suspend operator fun invoke(
+        folderTypes: List<CameraUploadFolderType> = CameraUploadFolderType.entries,
+    ) = cameraUploadsRepository.clearMediaScanWatermarks(folderTypes)
+}
@@ -1,7 +1,9 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import kotlinx.coroutines.NonCancellable
 import kotlinx.coroutines.async
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.withContext
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import javax.inject.Inject
@@ -15,6 +17,8 @@ import javax.inject.Inject
  * @property getMediaStoreFileTypesUseCase
  * @property isMediaUploadsEnabledUseCase
  * @property retrieveMediaFromMediaStoreUseCase
+ * @property saveCameraUploadsRecordUseCase
+ * @property clearCameraUploadsMediaScanWatermarksUseCase
  */
 class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val getPrimaryFolderPathUseCase: GetPrimaryFolderPathUseCase,
@@ -23,6 +27,7 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val isMediaUploadsEnabledUseCase: IsMediaUploadsEnabledUseCase,
     private val retrieveMediaFromMediaStoreUseCase: RetrieveMediaFromMediaStoreUseCase,
     private val saveCameraUploadsRecordUseCase: SaveCameraUploadsRecordUseCase,
+    private val clearCameraUploadsMediaScanWatermarksUseCase: ClearCameraUploadsMediaScanWatermarksUseCase,
 ) {
 
     /**
@@ -31,6 +36,19 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
      */
     suspend operator fun invoke(
         tempRoot: String,
+    ) = try {
+        retrieveAndSaveMedia(tempRoot)
+    } catch (throwable: Throwable) {
+        // The scan watermarks have already moved past the media retrieved, so the next scan
+        // needs to read them again if they could not be saved
+        withContext(NonCancellable) {
+            runCatching { clearCameraUploadsMediaScanWatermarksUseCase() }
+        }
+        throw throwable
+    }
+
+    private suspend fun retrieveAndSaveMedia(
+        tempRoot: String,
     ) = coroutineScope {
         val (photoMediaStoreTypes, videoMediaStoreTypes) = getMediaStoreFileTypesUseCase().partition { it.isImageFileType() }
         val primaryFolderPath = getPrimaryFolderPathUseCase()
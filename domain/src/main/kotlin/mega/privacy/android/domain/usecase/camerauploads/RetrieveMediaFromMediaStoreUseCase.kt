@@ -5,12 +5,12 @@ import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.sync.withPermit
-import kotlinx.coroutines.yield
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.repository.CameraUploadsRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
@@ -23,12 +23,16 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
     private val cameraUploadsRepository: CameraUploadsRepository,
     private val cameraUploadsRecordMapper: CameraUploadsRecordMapper,
     private val getPendingCameraUploadsRecordsUseCase: GetPendingCameraUploadsRecordsUseCase,
-    private val setCameraUploadsRecordUploadStatusUseCase: SetCameraUploadsRecordUploadStatusUseCase,
+    private val updateCameraUploadsRecordsUseCase: UpdateCameraUploadsRecordsUseCase,
 ) {
 
     /**
      * Retrieve a list of [CameraUploadsMedia] from the media store
      *
+     * Only the media added or modified since the previous scan, and the media that could not be
+     * retrieved by it, are read when possible. The caller is responsible for clearing the
+     * watermarks if the records returned cannot be saved
+     *
      * @param parentPath used for filtering the media contained in the parent path
      * @param types types of files that we want to retrieve. This types will be converted to proper Uri
      *
@@ -43,69 +47,85 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
     ): List<CameraUploadsRecord> = coroutineScope {
         val selectionQuery = cameraUploadsRepository.getMediaSelectionQuery(parentPath)
 
-        val (recordsInPrimaryFolder, recordsInSecondaryFolder) =
+        val recordIndex = CameraUploadsRecordIndex(
             cameraUploadsRepository.getAllCameraUploadsRecords()
-                .partition { it.folderType == CameraUploadFolderType.Primary }
+                .filter { it.folderType == folderType }
+        )
 
-        val semaphore = Semaphore(8)
+        val semaphore = Semaphore(MAX_CONCURRENT_MAPPINGS)
         return@coroutineScope types.flatMap { type ->
-            cameraUploadsRepository.getMediaList(
+            val scanResult = cameraUploadsRepository.getMediaListSinceWatermark(
                 mediaStoreFileType = type,
                 selectionQuery = selectionQuery,
-            ).also { mediaList ->
-                mediaList.takeIf { list -> list.isNotEmpty() }?.let { list ->
-                    updateNotExistRecordsStatus(
-                        mediaList = list,
-                        fileType = fileType,
-                        folderType = folderType
-                    )
-                }
-            }.map { media ->
+                watermark = runCatching {
+                    cameraUploadsRepository.getMediaScanWatermark(type, folderType)
+                }.getOrNull(),
+            )
+            // An incremental scan only returns the media changed since the last scan, so the ids
+            // of every media are read on their own to detect the missing local files
+            if (!scanResult.isFullScan || scanResult.mediaList.isNotEmpty()) {
+                updateNotExistRecordsStatus(
+                    fileType = fileType,
+                    folderType = folderType,
+                    getExistingMediaIds = {
+                        if (scanResult.isFullScan) {
+                            scanResult.mediaList.mapTo(mutableSetOf()) { it.mediaId }
+                        } else {
+                            runCatching {
+                                cameraUploadsRepository.getMediaIds(type, selectionQuery)
+                            }.getOrNull()
+                        }
+                    },
+                )
+            }
+            // Most media are already recorded, so they are filtered out in a single pass before
+            // computing the fingerprints of the new ones concurrently
+            val newMediaList = scanResult.mediaList.filterNot { media ->
+                recordIndex.contains(media.mediaId, media.timestamp)
+            }
+            newMediaList.map { media ->
                 async {
                     semaphore.withPermit {
-                        yield()
                         runCatching {
-                            val exists = checkCameraUploadsRecordAlreadyExists(
-                                cameraUploadsMedia = media,
-                                recordsToCheck =
-                                    if (folderType == CameraUploadFolderType.Primary)
-                                        recordsInPrimaryFolder
-                                    else recordsInSecondaryFolder,
+                            cameraUploadsRecordMapper(
+                                media = media,
+                                folderType = folderType,
+                                fileType = fileType,
+                                tempRoot = tempRoot,
                             )
-                            if (!exists) {
-                                cameraUploadsRecordMapper(
-                                    media = media,
-                                    folderType = folderType,
-                                    fileType = fileType,
-                                    tempRoot = tempRoot,
-                                )
-                            } else null
                         }.getOrNull()
                     }
                 }
-            }.awaitAll().filterNotNull()
+            }.awaitAll().let { records ->
+                // The media that could not be mapped, for instance because their fingerprint is
+                // not available yet, are read again on the next scan
+                val failedMediaIds = newMediaList.zip(records)
+                    .filter { (_, record) -> record == null }
+                    .map { (media, _) -> media.mediaId }
+                if (failedMediaIds.size <= MAX_RETRIED_MEDIA) {
+                    runCatching {
+                        cameraUploadsRepository.setMediaScanWatermark(
+                            mediaStoreFileType = type,
+                            folderType = folderType,
+                            watermark = scanResult.watermark?.copy(retryMediaIds = failedMediaIds),
+                        )
+                    }
+                }
+                records.filterNotNull()
+            }
         }
     }
 
     /**
-     * Check if the camera uploads media has already been inserted in the database
+     * Mark the pending records of the media no longer in the media store as missing
      *
-     * @param cameraUploadsMedia the [CameraUploadsMedia] to check
-     * @param recordsToCheck the list of [CameraUploadsRecord] saved in the database
+     * @param getExistingMediaIds gets the ids of the media in the media store, only called if
+     *                            there are pending records. Returns null if they can't be read
      */
-    private fun checkCameraUploadsRecordAlreadyExists(
-        cameraUploadsMedia: CameraUploadsMedia,
-        recordsToCheck: List<CameraUploadsRecord>,
-    ): Boolean {
-        return recordsToCheck.find {
-            it.mediaId == cameraUploadsMedia.mediaId && it.timestamp == cameraUploadsMedia.timestamp
-        } != null
-    }
-
     private suspend fun updateNotExistRecordsStatus(
-        mediaList: List<CameraUploadsMedia>,
         fileType: CameraUploadsRecordType,
         folderType: CameraUploadFolderType,
+        getExistingMediaIds: suspend () -> Set<Long>?,
     ) {
         val pendingRecords = runCatching {
             getPendingCameraUploadsRecordsUseCase()
@@ -113,20 +133,30 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
                 .takeIf { it.isNotEmpty() }
         }.getOrNull() ?: return
 
-        val existingMediaIds = mediaList.mapTo(mutableSetOf()) { it.mediaId }
+        val existingMediaIds = getExistingMediaIds()?.takeIf { it.isNotEmpty() } ?: return
 
-        pendingRecords.filter { record ->
+        val notExistRecordUpdates = pendingRecords.filter { record ->
             record.mediaId !in existingMediaIds
-        }.forEach { notExistRecord ->
-            runCatching {
-                setCameraUploadsRecordUploadStatusUseCase(
-                    mediaId = notExistRecord.mediaId,
-                    timestamp = notExistRecord.timestamp,
-                    folderType = notExistRecord.folderType,
-                    uploadStatus = CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST,
-                )
-            }
+        }.map { notExistRecord ->
+            CameraUploadsRecordUpdate(
+                mediaId = notExistRecord.mediaId,
+                timestamp = notExistRecord.timestamp,
+                folderType = notExistRecord.folderType,
+                uploadStatus = CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST,
+            )
+        }
+        if (notExistRecordUpdates.isNotEmpty()) {
+            runCatching { updateCameraUploadsRecordsUseCase(notExistRecordUpdates) }
         }
     }
-}
 
+    companion object {
+        private const val MAX_CONCURRENT_MAPPINGS = 8
+
+        /**
+         * Above this number of media that could not be mapped, the watermark is not advanced so
+         * that the next scan reads them again, instead of keeping all their ids
+         */
+        private const val MAX_RETRIED_MEDIA = 500
+    }
+}
@@ -0,0 +1,23 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
+import mega.privacy.android.domain.repository.CameraUploadsRepository
+import javax.inject.Inject
+
+/**
+ * Apply a list of updates to the camera uploads records in a single transaction
+ */
+class UpdateCameraUploadsRecordsUseCase @Inject constructor(
+    private val cameraUploadsRepository: CameraUploadsRepository,
+) {
+
+    /**
+     * Apply a list of updates to the camera uploads records in a single transaction
+     *
+     * @param updates the list of [CameraUploadsRecordUpdate] to apply
+     */
+    suspend operator fun invoke(updates: List<CameraUploadsRecordUpdate>) {
+        if (updates.isEmpty()) return
+        cameraUploadsRepository.updateRecords(updates)
+    }
+}
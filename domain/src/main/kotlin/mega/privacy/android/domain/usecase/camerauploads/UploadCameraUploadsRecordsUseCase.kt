@@ -1,6 +1,7 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
 import kotlinx.coroutines.DelicateCoroutinesApi
+import kotlinx.coroutines.cancelAndJoin
 import kotlinx.coroutines.channels.Channel.Factory.UNLIMITED
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
@@ -80,8 +81,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
     private val setOriginalFingerprintUseCase: SetOriginalFingerprintUseCase,
     private val areLocationTagsEnabledUseCase: AreLocationTagsEnabledUseCase,
     private val createTempFileAndRemoveCoordinatesUseCase: CreateTempFileAndRemoveCoordinatesUseCase,
-    private val setCameraUploadsRecordUploadStatusUseCase: SetCameraUploadsRecordUploadStatusUseCase,
-    private val setCameraUploadsRecordGeneratedFingerprintUseCase: SetCameraUploadsRecordGeneratedFingerprintUseCase,
+    private val updateCameraUploadsRecordsUseCase: UpdateCameraUploadsRecordsUseCase,
     private val createImageOrVideoThumbnailUseCase: CreateImageOrVideoThumbnailUseCase,
     private val createImageOrVideoPreviewUseCase: CreateImageOrVideoPreviewUseCase,
     private val deleteThumbnailUseCase: DeleteThumbnailUseCase,
@@ -136,6 +136,23 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
         val locationTagsDisabled = !areLocationTagsEnabledUseCase()
         val isChargingRequiredForVideoCompression = isChargingRequiredForVideoCompressionUseCase()
 
+        // Coalesce the status and fingerprint updates of the records, to write them in the
+        // database in batches instead of one transaction per update
+        val recordUpdatesBatcher = CameraUploadsRecordUpdatesBatcher(
+            updateCameraUploadsRecordsUseCase = updateCameraUploadsRecordsUseCase,
+            onFlushFailure = { records, error ->
+                records.forEach { trySend(CameraUploadsTransferProgress.Error(it, error)) }
+            },
+        )
+        val periodicFlushJob = launch {
+            try {
+                recordUpdatesBatcher.runPeriodicFlush()
+            } finally {
+                // Write the pending updates, including when the upload process is cancelled
+                recordUpdatesBatcher.flush()
+            }
+        }
+
         launch {
             monitorConcurrentUploadsLimitUseCase(defaultConcurrentUploadsCount)
                 .collectLatest { concurrentUploadsLimit ->
@@ -184,6 +201,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                                 .catch {
                                     trySend(CameraUploadsTransferProgress.Error(record, it))
                                     setCameraUploadsRecordUploadStatus(
+                                        recordUpdatesBatcher = recordUpdatesBatcher,
                                         record = record,
                                         status = if (it is FileNotFoundException)
                                             CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
@@ -298,7 +316,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                         // This step is important to check if a file exist in the cloud drive,
                         // in case the original fingerprint cannot be assigned to the Node after the transfer finishes
                         val setGeneratedFingerprintJob = launch {
-                            setGeneratedFingerprint(record)
+                            setGeneratedFingerprint(recordUpdatesBatcher, record)
                                 .onFailure {
                                     trySend(CameraUploadsTransferProgress.Error(record, it))
                                 }
@@ -323,6 +341,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                                 is TransferEvent.TransferStartEvent -> {
                                     // set status to STARTED
                                     setCameraUploadsRecordUploadStatus(
+                                        recordUpdatesBatcher = recordUpdatesBatcher,
                                         record = record,
                                         status = CameraUploadsRecordUploadStatus.STARTED,
                                     ).onFailure {
@@ -339,7 +358,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
 
                                 is TransferEvent.TransferFinishEvent -> {
                                     yield()
-                                    processTransferFinishEvent(record, transferEvent)
+                                    processTransferFinishEvent(recordUpdatesBatcher, record, transferEvent)
                                         .collect {
                                             trySend(CameraUploadsTransferProgress.Error(record, it))
                                         }
@@ -412,6 +431,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                         )
 
                         setCameraUploadsRecordUploadStatus(
+                            recordUpdatesBatcher = recordUpdatesBatcher,
                             record = record,
                             status = CameraUploadsRecordUploadStatus.COPIED
                         ).onFailure {
@@ -426,6 +446,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                     // node exists in target folder or is in rubbish bin => do nothing
                     else -> {
                         setCameraUploadsRecordUploadStatus(
+                            recordUpdatesBatcher = recordUpdatesBatcher,
                             record = record,
                             status = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
                         ).onFailure {
@@ -439,6 +460,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                 }
             }
         }.joinAll()
+        periodicFlushJob.cancelAndJoin()
         channel.close()
     }
         .buffer(UNLIMITED)
@@ -531,16 +553,16 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
      *
      * This value will be used to check the existence of the file in the cloud
      *
+     * @param recordUpdatesBatcher
      * @param record
      */
     private suspend fun setGeneratedFingerprint(
+        recordUpdatesBatcher: CameraUploadsRecordUpdatesBatcher,
         record: CameraUploadsRecord,
     ) = runCatching {
         getFingerprintUseCase(record.tempFilePath)?.let { generatedFingerprint ->
-            setCameraUploadsRecordGeneratedFingerprintUseCase(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
+            recordUpdatesBatcher.setGeneratedFingerprint(
+                record = record,
                 generatedFingerprint = generatedFingerprint,
             )
         }
@@ -549,12 +571,14 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
     /**
      * Run some operations after a transfer completes
      *
+     * @param recordUpdatesBatcher
      * @param record
      * @param transferEvent
      *
      * @return a [Flow] of [Throwable] to inform about the failure of one of the operations
      */
     private suspend fun processTransferFinishEvent(
+        recordUpdatesBatcher: CameraUploadsRecordUpdatesBatcher,
         record: CameraUploadsRecord,
         transferEvent: TransferEvent.TransferFinishEvent,
     ) = channelFlow {
@@ -582,6 +606,7 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
             },
             launch {
                 setCameraUploadsRecordUploadStatus(
+                    recordUpdatesBatcher = recordUpdatesBatcher,
                     record = record,
                     status = CameraUploadsRecordUploadStatus.UPLOADED,
                 ).onFailure { trySend(it) }
@@ -747,17 +772,17 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
     /**
      * Set the camera uploads status
      *
+     * @param recordUpdatesBatcher
      * @param record
      * @param status
      */
     private suspend fun setCameraUploadsRecordUploadStatus(
+        recordUpdatesBatcher: CameraUploadsRecordUpdatesBatcher,
         record: CameraUploadsRecord,
         status: CameraUploadsRecordUploadStatus,
     ) = runCatching {
-        setCameraUploadsRecordUploadStatusUseCase(
-            mediaId = record.mediaId,
-            timestamp = record.timestamp,
-            folderType = record.folderType,
+        recordUpdatesBatcher.setUploadStatus(
+            record = record,
             uploadStatus = status,
         )
     }
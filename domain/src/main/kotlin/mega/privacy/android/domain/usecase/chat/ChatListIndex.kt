@@ -0,0 +1,113 @@
+package mega.privacy.android.domain.usecase.chat
+
+import mega.privacy.android.domain.entity.chat.ChatRoomItem
+import mega.privacy.android.domain.entity.chat.ChatRoomItem.IndividualChatRoomItem
+import mega.privacy.android.domain.entity.chat.ChatRoomItem.NoteToSelfChatRoomItem
+import java.util.TreeSet
+
+/**
+ * Chat room items kept sorted, to get the chat list without sorting it for every change
+ *
+ * The note to self chat goes always first, the other items are sorted with the given comparator.
+ * Items that compare as equal keep the order in which they were first added. Updating an item
+ * only moves it in the index, so the cost of a change is logarithmic in the number of chats.
+ *
+ * All the functions are thread safe.
+ *
+ * @param comparator order of the chat room items
+ */
+internal class ChatListIndex(comparator: Comparator<ChatRoomItem>) {
+
+    private class Entry(val item: ChatRoomItem, val order: Long)
+
+    private val lock = Any()
+    private val entries = HashMap<Long, Entry>()
+    private val chatIdByPeerHandle = HashMap<Long, Long>()
+    private val sorted = TreeSet<Entry>(
+        compareByDescending<Entry> { it.item is NoteToSelfChatRoomItem }
+            .thenBy(comparator) { it.item }
+            .thenBy { it.order }
+    )
+    private var nextOrder = 0L
+
+    /**
+     * Number of chat room items
+     */
+    val size: Int
+        get() = synchronized(lock) { entries.size }
+
+    /**
+     * @return the chat room item of this chat, if any
+     */
+    operator fun get(chatId: Long): ChatRoomItem? = synchronized(lock) { entries[chatId]?.item }
+
+    /**
+     * @return true if there's a chat room item for this chat
+     */
+    operator fun contains(chatId: Long): Boolean = synchronized(lock) { chatId in entries }
+
+    /**
+     * @return the id of the individual chat with this peer, if any
+     */
+    fun getIndividualChatId(peerHandle: Long): Long? =
+        synchronized(lock) { chatIdByPeerHandle[peerHandle] }
+
+    /**
+     * @return the chat room items, in no particular order
+     */
+    fun items(): List<ChatRoomItem> = synchronized(lock) { entries.values.map { it.item } }
+
+    /**
+     * Add a chat room item, or replace the item of the same chat
+     *
+     * @return true if the items have changed
+     */
+    fun put(item: ChatRoomItem): Boolean = synchronized(lock) {
+        val current = entries[item.chatId]
+        if (current?.item == item) return@synchronized false
+        current?.let { unindex(it) }
+        val entry = Entry(item, current?.order ?: nextOrder++)
+        entries[item.chatId] = entry
+        sorted.add(entry)
+        if (item is IndividualChatRoomItem) {
+            item.peerHandle?.let { chatIdByPeerHandle[it] = item.chatId }
+        }
+        true
+    }
+
+    /**
+     * Replace the chat room item of a chat, if there's one
+     *
+     * @param update returns the new item from the current one
+     * @return true if the items have changed
+     */
+    fun update(chatId: Long, update: (ChatRoomItem) -> ChatRoomItem): Boolean =
+        synchronized(lock) {
+            entries[chatId]?.let { put(update(it.item)) } ?: false
+        }
+
+    /**
+     * Remove the chat room item of a chat
+     *
+     * @return true if the items have changed
+     */
+    fun remove(chatId: Long): Boolean = synchronized(lock) {
+        entries.remove(chatId)?.let {
+            unindex(it)
+            true
+        } ?: false
+    }
+
+    /**
+     * @return the chat room items sorted
+     */
+    fun sortedItems(): List<ChatRoomItem> = synchronized(lock) { sorted.map { it.item } }
+
+    private fun unindex(entry: Entry) {
+        sorted.remove(entry)
+        val item = entry.item
+        if (item is IndividualChatRoomItem) {
+            item.peerHandle?.let { chatIdByPeerHandle.remove(it, item.chatId) }
+        }
+    }
+}
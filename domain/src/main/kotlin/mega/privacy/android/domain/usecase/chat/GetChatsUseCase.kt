@@ -6,18 +6,16 @@ import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.conflate
 import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.flatMapMerge
-import kotlinx.coroutines.flow.flattenMerge
 import kotlinx.coroutines.flow.flow
-import kotlinx.coroutines.flow.flowOf
-import kotlinx.coroutines.flow.mapLatest
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
-import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.flow.transform
 import mega.privacy.android.data.mapper.chat.ChatRoomItemMapper
 import mega.privacy.android.domain.entity.call.ChatCall
 import mega.privacy.android.domain.entity.chat.ChatAvatarItem
@@ -44,6 +42,7 @@ import mega.privacy.android.domain.usecase.meeting.MonitorChatCallUpdatesUseCase
 import mega.privacy.android.domain.usecase.meeting.MonitorScheduledMeetingOccurrencesUpdatesUseCase
 import mega.privacy.android.domain.usecase.meeting.MonitorScheduledMeetingUpdatesUseCase
 import javax.inject.Inject
+import kotlin.time.Duration.Companion.milliseconds
 
 /**
  * Use case to retrieve Chat Rooms.
@@ -69,6 +68,11 @@ class GetChatsUseCase @Inject constructor(
 
     companion object {
         private const val MAX_CONCURRENT_JOBS = 8
+
+        /**
+         * Minimum time between two emitted lists, changes received meanwhile are conflated
+         */
+        private val EMISSION_PERIOD = 16.milliseconds
     }
 
     /**
@@ -108,49 +112,39 @@ class GetChatsUseCase @Inject constructor(
         headerTimeMapper: (ChatRoomItem, ChatRoomItem?) -> String?,
     ): Flow<List<ChatRoomItem>> =
         flow {
-            val mutex = Mutex()
-            val chats = mutableMapOf<Long, ChatRoomItem>()
-            emit(sortChats(chats.addChatRooms(mutex, chatRoomType)))
+            val chats = ChatListIndex(chatRoomType.comparator())
+            chats.addChatRooms(chatRoomType)
+            emit(chats.sortedItems().addHeaders(chatRoomType, headerTimeMapper))
 
             emitAll(
-                flowOf(
+                merge(
                     chats.updateFields(
-                        mutex,
                         chatRoomType,
                         lastMessage,
                         lastTimeMapper,
                         meetingTimeMapper
                     ),
-                    chats.monitorMutedChats(mutex, chatRoomType),
-                    chats.monitorChatCalls(mutex, chatRoomType),
-                    chats.monitorChatOnlineStatusUpdates(mutex, chatRoomType),
-                    chats.monitorSchedMeetingUpdates(mutex, chatRoomType, meetingTimeMapper),
+                    chats.monitorMutedChats(chatRoomType),
+                    chats.monitorChatCalls(chatRoomType),
+                    chats.monitorChatOnlineStatusUpdates(chatRoomType),
+                    chats.monitorSchedMeetingUpdates(chatRoomType, meetingTimeMapper),
                     chats.monitorChatUpdates(
-                        mutex,
                         chatRoomType,
                         lastMessage,
                         lastTimeMapper,
                         meetingTimeMapper
                     ),
-                ).flattenMerge().mapLatest {
-                    sortChats(it.sorted(chatRoomType).addHeaders(chatRoomType, headerTimeMapper))
-                }
+                ).filter { changed -> changed }
+                    .conflate()
+                    .transform {
+                        // Changes received while waiting are conflated into the next list
+                        emit(chats.sortedItems().addHeaders(chatRoomType, headerTimeMapper))
+                        delay(EMISSION_PERIOD)
+                    }
             )
         }
 
-
-    /**
-     * Sort chats by note to self chat
-     *
-     * @param items List of [ChatRoomItem]
-     */
-    private fun sortChats(items: List<ChatRoomItem>): List<ChatRoomItem> =
-        items.sortedByDescending { it is ChatRoomItem.NoteToSelfChatRoomItem }
-
-    private suspend fun MutableMap<Long, ChatRoomItem>.addChatRooms(
-        mutex: Mutex,
-        chatRoomType: ChatRoomType,
-    ): List<ChatRoomItem> =
+    private suspend fun ChatListIndex.addChatRooms(chatRoomType: ChatRoomType) =
         when (chatRoomType) {
             ChatRoomType.MEETINGS -> chatRepository.getMeetingChatRooms()
             ChatRoomType.NON_MEETINGS -> chatRepository.getNonMeetingChatRooms()
@@ -159,19 +153,17 @@ class GetChatsUseCase @Inject constructor(
             .sortedByDescending(CombinedChatRoom::lastTimestamp)
             .forEach { chatRoom ->
                 if (!chatRoom.isPreview && chatRoom.chatId != -1L && (chatRoomType == ChatRoomType.ARCHIVED_CHATS || !chatRoom.isArchived)) {
-                    mutex.withLock { put(chatRoom.chatId, chatRoomItemMapper(chatRoom)) }
+                    put(chatRoomItemMapper(chatRoom))
                 }
-            }.let { values.toList() }
+            }
 
-    private fun MutableMap<Long, ChatRoomItem>.updateFields(
-        mutex: Mutex,
+    private fun ChatListIndex.updateFields(
         chatRoomType: ChatRoomType,
         getLastMessage: suspend (Long) -> String,
         lastTimeMapper: (Long) -> String,
         meetingTimeMapper: (Long, Long) -> String,
-    ): Flow<List<ChatRoomItem>> {
-        val copy = values.toMutableList()
-        return copy.asFlow().flatMapMerge(MAX_CONCURRENT_JOBS) { currentItem ->
+    ): Flow<Boolean> =
+        sortedItems().asFlow().flatMapMerge(MAX_CONCURRENT_JOBS) { currentItem ->
             flow {
                 val newItem = currentItem.updateChatFields(getLastMessage, lastTimeMapper)
                 val updatedItem = if (currentItem is MeetingChatRoomItem) {
@@ -180,14 +172,9 @@ class GetChatsUseCase @Inject constructor(
                     newItem
                 }
 
-                mutex.withLock {
-                    put(currentItem.chatId, updatedItem)
-                }
-
-                emit(values.toList())
+                emit(put(updatedItem))
             }
         }
-    }
 
     private suspend fun ChatRoomItem.updateChatFields(
         getLastMessage: suspend (Long) -> String,
@@ -237,64 +224,45 @@ class GetChatsUseCase @Inject constructor(
             } ?: this
         } else this
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorMutedChats(
-        mutex: Mutex,
+    private fun ChatListIndex.monitorMutedChats(
         chatRoomType: ChatRoomType,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Boolean> =
         if (chatRoomType != ChatRoomType.ARCHIVED_CHATS) {
-            pushesRepository.monitorPushNotificationSettings().mapNotNull {
-                var listUpdated = false
-                mutex.withLock {
-                    values.toList().forEach { item ->
-                        val itemMuted = isChatMuted(item.chatId)
-                        if (item.isMuted != itemMuted) {
-                            listUpdated = true
-
-                            get(item.chatId)?.let { currentItem ->
-                                val newItem = currentItem.copyChatRoomItem(
-                                    isMuted = itemMuted,
-                                )
-
-                                put(item.chatId, newItem)
+            pushesRepository.monitorPushNotificationSettings().map {
+                items().map { item -> item.chatId to isChatMuted(item.chatId) }
+                    .fold(false) { listUpdated, (chatId, itemMuted) ->
+                        update(chatId) { currentItem ->
+                            if (currentItem.isMuted != itemMuted) {
+                                currentItem.copyChatRoomItem(isMuted = itemMuted)
+                            } else {
+                                currentItem
                             }
-                        }
+                        } || listUpdated
                     }
-                }
-                values.toList().takeIf { listUpdated }
             }
         } else emptyFlow()
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorChatCalls(
-        mutex: Mutex,
+    private fun ChatListIndex.monitorChatCalls(
         chatRoomType: ChatRoomType,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Boolean> =
         if (chatRoomType != ChatRoomType.ARCHIVED_CHATS) {
             monitorChatCallUpdatesUseCase()
-                .filter { containsKey(it.chatId) }
-                .mapNotNull { chatCall ->
-                    chatCall.let(chatRoomItemStatusMapper::invoke).let { chatCallItem ->
-                        mutex.withLock {
-                            get(chatCall.chatId)?.let { currentItem ->
-                                val updatedItem = currentItem.copyChatRoomItem(
-                                    call = chatCall,
-                                    currentCallStatus = chatCallItem
-                                )
-
-                                if (currentItem != updatedItem) {
-                                    put(chatCall.chatId, updatedItem)
-                                }
-                            }
-                        }
-                        values.toList()
+                .filter { it.chatId in this }
+                .map { chatCall ->
+                    val chatCallItem = chatRoomItemStatusMapper(chatCall)
+                    update(chatCall.chatId) { currentItem ->
+                        currentItem.copyChatRoomItem(
+                            call = chatCall,
+                            currentCallStatus = chatCallItem
+                        )
                     }
                 }
         } else emptyFlow()
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorSchedMeetingUpdates(
-        mutex: Mutex,
+    private fun ChatListIndex.monitorSchedMeetingUpdates(
         chatRoomType: ChatRoomType,
         meetingTimeMapper: (Long, Long) -> String,
-    ): Flow<List<ChatRoomItem>> = if (chatRoomType == ChatRoomType.MEETINGS) {
+    ): Flow<Boolean> = if (chatRoomType == ChatRoomType.MEETINGS) {
         merge(
             monitorScheduledMeetingUpdatesUseCase(),
             monitorScheduledMeetingOccurrencesUpdatesUseCase()
@@ -305,39 +273,32 @@ class GetChatsUseCase @Inject constructor(
                 else -> null
             }
         }
-            .filter(::containsKey)
+            .filter { it in this }
             .mapNotNull { chatId ->
                 getMeetingScheduleData(chatId, meetingTimeMapper)?.let { schedData ->
-                    mutex.withLock {
-                        get(chatId)?.let { currentItem ->
-                            val newItem = currentItem.copyChatRoomItem(
-                                schedId = schedData.schedId,
-                                title = schedData.title ?: currentItem.title,
-                                isPending = schedData.isPending,
-                                isRecurringDaily = schedData.isRecurringDaily,
-                                isRecurringWeekly = schedData.isRecurringWeekly,
-                                isRecurringMonthly = schedData.isRecurringMonthly,
-                                scheduledStartTimestamp = schedData.scheduledStartTimestamp,
-                                scheduledEndTimestamp = schedData.scheduledEndTimestamp,
-                                isCancelled = schedData.isCancelled,
-                            )
-                            if (currentItem != newItem) {
-                                put(currentItem.chatId, newItem)
-                            }
-                        }
+                    update(chatId) { currentItem ->
+                        currentItem.copyChatRoomItem(
+                            schedId = schedData.schedId,
+                            title = schedData.title ?: currentItem.title,
+                            isPending = schedData.isPending,
+                            isRecurringDaily = schedData.isRecurringDaily,
+                            isRecurringWeekly = schedData.isRecurringWeekly,
+                            isRecurringMonthly = schedData.isRecurringMonthly,
+                            scheduledStartTimestamp = schedData.scheduledStartTimestamp,
+                            scheduledEndTimestamp = schedData.scheduledEndTimestamp,
+                            isCancelled = schedData.isCancelled,
+                        )
                     }
-                    values.toList()
                 }
             }
     } else emptyFlow()
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorChatUpdates(
-        mutex: Mutex,
+    private fun ChatListIndex.monitorChatUpdates(
         chatRoomType: ChatRoomType,
         getLastMessage: suspend (Long) -> String,
         lastTimeMapper: (Long) -> String,
         meetingTimeMapper: (Long, Long) -> String,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Boolean> =
         chatRepository.monitorChatListItemUpdates().mapNotNull { chatListItem ->
             if (
                 (chatRoomType == ChatRoomType.ARCHIVED_CHATS && !chatListItem.isArchived) ||
@@ -346,8 +307,7 @@ class GetChatsUseCase @Inject constructor(
                 chatListItem.changes == ChatListItemChanges.Deleted ||
                 chatListItem.changes == ChatListItemChanges.Closed
             ) {
-                mutex.withLock { remove(chatListItem.chatId) }
-                return@mapNotNull values.toList()
+                return@mapNotNull remove(chatListItem.chatId)
             }
 
             delay(500) // Required to wait for new SDK values
@@ -363,53 +323,35 @@ class GetChatsUseCase @Inject constructor(
                 ?.let(chatRoomItemMapper::invoke)
                 ?.updateChatFields(getLastMessage, lastTimeMapper)
                 ?.updateMeetingFields(chatRoomType, meetingTimeMapper)
-                ?.let { newItem ->
-                    mutex.withLock {
-                        if (newItem != get(chatListItem.chatId)) {
-                            put(chatListItem.chatId, newItem)
-                        }
-                    }
-                    values.toList()
-                }
+                ?.let { newItem -> put(newItem) }
         }
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorChatOnlineStatusUpdates(
-        mutex: Mutex,
+    private fun ChatListIndex.monitorChatOnlineStatusUpdates(
         chatRoomType: ChatRoomType,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Boolean> =
         if (chatRoomType != ChatRoomType.ARCHIVED_CHATS) {
-            contactsRepository.monitorChatOnlineStatusUpdates().mapNotNull { update ->
-                values.firstOrNull { item ->
-                    item is IndividualChatRoomItem && item.peerHandle == update.userHandle
-                }?.chatId?.let { chatId ->
-                    mutex.withLock {
-                        get(chatId)?.let { currentItem ->
-                            val updatedItem = currentItem.copyChatRoomItem(
-                                userChatStatus = update.status,
-                            )
-
-                            if (currentItem != updatedItem) {
-                                put(updatedItem.chatId, updatedItem)
-                            }
-                        }
+            contactsRepository.monitorChatOnlineStatusUpdates().mapNotNull { statusUpdate ->
+                getIndividualChatId(statusUpdate.userHandle)?.let { chatId ->
+                    update(chatId) { currentItem ->
+                        currentItem.copyChatRoomItem(
+                            userChatStatus = statusUpdate.status,
+                        )
                     }
-                    values.toList()
                 }
             }
         } else emptyFlow()
 
-    private fun List<ChatRoomItem>.sorted(chatRoomType: ChatRoomType): List<ChatRoomItem> =
-        if (chatRoomType == ChatRoomType.MEETINGS) {
-            sortedWith { firstItem, secondItem ->
+    private fun ChatRoomType.comparator(): Comparator<ChatRoomItem> =
+        if (this == ChatRoomType.MEETINGS) {
+            Comparator { firstItem, secondItem ->
                 when {
                     (firstItem.isPendingMeeting() && secondItem.isPendingMeeting()) -> {
                         firstItem as MeetingChatRoomItem
                         secondItem as MeetingChatRoomItem
-                        when {
-                            firstItem.scheduledStartTimestamp!! > secondItem.scheduledStartTimestamp!! -> 1
-                            firstItem.scheduledStartTimestamp < secondItem.scheduledStartTimestamp -> -1
-                            else -> 0
-                        }
+                        compareValues(
+                            firstItem.scheduledStartTimestamp,
+                            secondItem.scheduledStartTimestamp
+                        )
                     }
 
                     !firstItem.isPendingMeeting() && !secondItem.isPendingMeeting() -> {
@@ -427,7 +369,7 @@ class GetChatsUseCase @Inject constructor(
                 }
             }
         } else {
-            sortedByDescending(ChatRoomItem::lastTimestamp)
+            compareByDescending(ChatRoomItem::lastTimestamp)
         }
 
     private fun List<ChatRoomItem>.addHeaders(
@@ -0,0 +1,21 @@
+package mega.privacy.android.domain.usecase.photos
+
+import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.domain.entity.photos.PhotoChanges
+import mega.privacy.android.domain.repository.PhotosRepository
+import javax.inject.Inject
+
+/**
+ * Use case to monitor the timeline photos with the photos added, updated and removed by each change
+ */
+class MonitorTimelinePhotoChangesUseCase @Inject constructor(
+    private val photosRepository: PhotosRepository,
+) {
+
+    /**
+     * Invoke
+     *
+     * @return Flow of the timeline photos with their changes
+     */
+    operator fun invoke(): Flow<PhotoChanges> = photosRepository.monitorPhotoChanges()
+}
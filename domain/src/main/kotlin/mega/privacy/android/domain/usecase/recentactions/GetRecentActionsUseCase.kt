@@ -9,6 +9,7 @@ import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.sync.withPermit
 import mega.privacy.android.domain.entity.RecentActionBucket
+import mega.privacy.android.domain.entity.RecentActionBucketUnTyped
 import mega.privacy.android.domain.entity.RecentActionsSharesType
 import mega.privacy.android.domain.entity.node.TypedFileNode
 import mega.privacy.android.domain.entity.recentactions.NodeInfoForRecentActions
@@ -24,6 +25,9 @@ import javax.inject.Inject
 
 /**
  * Get a list of recent actions
+ *
+ * The names of the contacts and the result of the verification of their credentials are kept
+ * across invocations, call [invalidateContacts] when they change.
  */
 class GetRecentActionsUseCase @Inject constructor(
     private val recentActionsRepository: RecentActionsRepository,
@@ -35,6 +39,10 @@ class GetRecentActionsUseCase @Inject constructor(
     @IoDispatcher private val coroutineDispatcher: CoroutineDispatcher,
 ) {
 
+    private val contactsMutex = Mutex()
+    private var contactsName: Map<String, String?>? = null
+    private val verifiedCredentialsCache = mutableMapOf<String, Boolean>()
+
     /**
      * Get a list of recent actions
      *
@@ -44,7 +52,7 @@ class GetRecentActionsUseCase @Inject constructor(
     suspend operator fun invoke(
         excludeSensitives: Boolean,
     ): List<RecentActionBucket> = coroutineScope {
-        val visibleContactsDeferred = async { contactsRepository.getAllContactsName() }
+        val visibleContactsDeferred = async { getContactsName() }
         val recentActionsDeferred = async {
             recentActionsRepository.getRecentActions(
                 excludeSensitives = excludeSensitives,
@@ -52,17 +60,66 @@ class GetRecentActionsUseCase @Inject constructor(
         }
         val currentUserEmailDeferred = async { getCurrentUserEmail(false) }
 
-        val visibleContacts = visibleContactsDeferred.await()
-        val currentUserEmail = currentUserEmailDeferred.await()
+        resolve(
+            buckets = recentActionsDeferred.await(),
+            visibleContacts = visibleContactsDeferred.await(),
+            currentUserEmail = currentUserEmailDeferred.await(),
+        )
+    }
+
+    /**
+     * Resolve the user, the parent folder and the nodes types of some recent actions again, after
+     * any of them changed
+     *
+     * @param buckets the recent actions to resolve
+     * @return the resolved recent actions, without the ones that have no file nodes
+     */
+    suspend fun resolve(
+        buckets: List<RecentActionBucketUnTyped>,
+    ): List<RecentActionBucket> = coroutineScope {
+        val visibleContactsDeferred = async { getContactsName() }
+        val currentUserEmail = getCurrentUserEmail(false)
+        resolve(
+            buckets = buckets,
+            visibleContacts = visibleContactsDeferred.await(),
+            currentUserEmail = currentUserEmail,
+        )
+    }
 
+    /**
+     * Drop the cached names and credentials verification of the contacts
+     *
+     * @param userEmails emails of the contacts whose credentials verification may have changed,
+     * null to drop all of them
+     */
+    suspend fun invalidateContacts(userEmails: Collection<String>? = null) =
+        contactsMutex.withLock {
+            contactsName = null
+            if (userEmails == null) {
+                verifiedCredentialsCache.clear()
+            } else {
+                userEmails.forEach { verifiedCredentialsCache.remove(it) }
+            }
+        }
+
+    private suspend fun getContactsName(): Map<String, String?> =
+        contactsMutex.withLock { contactsName }
+            ?: contactsRepository.getAllContactsName().also { names ->
+                contactsMutex.withLock { contactsName = names }
+            }
+
+    private suspend fun resolve(
+        buckets: List<RecentActionBucketUnTyped>,
+        visibleContacts: Map<String, String?>,
+        currentUserEmail: String?,
+    ): List<RecentActionBucket> = coroutineScope {
         // For caching
-        val verifiedCredentialsCache = mutableMapOf<String, Boolean>()
         val sharesTypeCache = mutableMapOf<Long, RecentActionsSharesType>()
 
         val semaphore = Semaphore(10)
         val mutex = Mutex()
 
-        recentActionsDeferred.await()
+        buckets
             .filter { it.nodes.isNotEmpty() }
             .map { bucket ->
                 async(coroutineDispatcher) {
@@ -74,9 +131,9 @@ class GetRecentActionsUseCase @Inject constructor(
                         val currentUserIsOwner = currentUserEmail == bucket.userEmail
                         val parentNodeInfo =
                             recentActionsRepository.getNodeInfo(bucket.parentNodeId)
-                        val nodeAccessLevel = nodeRepository.getNodeAccessPermission(
-                            nodeId = typedNodes.first().id
-                        )
+                        val nodeAccessLevel = typedNodes.firstOrNull()?.let {
+                            nodeRepository.getNodeAccessPermission(nodeId = it.id)
+                        }
                         val sharesType = if (parentNodeInfo == null) {
                             RecentActionsSharesType.NONE
                         } else if (currentUserIsOwner) {
@@ -99,11 +156,7 @@ class GetRecentActionsUseCase @Inject constructor(
                         val isNodeKeyVerified =
                             bucket.nodes.firstOrNull()?.isNodeKeyDecrypted == true ||
                                     currentUserIsOwner ||
-                                    mutex.withLock {
-                                        verifiedCredentialsCache.getOrPut(bucket.userEmail) {
-                                            areCredentialsVerified(bucket.userEmail)
-                                        }
-                                    }
+                                    isCredentialsVerified(bucket.userEmail)
                         RecentActionBucket(
                             timestamp = bucket.timestamp,
                             userEmail = bucket.userEmail,
@@ -124,6 +177,13 @@ class GetRecentActionsUseCase @Inject constructor(
             .filter { it.nodes.isNotEmpty() } // Filter out again as filterIsInstance inside map may return empty list
     }
 
+    private suspend fun isCredentialsVerified(userEmail: String): Boolean {
+        contactsMutex.withLock { verifiedCredentialsCache[userEmail] }?.let { return it }
+        return areCredentialsVerified(userEmail).also { verified ->
+            contactsMutex.withLock { verifiedCredentialsCache[userEmail] = verified }
+        }
+    }
+
     private suspend fun areCredentialsVerified(
         userEmail: String,
     ) = runCatching {
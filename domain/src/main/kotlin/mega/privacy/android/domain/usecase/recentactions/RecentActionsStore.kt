@@ -0,0 +1,190 @@
+package mega.privacy.android.domain.usecase.recentactions
+
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.domain.entity.RecentActionBucket
+import mega.privacy.android.domain.entity.RecentActionBucketUnTyped
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.FolderNode
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.user.UserUpdate
+import javax.inject.Inject
+
+/**
+ * Recent actions kept between node and contact updates
+ *
+ * Fetching the recent actions gets up to 500 nodes and resolves the user, the parent folder and the
+ * shares type of every bucket, so it is only done by [refresh]. Node and contact updates are
+ * applied to the buckets they affect, and only those buckets are resolved again. Updates that may
+ * add, move or hide recent actions can't be applied without fetching them, so they return
+ * [UpdateResult.RefreshRequired].
+ */
+class RecentActionsStore @Inject constructor(
+    private val getRecentActionsUseCase: GetRecentActionsUseCase,
+) {
+
+    /**
+     * Result of applying an update to the recent actions
+     */
+    sealed interface UpdateResult {
+
+        /**
+         * The update changed some recent actions
+         *
+         * @property buckets all the recent actions, updated
+         */
+        data class Updated(val buckets: List<RecentActionBucket>) : UpdateResult
+
+        /**
+         * The update didn't change any recent action
+         */
+        data object Unchanged : UpdateResult
+
+        /**
+         * The update can't be applied, the recent actions need to be fetched again
+         */
+        data object RefreshRequired : UpdateResult
+    }
+
+    private val mutex = Mutex()
+    private var excludeSensitives = false
+    private var buckets = emptyList<RecentActionBucket>()
+    private var bucketsByNodeId = emptyMap<NodeId, RecentActionBucket>()
+    private var bucketsByParentId = emptyMap<NodeId, List<RecentActionBucket>>()
+
+    /**
+     * Fetch all the recent actions again
+     *
+     * @param excludeSensitives Exclude sensitive nodes
+     * @return the recent actions
+     */
+    suspend fun refresh(excludeSensitives: Boolean): List<RecentActionBucket> = mutex.withLock {
+        val buckets = getRecentActionsUseCase(excludeSensitives = excludeSensitives)
+        this.excludeSensitives = excludeSensitives
+        setBuckets(buckets)
+        buckets
+    }
+
+    /**
+     * Apply a node update to the recent actions with any of its nodes
+     *
+     * @param update the node update
+     * @return the result of the update
+     */
+    suspend fun applyNodeUpdate(update: NodeUpdate): UpdateResult {
+        return mutex.withLock {
+            if (update.changes.isEmpty()) return UpdateResult.RefreshRequired
+            val updatedNodes = HashMap<NodeId, FileNode>()
+            val removedNodes = HashSet<NodeId>()
+            val affected = HashSet<String>()
+            var affectsAll = false
+            update.changes.forEach { (node, changes) ->
+                val bucket = bucketsByNodeId[node.id]
+                when {
+                    bucket != null -> when {
+                        NodeChanges.Parent in changes -> return UpdateResult.RefreshRequired
+                        NodeChanges.Sensitive in changes && excludeSensitives ->
+                            return UpdateResult.RefreshRequired
+
+                        NodeChanges.Remove in changes -> {
+                            removedNodes.add(node.id)
+                            affected.add(bucket.identifier)
+                        }
+
+                        node is FileNode -> {
+                            updatedNodes[node.id] = node
+                            affected.add(bucket.identifier)
+                        }
+                    }
+
+                    node is FileNode -> if (NodeChanges.New in changes) {
+                        return UpdateResult.RefreshRequired
+                    }
+
+                    node is FolderNode -> {
+                        if (changes.any { it in FOLDER_TREE_CHANGES }) {
+                            return UpdateResult.RefreshRequired
+                        }
+                        bucketsByParentId[node.id]?.forEach { affected.add(it.identifier) }
+                        if (changes.any { it in SHARE_CHANGES }) affectsAll = true
+                    }
+                }
+            }
+            val targets = if (affectsAll) buckets else buckets.filter { it.identifier in affected }
+            patch(targets) { bucket ->
+                bucket.nodes
+                    .filterNot { it.id in removedNodes }
+                    .map { updatedNodes[it.id] ?: it }
+            }
+        }
+    }
+
+    /**
+     * Apply a contact update to the recent actions of the contacts updated
+     *
+     * @param update the contact update
+     * @return the result of the update
+     */
+    suspend fun applyContactUpdate(update: UserUpdate): UpdateResult = mutex.withLock {
+        val userEmails = update.emailMap.values.toSet()
+        getRecentActionsUseCase.invalidateContacts(userEmails)
+        patch(buckets.filter { it.userEmail in userEmails }) { it.nodes }
+    }
+
+    /**
+     * Resolve some buckets again, with their nodes updated
+     */
+    private suspend fun patch(
+        targets: List<RecentActionBucket>,
+        nodes: (RecentActionBucket) -> List<FileNode>,
+    ): UpdateResult {
+        if (targets.isEmpty()) return UpdateResult.Unchanged
+        val resolved = getRecentActionsUseCase.resolve(
+            targets.map { bucket ->
+                RecentActionBucketUnTyped(
+                    timestamp = bucket.timestamp,
+                    userEmail = bucket.userEmail,
+                    parentNodeId = bucket.parentNodeId,
+                    isUpdate = bucket.isUpdate,
+                    isMedia = bucket.isMedia,
+                    nodes = nodes(bucket),
+                )
+            }
+        ).associateBy { it.identifier }
+        val targetIds = targets.mapTo(HashSet()) { it.identifier }
+        setBuckets(
+            buckets.mapNotNull { if (it.identifier in targetIds) resolved[it.identifier] else it }
+        )
+        return UpdateResult.Updated(buckets)
+    }
+
+    private fun setBuckets(buckets: List<RecentActionBucket>) {
+        this.buckets = buckets
+        bucketsByNodeId = HashMap<NodeId, RecentActionBucket>().apply {
+            buckets.forEach { bucket -> bucket.nodes.forEach { put(it.id, bucket) } }
+        }
+        bucketsByParentId = buckets.groupBy { it.parentNodeId }
+    }
+
+    private companion object {
+        /**
+         * Changes of a folder that may move, remove or hide recent actions of its subtree
+         *
+         * A sensitive change is inherited by the whole subtree, and the nodes of the buckets in
+         * deeper folders are not updated, so their inherited sensitivity needs to be fetched again.
+         */
+        val FOLDER_TREE_CHANGES =
+            setOf(NodeChanges.Remove, NodeChanges.Parent, NodeChanges.Sensitive)
+
+        /**
+         * Changes of a folder that may change the shares type of the recent actions of its subtree
+         */
+        val SHARE_CHANGES = setOf(
+            NodeChanges.Inshare,
+            NodeChanges.Outshare,
+            NodeChanges.Pendingshare,
+        )
+    }
+}
@@ -0,0 +1,210 @@
+package mega.privacy.android.domain.usecase.transfers.pending
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.domain.entity.transfer.pending.PendingTransfer
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferRequest
+import mega.privacy.android.domain.repository.TransferRepository
+import kotlin.reflect.KClass
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.TimeSource
+
+/**
+ * Scheduler to start pending transfers through a window of concurrent admissions
+ *
+ * A pending transfer keeps its admission while it's being started, until the SDK has started it
+ * or has finished scanning it, so at most [maxConcurrentAdmissions] transfers are started at the
+ * same time and the rest wait in the queue, in order. The updates of the pending transfers are collected and written in batches of up to
+ * [maxBatchSize] updates in a single transaction, at least every [batchWindow], keeping only the
+ * last update of each kind for each pending transfer.
+ *
+ * @property transferRepository repository to write the batches of updates
+ * @property maxConcurrentAdmissions maximum number of pending transfers being started at a time
+ * @property maxBatchSize number of updates collected that triggers a write
+ * @property batchWindow maximum time an update is kept before being written
+ * @property timeSource source of the time to measure the admission latency
+ */
+class PendingTransferAdmissionScheduler(
+    private val transferRepository: TransferRepository,
+    private val maxConcurrentAdmissions: Int = DEFAULT_MAX_CONCURRENT_ADMISSIONS,
+    private val maxBatchSize: Int = DEFAULT_MAX_BATCH_SIZE,
+    private val batchWindow: Duration = DEFAULT_BATCH_WINDOW,
+    private val timeSource: TimeSource = TimeSource.Monotonic,
+) {
+
+    /**
+     * Stats of the scheduler
+     *
+     * @property queueDepth pending transfers waiting for an admission
+     * @property activeAdmissions pending transfers being started
+     * @property admitted pending transfers admitted so far
+     * @property averageAdmissionLatency average time the admitted transfers waited in the queue
+     * @property maxAdmissionLatency maximum time an admitted transfer waited in the queue
+     * @property pendingUpdates updates not written yet
+     * @property batchesWritten batches of updates written
+     * @property updatesWritten updates written
+     */
+    data class Stats(
+        val queueDepth: Int,
+        val activeAdmissions: Int,
+        val admitted: Long,
+        val averageAdmissionLatency: Duration,
+        val maxAdmissionLatency: Duration,
+        val pendingUpdates: Int,
+        val batchesWritten: Long,
+        val updatesWritten: Long,
+    )
+
+    /**
+     * Admission of a pending transfer being started
+     */
+    inner class Admission internal constructor() {
+        private var released = false
+
+        /**
+         * Release the admission, so the next pending transfer in the queue can be started. Only the
+         * first call releases it.
+         */
+        fun release() {
+            synchronized(lock) {
+                if (released) return
+                released = true
+                activeAdmissions--
+            }
+            admissions.release()
+        }
+    }
+
+    private val admissions = Semaphore(maxConcurrentAdmissions)
+    private val writeMutex = Mutex()
+    private val lock = Any()
+    private val updates =
+        LinkedHashMap<Pair<Long, KClass<out UpdatePendingTransferRequest>>, UpdatePendingTransferRequest>()
+    private var queueDepth = 0
+    private var activeAdmissions = 0
+    private var admitted = 0L
+    private var totalAdmissionLatency = Duration.ZERO
+    private var maxAdmissionLatency = Duration.ZERO
+    private var batchesWritten = 0L
+    private var updatesWritten = 0L
+
+    /**
+     * Start the pending transfers in order, as soon as they get an admission
+     *
+     * Suspends until all of them have been admitted. Each transfer is started in a new coroutine
+     * of [scope] and keeps its admission until [start] releases it, or until [start] returns.
+     *
+     * @param scope the scope to start the transfers
+     * @param pendingTransfers the pending transfers to start
+     * @param start the action to start a pending transfer with its admission
+     */
+    suspend fun admit(
+        scope: CoroutineScope,
+        pendingTransfers: List<PendingTransfer>,
+        start: suspend (PendingTransfer, Admission) -> Unit,
+    ) {
+        val queued = timeSource.markNow()
+        synchronized(lock) { queueDepth += pendingTransfers.size }
+        pendingTransfers.forEachIndexed { index, pendingTransfer ->
+            try {
+                admissions.acquire()
+            } catch (e: Throwable) {
+                synchronized(lock) { queueDepth -= pendingTransfers.size - index }
+                throw e
+            }
+            val latency = queued.elapsedNow()
+            synchronized(lock) {
+                queueDepth--
+                activeAdmissions++
+                admitted++
+                totalAdmissionLatency += latency
+                if (latency > maxAdmissionLatency) maxAdmissionLatency = latency
+            }
+            val admission = Admission()
+            // released on completion if not released before, even if the scope is cancelled before the transfer starts
+            scope.launch { start(pendingTransfer, admission) }.invokeOnCompletion {
+                admission.release()
+            }
+        }
+    }
+
+    /**
+     * Add an update of a pending transfer to the next batch, replacing any previous update of the
+     * same kind for it
+     *
+     * @param request the update
+     */
+    suspend fun update(request: UpdatePendingTransferRequest) {
+        val isFull = synchronized(lock) {
+            val key = request.pendingTransferId to request::class
+            updates.remove(key)
+            updates[key] = request
+            updates.size >= maxBatchSize
+        }
+        if (isFull) flush()
+    }
+
+    /**
+     * Write all the updates collected
+     */
+    suspend fun flush() = writeMutex.withLock {
+        val batch = synchronized(lock) {
+            updates.values.toList().also { updates.clear() }
+        }
+        if (batch.isEmpty()) return@withLock
+        transferRepository.updatePendingTransfers(batch)
+        synchronized(lock) {
+            batchesWritten++
+            updatesWritten += batch.size
+        }
+    }
+
+    /**
+     * Write the updates collected every [batchWindow], until cancelled
+     */
+    suspend fun flushPeriodically(): Nothing {
+        while (true) {
+            delay(batchWindow)
+            flush()
+        }
+    }
+
+    /**
+     * @return the current stats of the scheduler
+     */
+    fun getStats(): Stats = synchronized(lock) {
+        Stats(
+            queueDepth = queueDepth,
+            activeAdmissions = activeAdmissions,
+            admitted = admitted,
+            averageAdmissionLatency =
+                if (admitted == 0L) Duration.ZERO else totalAdmissionLatency / admitted.toDouble(),
+            maxAdmissionLatency = maxAdmissionLatency,
+            pendingUpdates = updates.size,
+            batchesWritten = batchesWritten,
+            updatesWritten = updatesWritten,
+        )
+    }
+
+    companion object {
+        /**
+         * Default maximum number of pending transfers being started at a time
+         */
+        const val DEFAULT_MAX_CONCURRENT_ADMISSIONS = 50
+
+        /**
+         * Default number of updates that triggers a write
+         */
+        const val DEFAULT_MAX_BATCH_SIZE = 200
+
+        /**
+         * Default maximum time an update is kept before being written
+         */
+        val DEFAULT_BATCH_WINDOW = 500.milliseconds
+    }
+}
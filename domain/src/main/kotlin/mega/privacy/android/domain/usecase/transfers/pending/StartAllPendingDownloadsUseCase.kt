@@ -17,15 +17,15 @@ class StartAllPendingDownloadsUseCase @Inject constructor(
     transferRepository: TransferRepository,
     getPendingTransfersByTypeAndStateUseCase: GetPendingTransfersByTypeAndStateUseCase,
     updatePendingTransferStateUseCase: UpdatePendingTransferStateUseCase,
-    updatePendingTransferStartedCountUseCase: UpdatePendingTransferStartedCountUseCase,
     private val getTypedNodeFromPendingTransferUseCase: GetTypedNodeFromPendingTransferUseCase,
     private val downloadNodeUseCase: DownloadNodeUseCase,
+    admissionScheduler: PendingTransferAdmissionScheduler,
 ) : StartAllPendingTransfersUseCase(
     TransferType.DOWNLOAD,
     transferRepository,
     getPendingTransfersByTypeAndStateUseCase,
     updatePendingTransferStateUseCase,
-    updatePendingTransferStartedCountUseCase
+    admissionScheduler,
 ) {
     override suspend fun doTransfer(pendingTransfer: PendingTransfer): Flow<TransferEvent> {
         val node = runCatching {
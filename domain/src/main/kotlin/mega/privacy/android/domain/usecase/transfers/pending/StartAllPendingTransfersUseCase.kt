@@ -1,5 +1,7 @@
 package mega.privacy.android.domain.usecase.transfers.pending
 
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.channelFlow
@@ -9,6 +11,7 @@ import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.lastOrNull
 import kotlinx.coroutines.flow.takeWhile
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 import mega.privacy.android.domain.entity.transfer.TransferEvent
 import mega.privacy.android.domain.entity.transfer.TransferType
 import mega.privacy.android.domain.entity.transfer.isAlreadyTransferredEvent
@@ -17,15 +20,24 @@ import mega.privacy.android.domain.entity.transfer.isPreviewDownload
 import mega.privacy.android.domain.entity.transfer.isTransferUpdated
 import mega.privacy.android.domain.entity.transfer.pending.PendingTransfer
 import mega.privacy.android.domain.entity.transfer.pending.PendingTransferState
+import mega.privacy.android.domain.entity.transfer.pending.UpdateAlreadyTransferredFilesCount
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferState
 import mega.privacy.android.domain.entity.transfer.pending.UpdateScanningFoldersData
 import mega.privacy.android.domain.repository.TransferRepository
 
+/**
+ * Base use case to start all pending transfers of a type
+ *
+ * The pending transfers are started through the [admissionScheduler], which limits the number of
+ * transfers being started at the same time and writes the updates of the pending transfers in
+ * batches. Each use case needs its own scheduler.
+ */
 abstract class StartAllPendingTransfersUseCase(
     private val transferType: TransferType,
     private val transferRepository: TransferRepository,
     private val getPendingTransfersByTypeAndStateUseCase: GetPendingTransfersByTypeAndStateUseCase,
     private val updatePendingTransferStateUseCase: UpdatePendingTransferStateUseCase,
-    private val updatePendingTransferStartedCountUseCase: UpdatePendingTransferStartedCountUseCase,
+    private val admissionScheduler: PendingTransferAdmissionScheduler,
 ) {
 
     abstract suspend fun doTransfer(pendingTransfer: PendingTransfer): Flow<TransferEvent>
@@ -37,64 +49,31 @@ abstract class StartAllPendingTransfersUseCase(
      */
     operator fun invoke(): Flow<Int> =
         channelFlow {
-            getPendingTransfersByTypeAndStateUseCase(
-                transferType,
-                PendingTransferState.NotSentToSdk,
-            )
-                .conflate()
-                .distinctUntilChanged()
-                .collect { pendingTransfers ->
-                    updatePendingTransferStateUseCase(
-                        pendingTransfers,
-                        PendingTransferState.SdkScanning
+            val flushJob = launch { admissionScheduler.flushPeriodically() }
+            try {
+                coroutineScope {
+                    getPendingTransfersByTypeAndStateUseCase(
+                        transferType,
+                        PendingTransferState.NotSentToSdk,
                     )
-                    send(pendingTransfers.size)
-                    pendingTransfers.forEach { pendingTransfer ->
-                        //start all transfers in parallel to get the scanning result without the need to finish previous transfer.
-                        launch {
-                            doTransfer(pendingTransfer).takeWhile { transferEvent ->
-                                if (transferEvent is TransferEvent.TransferStartEvent) {
-                                    //to be sure that the active transfer is added before deleting the pending transfer. Transfer Workers use collectChunked to monitor transfer events
-                                    transferRepository.insertOrUpdateActiveTransfer(
-                                        transferEvent.transfer
-                                    )
-                                }
-                                // Wait for SDK scanning process to be finished. In the meanwhile update the state.
-                                if (transferEvent.isTransferUpdated) {
-                                    updatePendingTransferStartedCountUseCase(
-                                        pendingTransfer,
-                                        1,
-                                        if (transferEvent.isAlreadyTransferredEvent) 1 else 0,
-                                    )
-                                    return@takeWhile false // worker will keep monitoring events, no need to monitor anything else regarding pending transfers for this node
-                                } else {
-                                    if (transferEvent.isFinishScanningEvent) {
-                                        updatePendingTransferStateUseCase(
-                                            listOf(pendingTransfer),
-                                            PendingTransferState.SdkScanned
-                                        )
-                                    }
-                                    (transferEvent as? TransferEvent.FolderTransferUpdateEvent)?.let {
-                                        transferRepository.updatePendingTransfer(
-                                            UpdateScanningFoldersData(
-                                                pendingTransfer.pendingTransferId,
-                                                stage = it.stage,
-                                                fileCount = it.fileCount.toInt(),
-                                                folderCount = it.folderCount.toInt(),
-                                                createdFolderCount = it.createdFolderCount.toInt(),
-                                            )
-                                        )
-                                    }
-                                    return@takeWhile true //scanning finished. Waiting to check if there are any Already transferred. Corresponding view model could wait a bit for it to update the UI.
-                                }
+                        .conflate()
+                        .distinctUntilChanged()
+                        .collect { pendingTransfers ->
+                            updatePendingTransferStateUseCase(
+                                pendingTransfers,
+                                PendingTransferState.SdkScanning
+                            )
+                            send(pendingTransfers.size)
+                            //start transfers in parallel to get the scanning result without the need to finish previous transfer, up to the admission window.
+                            admissionScheduler.admit(this, pendingTransfers) { pendingTransfer, admission ->
+                                startPendingTransfer(pendingTransfer, admission)
                             }
-                                .catch {
-                                    errorOnStartingPendingTransfer(pendingTransfer, it)
-                                }
-                                .lastOrNull()
                         }
-                    }
                 }
+            } finally {
+                flushJob.cancel()
+                withContext(NonCancellable) { admissionScheduler.flush() }
+            }
         }.catch { e ->
             getPendingTransfersByTypeAndStateUseCase(
                 transferType,
@@ -104,6 +83,65 @@ abstract class StartAllPendingTransfersUseCase(
             }
         }
 
+    /**
+     * @return the stats of the admission of the pending transfers
+     */
+    fun getAdmissionStats() = admissionScheduler.getStats()
+
+    private suspend fun startPendingTransfer(
+        pendingTransfer: PendingTransfer,
+        admission: PendingTransferAdmissionScheduler.Admission,
+    ) {
+        doTransfer(pendingTransfer).takeWhile { transferEvent ->
+            // the SDK has started the file or finished scanning the folder, the next pending transfer can be started
+            if (transferEvent.isFinishScanningEvent) admission.release()
+            if (transferEvent is TransferEvent.TransferStartEvent) {
+                //to be sure that the active transfer is added before deleting the pending transfer. Transfer Workers use collectChunked to monitor transfer events
+                transferRepository.insertOrUpdateActiveTransfer(
+                    transferEvent.transfer
+                )
+            }
+            // Wait for SDK scanning process to be finished. In the meanwhile update the state.
+            if (transferEvent.isTransferUpdated) {
+                admissionScheduler.update(
+                    UpdateAlreadyTransferredFilesCount(
+                        pendingTransfer.pendingTransferId,
+                        startedFiles = 1,
+                        alreadyTransferred = if (transferEvent.isAlreadyTransferredEvent) 1 else 0,
+                    )
+                )
+                return@takeWhile false // worker will keep monitoring events, no need to monitor anything else regarding pending transfers for this node
+            } else {
+                if (transferEvent.isFinishScanningEvent) {
+                    admissionScheduler.update(
+                        UpdatePendingTransferState(
+                            pendingTransfer.pendingTransferId,
+                            PendingTransferState.SdkScanned
+                        )
+                    )
+                }
+                (transferEvent as? TransferEvent.FolderTransferUpdateEvent)?.let {
+                    admissionScheduler.update(
+                        UpdateScanningFoldersData(
+                            pendingTransfer.pendingTransferId,
+                            stage = it.stage,
+                            fileCount = it.fileCount.toInt(),
+                            folderCount = it.folderCount.toInt(),
+                            createdFolderCount = it.createdFolderCount.toInt(),
+                        )
+                    )
+                }
+                return@takeWhile true //scanning finished. Waiting to check if there are any Already transferred. Corresponding view model could wait a bit for it to update the UI.
+            }
+        }
+            .catch {
+                // the updates collected for this transfer must not be written after its error state
+                admissionScheduler.flush()
+                errorOnStartingPendingTransfer(pendingTransfer, it)
+            }
+            .lastOrNull()
+    }
+
     protected suspend fun errorOnStartingPendingTransfer(
         pendingTransfer: PendingTransfer,
         exception: Throwable,
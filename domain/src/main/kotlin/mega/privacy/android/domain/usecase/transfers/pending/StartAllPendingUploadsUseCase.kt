@@ -15,14 +15,14 @@ class StartAllPendingUploadsUseCase @Inject constructor(
     transferRepository: TransferRepository,
     getPendingTransfersByTypeAndStateUseCase: GetPendingTransfersByTypeAndStateUseCase,
     updatePendingTransferStateUseCase: UpdatePendingTransferStateUseCase,
-    updatePendingTransferStartedCountUseCase: UpdatePendingTransferStartedCountUseCase,
     private val uploadFileUseCase: UploadFileUseCase,
+    admissionScheduler: PendingTransferAdmissionScheduler,
 ) : StartAllPendingTransfersUseCase(
     TransferType.GENERAL_UPLOAD,
     transferRepository,
     getPendingTransfersByTypeAndStateUseCase,
     updatePendingTransferStateUseCase,
-    updatePendingTransferStartedCountUseCase
+    admissionScheduler,
 ) {
     override suspend fun doTransfer(pendingTransfer: PendingTransfer): Flow<TransferEvent> =
         uploadFileUseCase(
@@ -0,0 +1,26 @@
+package mega.privacy.android.domain.usecase.zipbrowser
+
+import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.domain.entity.zipbrowser.UnzipProgress
+import mega.privacy.android.domain.repository.ZipBrowserRepository
+import java.util.zip.ZipFile
+import javax.inject.Inject
+
+/**
+ * Use case to unzip a file reporting its progress
+ */
+class MonitorUnzipFileUseCase @Inject constructor(
+    private val zipBrowserRepository: ZipBrowserRepository,
+) {
+
+    /**
+     * Unzip file
+     *
+     * @param zipFile ZipFile
+     * @param unzipRootPath unzip destination path
+     * @return a flow of [UnzipProgress] that completes when the file is unzipped, or throws if
+     * the file can't be unzipped
+     */
+    operator fun invoke(zipFile: ZipFile, unzipRootPath: String): Flow<UnzipProgress> =
+        zipBrowserRepository.monitorUnzipFile(zipFile, unzipRootPath)
+}
@@ -12,6 +12,7 @@ import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateFilter
 import mega.privacy.android.domain.entity.node.TypedFolderNode
 import mega.privacy.android.domain.exception.ParentNotAFolderException
 import mega.privacy.android.domain.repository.NodeRepository
@@ -19,6 +20,7 @@ import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 
@@ -36,7 +38,7 @@ class GetTypedNodesFromFolderUseCaseTest {
             nodeRepository = nodeRepository,
             addNodeType = addNodeType
         )
-        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(emptyFlow())
+        whenever(nodeRepository.monitorNodeUpdates(any<NodeUpdateFilter>())).thenReturn(emptyFlow())
     }
 
     @Test
@@ -62,7 +64,7 @@ class GetTypedNodesFromFolderUseCaseTest {
                 listOf(childNode)
             )
             val map = mapOf<Node, List<NodeChanges>>(childNode to emptyList())
-            whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
+            whenever(nodeRepository.monitorNodeUpdates(any<NodeUpdateFilter>())).thenReturn(
                 flowOf(NodeUpdate(map))
             )
             underTest(nodeId).test {
@@ -112,7 +114,7 @@ class GetTypedNodesFromFolderUseCaseTest {
             listOf(childNode)
         )
         val map = mapOf<Node, List<NodeChanges>>(folderNode to emptyList())
-        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
+        whenever(nodeRepository.monitorNodeUpdates(any<NodeUpdateFilter>())).thenReturn(
             flowOf(NodeUpdate(map))
         )
         underTest(folderId).test {
@@ -123,21 +125,22 @@ class GetTypedNodesFromFolderUseCaseTest {
     }
 
     @Test
-    fun `test that no new list is emitted if the update does not match any of the nodes`() =
-        runTest {
-            val folderId = NodeId(1)
-            val folderNode = mock<FolderNode> { on { id }.thenReturn(folderId) }
-            whenever(nodeRepository.getNodeById(folderId)).thenReturn(folderNode)
-            whenever(nodeRepository.getNodeChildren(folderNode.id)).thenReturn(
-                emptyList()
-            )
-            whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
-                flowOf(NodeUpdate(emptyMap()))
-            )
-            underTest(folderId).test {
-                awaitItem()
-                awaitComplete()
-            }
+    fun `test that the node updates are filtered by the folder and its children`() = runTest {
+        val folderId = NodeId(1)
+        val fileNodeId = NodeId(2)
+        val folderNode = mock<FolderNode> { on { id }.thenReturn(folderId) }
+        val childNode = mock<FileNode> { on { id }.thenReturn(fileNodeId) }
+        whenever(nodeRepository.getNodeById(folderId)).thenReturn(folderNode)
+        whenever(nodeRepository.getNodeChildren(folderNode.id)).thenReturn(listOf(childNode))
+
+        underTest(folderId).test {
+            awaitItem()
+            awaitComplete()
         }
 
-}
\ No newline at end of file
+        verify(nodeRepository).monitorNodeUpdates(
+            NodeUpdateFilter(parentIds = setOf(folderId), nodeIds = setOf(fileNodeId, folderId))
+        )
+    }
+
+}
@@ -0,0 +1,102 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import org.junit.jupiter.api.Disabled
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.TestReporter
+import kotlin.system.measureNanoTime
+
+/**
+ * Compares the linear search previously used to find the existing camera uploads records with
+ * [CameraUploadsRecordIndex], over a library of 100k synthetic records
+ *
+ * The linear search is only run on a sample of the media, its cost for the whole library is
+ * extrapolated from it. Disabled by default, as the durations depend on the machine running it,
+ * they are published as test report entries when it is enabled
+ */
+@Disabled("Benchmark, enable it to measure the existing records check")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CameraUploadsRecordIndexBenchmarkTest {
+
+    private val records = (1L..RECORD_COUNT).map {
+        CameraUploadsRecord(
+            mediaId = it,
+            fileName = "IMG_$it.jpg",
+            filePath = "/DCIM/Camera/IMG_$it.jpg",
+            timestamp = 1_700_000_000_000L + it,
+            folderType = CameraUploadFolderType.Primary,
+            type = CameraUploadsRecordType.TYPE_PHOTO,
+            uploadStatus = CameraUploadsRecordUploadStatus.UPLOADED,
+            originalFingerprint = "fingerprint$it",
+            generatedFingerprint = null,
+            tempFilePath = "",
+        )
+    }
+
+    // Every recorded media, plus 1% of new media
+    private val mediaList = (1L..RECORD_COUNT + RECORD_COUNT / 100).map {
+        CameraUploadsMedia(
+            mediaId = it,
+            displayName = "IMG_$it.jpg",
+            filePath = "/DCIM/Camera/IMG_$it.jpg",
+            timestamp = 1_700_000_000_000L + it,
+            fileSize = 1024L,
+        )
+    }
+
+    @Test
+    fun `test that the index finds the same new media as the linear search`(
+        testReporter: TestReporter,
+    ) {
+        // The sample contains every new media, so both searches return the same result
+        val sample = mediaList.takeLast(SAMPLE_SIZE)
+
+        // Warm up both implementations before measuring
+        repeat(WARM_UP_ITERATIONS) {
+            sample.take(100).linearSearchNewMedia()
+            CameraUploadsRecordIndex(records).let { index -> mediaList.indexSearchNewMedia(index) }
+        }
+
+        lateinit var linearResult: List<CameraUploadsMedia>
+        val linearSampleNanos = measureNanoTime { linearResult = sample.linearSearchNewMedia() }
+        val linearNanos = linearSampleNanos * mediaList.size / SAMPLE_SIZE
+
+        lateinit var indexResult: List<CameraUploadsMedia>
+        val indexNanos = measureNanoTime {
+            val index = CameraUploadsRecordIndex(records)
+            indexResult = mediaList.indexSearchNewMedia(index)
+        }
+
+        testReporter.publishEntry(
+            mapOf(
+                "media" to mediaList.size.toString(),
+                "records" to records.size.toString(),
+                "linearSearchMsExtrapolated" to (linearNanos / 1_000_000).toString(),
+                "indexMs" to (indexNanos / 1_000_000).toString(),
+            )
+        )
+        assertThat(indexResult).isEqualTo(linearResult)
+        assertThat(indexResult).hasSize(mediaList.size - records.size)
+    }
+
+    private fun List<CameraUploadsMedia>.linearSearchNewMedia() = filterNot { media ->
+        records.find {
+            it.mediaId == media.mediaId && it.timestamp == media.timestamp
+        } != null
+    }
+
+    private fun List<CameraUploadsMedia>.indexSearchNewMedia(index: CameraUploadsRecordIndex) =
+        filterNot { media -> index.contains(media.mediaId, media.timestamp) }
+
+    companion object {
+        private const val RECORD_COUNT = 100_000L
+        private const val SAMPLE_SIZE = 2_000
+        private const val WARM_UP_ITERATIONS = 3
+    }
+}
@@ -0,0 +1,114 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CameraUploadsRecordIndexTest {
+
+    @Test
+    fun `test that an empty index does not contain any media`() {
+        val underTest = CameraUploadsRecordIndex(emptyList())
+
+        assertThat(underTest.contains(0L, 0L)).isFalse()
+        assertThat(underTest.size).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the index contains the media with the same id and timestamp`() {
+        val underTest = CameraUploadsRecordIndex(
+            listOf(createRecord(mediaId = 1L, timestamp = 100L))
+        )
+
+        assertThat(underTest.contains(1L, 100L)).isTrue()
+    }
+
+    @Test
+    fun `test that the index does not contain a media with the same id but another timestamp`() {
+        val underTest = CameraUploadsRecordIndex(
+            listOf(createRecord(mediaId = 1L, timestamp = 100L))
+        )
+
+        assertThat(underTest.contains(1L, 200L)).isFalse()
+        assertThat(underTest.contains(2L, 100L)).isFalse()
+    }
+
+    @Test
+    fun `test that the same media recorded with several timestamps are all indexed`() {
+        val underTest = CameraUploadsRecordIndex(
+            listOf(
+                createRecord(mediaId = 1L, timestamp = 100L),
+                createRecord(mediaId = 1L, timestamp = 200L),
+            )
+        )
+
+        assertThat(underTest.contains(1L, 100L)).isTrue()
+        assertThat(underTest.contains(1L, 200L)).isTrue()
+        assertThat(underTest.size).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that duplicated records are indexed once`() {
+        val underTest = CameraUploadsRecordIndex(
+            listOf(
+                createRecord(mediaId = 1L, timestamp = 100L),
+                createRecord(mediaId = 1L, timestamp = 100L),
+            )
+        )
+
+        assertThat(underTest.size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that every media of a large library is found`() {
+        val records = (1L..10_000L).map { createRecord(mediaId = it, timestamp = it * 1000) }
+
+        val underTest = CameraUploadsRecordIndex(records)
+
+        assertThat(records.all { underTest.contains(it.mediaId, it.timestamp) }).isTrue()
+        assertThat((10_001L..20_000L).none { underTest.contains(it, it * 1000) }).isTrue()
+    }
+
+    @Test
+    fun `test that the index finds the same new media as searching the records one by one`() {
+        val records = (1L..1_000L).map { createRecord(mediaId = it, timestamp = it * 1000) }
+        val mediaList = (1L..1_010L).map {
+            CameraUploadsMedia(
+                mediaId = it,
+                displayName = "IMG_$it.jpg",
+                filePath = "/DCIM/Camera/IMG_$it.jpg",
+                timestamp = it * 1000,
+                fileSize = 1024L,
+            )
+        }
+
+        val underTest = CameraUploadsRecordIndex(records)
+        val newMedia = mediaList.filterNot { underTest.contains(it.mediaId, it.timestamp) }
+
+        assertThat(newMedia).isEqualTo(
+            mediaList.filterNot { media ->
+                records.any { it.mediaId == media.mediaId && it.timestamp == media.timestamp }
+            }
+        )
+        assertThat(newMedia).hasSize(10)
+    }
+
+    private fun createRecord(mediaId: Long, timestamp: Long) = CameraUploadsRecord(
+        mediaId = mediaId,
+        fileName = "fileName",
+        filePath = "filePath",
+        timestamp = timestamp,
+        folderType = CameraUploadFolderType.Primary,
+        type = CameraUploadsRecordType.TYPE_PHOTO,
+        uploadStatus = CameraUploadsRecordUploadStatus.UPLOADED,
+        originalFingerprint = "originalFingerprint",
+        generatedFingerprint = null,
+        tempFilePath = "tempFilePath",
+    )
+}
@@ -0,0 +1,121 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CameraUploadsRecordUpdatesBatcherTest {
+
+    private val updateCameraUploadsRecordsUseCase = mock<UpdateCameraUploadsRecordsUseCase>()
+
+    private val failedRecords = mutableListOf<CameraUploadsRecord>()
+
+    private fun createRecord(mediaId: Long) = CameraUploadsRecord(
+        mediaId = mediaId,
+        fileName = "fileName$mediaId",
+        filePath = "filePath$mediaId",
+        timestamp = 1000L + mediaId,
+        folderType = CameraUploadFolderType.Primary,
+        type = CameraUploadsRecordType.TYPE_PHOTO,
+        uploadStatus = CameraUploadsRecordUploadStatus.PENDING,
+        originalFingerprint = "originalFingerprint$mediaId",
+        generatedFingerprint = null,
+        tempFilePath = "tempFilePath$mediaId",
+    )
+
+    private fun createUnderTest(maxBatchSize: Int = 200) = CameraUploadsRecordUpdatesBatcher(
+        updateCameraUploadsRecordsUseCase = updateCameraUploadsRecordsUseCase,
+        onFlushFailure = { records, _ -> failedRecords.addAll(records) },
+        maxBatchSize = maxBatchSize,
+    )
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(updateCameraUploadsRecordsUseCase)
+        failedRecords.clear()
+    }
+
+    @Test
+    fun `test that the updates of a record are coalesced in one update`() = runTest {
+        val record = createRecord(1L)
+        val underTest = createUnderTest()
+
+        underTest.setUploadStatus(record, CameraUploadsRecordUploadStatus.STARTED)
+        underTest.setGeneratedFingerprint(record, "generatedFingerprint")
+        underTest.setUploadStatus(record, CameraUploadsRecordUploadStatus.UPLOADED)
+        underTest.flush()
+
+        verify(updateCameraUploadsRecordsUseCase).invoke(
+            listOf(
+                CameraUploadsRecordUpdate(
+                    mediaId = record.mediaId,
+                    timestamp = record.timestamp,
+                    folderType = record.folderType,
+                    uploadStatus = CameraUploadsRecordUploadStatus.UPLOADED,
+                    generatedFingerprint = "generatedFingerprint",
+                )
+            )
+        )
+    }
+
+    @Test
+    fun `test that a batch is written when the max batch size is reached`() = runTest {
+        val underTest = createUnderTest(maxBatchSize = 2)
+
+        underTest.setUploadStatus(createRecord(1L), CameraUploadsRecordUploadStatus.STARTED)
+        verifyNoInteractions(updateCameraUploadsRecordsUseCase)
+        underTest.setUploadStatus(createRecord(2L), CameraUploadsRecordUploadStatus.STARTED)
+
+        val captor = argumentCaptor<List<CameraUploadsRecordUpdate>>()
+        verify(updateCameraUploadsRecordsUseCase).invoke(captor.capture())
+        assertThat(captor.firstValue.map { it.mediaId }).containsExactly(1L, 2L).inOrder()
+    }
+
+    @Test
+    fun `test that nothing is written when there are no pending updates`() = runTest {
+        createUnderTest().flush()
+
+        verifyNoInteractions(updateCameraUploadsRecordsUseCase)
+    }
+
+    @Test
+    fun `test that the pending updates are cleared once written`() = runTest {
+        val underTest = createUnderTest()
+
+        underTest.setUploadStatus(createRecord(1L), CameraUploadsRecordUploadStatus.STARTED)
+        underTest.flush()
+        underTest.flush()
+
+        verify(updateCameraUploadsRecordsUseCase, times(1)).invoke(any())
+    }
+
+    @Test
+    fun `test that the records of a batch that could not be written are reported`() = runTest {
+        val records = listOf(createRecord(1L), createRecord(2L))
+        whenever(updateCameraUploadsRecordsUseCase(any())).thenThrow(RuntimeException())
+        val underTest = createUnderTest()
+
+        records.forEach {
+            underTest.setUploadStatus(it, CameraUploadsRecordUploadStatus.FAILED)
+        }
+        underTest.flush()
+
+        assertThat(failedRecords).containsExactlyElementsIn(records).inOrder()
+    }
+}
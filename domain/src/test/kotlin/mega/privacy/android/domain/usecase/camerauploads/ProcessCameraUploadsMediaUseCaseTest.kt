@@ -1,5 +1,6 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.MediaStoreFileType
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
@@ -33,6 +35,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
     private val isMediaUploadsEnabledUseCase = mock<IsMediaUploadsEnabledUseCase>()
     private val retrieveMediaFromMediaStoreUseCase = mock<RetrieveMediaFromMediaStoreUseCase>()
     private val saveCameraUploadsRecordUseCase = mock<SaveCameraUploadsRecordUseCase>()
+    private val clearCameraUploadsMediaScanWatermarksUseCase =
+        mock<ClearCameraUploadsMediaScanWatermarksUseCase>()
 
     @BeforeAll
     fun setUp() {
@@ -43,6 +47,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             isMediaUploadsEnabledUseCase = isMediaUploadsEnabledUseCase,
             retrieveMediaFromMediaStoreUseCase = retrieveMediaFromMediaStoreUseCase,
             saveCameraUploadsRecordUseCase = saveCameraUploadsRecordUseCase,
+            clearCameraUploadsMediaScanWatermarksUseCase = clearCameraUploadsMediaScanWatermarksUseCase,
         )
     }
 
@@ -55,6 +60,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
             isMediaUploadsEnabledUseCase,
             retrieveMediaFromMediaStoreUseCase,
             saveCameraUploadsRecordUseCase,
+            clearCameraUploadsMediaScanWatermarksUseCase,
         )
     }
 
@@ -380,6 +386,25 @@ class ProcessCameraUploadsMediaUseCaseTest {
 
                 underTest.invoke(tempRoot)
                 verify(saveCameraUploadsRecordUseCase).invoke(expected)
+                verify(clearCameraUploadsMediaScanWatermarksUseCase, never()).invoke(any())
+            }
+
+        @Test
+        fun `test that the scan watermarks are cleared if the records cannot be saved`() =
+            runTest {
+                whenever(getMediaStoreFileTypesUseCase())
+                    .thenReturn(listOf(MediaStoreFileType.IMAGES_EXTERNAL))
+                whenever(getPrimaryFolderPathUseCase()).thenReturn("primaryFolderPath")
+                whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
+                    .thenReturn(listOf(mock()))
+                whenever(isMediaUploadsEnabledUseCase()).thenReturn(false)
+                whenever(saveCameraUploadsRecordUseCase(any())).thenThrow(RuntimeException())
+
+                val exception = runCatching { underTest("tempRoot") }.exceptionOrNull()
+
+                assertThat(exception).isInstanceOf(RuntimeException::class.java)
+
+                verify(clearCameraUploadsMediaScanWatermarksUseCase).invoke(any())
             }
     }
 
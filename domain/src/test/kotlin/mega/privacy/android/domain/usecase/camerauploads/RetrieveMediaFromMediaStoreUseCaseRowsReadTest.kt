@@ -0,0 +1,199 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
+import mega.privacy.android.domain.repository.CameraUploadsRepository
+import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+
+/**
+ * Measures the number of media store rows read by [RetrieveMediaFromMediaStoreUseCase] per run,
+ * against a fake media store honouring the scan watermarks
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RetrieveMediaFromMediaStoreUseCaseRowsReadTest {
+
+    private lateinit var underTest: RetrieveMediaFromMediaStoreUseCase
+
+    private val cameraUploadsRepository = mock<CameraUploadsRepository>()
+    private val cameraUploadsRecordMapper = mock<CameraUploadsRecordMapper>()
+    private val getPendingCameraUploadsRecordsUseCase =
+        mock<GetPendingCameraUploadsRecordsUseCase>()
+    private val updateCameraUploadsRecordsUseCase = mock<UpdateCameraUploadsRecordsUseCase>()
+
+    private val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+    private val folderType = CameraUploadFolderType.Primary
+    private val selectionQuery = "selectionQuery"
+
+    private lateinit var mediaStore: FakeMediaStore
+    private val watermarks = mutableMapOf<MediaStoreFileType, CameraUploadsMediaScanWatermark?>()
+
+    @BeforeEach
+    fun setUp() = runBlocking {
+        reset(
+            cameraUploadsRepository,
+            cameraUploadsRecordMapper,
+            getPendingCameraUploadsRecordsUseCase,
+            updateCameraUploadsRecordsUseCase,
+        )
+        mediaStore = FakeMediaStore()
+        watermarks.clear()
+
+        whenever(cameraUploadsRepository.getMediaSelectionQuery(any())).thenReturn(selectionQuery)
+        whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+        whenever(getPendingCameraUploadsRecordsUseCase()).thenReturn(emptyList())
+        whenever(cameraUploadsRecordMapper(any(), any(), any(), any())).thenReturn(mock())
+        whenever(cameraUploadsRepository.getMediaScanWatermark(any(), any())).thenAnswer {
+            watermarks[it.arguments[0] as MediaStoreFileType]
+        }
+        whenever(cameraUploadsRepository.setMediaScanWatermark(any(), any(), anyOrNull()))
+            .thenAnswer {
+                watermarks[it.arguments[0] as MediaStoreFileType] =
+                    it.arguments[2] as CameraUploadsMediaScanWatermark?
+                Unit
+            }
+        whenever(
+            cameraUploadsRepository.getMediaListSinceWatermark(any(), anyOrNull(), anyOrNull())
+        ).thenAnswer {
+            mediaStore.scan(
+                selectionQuery = it.arguments[1] as String?,
+                watermark = it.arguments[2] as CameraUploadsMediaScanWatermark?,
+            )
+        }
+
+        underTest = RetrieveMediaFromMediaStoreUseCase(
+            cameraUploadsRepository = cameraUploadsRepository,
+            cameraUploadsRecordMapper = cameraUploadsRecordMapper,
+            getPendingCameraUploadsRecordsUseCase = getPendingCameraUploadsRecordsUseCase,
+            updateCameraUploadsRecordsUseCase = updateCameraUploadsRecordsUseCase,
+        )
+    }
+
+    @Test
+    fun `test that only the media added since the previous run are read`() = runTest {
+        mediaStore.addMedia(LIBRARY_SIZE)
+
+        assertThat(rowsReadByRun()).isEqualTo(LIBRARY_SIZE)
+        assertThat(rowsReadByRun()).isEqualTo(0)
+
+        mediaStore.addMedia(25)
+
+        assertThat(rowsReadByRun()).isEqualTo(25)
+    }
+
+    @Test
+    fun `test that the media modified since the previous run are read`() = runTest {
+        mediaStore.addMedia(LIBRARY_SIZE)
+        rowsReadByRun()
+
+        mediaStore.modifyMedia(mediaId = 10L)
+
+        assertThat(rowsReadByRun()).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that every media is read again when the media store version changes`() = runTest {
+        mediaStore.addMedia(LIBRARY_SIZE)
+        rowsReadByRun()
+
+        mediaStore.version = "2"
+
+        assertThat(rowsReadByRun()).isEqualTo(LIBRARY_SIZE)
+        assertThat(rowsReadByRun()).isEqualTo(0)
+    }
+
+    private suspend fun rowsReadByRun(): Int {
+        val rowsReadBefore = mediaStore.rowsRead
+        underTest(
+            parentPath = "parentPath",
+            types = listOf(mediaStoreFileType),
+            folderType = folderType,
+            fileType = CameraUploadsRecordType.TYPE_PHOTO,
+            tempRoot = "tempRoot",
+        )
+        return mediaStore.rowsRead - rowsReadBefore
+    }
+
+    /**
+     * Media store keeping a generation per row, as the Android media store does from API 30
+     */
+    private class FakeMediaStore {
+        var version = "1"
+        var rowsRead = 0
+            private set
+
+        private var generation = 0L
+        private val rows = mutableMapOf<Long, Pair<CameraUploadsMedia, Long>>()
+
+        fun addMedia(count: Int) {
+            generation++
+            val firstId = rows.size + 1L
+            (firstId until firstId + count).forEach { id ->
+                rows[id] = CameraUploadsMedia(
+                    mediaId = id,
+                    displayName = "IMG_$id.jpg",
+                    filePath = "/DCIM/Camera/IMG_$id.jpg",
+                    timestamp = generation,
+                    fileSize = 1024L,
+                ) to generation
+            }
+        }
+
+        fun modifyMedia(mediaId: Long) {
+            generation++
+            rows[mediaId] = rows.getValue(mediaId).first.copy(timestamp = generation) to generation
+        }
+
+        fun scan(
+            selectionQuery: String?,
+            watermark: CameraUploadsMediaScanWatermark?,
+        ): CameraUploadsMediaScanResult {
+            val previousWatermark = watermark?.takeIf {
+                it.volumeName == VOLUME_NAME && it.mediaStoreVersion == version
+                        && it.selectionQuery == selectionQuery
+            }
+            val mediaList = rows.values
+                .filter { (media, rowGeneration) ->
+                    previousWatermark == null
+                            || rowGeneration > previousWatermark.generation
+                            || media.mediaId > previousWatermark.maxMediaId
+                }
+                .map { it.first }
+            rowsRead += mediaList.size
+            return CameraUploadsMediaScanResult(
+                mediaList = mediaList,
+                watermark = CameraUploadsMediaScanWatermark(
+                    volumeName = VOLUME_NAME,
+                    mediaStoreVersion = version,
+                    selectionQuery = selectionQuery,
+                    generation = generation,
+                    maxMediaId = maxOf(
+                        previousWatermark?.maxMediaId ?: 0L,
+                        mediaList.maxOfOrNull { it.mediaId } ?: 0L,
+                    ),
+                ),
+                isFullScan = previousWatermark == null,
+                rowsRead = mediaList.size,
+            )
+        }
+    }
+
+    companion object {
+        private const val LIBRARY_SIZE = 10_000
+        private const val VOLUME_NAME = "external_primary"
+    }
+}
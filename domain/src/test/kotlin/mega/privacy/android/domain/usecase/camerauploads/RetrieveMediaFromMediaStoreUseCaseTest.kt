@@ -8,14 +8,20 @@ import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanResult
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMediaScanWatermark
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.repository.CameraUploadsRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
@@ -34,8 +40,8 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
     private val cameraUploadsRecordMapper = mock<CameraUploadsRecordMapper>()
     private val getPendingCameraUploadsRecordsUseCase =
         mock<GetPendingCameraUploadsRecordsUseCase>()
-    private val setCameraUploadsRecordUploadStatusUseCase =
-        mock<SetCameraUploadsRecordUploadStatusUseCase>()
+    private val updateCameraUploadsRecordsUseCase =
+        mock<UpdateCameraUploadsRecordsUseCase>()
 
     @BeforeEach
     fun setUp() {
@@ -44,7 +50,7 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             cameraUploadsRepository = cameraUploadsRepository,
             cameraUploadsRecordMapper = cameraUploadsRecordMapper,
             getPendingCameraUploadsRecordsUseCase = getPendingCameraUploadsRecordsUseCase,
-            setCameraUploadsRecordUploadStatusUseCase = setCameraUploadsRecordUploadStatusUseCase
+            updateCameraUploadsRecordsUseCase = updateCameraUploadsRecordsUseCase
         )
     }
 
@@ -54,7 +60,7 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             cameraUploadsRepository,
             cameraUploadsRecordMapper,
             getPendingCameraUploadsRecordsUseCase,
-            setCameraUploadsRecordUploadStatusUseCase
+            updateCameraUploadsRecordsUseCase
         )
     }
 
@@ -75,17 +81,11 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(
-                    mediaStoreFileType1,
-                    selectionQuery
-                )
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList1))
             whenever(
-                cameraUploadsRepository.getMediaList(
-                    mediaStoreFileType2,
-                    selectionQuery
-                )
-            ).thenReturn(cameraUploadsMediaList2)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType2, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList2))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             val cameraUploadsRecordList2 = listOf<CameraUploadsRecord>(mock())
@@ -140,17 +140,11 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(
-                    mediaStoreFileType1,
-                    selectionQuery
-                )
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList1))
             whenever(
-                cameraUploadsRepository.getMediaList(
-                    mediaStoreFileType2,
-                    selectionQuery
-                )
-            ).thenReturn(cameraUploadsMediaList2)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType2, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList2))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             cameraUploadsMediaList1.forEachIndexed { index, media ->
@@ -211,8 +205,8 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(mediaStoreFileType1, selectionQuery)
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList1))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             cameraUploadsMediaList1.forEachIndexed { index, media ->
@@ -248,8 +242,8 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(mediaStoreFileType1, selectionQuery)
-            ).thenReturn(emptyList())
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(emptyList()))
 
             val cameraUploadsRecord1 = mock<CameraUploadsRecord> {
                 on { mediaId }.thenReturn(1111L)
@@ -264,7 +258,7 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
         }
 
     @Test
-    fun `test that setCameraUploadsRecordUploadStatusUseCase is invoked as expected when there is no existed records`() =
+    fun `test that the missing records are updated as expected when there is no existed records`() =
         runTest {
             val parentPath = ""
             val mediaStoreFileType1 = mock<MediaStoreFileType>()
@@ -289,8 +283,8 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(mediaStoreFileType1, selectionQuery)
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList1))
 
             val cameraUploadsRecord1 = mock<CameraUploadsRecord> {
                 on { mediaId }.thenReturn(1111L)
@@ -304,16 +298,20 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
 
             underTest(parentPath, types, folderType, fileType, tempRoot)
 
-            verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
-                mediaId = noExistRecord.mediaId,
-                timestamp = noExistRecord.timestamp,
-                folderType = noExistRecord.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
+            verify(updateCameraUploadsRecordsUseCase).invoke(
+                listOf(
+                    CameraUploadsRecordUpdate(
+                        mediaId = noExistRecord.mediaId,
+                        timestamp = noExistRecord.timestamp,
+                        folderType = noExistRecord.folderType,
+                        uploadStatus = CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
+                    )
+                )
             )
         }
 
     @Test
-    fun `test that setCameraUploadsRecordUploadStatusUseCase is not invoked when pending records not includes correct folderType items`() =
+    fun `test that the missing records are not updated when pending records not includes correct folderType items`() =
         runTest {
             val parentPath = ""
             val mediaStoreFileType1 = mock<MediaStoreFileType>()
@@ -338,8 +336,8 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(mediaStoreFileType1, selectionQuery)
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList1))
 
             val cameraUploadsRecord1 = mock<CameraUploadsRecord> {
                 on { mediaId }.thenReturn(1111L)
@@ -353,11 +351,11 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
 
             underTest(parentPath, types, folderType, fileType, tempRoot)
 
-            verifyNoInteractions(setCameraUploadsRecordUploadStatusUseCase)
+            verifyNoInteractions(updateCameraUploadsRecordsUseCase)
         }
 
     @Test
-    fun `test that setCameraUploadsRecordUploadStatusUseCase is not invoked when pending records not includes correct fileType items`() =
+    fun `test that the missing records are not updated when pending records not includes correct fileType items`() =
         runTest {
             val parentPath = ""
             val mediaStoreFileType1 = mock<MediaStoreFileType>()
@@ -382,8 +380,8 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(mediaStoreFileType1, selectionQuery)
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadsRepository.getMediaListSinceWatermark(mediaStoreFileType1, selectionQuery, null)
+            ).thenReturn(fullScanResultOf(cameraUploadsMediaList1))
 
             val cameraUploadsRecord1 = mock<CameraUploadsRecord> {
                 on { mediaId }.thenReturn(1111L)
@@ -397,6 +395,249 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
 
             underTest(parentPath, types, folderType, fileType, tempRoot)
 
-            verifyNoInteractions(setCameraUploadsRecordUploadStatusUseCase)
+            verifyNoInteractions(updateCameraUploadsRecordsUseCase)
+        }
+
+    @Test
+    fun `test that the watermark returned by the scan is stored`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val watermark = createWatermark()
+
+            whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(
+                cameraUploadsRepository.getMediaListSinceWatermark(
+                    mediaStoreFileType,
+                    selectionQuery,
+                    null
+                )
+            ).thenReturn(fullScanResultOf(emptyList(), watermark))
+            whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+
+            underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+
+            verify(cameraUploadsRepository).setMediaScanWatermark(
+                mediaStoreFileType,
+                folderType,
+                watermark
+            )
         }
+
+    @Test
+    fun `test that the media failing to be mapped are stored in the watermark to be retried`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val watermark = createWatermark()
+            val media1 = mock<CameraUploadsMedia> {
+                on { mediaId }.thenReturn(1111L)
+                on { timestamp }.thenReturn(1234L)
+            }
+            val media2 = mock<CameraUploadsMedia> {
+                on { mediaId }.thenReturn(2222L)
+                on { timestamp }.thenReturn(1234L)
+            }
+            val record = mock<CameraUploadsRecord>()
+
+            whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(
+                cameraUploadsRepository.getMediaListSinceWatermark(
+                    mediaStoreFileType,
+                    selectionQuery,
+                    null
+                )
+            ).thenReturn(fullScanResultOf(listOf(media1, media2), watermark))
+            whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+            whenever(cameraUploadsRecordMapper(media1, folderType, fileType, tempRoot))
+                .thenReturn(record)
+            whenever(cameraUploadsRecordMapper(media2, folderType, fileType, tempRoot))
+                .thenReturn(null)
+
+            assertThat(
+                underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+            ).containsExactly(record)
+            verify(cameraUploadsRepository).setMediaScanWatermark(
+                mediaStoreFileType,
+                folderType,
+                watermark.copy(retryMediaIds = listOf(2222L)),
+            )
+        }
+
+    @Test
+    fun `test that the watermark is not stored when too many media fail to be mapped`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val watermark = createWatermark()
+            val mediaList = (1L..501L).map { id ->
+                mock<CameraUploadsMedia> {
+                    on { mediaId }.thenReturn(id)
+                    on { timestamp }.thenReturn(1234L)
+                }
+            }
+
+            whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(
+                cameraUploadsRepository.getMediaListSinceWatermark(
+                    mediaStoreFileType,
+                    selectionQuery,
+                    null
+                )
+            ).thenReturn(fullScanResultOf(mediaList, watermark))
+            whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+
+            assertThat(
+                underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+            ).isEmpty()
+            verify(cameraUploadsRepository, never()).setMediaScanWatermark(any(), any(), anyOrNull())
+        }
+
+    @Test
+    fun `test that the missing records are detected from the media ids when the scan is incremental`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val watermark = createWatermark()
+            val media = mock<CameraUploadsMedia> {
+                on { mediaId }.thenReturn(1111L)
+                on { timestamp }.thenReturn(1234L)
+            }
+            val record = mock<CameraUploadsRecord>()
+            val noExistRecord = mock<CameraUploadsRecord> {
+                on { mediaId }.thenReturn(55555L)
+                on { timestamp }.thenReturn(1234L)
+                on { this.folderType }.thenReturn(folderType)
+                on { this.type }.thenReturn(fileType)
+            }
+
+            whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(cameraUploadsRepository.getMediaScanWatermark(mediaStoreFileType, folderType))
+                .thenReturn(watermark)
+            whenever(
+                cameraUploadsRepository.getMediaListSinceWatermark(
+                    mediaStoreFileType,
+                    selectionQuery,
+                    watermark
+                )
+            ).thenReturn(
+                CameraUploadsMediaScanResult(
+                    mediaList = listOf(media),
+                    watermark = watermark,
+                    isFullScan = false,
+                    rowsRead = 1,
+                )
+            )
+            whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+            whenever(cameraUploadsRecordMapper(media, folderType, fileType, tempRoot))
+                .thenReturn(record)
+            whenever(getPendingCameraUploadsRecordsUseCase()).thenReturn(listOf(noExistRecord))
+            whenever(cameraUploadsRepository.getMediaIds(mediaStoreFileType, selectionQuery))
+                .thenReturn(setOf(1111L, 2222L))
+
+            assertThat(
+                underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+            ).containsExactly(record)
+            verify(updateCameraUploadsRecordsUseCase).invoke(
+                listOf(
+                    CameraUploadsRecordUpdate(
+                        mediaId = 55555L,
+                        timestamp = 1234L,
+                        folderType = folderType,
+                        uploadStatus = CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST,
+                    )
+                )
+            )
+        }
+
+    @Test
+    fun `test that the missing records are not updated when the media ids can't be read`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = CameraUploadsRecordType.TYPE_PHOTO
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val watermark = createWatermark()
+            val media = mock<CameraUploadsMedia> {
+                on { mediaId }.thenReturn(1111L)
+                on { timestamp }.thenReturn(1234L)
+            }
+            val record = mock<CameraUploadsRecord>()
+            val noExistRecord = mock<CameraUploadsRecord> {
+                on { mediaId }.thenReturn(55555L)
+                on { timestamp }.thenReturn(1234L)
+                on { this.folderType }.thenReturn(folderType)
+                on { this.type }.thenReturn(fileType)
+            }
+
+            whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(cameraUploadsRepository.getMediaScanWatermark(mediaStoreFileType, folderType))
+                .thenReturn(watermark)
+            whenever(
+                cameraUploadsRepository.getMediaListSinceWatermark(
+                    mediaStoreFileType,
+                    selectionQuery,
+                    watermark
+                )
+            ).thenReturn(
+                CameraUploadsMediaScanResult(
+                    mediaList = listOf(media),
+                    watermark = watermark,
+                    isFullScan = false,
+                    rowsRead = 1,
+                )
+            )
+            whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+            whenever(cameraUploadsRecordMapper(media, folderType, fileType, tempRoot))
+                .thenReturn(record)
+            whenever(getPendingCameraUploadsRecordsUseCase()).thenReturn(listOf(noExistRecord))
+            whenever(cameraUploadsRepository.getMediaIds(mediaStoreFileType, selectionQuery))
+                .thenReturn(null)
+
+            assertThat(
+                underTest(parentPath, listOf(mediaStoreFileType), folderType, fileType, tempRoot)
+            ).containsExactly(record)
+            verifyNoInteractions(updateCameraUploadsRecordsUseCase)
+        }
+
+    private fun fullScanResultOf(
+        mediaList: List<CameraUploadsMedia>,
+        watermark: CameraUploadsMediaScanWatermark? = null,
+    ) = CameraUploadsMediaScanResult(
+        mediaList = mediaList,
+        watermark = watermark,
+        isFullScan = true,
+        rowsRead = mediaList.size,
+    )
+
+    private fun createWatermark() = CameraUploadsMediaScanWatermark(
+        volumeName = "external_primary",
+        mediaStoreVersion = "version",
+        selectionQuery = "selectionQuery",
+        generation = 10L,
+        maxMediaId = 100L,
+    )
 }
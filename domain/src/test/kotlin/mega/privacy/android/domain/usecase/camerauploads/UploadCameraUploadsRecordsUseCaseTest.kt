@@ -17,6 +17,7 @@ import mega.privacy.android.domain.entity.VideoCompressionState
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUpdate
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsTransferProgress
 import mega.privacy.android.domain.entity.node.NodeId
@@ -48,6 +49,8 @@ import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.atLeast
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
@@ -76,10 +79,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
     private val areLocationTagsEnabledUseCase = mock<AreLocationTagsEnabledUseCase>()
     private val createTempFileAndRemoveCoordinatesUseCase =
         mock<CreateTempFileAndRemoveCoordinatesUseCase>()
-    private val setCameraUploadsRecordUploadStatusUseCase =
-        mock<SetCameraUploadsRecordUploadStatusUseCase>()
-    private val setCameraUploadsRecordGeneratedFingerprintUseCase =
-        mock<SetCameraUploadsRecordGeneratedFingerprintUseCase>()
+    private val updateCameraUploadsRecordsUseCase = mock<UpdateCameraUploadsRecordsUseCase>()
     private val createImageOrVideoThumbnailUseCase = mock<CreateImageOrVideoThumbnailUseCase>()
     private val createImageOrVideoPreviewUseCase = mock<CreateImageOrVideoPreviewUseCase>()
     private val deleteThumbnailUseCase = mock<DeleteThumbnailUseCase>()
@@ -131,8 +131,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
             setOriginalFingerprintUseCase = setOriginalFingerprintUseCase,
             areLocationTagsEnabledUseCase = areLocationTagsEnabledUseCase,
             createTempFileAndRemoveCoordinatesUseCase = createTempFileAndRemoveCoordinatesUseCase,
-            setCameraUploadsRecordUploadStatusUseCase = setCameraUploadsRecordUploadStatusUseCase,
-            setCameraUploadsRecordGeneratedFingerprintUseCase = setCameraUploadsRecordGeneratedFingerprintUseCase,
+            updateCameraUploadsRecordsUseCase = updateCameraUploadsRecordsUseCase,
             createImageOrVideoThumbnailUseCase = createImageOrVideoThumbnailUseCase,
             createImageOrVideoPreviewUseCase = createImageOrVideoPreviewUseCase,
             deleteThumbnailUseCase = deleteThumbnailUseCase,
@@ -159,8 +158,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
             setOriginalFingerprintUseCase,
             areLocationTagsEnabledUseCase,
             createTempFileAndRemoveCoordinatesUseCase,
-            setCameraUploadsRecordUploadStatusUseCase,
-            setCameraUploadsRecordGeneratedFingerprintUseCase,
+            updateCameraUploadsRecordsUseCase,
             createImageOrVideoThumbnailUseCase,
             createImageOrVideoPreviewUseCase,
             deleteThumbnailUseCase,
@@ -189,6 +187,32 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
             CameraUploadFolderType.Secondary -> secondaryUploadNodeId
         }
 
+    /**
+     * Status and fingerprint updates are batched, so every batch written is checked
+     */
+    private suspend fun writtenRecordUpdates(): List<CameraUploadsRecordUpdate> {
+        val captor = argumentCaptor<List<CameraUploadsRecordUpdate>>()
+        verify(updateCameraUploadsRecordsUseCase, atLeast(0)).invoke(captor.capture())
+        return captor.allValues.flatten().filter {
+            it.mediaId == record.mediaId
+                    && it.timestamp == record.timestamp
+                    && it.folderType == record.folderType
+        }
+    }
+
+    private suspend fun verifyUploadStatusSet(status: CameraUploadsRecordUploadStatus) {
+        assertThat(writtenRecordUpdates().map { it.uploadStatus }).contains(status)
+    }
+
+    private suspend fun verifyUploadStatusNotSet(status: CameraUploadsRecordUploadStatus) {
+        assertThat(writtenRecordUpdates().map { it.uploadStatus }).doesNotContain(status)
+    }
+
+    private suspend fun verifyGeneratedFingerprintSet(generatedFingerprint: String) {
+        assertThat(writtenRecordUpdates().map { it.generatedFingerprint })
+            .contains(generatedFingerprint)
+    }
+
     private fun executeUnderTest() =
         underTest(
             cameraUploadsRecords,
@@ -250,12 +274,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
 
             executeUnderTest().collect()
 
-            verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
-            )
+            verifyUploadStatusSet(CameraUploadsRecordUploadStatus.ALREADY_EXISTS)
         }
 
         private fun provideParameters(): Stream<Arguments> = Stream.of(
@@ -355,12 +374,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
 
             executeUnderTest().collect()
 
-            verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.COPIED,
-            )
+            verifyUploadStatusSet(CameraUploadsRecordUploadStatus.COPIED)
         }
 
         @ParameterizedTest(name = "when folder type is {0}")
@@ -488,12 +502,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
 
             executeUnderTest().collect()
 
-            verify(setCameraUploadsRecordGeneratedFingerprintUseCase).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                generatedFingerprint = generatedFingerprint,
-            )
+            verifyGeneratedFingerprintSet(generatedFingerprint)
         }
 
         @ParameterizedTest(name = "when folder type is {0}")
@@ -511,12 +520,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
 
             executeUnderTest().collect()
 
-            verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.STARTED,
-            )
+            verifyUploadStatusSet(CameraUploadsRecordUploadStatus.STARTED)
         }
 
         @ParameterizedTest(name = "when folder type is {0}")
@@ -536,12 +540,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
 
             executeUnderTest().collect()
 
-            verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.UPLOADED,
-            )
+            verifyUploadStatusSet(CameraUploadsRecordUploadStatus.UPLOADED)
         }
 
         @ParameterizedTest(name = "when folder type is {0}")
@@ -792,12 +791,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
             verify(deletePreviewUseCase, never()).invoke(transferFinished.nodeHandle)
             verify(createImageOrVideoPreviewUseCase, never())
                 .invoke(transferFinished.nodeHandle, UriPath(record.filePath))
-            verify(setCameraUploadsRecordUploadStatusUseCase, never()).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.UPLOADED,
-            )
+            verifyUploadStatusNotSet(CameraUploadsRecordUploadStatus.UPLOADED)
         }
 
         private fun provideParameters() = Stream.of(
@@ -897,12 +891,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
 
             executeUnderTest().collect()
 
-            verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST,
-            )
+            verifyUploadStatusSet(CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST)
         }
 
         @ParameterizedTest(name = "when folder type is {0}")
@@ -923,12 +912,7 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
 
             executeUnderTest().collect()
 
-            verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
-                mediaId = record.mediaId,
-                timestamp = record.timestamp,
-                folderType = record.folderType,
-                uploadStatus = CameraUploadsRecordUploadStatus.FAILED,
-            )
+            verifyUploadStatusSet(CameraUploadsRecordUploadStatus.FAILED)
         }
 
         @ParameterizedTest(name = "when folder type is {0}")
@@ -0,0 +1,187 @@
+package mega.privacy.android.domain.usecase.chat
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.chat.ChatRoomItem
+import mega.privacy.android.domain.entity.chat.ChatRoomItem.GroupChatRoomItem
+import mega.privacy.android.domain.entity.chat.ChatRoomItem.IndividualChatRoomItem
+import mega.privacy.android.domain.entity.chat.ChatRoomItem.NoteToSelfChatRoomItem
+import org.junit.jupiter.api.Disabled
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.TestReporter
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChatListIndexTest {
+
+    private val byLastTimestamp = compareByDescending(ChatRoomItem::lastTimestamp)
+
+    @Test
+    fun `test that items are sorted with the comparator`() {
+        val underTest = ChatListIndex(byLastTimestamp)
+
+        listOf(2L, 5L, 1L, 4L).forEach { underTest.put(groupChat(it, lastTimestamp = it)) }
+
+        assertThat(underTest.sortedItems().map { it.chatId }).containsExactly(5L, 4L, 2L, 1L)
+            .inOrder()
+    }
+
+    @Test
+    fun `test that note to self chat is always first`() {
+        val underTest = ChatListIndex(byLastTimestamp)
+
+        underTest.put(groupChat(1L, lastTimestamp = 10L))
+        underTest.put(NoteToSelfChatRoomItem(chatId = 2L, title = "", lastTimestamp = 1L))
+        underTest.put(groupChat(3L, lastTimestamp = 20L))
+
+        assertThat(underTest.sortedItems().map { it.chatId }).containsExactly(2L, 3L, 1L)
+            .inOrder()
+    }
+
+    @Test
+    fun `test that equal items keep the order in which they were added`() {
+        val underTest = ChatListIndex(byLastTimestamp)
+
+        listOf(3L, 1L, 2L).forEach { underTest.put(groupChat(it, lastTimestamp = 0L)) }
+        underTest.put(groupChat(3L, lastTimestamp = 0L, title = "updated"))
+
+        assertThat(underTest.sortedItems().map { it.chatId }).containsExactly(3L, 1L, 2L)
+            .inOrder()
+    }
+
+    @Test
+    fun `test that an updated item is moved to its new position`() {
+        val underTest = ChatListIndex(byLastTimestamp)
+        listOf(1L, 2L, 3L).forEach { underTest.put(groupChat(it, lastTimestamp = it)) }
+
+        val changed = underTest.update(1L) { it.copyChatRoomItem(lastTimestamp = 10L) }
+
+        assertThat(changed).isTrue()
+        assertThat(underTest.sortedItems().map { it.chatId }).containsExactly(1L, 3L, 2L)
+            .inOrder()
+        assertThat(underTest.size).isEqualTo(3)
+    }
+
+    @Test
+    fun `test that no change is reported when the item is the same`() {
+        val underTest = ChatListIndex(byLastTimestamp)
+        underTest.put(groupChat(1L))
+
+        assertThat(underTest.put(groupChat(1L))).isFalse()
+        assertThat(underTest.update(1L) { it }).isFalse()
+        assertThat(underTest.update(2L) { groupChat(2L) }).isFalse()
+        assertThat(underTest.remove(2L)).isFalse()
+    }
+
+    @Test
+    fun `test that removed items are not returned`() {
+        val underTest = ChatListIndex(byLastTimestamp)
+        listOf(1L, 2L).forEach { underTest.put(groupChat(it)) }
+
+        assertThat(underTest.remove(1L)).isTrue()
+
+        assertThat(underTest.sortedItems().map { it.chatId }).containsExactly(2L)
+        assertThat(1L in underTest).isFalse()
+        assertThat(underTest[1L]).isNull()
+    }
+
+    @Test
+    fun `test that individual chats are found by peer handle`() {
+        val underTest = ChatListIndex(byLastTimestamp)
+        underTest.put(IndividualChatRoomItem(chatId = 1L, title = "", peerHandle = 100L))
+
+        assertThat(underTest.getIndividualChatId(100L)).isEqualTo(1L)
+
+        underTest.remove(1L)
+
+        assertThat(underTest.getIndividualChatId(100L)).isNull()
+    }
+
+    @Test
+    fun `test that the list after each update is the same as sorting every chat again`() {
+        val chats = (1L..CHAT_COUNT).map {
+            groupChat(it, lastTimestamp = Random(it).nextLong(1_000_000L))
+        }
+        val updates = (1..UPDATE_COUNT).map {
+            val chat = chats[Random(it).nextInt(chats.size)]
+            chat.copyChatRoomItem(lastMessage = "message $it", lastTimestamp = chat.lastTimestamp + it)
+        }
+        val map = LinkedHashMap<Long, ChatRoomItem>()
+        val underTest = ChatListIndex(byLastTimestamp)
+        chats.forEach {
+            map[it.chatId] = it
+            underTest.put(it)
+        }
+
+        updates.forEach { item ->
+            map[item.chatId] = item
+            underTest.put(item)
+
+            assertThat(underTest.sortedItems().map { it.lastTimestamp }).isEqualTo(
+                map.values.sortedByDescending(ChatRoomItem::lastTimestamp).map { it.lastTimestamp }
+            )
+        }
+    }
+
+    @Disabled("Benchmark, enable it to compare the index with sorting the chats again")
+    @Test
+    fun `test the duration of updating the chats with the index and by sorting them again`(
+        testReporter: TestReporter,
+    ) {
+        val chats = (1L..BENCHMARK_CHAT_COUNT).map {
+            groupChat(it, lastTimestamp = Random(it).nextLong(1_000_000L))
+        }
+        val updates = (1..BENCHMARK_UPDATE_COUNT).map {
+            val chat = chats[Random(it).nextInt(chats.size)]
+            chat.copyChatRoomItem(lastMessage = "message $it", lastTimestamp = chat.lastTimestamp + it)
+        }
+
+        val legacyNanos = measureBest {
+            val map = LinkedHashMap<Long, ChatRoomItem>()
+            chats.forEach { map[it.chatId] = it }
+            updates.forEach { item ->
+                map[item.chatId] = item
+                map.values.toList()
+                    .sortedByDescending(ChatRoomItem::lastTimestamp)
+                    .sortedByDescending { it is NoteToSelfChatRoomItem }
+            }
+        }
+        val indexNanos = measureBest {
+            val index = ChatListIndex(byLastTimestamp)
+            chats.forEach { index.put(it) }
+            updates.forEach { item ->
+                index.put(item)
+                index.sortedItems()
+            }
+        }
+
+        testReporter.publishEntry(
+            mapOf(
+                "chats" to BENCHMARK_CHAT_COUNT.toString(),
+                "updates" to BENCHMARK_UPDATE_COUNT.toString(),
+                "sortingMs" to (legacyNanos / 1_000_000).toString(),
+                "indexMs" to (indexNanos / 1_000_000).toString(),
+            )
+        )
+    }
+
+    private fun measureBest(block: () -> Unit): Long {
+        block()
+        return (1..MEASURED_ITERATIONS).minOf {
+            val start = System.nanoTime()
+            block()
+            System.nanoTime() - start
+        }
+    }
+
+    private fun groupChat(chatId: Long, lastTimestamp: Long = 0L, title: String = "") =
+        GroupChatRoomItem(chatId = chatId, title = title, lastTimestamp = lastTimestamp)
+
+    private companion object {
+        const val CHAT_COUNT = 200L
+        const val UPDATE_COUNT = 200
+        const val BENCHMARK_CHAT_COUNT = 1_500L
+        const val BENCHMARK_UPDATE_COUNT = 1_500
+        const val MEASURED_ITERATIONS = 3
+    }
+}
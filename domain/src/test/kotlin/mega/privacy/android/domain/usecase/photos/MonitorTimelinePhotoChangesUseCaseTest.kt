@@ -0,0 +1,41 @@
+package mega.privacy.android.domain.usecase.photos
+
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoChanges
+import mega.privacy.android.domain.repository.PhotosRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonitorTimelinePhotoChangesUseCaseTest {
+
+    private lateinit var underTest: MonitorTimelinePhotoChangesUseCase
+
+    private val photosRepository = mock<PhotosRepository>()
+
+    @BeforeEach
+    fun setUp() {
+        reset(photosRepository)
+        underTest = MonitorTimelinePhotoChangesUseCase(photosRepository = photosRepository)
+    }
+
+    @Test
+    fun `test that the photo changes of the repository are returned`() = runTest {
+        val photo = mock<Photo.Image>()
+        val expected = PhotoChanges(photos = listOf(photo), addedPhotos = listOf(photo))
+        whenever(photosRepository.monitorPhotoChanges()).thenReturn(flowOf(expected))
+
+        underTest().test {
+            assertThat(awaitItem()).isEqualTo(expected)
+            awaitComplete()
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.mockito.kotlin.any
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -468,4 +469,60 @@ class GetRecentActionsUseCaseTest {
 
             assertThat(result[0].parentFolderSharesType).isEqualTo(expected)
         }
-}
\ No newline at end of file
+
+    @Test
+    fun `test that the contacts name is fetched once for all the invocations`() = runTest {
+        whenever(recentActionsRepository.getRecentActions(any())).thenReturn(
+            listOf(dummyRecentActionBucketUnTyped)
+        )
+        whenever(contactsRepository.getAllContactsName()).thenReturn(emptyMap())
+
+        underTest(false)
+        underTest(false)
+        underTest.resolve(listOf(dummyRecentActionBucketUnTyped))
+
+        verify(contactsRepository, times(1)).getAllContactsName()
+    }
+
+    @Test
+    fun `test that the contacts name is fetched again after invalidating the contacts`() =
+        runTest {
+            val userEmail = "aaa@aaa.com"
+            whenever(addNodeType(dummyNode1)).thenReturn(DefaultTypedFileNode(dummyNode1))
+            whenever(recentActionsRepository.getRecentActions(any())).thenReturn(
+                listOf(dummyRecentActionBucketUnTyped)
+            )
+            whenever(contactsRepository.getAllContactsName()).thenReturn(emptyMap())
+            underTest(false)
+            whenever(contactsRepository.getAllContactsName())
+                .thenReturn(mapOf(userEmail to "New Name"))
+
+            underTest.invalidateContacts(listOf(userEmail))
+            val result = underTest(false)
+
+            assertThat(result[0].userName).isEqualTo("New Name")
+        }
+
+    @Test
+    fun `test that the credentials of a contact are verified once until it is invalidated`() =
+        runTest {
+            val userEmail = "aaa@aaa.com"
+            val file = mock<FileNode> {
+                on { id } doReturn NodeId(123L)
+                on { isNodeKeyDecrypted }.thenReturn(false)
+            }
+            val bucket = dummyRecentActionBucketUnTyped.copy(nodes = listOf(file))
+            whenever(addNodeType(file)).thenReturn(DefaultTypedFileNode(file))
+            whenever(contactsRepository.getAllContactsName()).thenReturn(emptyMap())
+            whenever(nodeRepository.getNodeAccessPermission(NodeId(any())))
+                .thenReturn(AccessPermission.READ)
+            whenever(areCredentialsVerifiedUseCase(userEmail)).thenReturn(true)
+
+            underTest.resolve(listOf(bucket))
+            underTest.resolve(listOf(bucket))
+            underTest.invalidateContacts(listOf(userEmail))
+            underTest.resolve(listOf(bucket))
+
+            verify(areCredentialsVerifiedUseCase, times(2)).invoke(userEmail)
+        }
+}
@@ -0,0 +1,194 @@
+package mega.privacy.android.domain.usecase.recentactions
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.RecentActionBucket
+import mega.privacy.android.domain.entity.RecentActionBucketUnTyped
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.FolderNode
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.entity.user.UserId
+import mega.privacy.android.domain.entity.user.UserUpdate
+import mega.privacy.android.domain.usecase.recentactions.RecentActionsStore.UpdateResult
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RecentActionsStoreTest {
+
+    private lateinit var underTest: RecentActionsStore
+
+    private val getRecentActionsUseCase = mock<GetRecentActionsUseCase>()
+
+    private val node1 = fileNode(1L)
+    private val node2 = fileNode(2L)
+    private val node3 = fileNode(3L)
+    private val bucket1 = bucket(parentId = 10L, userEmail = "a@mega.nz", node1, node2)
+    private val bucket2 = bucket(parentId = 20L, userEmail = "b@mega.nz", node3)
+
+    @BeforeEach
+    fun setUp() = runTest {
+        reset(getRecentActionsUseCase)
+        whenever(getRecentActionsUseCase(any())).thenReturn(listOf(bucket1, bucket2))
+        whenever(getRecentActionsUseCase.resolve(any())).thenAnswer { invocation ->
+            invocation.getArgument<List<RecentActionBucketUnTyped>>(0)
+                .map { bucket ->
+                    RecentActionBucket(
+                        timestamp = bucket.timestamp,
+                        userEmail = bucket.userEmail,
+                        parentNodeId = bucket.parentNodeId,
+                        isUpdate = bucket.isUpdate,
+                        isMedia = bucket.isMedia,
+                        nodes = bucket.nodes.filterIsInstance<TypedFileNode>(),
+                        userName = RESOLVED,
+                    )
+                }
+                .filter { it.nodes.isNotEmpty() }
+        }
+        underTest = RecentActionsStore(getRecentActionsUseCase)
+        underTest.refresh(excludeSensitives = false)
+    }
+
+    @Test
+    fun `test that refresh returns the recent actions fetched`() = runTest {
+        assertThat(underTest.refresh(excludeSensitives = false))
+            .containsExactly(bucket1, bucket2).inOrder()
+    }
+
+    @Test
+    fun `test that only the bucket of an updated node is resolved again`() = runTest {
+        val renamed = fileNode(1L)
+
+        val actual = underTest.applyNodeUpdate(update(renamed, NodeChanges.Name))
+
+        val captor = argumentCaptor<List<RecentActionBucketUnTyped>>()
+        verify(getRecentActionsUseCase).resolve(captor.capture())
+        assertThat(captor.firstValue.single().nodes).containsExactly(renamed, node2).inOrder()
+        val buckets = (actual as UpdateResult.Updated).buckets
+        assertThat(buckets.map { it.userName }).containsExactly(RESOLVED, "").inOrder()
+        assertThat(buckets[0].nodes).containsExactly(renamed, node2).inOrder()
+        assertThat(buckets[1]).isSameInstanceAs(bucket2)
+    }
+
+    @Test
+    fun `test that an update of a node without recent actions does not change them`() =
+        runTest {
+            val actual = underTest.applyNodeUpdate(update(fileNode(100L), NodeChanges.Name))
+
+            assertThat(actual).isEqualTo(UpdateResult.Unchanged)
+            verify(getRecentActionsUseCase, never()).resolve(any())
+        }
+
+    @Test
+    fun `test that a new file requires a refresh`() = runTest {
+        val actual = underTest.applyNodeUpdate(update(fileNode(100L), NodeChanges.New))
+
+        assertThat(actual).isEqualTo(UpdateResult.RefreshRequired)
+    }
+
+    @Test
+    fun `test that a moved node requires a refresh`() = runTest {
+        val actual = underTest.applyNodeUpdate(update(fileNode(1L), NodeChanges.Parent))
+
+        assertThat(actual).isEqualTo(UpdateResult.RefreshRequired)
+    }
+
+    @Test
+    fun `test that an update without nodes requires a refresh`() = runTest {
+        assertThat(underTest.applyNodeUpdate(NodeUpdate(emptyMap())))
+            .isEqualTo(UpdateResult.RefreshRequired)
+    }
+
+    @Test
+    fun `test that a bucket is removed when all its nodes are removed`() = runTest {
+        val actual = underTest.applyNodeUpdate(update(fileNode(3L), NodeChanges.Remove))
+
+        assertThat((actual as UpdateResult.Updated).buckets).containsExactly(bucket1)
+    }
+
+    @Test
+    fun `test that the buckets of an updated parent folder are resolved again`() = runTest {
+        val parent = mock<FolderNode> {
+            on { id } doReturn NodeId(20L)
+        }
+
+        val actual = underTest.applyNodeUpdate(update(parent, NodeChanges.Name))
+
+        val buckets = (actual as UpdateResult.Updated).buckets
+        assertThat(buckets[0]).isSameInstanceAs(bucket1)
+        assertThat(buckets[1].userName).isEqualTo(RESOLVED)
+    }
+
+    @Test
+    fun `test that a sensitive change of any folder requires a refresh`() = runTest {
+        val folder = mock<FolderNode> {
+            on { id } doReturn NodeId(100L)
+        }
+
+        val actual = underTest.applyNodeUpdate(update(folder, NodeChanges.Sensitive))
+
+        assertThat(actual).isEqualTo(UpdateResult.RefreshRequired)
+        verify(getRecentActionsUseCase, never()).resolve(any())
+    }
+
+    @Test
+    fun `test that sharing any folder resolves all the buckets again`() = runTest {
+        val folder = mock<FolderNode> {
+            on { id } doReturn NodeId(100L)
+        }
+
+        val actual = underTest.applyNodeUpdate(update(folder, NodeChanges.Outshare))
+
+        assertThat((actual as UpdateResult.Updated).buckets.map { it.userName })
+            .containsExactly(RESOLVED, RESOLVED)
+    }
+
+    @Test
+    fun `test that a contact update invalidates the contact and resolves its buckets again`() =
+        runTest {
+            val update = UserUpdate(
+                changes = emptyMap(),
+                emailMap = mapOf(UserId(1L) to "b@mega.nz"),
+            )
+
+            val actual = underTest.applyContactUpdate(update)
+
+            verify(getRecentActionsUseCase).invalidateContacts(setOf("b@mega.nz"))
+            val buckets = (actual as UpdateResult.Updated).buckets
+            assertThat(buckets[0]).isSameInstanceAs(bucket1)
+            assertThat(buckets[1].userName).isEqualTo(RESOLVED)
+        }
+
+    private fun update(node: Node, change: NodeChanges) = NodeUpdate(mapOf(node to listOf(change)))
+
+    private fun fileNode(id: Long) = mock<TypedFileNode> {
+        on { this.id } doReturn NodeId(id)
+    }
+
+    private fun bucket(parentId: Long, userEmail: String, vararg nodes: FileNode) =
+        RecentActionBucket(
+            timestamp = parentId,
+            userEmail = userEmail,
+            parentNodeId = NodeId(parentId),
+            isUpdate = false,
+            isMedia = false,
+            nodes = nodes.filterIsInstance<TypedFileNode>(),
+        )
+
+    private companion object {
+        const val RESOLVED = "resolved"
+    }
+}
@@ -0,0 +1,219 @@
+package mega.privacy.android.domain.usecase.transfers.pending
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineExceptionHandler
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.plus
+import kotlinx.coroutines.supervisorScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.transfer.TransferStage
+import mega.privacy.android.domain.entity.transfer.pending.PendingTransfer
+import mega.privacy.android.domain.entity.transfer.pending.PendingTransferState
+import mega.privacy.android.domain.entity.transfer.pending.UpdateAlreadyTransferredFilesCount
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferRequest
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferState
+import mega.privacy.android.domain.entity.transfer.pending.UpdateScanningFoldersData
+import mega.privacy.android.domain.repository.TransferRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+import kotlin.time.TestTimeSource
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PendingTransferAdmissionSchedulerTest {
+
+    private lateinit var underTest: PendingTransferAdmissionScheduler
+
+    private lateinit var transferRepository: FakeTransferRepository
+    private lateinit var timeSource: TestTimeSource
+
+    @BeforeEach
+    fun setUp() {
+        transferRepository = FakeTransferRepository()
+        timeSource = TestTimeSource()
+        underTest = PendingTransferAdmissionScheduler(
+            transferRepository = transferRepository,
+            maxConcurrentAdmissions = MAX_CONCURRENT_ADMISSIONS,
+            maxBatchSize = MAX_BATCH_SIZE,
+            batchWindow = BATCH_WINDOW,
+            timeSource = timeSource,
+        )
+    }
+
+    @Test
+    fun `test that no more transfers than the admission window are started at a time`() =
+        runTest {
+            val pendingTransfers = (1..5L).map { pendingTransfer(it) }
+            val started = mutableListOf<PendingTransfer>()
+            val finishStarting = CompletableDeferred<Unit>()
+
+            val admission = launch {
+                underTest.admit(this, pendingTransfers) { pendingTransfer, _ ->
+                    started.add(pendingTransfer)
+                    finishStarting.await()
+                }
+            }
+            runCurrent()
+
+            assertThat(started).containsExactlyElementsIn(pendingTransfers.take(2)).inOrder()
+            assertThat(underTest.getStats().activeAdmissions).isEqualTo(2)
+            assertThat(underTest.getStats().queueDepth).isEqualTo(3)
+
+            finishStarting.complete(Unit)
+            admission.join()
+
+            assertThat(started).containsExactlyElementsIn(pendingTransfers).inOrder()
+            assertThat(underTest.getStats().activeAdmissions).isEqualTo(0)
+            assertThat(underTest.getStats().queueDepth).isEqualTo(0)
+            assertThat(underTest.getStats().admitted).isEqualTo(5)
+        }
+
+    @Test
+    fun `test that the admission is released when starting a transfer fails`() = runTest {
+        val pendingTransfers = (1..3L).map { pendingTransfer(it) }
+        val started = mutableListOf<PendingTransfer>()
+
+        supervisorScope {
+            underTest.admit(
+                this + CoroutineExceptionHandler { _, _ -> },
+                pendingTransfers,
+            ) { pendingTransfer, _ ->
+                started.add(pendingTransfer)
+                throw RuntimeException()
+            }
+        }
+
+        assertThat(started).containsExactlyElementsIn(pendingTransfers).inOrder()
+        assertThat(underTest.getStats().activeAdmissions).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the next transfers are started when the admission is released before finishing`() =
+        runTest {
+            val pendingTransfers = (1..5L).map { pendingTransfer(it) }
+            val started = mutableListOf<PendingTransfer>()
+            val finishStarting = CompletableDeferred<Unit>()
+
+            val admission = launch {
+                underTest.admit(this, pendingTransfers) { pendingTransfer, admission ->
+                    started.add(pendingTransfer)
+                    admission.release()
+                    admission.release()
+                    finishStarting.await()
+                }
+            }
+            runCurrent()
+
+            assertThat(started).containsExactlyElementsIn(pendingTransfers).inOrder()
+            assertThat(underTest.getStats().activeAdmissions).isEqualTo(0)
+            assertThat(underTest.getStats().queueDepth).isEqualTo(0)
+
+            finishStarting.complete(Unit)
+            admission.join()
+
+            assertThat(underTest.getStats().activeAdmissions).isEqualTo(0)
+        }
+
+    @Test
+    fun `test that the admission latency is the time waiting in the queue`() = runTest {
+        val pendingTransfers = (1..3L).map { pendingTransfer(it) }
+        val finishStarting = CompletableDeferred<Unit>()
+
+        val admission = launch {
+            underTest.admit(this, pendingTransfers) { _, _ -> finishStarting.await() }
+        }
+        runCurrent()
+        timeSource += 3.seconds
+        finishStarting.complete(Unit)
+        admission.join()
+
+        val stats = underTest.getStats()
+        assertThat(stats.maxAdmissionLatency).isEqualTo(3.seconds)
+        assertThat(stats.averageAdmissionLatency).isEqualTo(1.seconds)
+    }
+
+    @Test
+    fun `test that the updates are written when the batch is full`() = runTest {
+        val updates = (1..MAX_BATCH_SIZE.toLong()).map {
+            UpdatePendingTransferState(it, PendingTransferState.SdkScanned)
+        }
+
+        updates.dropLast(1).forEach { underTest.update(it) }
+        assertThat(transferRepository.batches).isEmpty()
+
+        underTest.update(updates.last())
+        assertThat(transferRepository.batches).containsExactly(updates)
+    }
+
+    @Test
+    fun `test that only the last update of each kind is written for a pending transfer`() =
+        runTest {
+            val scanned = UpdatePendingTransferState(1L, PendingTransferState.SdkScanned)
+            val scanning = (1..3).map {
+                UpdateScanningFoldersData(1L, TransferStage.STAGE_SCANNING, fileCount = it)
+            }
+            val started = UpdateAlreadyTransferredFilesCount(1L, 1, 0)
+
+            underTest.update(scanning[0])
+            underTest.update(scanned)
+            underTest.update(scanning[1])
+            underTest.update(scanning[2])
+            underTest.update(started)
+            underTest.flush()
+
+            assertThat(transferRepository.batches.single())
+                .containsExactly(scanned, scanning[2], started).inOrder()
+            assertThat(underTest.getStats().updatesWritten).isEqualTo(3)
+        }
+
+    @Test
+    fun `test that the updates are written after the batch window`() = runTest {
+        val update = UpdatePendingTransferState(1L, PendingTransferState.SdkScanned)
+        val flushJob = launch { underTest.flushPeriodically() }
+
+        underTest.update(update)
+        assertThat(underTest.getStats().pendingUpdates).isEqualTo(1)
+        advanceTimeBy(BATCH_WINDOW + 1.milliseconds)
+
+        assertThat(transferRepository.batches).containsExactly(listOf(update))
+        assertThat(underTest.getStats().pendingUpdates).isEqualTo(0)
+        assertThat(underTest.getStats().batchesWritten).isEqualTo(1)
+        flushJob.cancel()
+    }
+
+    @Test
+    fun `test that nothing is written when there are no updates`() = runTest {
+        underTest.flush()
+
+        assertThat(transferRepository.batches).isEmpty()
+    }
+
+    private fun pendingTransfer(id: Long) = mock<PendingTransfer> {
+        on { pendingTransferId } doReturn id
+    }
+
+    private class FakeTransferRepository(
+        delegate: TransferRepository = mock(),
+    ) : TransferRepository by delegate {
+        val batches = mutableListOf<List<UpdatePendingTransferRequest>>()
+
+        override suspend fun updatePendingTransfers(
+            updatePendingTransferRequests: List<UpdatePendingTransferRequest>,
+        ) {
+            batches.add(updatePendingTransferRequests)
+        }
+    }
+
+    private companion object {
+        const val MAX_CONCURRENT_ADMISSIONS = 2
+        const val MAX_BATCH_SIZE = 4
+        val BATCH_WINDOW = 500.milliseconds
+    }
+}
@@ -17,6 +17,9 @@ import mega.privacy.android.domain.entity.transfer.isAlreadyTransferredEvent
 import mega.privacy.android.domain.entity.transfer.isTransferUpdated
 import mega.privacy.android.domain.entity.transfer.pending.PendingTransfer
 import mega.privacy.android.domain.entity.transfer.pending.PendingTransferState
+import mega.privacy.android.domain.entity.transfer.pending.UpdateAlreadyTransferredFilesCount
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferRequest
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferState
 import mega.privacy.android.domain.entity.uri.UriPath
 import mega.privacy.android.domain.exception.node.NodeDoesNotExistsException
 import mega.privacy.android.domain.repository.TransferRepository
@@ -29,6 +32,8 @@ import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.MethodSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.atLeastOnce
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.doThrow
@@ -51,8 +56,6 @@ class StartAllPendingDownloadsUseCaseTest {
     private val getTypedNodeFromPendingTransferUseCase =
         mock<GetTypedNodeFromPendingTransferUseCase>()
     private val downloadNodesUseCase = mock<DownloadNodeUseCase>()
-    private val updatePendingTransferStartedCountUseCase =
-        mock<UpdatePendingTransferStartedCountUseCase>()
 
     @BeforeAll
     fun setUp() {
@@ -60,9 +63,9 @@ class StartAllPendingDownloadsUseCaseTest {
             transferRepository,
             getPendingTransfersByTypeAndStateUseCase,
             updatePendingTransferStateUseCase,
-            updatePendingTransferStartedCountUseCase,
             getTypedNodeFromPendingTransferUseCase,
             downloadNodesUseCase,
+            PendingTransferAdmissionScheduler(transferRepository),
         )
     }
 
@@ -74,7 +77,6 @@ class StartAllPendingDownloadsUseCaseTest {
             updatePendingTransferStateUseCase,
             getTypedNodeFromPendingTransferUseCase,
             downloadNodesUseCase,
-            updatePendingTransferStartedCountUseCase,
         )
     }
 
@@ -193,18 +195,21 @@ class StartAllPendingDownloadsUseCaseTest {
             cancelAndIgnoreRemainingEvents()
         }
 
-        if (transferEvent.isTransferUpdated) {
-            verify(updatePendingTransferStartedCountUseCase)(
-                pendingTransfer,
-                1,
-                if (transferEvent.isAlreadyTransferredEvent) 1 else 0,
+        val captor = argumentCaptor<List<UpdatePendingTransferRequest>>()
+        verify(transferRepository, atLeastOnce()).updatePendingTransfers(captor.capture())
+        val expected = if (transferEvent.isTransferUpdated) {
+            UpdateAlreadyTransferredFilesCount(
+                pendingTransfer.pendingTransferId,
+                startedFiles = 1,
+                alreadyTransferred = if (transferEvent.isAlreadyTransferredEvent) 1 else 0,
             )
         } else {
-            verify(updatePendingTransferStateUseCase)(
-                listOf(pendingTransfer),
+            UpdatePendingTransferState(
+                pendingTransfer.pendingTransferId,
                 PendingTransferState.SdkScanned
             )
         }
+        assertThat(captor.allValues.flatten()).contains(expected)
     }
 
     @Test
@@ -2,6 +2,8 @@ package mega.privacy.android.domain.usecase.transfers.pending
 
 import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.awaitCancellation
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.runTest
@@ -19,6 +21,9 @@ import mega.privacy.android.domain.entity.transfer.isTransferUpdated
 import mega.privacy.android.domain.entity.transfer.pending.PendingTransfer
 import mega.privacy.android.domain.entity.transfer.pending.PendingTransferNodeIdentifier
 import mega.privacy.android.domain.entity.transfer.pending.PendingTransferState
+import mega.privacy.android.domain.entity.transfer.pending.UpdateAlreadyTransferredFilesCount
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferRequest
+import mega.privacy.android.domain.entity.transfer.pending.UpdatePendingTransferState
 import mega.privacy.android.domain.entity.uri.UriPath
 import mega.privacy.android.domain.repository.TransferRepository
 import mega.privacy.android.domain.usecase.transfers.uploads.UploadFileUseCase
@@ -31,6 +36,8 @@ import org.junit.jupiter.params.provider.MethodSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.anyValueClass
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.atLeastOnce
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.doThrow
@@ -50,8 +57,6 @@ class StartAllPendingUploadsUseCaseTest {
         mock<GetPendingTransfersByTypeAndStateUseCase>()
     private val updatePendingTransferStateUseCase = mock<UpdatePendingTransferStateUseCase>()
 
-    private val updatePendingTransferStartedCountUseCase =
-        mock<UpdatePendingTransferStartedCountUseCase>()
     private val uploadFileUseCase = mock<UploadFileUseCase>()
 
     @BeforeAll
@@ -60,8 +65,8 @@ class StartAllPendingUploadsUseCaseTest {
             transferRepository,
             getPendingTransfersByTypeAndStateUseCase,
             updatePendingTransferStateUseCase,
-            updatePendingTransferStartedCountUseCase,
             uploadFileUseCase,
+            PendingTransferAdmissionScheduler(transferRepository),
         )
     }
 
@@ -71,7 +76,6 @@ class StartAllPendingUploadsUseCaseTest {
             transferRepository,
             getPendingTransfersByTypeAndStateUseCase,
             updatePendingTransferStateUseCase,
-            updatePendingTransferStartedCountUseCase,
             uploadFileUseCase,
         )
     }
@@ -190,18 +194,21 @@ class StartAllPendingUploadsUseCaseTest {
             cancelAndIgnoreRemainingEvents()
         }
 
-        if (transferEvent.isTransferUpdated) {
-            verify(updatePendingTransferStartedCountUseCase)(
-                pendingTransfer,
-                1,
-                if (transferEvent.isAlreadyTransferredEvent) 1 else 0,
+        val captor = argumentCaptor<List<UpdatePendingTransferRequest>>()
+        verify(transferRepository, atLeastOnce()).updatePendingTransfers(captor.capture())
+        val expected = if (transferEvent.isTransferUpdated) {
+            UpdateAlreadyTransferredFilesCount(
+                pendingTransfer.pendingTransferId,
+                startedFiles = 1,
+                alreadyTransferred = if (transferEvent.isAlreadyTransferredEvent) 1 else 0,
             )
         } else {
-            verify(updatePendingTransferStateUseCase)(
-                listOf(pendingTransfer),
+            UpdatePendingTransferState(
+                pendingTransfer.pendingTransferId,
                 PendingTransferState.SdkScanned
             )
         }
+        assertThat(captor.allValues.flatten()).contains(expected)
     }
 
         @Test
@@ -299,6 +306,87 @@ class StartAllPendingUploadsUseCaseTest {
                 .insertOrUpdateActiveTransfer(transfer)
         }
 
+    @Test
+    fun `test that the admission is released when a file transfer is started`() = runTest {
+        val pendingTransfer = mockPendingTransfer()
+        stubNotSentPendingTransfers(listOf(pendingTransfer))
+        val transfer = mock<Transfer> {
+            on { isFolderTransfer } doReturn false
+        }
+        val transferEvent = mock<TransferEvent.TransferStartEvent> {
+            on { this.transfer } doReturn transfer
+        }
+        val started = CompletableDeferred<Unit>()
+        whenever(
+            uploadFileUseCase(
+                uriPath = anyValueClass(),
+                fileName = anyOrNull(),
+                appData = anyOrNull(),
+                parentFolderId = anyValueClass(),
+                isHighPriority = anyOrNull(),
+            )
+        ) doReturn flow {
+            emit(transferEvent)
+            started.complete(Unit)
+            awaitCancellation()
+        }
+
+        underTest().test {
+            awaitItem()
+            started.await()
+            assertThat(underTest.getAdmissionStats().activeAdmissions).isEqualTo(0)
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+
+    @Test
+    fun `test that the admission is kept until a folder transfer finishes scanning`() = runTest {
+        val pendingTransfer = mockPendingTransfer()
+        stubNotSentPendingTransfers(listOf(pendingTransfer))
+        val transfer = mock<Transfer> {
+            on { isFolderTransfer } doReturn true
+        }
+        val scanningEvent = mock<TransferEvent.FolderTransferUpdateEvent> {
+            on { this.transfer } doReturn transfer
+            on { stage } doReturn TransferStage.STAGE_SCANNING
+        }
+        val scannedEvent = mock<TransferEvent.FolderTransferUpdateEvent> {
+            on { this.transfer } doReturn transfer
+            on { stage } doReturn TransferStage.STAGE_TRANSFERRING_FILES
+        }
+        val scanning = CompletableDeferred<Unit>()
+        val finishScanning = CompletableDeferred<Unit>()
+        val scanned = CompletableDeferred<Unit>()
+        whenever(
+            uploadFileUseCase(
+                uriPath = anyValueClass(),
+                fileName = anyOrNull(),
+                appData = anyOrNull(),
+                parentFolderId = anyValueClass(),
+                isHighPriority = anyOrNull(),
+            )
+        ) doReturn flow {
+            emit(scanningEvent)
+            scanning.complete(Unit)
+            finishScanning.await()
+            try {
+                emit(scannedEvent)
+            } finally {
+                scanned.complete(Unit)
+            }
+        }
+
+        underTest().test {
+            awaitItem()
+            scanning.await()
+            assertThat(underTest.getAdmissionStats().activeAdmissions).isEqualTo(1)
+            finishScanning.complete(Unit)
+            scanned.await()
+            assertThat(underTest.getAdmissionStats().activeAdmissions).isEqualTo(0)
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+
 
     private fun mockPendingTransfer(): PendingTransfer {
         val pendingTransferNodeIdentifier = PendingTransferNodeIdentifier.CloudDriveNode(NodeId(8456L))
@@ -0,0 +1,50 @@
+package mega.privacy.android.domain.usecase.zipbrowser
+
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.zipbrowser.UnzipProgress
+import mega.privacy.android.domain.repository.ZipBrowserRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+import java.util.zip.ZipFile
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonitorUnzipFileUseCaseTest {
+    private lateinit var underTest: MonitorUnzipFileUseCase
+    private val zipBrowserRepository = mock<ZipBrowserRepository>()
+    private val testZipFile = mock<ZipFile>()
+    private val testUnzipRootPath = "UnzipRootPath"
+
+    @BeforeAll
+    fun setUp() {
+        underTest = MonitorUnzipFileUseCase(zipBrowserRepository = zipBrowserRepository)
+    }
+
+    @BeforeEach
+    fun resetMock() {
+        reset(zipBrowserRepository)
+    }
+
+    @Test
+    fun `test that the progress of the repository is returned`() = runTest {
+        val progress = listOf(
+            UnzipProgress(0L, 200L, 0, 2),
+            UnzipProgress(100L, 200L, 1, 2),
+            UnzipProgress(200L, 200L, 2, 2),
+        )
+        whenever(zipBrowserRepository.monitorUnzipFile(testZipFile, testUnzipRootPath))
+            .thenReturn(flowOf(*progress.toTypedArray()))
+
+        underTest(testZipFile, testUnzipRootPath).test {
+            progress.forEach { assertThat(awaitItem()).isEqualTo(it) }
+            awaitComplete()
+        }
+    }
+}
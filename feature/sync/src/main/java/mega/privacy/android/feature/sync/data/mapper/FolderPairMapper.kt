@@ -37,4 +37,24 @@ internal class FolderPairMapper @Inject constructor(
             ),
             syncError = syncErrorMapper(model.error)
         )
+
+    /**
+     * Maps the sync status of a folder pair again with new sync stats, without the SDK sync
+     *
+     * @param folderPair the folder pair to update
+     * @param runningState the last known running state of the sync
+     */
+    operator fun invoke(
+        folderPair: FolderPair,
+        runningState: Int,
+        syncStats: MegaSyncStats?,
+        isStorageOverQuota: Boolean,
+    ): FolderPair =
+        folderPair.copy(
+            syncStatus = mapSyncStatus(
+                syncStats = syncStats,
+                runningState = runningState,
+                isStorageOverQuota = isStorageOverQuota,
+            )
+        )
 }
@@ -6,10 +6,12 @@ import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.conflate
 import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.onStart
@@ -36,7 +38,6 @@ import mega.privacy.android.feature.sync.domain.entity.FolderPair
 import mega.privacy.android.feature.sync.domain.entity.StalledIssue
 import mega.privacy.android.feature.sync.domain.repository.SyncRepository
 import nz.mega.sdk.MegaError
-import nz.mega.sdk.MegaSyncList
 import timber.log.Timber
 import javax.inject.Inject
 
@@ -80,29 +81,100 @@ internal class SyncRepositoryImpl @Inject constructor(
     }
 
     override suspend fun getFolderPairs(): List<FolderPair> = withContext(ioDispatcher) {
+        loadFolderPairs()?.folderPairs?.values?.map { it.folderPair }.orEmpty()
+    }
+
+    /**
+     * Maps all the syncs, reading the storage quota only once
+     *
+     * @return the folder pairs, or null if they couldn't be fetched
+     */
+    private suspend fun loadFolderPairs(): FolderPairsSnapshot? =
         runCatching {
-            mapToDomain(syncGateway.getFolderPairs())
+            val isStorageOverQuota = isStorageOverQuota()
+            val model = syncGateway.getFolderPairs()
+            FolderPairsSnapshot(
+                folderPairs = (0 until model.size()).associate { index ->
+                    val folderPairModel = model.get(index)
+                    val megaFolderName =
+                        megaApiGateway.getMegaNodeByHandle(folderPairModel.megaHandle)?.name ?: ""
+                    val syncStats = syncStatsCacheGateway.getSyncStatsById(folderPairModel.backupId)
+                    folderPairModel.backupId to SyncedFolderPair(
+                        folderPair = folderPairMapper(
+                            model = folderPairModel,
+                            megaFolderName = megaFolderName,
+                            syncStats = syncStats,
+                            isStorageOverQuota = isStorageOverQuota,
+                        ),
+                        runningState = folderPairModel.runState,
+                    )
+                },
+                isStorageOverQuota = isStorageOverQuota,
+            )
         }
             .onFailure { Timber.e("Syncs fetching error: $it") }
-            .getOrElse { emptyList() }
+            .getOrNull()
+
+    private suspend fun isStorageOverQuota(): Boolean {
+        val storageUsedPercentage =
+            (100 * accountRepository.getUsedStorage() / accountRepository.getMaxStorage()).toInt()
+        return storageUsedPercentage >= FULL_STORAGE_PERCENTAGE
     }
 
-    private suspend fun mapToDomain(model: MegaSyncList): List<FolderPair> =
-        (0 until model.size())
-            .map { index ->
-                val folderPairModel = model.get(index)
-                val megaFolderName =
-                    megaApiGateway.getMegaNodeByHandle(folderPairModel.megaHandle)?.name ?: ""
-                val syncStats = syncStatsCacheGateway.getSyncStatsById(folderPairModel.backupId)
-                val storageUsedPercentage =
-                    (100 * accountRepository.getUsedStorage() / accountRepository.getMaxStorage()).toInt()
-                folderPairMapper(
-                    model = folderPairModel,
-                    megaFolderName = megaFolderName,
-                    syncStats = syncStats,
-                    isStorageOverQuota = storageUsedPercentage >= FULL_STORAGE_PERCENTAGE,
-                )
+    /**
+     * Updates the sync status of the folder pairs with new sync stats, from the stats cached by
+     * [SyncStatsCacheGateway]. The syncs are loaded again if any of them is unknown or the
+     * storage quota has changed.
+     *
+     * @return the updated folder pairs, [current] if none has changed, or null if the syncs
+     * couldn't be fetched
+     */
+    private suspend fun patchFolderPairs(
+        current: FolderPairsSnapshot,
+        syncIds: Set<Long>,
+    ): FolderPairsSnapshot? {
+        val isStorageOverQuota = runCatching { isStorageOverQuota() }
+            .getOrElse { current.isStorageOverQuota }
+        if (isStorageOverQuota != current.isStorageOverQuota
+            || syncIds.any { it !in current.folderPairs }
+        ) {
+            return loadFolderPairs()
+        }
+        val folderPairs = LinkedHashMap(current.folderPairs)
+        syncIds.forEach { syncId ->
+            val synced = folderPairs.getValue(syncId)
+            val folderPair = folderPairMapper(
+                folderPair = synced.folderPair,
+                runningState = synced.runningState,
+                syncStats = syncStatsCacheGateway.getSyncStatsById(syncId),
+                isStorageOverQuota = isStorageOverQuota,
+            )
+            if (folderPair != synced.folderPair) {
+                folderPairs[syncId] = synced.copy(folderPair = folderPair)
             }
+        }
+        return if (folderPairs == current.folderPairs) {
+            current
+        } else {
+            current.copy(folderPairs = folderPairs)
+        }
+    }
+
+    /**
+     * Refreshes the folder pairs of [_folderPair]
+     *
+     * @return the new folder pairs, or null if they haven't changed
+     */
+    private suspend fun refreshFolderPairs(refresh: FolderPairRefresh): List<FolderPair>? {
+        val current = folderPairsSnapshot
+        val snapshot = when {
+            current == null || refresh.isFullReload -> loadFolderPairs()
+            else -> patchFolderPairs(current, refresh.updatedStatsSyncIds)
+        }
+        if (snapshot != null && snapshot === current) return null
+        folderPairsSnapshot = snapshot
+        return snapshot?.folderPairs?.values?.map { it.folderPair }.orEmpty()
+    }
 
     override suspend fun removeFolderPair(folderPairId: Long) = withContext(ioDispatcher) {
         syncGateway.removeFolderPair(folderPairId)
@@ -143,20 +215,35 @@ internal class SyncRepositoryImpl @Inject constructor(
 
     private val _syncStalledIssues by lazy {
         _syncChanges
-            .onEach {
+            .conflate()
+            .map {
                 delay(SYNC_REFRESH_DELAY)
+                getSyncStalledIssues()
             }
-            .map { getSyncStalledIssues() }
             .flowOn(ioDispatcher)
             .shareIn(appScope, SharingStarted.Eagerly, replay = 1)
     }
 
     override fun monitorStalledIssues() = _syncStalledIssues
 
+    /**
+     * Folder pairs of the last refresh of [_folderPair], only accessed by that refresh
+     */
+    private var folderPairsSnapshot: FolderPairsSnapshot? = null
+
+    private val pendingFolderPairRefresh = PendingFolderPairRefresh()
+
+    /**
+     * Sync changes are added to the pending refresh as they come, and all the changes received
+     * while a refresh is running are done in a single refresh after it. Stats updates only
+     * update the sync status of their folder pairs, any other change loads all the syncs again.
+     */
     private val _folderPair by lazy {
         _syncChanges
-            .map { getFolderPairs() }
-            .onStart { emit(getFolderPairs()) }
+            .onStart { emit(MegaSyncListenerEvent.OnRefreshSyncState) }
+            .onEach { pendingFolderPairRefresh.add(it) }
+            .conflate()
+            .mapNotNull { pendingFolderPairRefresh.take()?.let { refreshFolderPairs(it) } }
             .flowOn(ioDispatcher)
             .shareIn(appScope, SharingStarted.Eagerly, replay = 1)
     }
@@ -203,6 +290,64 @@ internal class SyncRepositoryImpl @Inject constructor(
         syncGateway.changeSyncLocalRoot(syncBackupId, newLocalSyncRootUri)
     }
 
+    /**
+     * A folder pair mapped from a sync
+     *
+     * @property runningState running state of the sync, to map the status again with new stats
+     */
+    private data class SyncedFolderPair(
+        val folderPair: FolderPair,
+        val runningState: Int,
+    )
+
+    /**
+     * The folder pairs of all the syncs by id, in the order of the SDK
+     *
+     * @property isStorageOverQuota storage quota used to map the folder pairs
+     */
+    private data class FolderPairsSnapshot(
+        val folderPairs: Map<Long, SyncedFolderPair>,
+        val isStorageOverQuota: Boolean,
+    )
+
+    /**
+     * @property isFullReload true if all the syncs need to be loaded again
+     * @property updatedStatsSyncIds ids of the syncs with new stats
+     */
+    private class FolderPairRefresh(
+        val isFullReload: Boolean,
+        val updatedStatsSyncIds: Set<Long>,
+    )
+
+    /**
+     * Sync changes received since the last folder pair refresh
+     */
+    private class PendingFolderPairRefresh {
+        private var isFullReload = false
+        private var updatedStatsSyncIds = HashSet<Long>()
+
+        @Synchronized
+        fun add(event: MegaSyncListenerEvent) {
+            if (event is MegaSyncListenerEvent.OnSyncStatsUpdated) {
+                updatedStatsSyncIds.add(event.syncStats.backupId)
+            } else {
+                isFullReload = true
+            }
+        }
+
+        /**
+         * @return the refresh needed for the changes received, or null if there are none
+         */
+        @Synchronized
+        fun take(): FolderPairRefresh? {
+            if (!isFullReload && updatedStatsSyncIds.isEmpty()) return null
+            return FolderPairRefresh(isFullReload, updatedStatsSyncIds).also {
+                isFullReload = false
+                updatedStatsSyncIds = HashSet()
+            }
+        }
+    }
+
     private companion object {
         /**
          * Delay to ensure two things:
@@ -210,6 +355,8 @@ internal class SyncRepositoryImpl @Inject constructor(
          * we would get empty issues list first before getting the correct one)
          * 2. Prevent the situation when the SDK is too fast detecting
          * issues that are later resolved by the following sync loop.
+         *
+         * The sync changes received during the delay are handled by a single reload after it.
          */
         const val SYNC_REFRESH_DELAY = 5000L
 
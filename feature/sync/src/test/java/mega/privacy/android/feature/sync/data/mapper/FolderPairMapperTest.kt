@@ -67,4 +67,28 @@ internal class FolderPairMapperTest {
 
         Truth.assertThat(actual).isEqualTo(expected)
     }
+
+    @Test
+    fun `test that folder pair sync status is mapped again with new sync stats`() {
+        val runningState = MegaSync.SyncRunningState.RUNSTATE_RUNNING.swigValue()
+        val syncStats: MegaSyncStats = mock()
+        val folderPair = FolderPair(
+            id = 1234L,
+            syncType = SyncType.TYPE_TWOWAY,
+            pairName = "",
+            localFolderPath = "Local Folder",
+            remoteFolder = RemoteFolder(id = NodeId(1L), name = "Remote Folder"),
+            syncStatus = SyncStatus.SYNCED
+        )
+        whenever(syncStatusMapper(syncStats, runningState, false)).thenReturn(SyncStatus.SYNCING)
+
+        val actual = underTest(
+            folderPair = folderPair,
+            runningState = runningState,
+            syncStats = syncStats,
+            isStorageOverQuota = false,
+        )
+
+        Truth.assertThat(actual).isEqualTo(folderPair.copy(syncStatus = SyncStatus.SYNCING))
+    }
 }
@@ -1,6 +1,7 @@
 package mega.privacy.android.feature.sync.data.repository
 
 import androidx.work.NetworkType
+import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
@@ -23,13 +24,16 @@ import mega.privacy.android.feature.sync.data.gateway.SyncStatsCacheGateway
 import mega.privacy.android.feature.sync.data.gateway.SyncWorkManagerGateway
 import mega.privacy.android.feature.sync.data.mapper.FolderPairMapper
 import mega.privacy.android.feature.sync.data.mapper.SyncByWifiToNetworkTypeMapper
+import mega.privacy.android.feature.sync.data.mapper.SyncStatusMapper
 import mega.privacy.android.feature.sync.data.mapper.stalledissue.StalledIssueTypeMapper
 import mega.privacy.android.feature.sync.data.mapper.stalledissue.StalledIssuesMapper
 import mega.privacy.android.feature.sync.data.model.MegaSyncListenerEvent
+import mega.privacy.android.feature.sync.domain.entity.SyncStatus
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaSync
 import nz.mega.sdk.MegaSyncList
+import nz.mega.sdk.MegaSyncStats
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -38,9 +42,12 @@ import org.junit.jupiter.api.assertAll
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.any
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.util.stream.Stream
@@ -211,6 +218,148 @@ class SyncRepositoryImplTest {
         assertThat(result).isEqualTo(syncId)
     }
 
+    @Test
+    fun `test that a stats update only maps again the status of its folder pair`() = runTest {
+        val syncUpdates = MutableSharedFlow<MegaSyncListenerEvent>()
+        stubFolderPairs(syncUpdates, mockSync(1L), mockSync(2L))
+        val syncStats = mock<MegaSyncStats> {
+            on { backupId } doReturn 1L
+            on { isSyncing } doReturn true
+        }
+        val underTest = createRepositoryWithMappers()
+
+        underTest.monitorFolderPairChanges().test {
+            assertThat(awaitItem().map { it.syncStatus })
+                .containsExactly(SyncStatus.SYNCED, SyncStatus.SYNCED).inOrder()
+            whenever(syncStatsCacheGateway.getSyncStatsById(1L)).thenReturn(syncStats)
+            syncUpdates.emit(MegaSyncListenerEvent.OnSyncStatsUpdated(syncStats))
+            assertThat(awaitItem().map { it.syncStatus })
+                .containsExactly(SyncStatus.SYNCING, SyncStatus.SYNCED).inOrder()
+        }
+        verify(syncGateway).getFolderPairs()
+        verify(megaApiGateway, times(2)).getMegaNodeByHandle(any())
+    }
+
+    @Test
+    fun `test that a stats update that does not change the status emits nothing`() = runTest {
+        val syncUpdates = MutableSharedFlow<MegaSyncListenerEvent>()
+        stubFolderPairs(syncUpdates, mockSync(1L))
+        val syncStats = mock<MegaSyncStats> {
+            on { backupId } doReturn 1L
+        }
+        val underTest = createRepositoryWithMappers()
+
+        underTest.monitorFolderPairChanges().test {
+            awaitItem()
+            whenever(syncStatsCacheGateway.getSyncStatsById(1L)).thenReturn(syncStats)
+            syncUpdates.emit(MegaSyncListenerEvent.OnSyncStatsUpdated(syncStats))
+            expectNoEvents()
+        }
+        verify(syncGateway).getFolderPairs()
+    }
+
+    @Test
+    fun `test that a stats update of an unknown sync loads all the folder pairs again`() =
+        runTest {
+            val syncUpdates = MutableSharedFlow<MegaSyncListenerEvent>()
+            stubFolderPairs(syncUpdates, mockSync(1L))
+            val syncStats = mock<MegaSyncStats> {
+                on { backupId } doReturn 2L
+            }
+            val underTest = createRepositoryWithMappers()
+
+            underTest.monitorFolderPairChanges().test {
+                assertThat(awaitItem()).hasSize(1)
+                stubFolderPairs(syncUpdates, mockSync(1L), mockSync(2L))
+                syncUpdates.emit(MegaSyncListenerEvent.OnSyncStatsUpdated(syncStats))
+                assertThat(awaitItem().map { it.id }).containsExactly(1L, 2L).inOrder()
+            }
+        }
+
+    @Test
+    fun `test that a sync state change loads all the folder pairs again`() = runTest {
+        val syncUpdates = MutableSharedFlow<MegaSyncListenerEvent>()
+        stubFolderPairs(syncUpdates, mockSync(1L))
+        val underTest = createRepositoryWithMappers()
+
+        underTest.monitorFolderPairChanges().test {
+            awaitItem()
+            syncUpdates.emit(MegaSyncListenerEvent.OnSyncStateChanged(mock()))
+            awaitItem()
+        }
+        verify(syncGateway, times(2)).getFolderPairs()
+    }
+
+    @Test
+    fun `test that storage quota is read once when loading all the folder pairs`() = runTest {
+        val syncUpdates = MutableSharedFlow<MegaSyncListenerEvent>()
+        stubFolderPairs(syncUpdates, mockSync(1L), mockSync(2L), mockSync(3L))
+
+        assertThat(createRepositoryWithMappers().getFolderPairs()).hasSize(3)
+        verify(accountRepository).getUsedStorage()
+        verify(accountRepository).getMaxStorage()
+    }
+
+    @Test
+    fun `test that sync changes during the stalled issues delay are handled by a single reload`() =
+        runTest {
+            val syncUpdates = MutableSharedFlow<MegaSyncListenerEvent>()
+            stubFolderPairs(syncUpdates)
+            val underTest = createRepositoryWithMappers()
+
+            underTest.monitorStalledIssues()
+            repeat(5) {
+                syncUpdates.emit(MegaSyncListenerEvent.OnSyncStateChanged(mock()))
+            }
+            verify(syncGateway, never()).getSyncStalledIssues()
+            scheduler.advanceTimeBy(5001L)
+            verify(syncGateway).getSyncStalledIssues()
+            scheduler.advanceTimeBy(5001L)
+            verify(syncGateway, times(2)).getSyncStalledIssues()
+            scheduler.advanceTimeBy(5001L)
+            verify(syncGateway, times(2)).getSyncStalledIssues()
+        }
+
+    private suspend fun stubFolderPairs(
+        syncUpdates: MutableSharedFlow<MegaSyncListenerEvent>,
+        vararg syncs: MegaSync,
+    ) {
+        val megaSyncList = mock<MegaSyncList> {
+            on { size() } doReturn syncs.size
+            syncs.forEachIndexed { index, sync -> on { get(index) } doReturn sync }
+        }
+        whenever(syncGateway.syncUpdate).thenReturn(syncUpdates)
+        whenever(syncGateway.getFolderPairs()).thenReturn(megaSyncList)
+        whenever(megaApiGateway.globalUpdates).thenReturn(MutableSharedFlow())
+        whenever(accountRepository.getUsedStorage()).thenReturn(10L)
+        whenever(accountRepository.getMaxStorage()).thenReturn(100L)
+    }
+
+    private fun mockSync(syncId: Long): MegaSync = mock {
+        on { backupId } doReturn syncId
+        on { megaHandle } doReturn syncId
+        on { type } doReturn MegaSync.SyncType.TYPE_TWOWAY.swigValue()
+        on { name } doReturn "Sync $syncId"
+        on { localFolder } doReturn "/sync/$syncId"
+        on { runState } doReturn MegaSync.SyncRunningState.RUNSTATE_RUNNING.swigValue()
+        on { error } doReturn MegaSync.Error.NO_SYNC_ERROR.swigValue()
+    }
+
+    private fun createRepositoryWithMappers() = SyncRepositoryImpl(
+        syncGateway = syncGateway,
+        syncStatsCacheGateway = syncStatsCacheGateway,
+        megaApiGateway = megaApiGateway,
+        folderPairMapper = FolderPairMapper(SyncStatusMapper(), SyncErrorMapper(), SyncTypeMapper()),
+        stalledIssuesMapper = stalledIssuesMapper,
+        ioDispatcher = unconfinedTestDispatcher,
+        syncErrorMapper = syncErrorMapper,
+        syncTypeMapper = syncTypeMapper,
+        syncWorkManagerGateway = syncWorkManagerGateway,
+        syncByWifiToNetworkTypeMapper = syncByWifiToNetworkTypeMapper,
+        accountRepository = accountRepository,
+        appScope = testScope,
+    )
+
     private fun provideSyncTypeMapperParametersDirect(): Stream<Arguments> = Stream.of(
         Arguments.of(SyncType.TYPE_TWOWAY, MegaSync.SyncType.TYPE_TWOWAY),
         Arguments.of(SyncType.TYPE_BACKUP, MegaSync.SyncType.TYPE_BACKUP),